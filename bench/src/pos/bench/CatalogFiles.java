@@ -0,0 +1,65 @@
+package pos.bench;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes synthetic catalog CSVs for benchmarks that need more tools than the store's own files.
+ */
+final class CatalogFiles {
+
+    private CatalogFiles() {
+    }
+
+    /**
+     * This function writes a tool info CSV with one row per tool type.
+     *
+     * @param types Number of tool types
+     * @return Path to the written file
+     * @throws IOException If the file can't be written
+     */
+    static Path writeToolInfo(int types) throws IOException {
+        Path path = Files.createTempFile("ToolInfo", ".csv");
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(path))) {
+            for (int type = 0; type < types; type++) {
+                out.println("Type" + type + ",$" + (1 + type % 9) + "." + (10 + type % 90) + ","
+                        + yesNo(type % 5 != 4) + "," + yesNo(type % 2 == 0) + "," + yesNo(type % 3 == 0));
+            }
+        }
+        return path;
+    }
+
+    /**
+     * This function writes a tools available CSV with one row per tool.
+     *
+     * @param tools Number of tools
+     * @param types Number of tool types the tools are spread over
+     * @return Path to the written file
+     * @throws IOException If the file can't be written
+     */
+    static Path writeToolsAvailable(int tools, int types) throws IOException {
+        Path path = Files.createTempFile("ToolsAvailable", ".csv");
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(path))) {
+            for (int tool = 0; tool < tools; tool++) {
+                out.println("Type" + (tool % types) + ",Brand" + (tool % 97) + "," + toolCode(tool));
+            }
+        }
+        return path;
+    }
+
+    /**
+     * This function gives the code written for the nth tool.
+     *
+     * @param tool Index of the tool
+     * @return Tool code
+     */
+    static String toolCode(int tool) {
+        return "T" + Integer.toString(tool, 36).toUpperCase();
+    }
+
+    private static String yesNo(boolean value) {
+        return value ? "Yes" : "No";
+    }
+}
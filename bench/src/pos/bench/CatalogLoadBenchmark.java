@@ -0,0 +1,57 @@
+package pos.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import pos.ToolsDB;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks building a ToolsDB from catalog CSVs of increasing size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class CatalogLoadBenchmark {
+
+    @Param({"10", "1000", "100000", "1000000"})
+    public int rows;
+
+    private Path toolInfoPath; // Generated tool info CSV
+    private Path toolsAvailablePath; // Generated tools available CSV
+
+    @Setup(Level.Trial)
+    public void writeCatalog() throws IOException {
+        int types = Math.max(3, rows / 100);
+        toolInfoPath = CatalogFiles.writeToolInfo(types);
+        toolsAvailablePath = CatalogFiles.writeToolsAvailable(rows, types);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteCatalog() throws IOException {
+        Files.deleteIfExists(toolInfoPath);
+        Files.deleteIfExists(toolsAvailablePath);
+    }
+
+    @Benchmark
+    public ToolsDB load() {
+        return new ToolsDB(toolInfoPath.toString(), toolsAvailablePath.toString());
+    }
+}
@@ -0,0 +1,92 @@
+package pos.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import pos.Tool;
+import pos.ToolSearchIndex;
+import pos.ToolsDB;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks looking tools up by code, listing the available tools and searching for a page of tools, for the
+ * store catalog and a large one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CatalogLookupBenchmark {
+
+    // Power of two so the next code can be picked with a mask
+    private static final int LOOKUP_CODES = 1 << 12;
+
+    @Param({"4", "10000", "1000000"})
+    public int rows;
+
+    private ToolsDB toolDirectory; // Catalog being queried
+    private String[] codes; // Codes to look up, in random order
+    private String[] prefixes; // Starts of codes to search for, in random order
+    private int next; // Index of the next code to look up
+
+    @Setup(Level.Trial)
+    public void loadCatalog() throws IOException {
+        Path toolInfoPath = CatalogFiles.writeToolInfo(Math.max(3, rows / 100));
+        Path toolsAvailablePath = CatalogFiles.writeToolsAvailable(rows, Math.max(3, rows / 100));
+        toolDirectory = new ToolsDB(toolInfoPath.toString(), toolsAvailablePath.toString());
+        Files.delete(toolInfoPath);
+        Files.delete(toolsAvailablePath);
+
+        Random random = new Random(42);
+        codes = new String[LOOKUP_CODES];
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = CatalogFiles.toolCode(random.nextInt(rows));
+        }
+        prefixes = new String[LOOKUP_CODES];
+        for (int i = 0; i < prefixes.length; i++) {
+            prefixes[i] = codes[i].substring(0, Math.min(codes[i].length(), 3));
+        }
+
+        // Build the index up front so the benchmark measures searches only
+        toolDirectory.getSearchIndex();
+    }
+
+    @TearDown(Level.Trial)
+    public void releaseCatalog() {
+        toolDirectory = null;
+    }
+
+    @Benchmark
+    public Tool getToolFromCode() {
+        return toolDirectory.getToolFromCode(codes[next++ & (LOOKUP_CODES - 1)]);
+    }
+
+    @Benchmark
+    public List<String> searchFirstPage() {
+        return toolDirectory.getSearchIndex().search(ToolSearchIndex.Field.CODE, prefixes[next++ & (LOOKUP_CODES - 1)])
+                .getPage(0, 10);
+    }
+
+    @Benchmark
+    public String[] getToolsAvailable() {
+        return toolDirectory.getToolsAvailable();
+    }
+}
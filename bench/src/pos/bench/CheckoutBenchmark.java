@@ -0,0 +1,53 @@
+package pos.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pos.CheckoutFunctions;
+import pos.RentalAgreement;
+import pos.Tool;
+import pos.ToolsDB;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks pricing a single checkout for each tool type and rental length.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CheckoutBenchmark {
+
+    @Param({"LADW", "CHNS", "JAKR", "JAKD"})
+    public String toolCode;
+
+    @Param({"1", "3", "7", "14", "28", "90", "365"})
+    public int rentalDays;
+
+    private Tool tool; // Tool being checked out
+    private LocalDate checkoutDate; // Week of Independence Day, so holidays are in play
+
+    @Setup
+    public void setUp() {
+        tool = new ToolsDB("src/ToolInfo.csv", "src/ToolsAvailable.csv").getToolFromCode(toolCode);
+        checkoutDate = LocalDate.of(2020, Month.JULY, 2);
+    }
+
+    @Benchmark
+    public RentalAgreement checkout() {
+        return CheckoutFunctions.checkout(tool, checkoutDate, rentalDays, 10);
+    }
+}
@@ -0,0 +1,61 @@
+package pos.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import pos.CheckoutFunctions;
+import pos.CheckoutMetrics;
+import pos.RentalAgreement;
+import pos.Tool;
+import pos.ToolsDB;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks what checkout timing costs, with timing off and on, from several threads at once so contention
+ * on the histograms would show up.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class CheckoutMetricsBenchmark {
+
+    @Param({"false", "true"})
+    public boolean metrics;
+
+    private Tool tool; // Tool being checked out
+    private LocalDate checkoutDate; // Week of Independence Day, so holidays are in play
+
+    @Setup
+    public void setUp() {
+        tool = new ToolsDB("src/ToolInfo.csv", "src/ToolsAvailable.csv").getToolFromCode("LADW");
+        checkoutDate = LocalDate.of(2020, Month.JULY, 2);
+        CheckoutMetrics.setEnabled(metrics);
+    }
+
+    @TearDown
+    public void tearDown() {
+        CheckoutMetrics.setEnabled(false);
+    }
+
+    @Benchmark
+    public RentalAgreement checkout() {
+        return CheckoutFunctions.checkout(tool, checkoutDate, 7, 10);
+    }
+}
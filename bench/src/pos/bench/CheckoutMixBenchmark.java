@@ -0,0 +1,49 @@
+package pos.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pos.CheckoutFunctions;
+import pos.CheckoutRequest;
+import pos.RentalAgreement;
+import pos.ToolsDB;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks pricing checkouts drawn from the production mix of tools, rental lengths, discounts and dates.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CheckoutMixBenchmark {
+
+    // Power of two so the next request can be picked with a mask
+    private static final int MIX_SIZE = 1 << 14;
+
+    private CheckoutRequest[] requests; // Requests in production proportions
+    private int next; // Index of the next request to price
+
+    @Setup
+    public void setUp() {
+        ToolsDB toolDirectory = new ToolsDB("src/ToolInfo.csv", "src/ToolsAvailable.csv");
+        requests = ProductionMix.requests(toolDirectory, MIX_SIZE, 42);
+    }
+
+    @Benchmark
+    public RentalAgreement checkout() {
+        CheckoutRequest request = requests[next++ & (MIX_SIZE - 1)];
+        return CheckoutFunctions.checkout(request.getTool(), request.getCheckoutDate(),
+                request.getRentalDays(), request.getDiscountPercentage());
+    }
+}
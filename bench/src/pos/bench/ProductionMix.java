@@ -0,0 +1,67 @@
+package pos.bench;
+
+import pos.CheckoutRequest;
+import pos.ToolsDB;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.Random;
+
+/**
+ * Builds checkout requests in the proportions seen at the counter.
+ *
+ * Most rentals are ladders and jackhammers for one, three or seven days with no discount,
+ * with a tail of longer rentals and promotional discounts. Checkout dates cover a full year
+ * so holiday weeks are included.
+ */
+final class ProductionMix {
+
+    // Tool codes and how often each is rented, out of 100
+    private static final String[] TOOL_CODES = {"LADW", "JAKR", "JAKD", "CHNS"};
+    private static final int[] TOOL_WEIGHTS = {35, 30, 20, 15};
+
+    // Rental lengths and how often each is chosen, out of 100
+    private static final int[] RENTAL_DAYS = {1, 3, 7, 14, 28};
+    private static final int[] RENTAL_DAY_WEIGHTS = {40, 25, 20, 10, 5};
+
+    // Discounts and how often each is applied, out of 100
+    private static final int[] DISCOUNTS = {0, 10, 25, 50};
+    private static final int[] DISCOUNT_WEIGHTS = {70, 20, 8, 2};
+
+    private ProductionMix() {
+    }
+
+    /**
+     * This function creates a repeatable list of checkout requests.
+     *
+     * @param toolDirectory Tools to rent
+     * @param count Number of requests to create
+     * @param seed Seed for the random choices
+     * @return Checkout requests in production proportions
+     */
+    static CheckoutRequest[] requests(ToolsDB toolDirectory, int count, long seed) {
+        Random random = new Random(seed);
+        LocalDate firstCheckout = LocalDate.of(2020, Month.JANUARY, 1);
+        CheckoutRequest[] requests = new CheckoutRequest[count];
+
+        for (int i = 0; i < count; i++) {
+            requests[i] = new CheckoutRequest(
+                    toolDirectory.getToolFromCode(TOOL_CODES[pick(random, TOOL_WEIGHTS)]),
+                    firstCheckout.plusDays(random.nextInt(366)),
+                    RENTAL_DAYS[pick(random, RENTAL_DAY_WEIGHTS)],
+                    DISCOUNTS[pick(random, DISCOUNT_WEIGHTS)]);
+        }
+        return requests;
+    }
+
+    private static int pick(Random random, int[] weights) {
+        int roll = random.nextInt(100);
+        for (int i = 0; i < weights.length; i++) {
+            roll -= weights[i];
+            if (roll < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+}
@@ -0,0 +1,64 @@
+package pos.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pos.CheckoutFunctions;
+import pos.ReceiptRenderer;
+import pos.RentalAgreement;
+import pos.ToolsDB;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks rendering rental agreement receipts from the production mix.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReceiptBenchmark {
+
+    // Power of two so the next agreement can be picked with a mask
+    private static final int AGREEMENTS = 1 << 10;
+
+    private RentalAgreement[] agreements; // Agreements to render
+    private int next; // Index of the next agreement to render
+    private final StringBuilder builder = new StringBuilder(512); // Reused between renders
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(1024); // Reused between renders
+
+    @Setup
+    public void setUp() {
+        ToolsDB toolDirectory = new ToolsDB("src/ToolInfo.csv", "src/ToolsAvailable.csv");
+        agreements = CheckoutFunctions.checkoutAll(ProductionMix.requests(toolDirectory, AGREEMENTS, 42));
+    }
+
+    @Benchmark
+    public String printRentalAgreement() {
+        return agreements[next++ & (AGREEMENTS - 1)].printRentalAgreement();
+    }
+
+    @Benchmark
+    public StringBuilder renderIntoBuilder() {
+        builder.setLength(0);
+        ReceiptRenderer.render(agreements[next++ & (AGREEMENTS - 1)], builder);
+        return builder;
+    }
+
+    @Benchmark
+    public ByteBuffer renderIntoByteBuffer() {
+        buffer.clear();
+        ReceiptRenderer.render(agreements[next++ & (AGREEMENTS - 1)], buffer);
+        return buffer;
+    }
+}
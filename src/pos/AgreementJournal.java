@@ -0,0 +1,471 @@
+package pos;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+import java.util.function.ObjLongConsumer;
+import java.util.zip.CRC32;
+
+/**
+ * Class Definition for a write ahead journal of rental agreements, so a crashed terminal loses no rentals.
+ *
+ * Agreements, and the returns made against them, are appended to a file as compact binary records. Appends
+ * from any number of threads are queued for a single writer thread, which takes everything waiting, writes it
+ * in one go and calls force() once for the whole batch before telling any of the callers their agreements are
+ * durable. While one batch is being forced the next one gathers, so under load each append waits for at most
+ * about two disk flushes.
+ *
+ * File layout, all numbers big endian: an 8 byte header (magic, version), then records of
+ * (int payload length, int CRC32 of the payload, payload). A payload starts with a record type byte. A return
+ * record names its agreement by position, the first agreement record in the file being 0. When the journal is
+ * opened every record is replayed in order, and a torn or corrupt record at the end, left by a crash
+ * part way through a write, is cut off. A damaged record is only taken to be torn if it runs to the end of the
+ * file or nothing but zeros follows it; one with data after it fails the open rather than losing every durable
+ * record behind it.
+ */
+public class AgreementJournal implements AutoCloseable {
+
+    private static final int MAGIC = 0x524A524E; // "RJRN"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final int MAX_PAYLOAD_SIZE = 1 << 16;
+    private static final int MAX_BATCH = 1024; // Most appends written and forced together
+    private static final int MAX_TEXT_CHARS = 8192; // Most characters of tool code, type and brand in one record
+
+    private static final byte AGREEMENT_RECORD = 1;
+    private static final byte RETURN_RECORD = 2;
+
+    private final FileChannel channel; // Journal file, positioned at its end
+    private final BlockingQueue<PendingAppend> queue = new LinkedBlockingQueue<>(); // Appends waiting for the writer
+    private final Thread writer; // Single thread writing and forcing batches
+    private volatile IOException failure; // First write failure, after which every append fails
+    private final Object appendLock = new Object(); // Held while queueing, so no append can land behind the close
+    private boolean closed; // If close has queued its marker, guarded by appendLock
+
+    private volatile long batches; // Batches forced, only changed by the writer thread
+    private volatile long records; // Records written, only changed by the writer thread
+
+    private AgreementJournal(FileChannel channel) {
+        this.channel = channel;
+        this.writer = new Thread(this::writeBatches, "agreement-journal-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * This function opens a journal, creating it if needed, and replays the agreements already in it.
+     *
+     * @param file Path to the journal file
+     * @param replay Called with each journaled agreement, oldest first, before this function returns
+     * @return The journal, ready for appends
+     * @throws IOException If the file can't be read or written, isn't a journal, or has a damaged record that
+     *                     isn't at the end
+     */
+    public static AgreementJournal open(Path file, Consumer<RentalAgreement> replay) throws IOException {
+        return open(file, replay, (returnDate, agreementNumber) -> { });
+    }
+
+    /**
+     * This function opens a journal, creating it if needed, and replays the agreements and returns already in it.
+     *
+     * @param file Path to the journal file
+     * @param replay Called with each journaled agreement, oldest first, before this function returns
+     * @param replayReturn Called with the return date and agreement number of each journaled return, in the
+     *                     order they were journaled among the agreements
+     * @return The journal, ready for appends
+     * @throws IOException If the file can't be read or written, isn't a journal, or has a damaged record that
+     *                     isn't at the end
+     */
+    public static AgreementJournal open(Path file, Consumer<RentalAgreement> replay,
+                                        ObjLongConsumer<LocalDate> replayReturn) throws IOException {
+        FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long validEnd = replay(channel, replay, replayReturn);
+            if (validEnd < channel.size()) {
+                channel.truncate(validEnd);
+                channel.force(true);
+            }
+            channel.position(validEnd);
+            return new AgreementJournal(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * This function queues an agreement to be journaled.
+     *
+     * @param agreement Agreement to journal
+     * @return Completes once the agreement is on disk, or exceptionally with an UncheckedIOException
+     */
+    public CompletableFuture<Void> appendAsync(RentalAgreement agreement) {
+        PendingAppend pending = new PendingAppend(agreement);
+        int textChars = agreement.getToolCode().length() + agreement.getToolType().length()
+                + agreement.getToolBrand().length();
+        if (textChars > MAX_TEXT_CHARS) {
+            pending.done.completeExceptionally(new IllegalArgumentException("Agreement text is too long to journal"));
+            return pending.done;
+        }
+        return enqueue(pending);
+    }
+
+    /**
+     * This function queues a return to be journaled.
+     *
+     * @param agreementNumber Position of the returned agreement among the journaled agreements, from 0
+     * @param returnDate Date the tool came back
+     * @return Completes once the return is on disk, or exceptionally with an UncheckedIOException
+     */
+    public CompletableFuture<Void> appendReturnAsync(long agreementNumber, LocalDate returnDate) {
+        return enqueue(new PendingAppend(agreementNumber, returnDate));
+    }
+
+    /**
+     * Hands an append to the writer, or fails it if the journal has failed or is closed.
+     * Closed is checked and the append queued under the same lock close takes, so every append is either ahead
+     * of the close marker and written, or failed here; none can be left in the queue after the writer stops.
+     *
+     * @return The append's future
+     */
+    private CompletableFuture<Void> enqueue(PendingAppend pending) {
+        IOException failed = failure;
+        if (failed != null) {
+            pending.done.completeExceptionally(new UncheckedIOException(failed));
+            return pending.done;
+        }
+        synchronized (appendLock) {
+            if (closed) {
+                pending.done.completeExceptionally(new IllegalStateException("Journal is closed"));
+            } else {
+                queue.add(pending);
+            }
+        }
+        return pending.done;
+    }
+
+    /**
+     * This function journals a return and waits until it is on disk.
+     *
+     * @param agreementNumber Position of the returned agreement among the journaled agreements, from 0
+     * @param returnDate Date the tool came back
+     * @throws IOException If the journal can't be written
+     */
+    public void appendReturn(long agreementNumber, LocalDate returnDate) throws IOException {
+        join(appendReturnAsync(agreementNumber, returnDate));
+    }
+
+    /**
+     * This function journals an agreement and waits until it is on disk.
+     *
+     * @param agreement Agreement to journal
+     * @throws IOException If the journal can't be written
+     */
+    public void append(RentalAgreement agreement) throws IOException {
+        join(appendAsync(agreement));
+    }
+
+    private static void join(CompletableFuture<Void> done) throws IOException {
+        try {
+            done.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Getter function for the number of batches forced to disk, each covering one or more appends.
+     *
+     * @return Batches forced since the journal was opened
+     */
+    public long getBatchCount() {
+        return batches;
+    }
+
+    /**
+     * Getter function for the number of records written.
+     *
+     * @return Agreements and returns journaled since the journal was opened
+     */
+    public long getRecordCount() {
+        return records;
+    }
+
+    /**
+     * Writes everything already queued, then stops the writer and closes the file. Appends made from here on fail.
+     *
+     * @throws IOException If the file can't be closed
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (appendLock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            queue.add(PendingAppend.CLOSE);
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+    }
+
+    /**
+     * Writer loop: takes every append waiting, writes them as one batch and forces them to disk together.
+     */
+    private void writeBatches() {
+        List<PendingAppend> batch = new ArrayList<>(MAX_BATCH);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+        CRC32 crc = new CRC32();
+        boolean closing = false;
+
+        while (!closing) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(batch, MAX_BATCH - 1);
+            // Nothing is queued after the close marker, so it can only be last, and the appends ahead of it are written
+            if (batch.get(batch.size() - 1) == PendingAppend.CLOSE) {
+                batch.remove(batch.size() - 1);
+                closing = true;
+            }
+
+            try {
+                if (failure != null) {
+                    throw failure;
+                }
+                buffer.clear();
+                for (PendingAppend pending : batch) {
+                    buffer = encode(buffer, pending, crc);
+                }
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+                batches++;
+                records += batch.size();
+                for (PendingAppend pending : batch) {
+                    pending.done.complete(null);
+                }
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                }
+                for (PendingAppend pending : batch) {
+                    pending.done.completeExceptionally(new UncheckedIOException(e));
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Appends one agreement or return record to the buffer, growing it if needed.
+     *
+     * @return The buffer written to, which is a new one if it had to grow
+     */
+    private static ByteBuffer encode(ByteBuffer buffer, PendingAppend pending, CRC32 crc) {
+        if (buffer.remaining() < RECORD_HEADER_SIZE + MAX_PAYLOAD_SIZE) {
+            ByteBuffer bigger = ByteBuffer.allocateDirect(
+                    buffer.capacity() * 2 + RECORD_HEADER_SIZE + MAX_PAYLOAD_SIZE);
+            buffer.flip();
+            bigger.put(buffer);
+            buffer = bigger;
+        }
+
+        int recordStart = buffer.position();
+        buffer.position(recordStart + RECORD_HEADER_SIZE);
+        RentalAgreement agreement = pending.agreement;
+        if (agreement == null) {
+            buffer.put(RETURN_RECORD);
+            buffer.putLong(pending.agreementNumber);
+            buffer.putLong(pending.returnDate.toEpochDay());
+        } else {
+            buffer.put(AGREEMENT_RECORD);
+            putAgreement(buffer, agreement);
+        }
+        int payloadLength = buffer.position() - recordStart - RECORD_HEADER_SIZE;
+
+        ByteBuffer payload = buffer.duplicate();
+        payload.limit(buffer.position()).position(recordStart + RECORD_HEADER_SIZE);
+        crc.reset();
+        crc.update(payload);
+        buffer.putInt(recordStart, payloadLength);
+        buffer.putInt(recordStart + 4, (int) crc.getValue());
+        return buffer;
+    }
+
+    private static void putAgreement(ByteBuffer buffer, RentalAgreement agreement) {
+        putString(buffer, agreement.getToolCode());
+        putString(buffer, agreement.getToolType());
+        putString(buffer, agreement.getToolBrand());
+        buffer.putInt(agreement.getRentalDays());
+        buffer.putLong(agreement.getCheckoutDate().toEpochDay());
+        buffer.putLong(agreement.getDueDate().toEpochDay());
+        buffer.putLong(agreement.getDailyRentalCharge().getCents());
+        buffer.putInt(agreement.getChargeDays());
+        buffer.putLong(agreement.getPreDiscountCharge().getCents());
+        buffer.putInt(agreement.getDiscountPercent());
+        buffer.putLong(agreement.getDiscountAmount().getCents());
+        buffer.putLong(agreement.getFinalCharge().getCents());
+    }
+
+    /**
+     * Replays every intact record in the file, writing the header first if the file is new.
+     *
+     * @return Byte offset just past the last intact record
+     * @throws IOException If a damaged record is followed by anything but zeros, so it can't be a torn tail
+     */
+    private static long replay(FileChannel channel, Consumer<RentalAgreement> replay,
+                               ObjLongConsumer<LocalDate> replayReturn) throws IOException {
+        long size = channel.size();
+        if (size < HEADER_SIZE) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION).flip();
+            channel.truncate(0);
+            channel.write(header, 0);
+            channel.force(true);
+            return HEADER_SIZE;
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Journal is too large to replay: " + size + " bytes");
+        }
+
+        MappedByteBuffer file = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        if (file.getInt(0) != MAGIC || file.getInt(4) != VERSION) {
+            throw new IOException("Not a rental agreement journal");
+        }
+
+        CRC32 crc = new CRC32();
+        int position = HEADER_SIZE;
+        while (position + RECORD_HEADER_SIZE <= size) {
+            int payloadLength = file.getInt(position);
+            if (payloadLength <= 0 || payloadLength > MAX_PAYLOAD_SIZE) {
+                // The length itself is damaged, so the record's end is unknown
+                checkTornTail(file, position, position + RECORD_HEADER_SIZE);
+                break;
+            }
+            if (position + RECORD_HEADER_SIZE + (long) payloadLength > size) {
+                break;
+            }
+            ByteBuffer payload = file.duplicate();
+            payload.limit(position + RECORD_HEADER_SIZE + payloadLength).position(position + RECORD_HEADER_SIZE);
+            crc.reset();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != file.getInt(position + 4)) {
+                checkTornTail(file, position, position + RECORD_HEADER_SIZE + payloadLength);
+                break;
+            }
+
+            try {
+                byte type = payload.get();
+                if (type == AGREEMENT_RECORD) {
+                    replay.accept(decodeAgreement(payload));
+                } else if (type == RETURN_RECORD) {
+                    long agreementNumber = payload.getLong();
+                    replayReturn.accept(LocalDate.ofEpochDay(payload.getLong()), agreementNumber);
+                }
+            } catch (BufferUnderflowException e) {
+                checkTornTail(file, position, position + RECORD_HEADER_SIZE + payloadLength);
+                break;
+            }
+            position += RECORD_HEADER_SIZE + payloadLength;
+        }
+        return position;
+    }
+
+    /**
+     * Checks that a damaged record can only be the last write, torn by a crash: nothing after it but zeros, which
+     * is what a file extended by a write that never landed reads back as.
+     *
+     * @param recordStart Byte offset of the damaged record
+     * @param recordEnd Byte offset just past the damaged record, as far as can be told
+     * @throws IOException If anything else follows, naming the damaged record's offset
+     */
+    private static void checkTornTail(MappedByteBuffer file, int recordStart, int recordEnd) throws IOException {
+        for (int i = recordEnd; i < file.capacity(); i++) {
+            if (file.get(i) != 0) {
+                throw new IOException("Journal record at offset " + recordStart
+                        + " is damaged and more records follow it, refusing to cut them off");
+            }
+        }
+    }
+
+    private static RentalAgreement decodeAgreement(ByteBuffer payload) {
+        String toolCode = getString(payload);
+        String toolType = getString(payload);
+        String toolBrand = getString(payload);
+        int rentalDays = payload.getInt();
+        LocalDate checkoutDate = LocalDate.ofEpochDay(payload.getLong());
+        LocalDate dueDate = LocalDate.ofEpochDay(payload.getLong());
+        Money dailyRentalCharge = Money.ofCents(payload.getLong());
+        int chargeDays = payload.getInt();
+        Money preDiscountCharge = Money.ofCents(payload.getLong());
+        int discountPercent = payload.getInt();
+        Money discountAmount = Money.ofCents(payload.getLong());
+        Money finalCharge = Money.ofCents(payload.getLong());
+        return new RentalAgreement(toolCode, toolType, toolBrand, rentalDays, checkoutDate, dueDate,
+                dailyRentalCharge, chargeDays, preDiscountCharge, discountPercent, discountAmount, finalCharge);
+    }
+
+    private static void putString(ByteBuffer buffer, String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        buffer.putShort((short) bytes.length).put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * An agreement or return waiting for the writer, and the future its caller waits on.
+     */
+    private static final class PendingAppend {
+
+        // Marker telling the writer to finish up
+        static final PendingAppend CLOSE = new PendingAppend(null);
+
+        final RentalAgreement agreement; // Agreement to write, null for a return
+        final long agreementNumber; // Agreement a return is for
+        final LocalDate returnDate; // Date of a return
+        final CompletableFuture<Void> done = new CompletableFuture<>(); // Completed once the batch is forced
+
+        PendingAppend(RentalAgreement agreement) {
+            this.agreement = agreement;
+            this.agreementNumber = -1;
+            this.returnDate = null;
+        }
+
+        PendingAppend(long agreementNumber, LocalDate returnDate) {
+            this.agreement = null;
+            this.agreementNumber = agreementNumber;
+            this.returnDate = returnDate;
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package pos;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for verifying the functionality of the AgreementJournal class
+ */
+class AgreementJournalTest {
+
+    private static final Tool ladder = new Tool("Ladder", "Werner", "LADW", 1.99, true, true, false);
+    private static final Tool jackhammer = new Tool("Jackhammer", "Ridgid", "JAKR", 2.99, true, false, false);
+
+    private static Path newJournalPath() throws IOException {
+        Path file = Files.createTempFile("agreements", ".journal");
+        Files.delete(file);
+        return file;
+    }
+
+    private static void assertSameAgreement(RentalAgreement expected, RentalAgreement actual) {
+        assertEquals(expected.printRentalAgreement(), actual.printRentalAgreement());
+    }
+
+    @Test
+    void appendAndReplay() throws IOException {
+        Path file = newJournalPath();
+        RentalAgreement first = CheckoutFunctions.checkout(ladder, LocalDate.of(2020, 7, 2), 3, 10);
+        RentalAgreement second = CheckoutFunctions.checkout(jackhammer, LocalDate.of(2015, 7, 2), 9, 0);
+
+        try (AgreementJournal journal = AgreementJournal.open(file, agreement -> fail("New journal isn't empty"))) {
+            journal.append(first);
+            journal.append(second);
+            assertEquals(2, journal.getRecordCount());
+        }
+
+        List<RentalAgreement> replayed = new ArrayList<>();
+        try (AgreementJournal journal = AgreementJournal.open(file, replayed::add)) {
+            assertEquals(2, replayed.size());
+            assertSameAgreement(first, replayed.get(0));
+            assertSameAgreement(second, replayed.get(1));
+
+            // Appends after a replay go after the replayed records
+            journal.append(first);
+        }
+
+        replayed.clear();
+        AgreementJournal.open(file, replayed::add).close();
+        assertEquals(3, replayed.size());
+        Files.delete(file);
+    }
+
+    @Test
+    void returnsReplayInOrder() throws IOException {
+        Path file = newJournalPath();
+        try (AgreementJournal journal = AgreementJournal.open(file, agreement -> { })) {
+            journal.append(CheckoutFunctions.checkout(ladder, LocalDate.of(2020, 7, 2), 3, 10));
+            journal.appendReturn(0, LocalDate.of(2020, 7, 6));
+            journal.append(CheckoutFunctions.checkout(jackhammer, LocalDate.of(2020, 7, 3), 2, 0));
+            assertEquals(3, journal.getRecordCount());
+        }
+
+        List<String> replayed = new ArrayList<>();
+        AgreementJournal.open(file, agreement -> replayed.add(agreement.getToolCode()),
+                (returnDate, agreementNumber) -> replayed.add(agreementNumber + " back " + returnDate)).close();
+        assertEquals(List.of("LADW", "0 back 2020-07-06", "JAKR"), replayed);
+
+        // Readers that only want agreements skip the returns
+        replayed.clear();
+        AgreementJournal.open(file, agreement -> replayed.add(agreement.getToolCode())).close();
+        assertEquals(List.of("LADW", "JAKR"), replayed);
+        Files.delete(file);
+    }
+
+    @Test
+    void concurrentAppendsShareForces() throws Exception {
+        Path file = newJournalPath();
+        int appends = 2000;
+
+        try (AgreementJournal journal = AgreementJournal.open(file, agreement -> { })) {
+            List<CompletableFuture<Void>> pending = new ArrayList<>();
+            for (int i = 0; i < appends; i++) {
+                RentalAgreement agreement = CheckoutFunctions.checkout(
+                        ladder, LocalDate.of(2020, 1, 1).plusDays(i % 365), 1 + i % 28, i % 101);
+                pending.add(journal.appendAsync(agreement));
+            }
+            CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0])).join();
+
+            assertEquals(appends, journal.getRecordCount());
+            assertTrue(journal.getBatchCount() < appends, "Each batch should cover several appends");
+        }
+
+        int[] replayed = new int[1];
+        AgreementJournal.open(file, agreement -> replayed[0]++).close();
+        assertEquals(appends, replayed[0]);
+        Files.delete(file);
+    }
+
+    @Test
+    void tornTailIsCutOff() throws IOException {
+        Path file = newJournalPath();
+        RentalAgreement agreement = CheckoutFunctions.checkout(ladder, LocalDate.of(2020, 7, 2), 3, 10);
+        try (AgreementJournal journal = AgreementJournal.open(file, replayed -> { })) {
+            journal.append(agreement);
+            journal.append(agreement);
+        }
+        long intactSize = Files.size(file);
+
+        // A crash half way through writing a third record
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.allocate(20).putInt(0, 90).putInt(4, 12345));
+        }
+
+        int[] replayed = new int[1];
+        try (AgreementJournal journal = AgreementJournal.open(file, recovered -> replayed[0]++)) {
+            assertEquals(2, replayed[0]);
+            assertEquals(intactSize, Files.size(file));
+            journal.append(agreement);
+        }
+
+        replayed[0] = 0;
+        AgreementJournal.open(file, recovered -> replayed[0]++).close();
+        assertEquals(3, replayed[0]);
+        Files.delete(file);
+    }
+
+    @Test
+    void corruptRecordEndsReplay() throws IOException {
+        Path file = newJournalPath();
+        RentalAgreement agreement = CheckoutFunctions.checkout(ladder, LocalDate.of(2020, 7, 2), 3, 10);
+        try (AgreementJournal journal = AgreementJournal.open(file, replayed -> { })) {
+            journal.append(agreement);
+            journal.append(agreement);
+        }
+
+        // Flip a byte in the last record's payload
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer last = ByteBuffer.allocate(1);
+            channel.read(last, channel.size() - 1);
+            last.put(0, (byte) (last.get(0) ^ 1)).rewind();
+            channel.write(last, channel.size() - 1);
+        }
+
+        int[] replayed = new int[1];
+        AgreementJournal.open(file, recovered -> replayed[0]++).close();
+        assertEquals(1, replayed[0]);
+        Files.delete(file);
+    }
+
+    @Test
+    void damagedRecordWithRecordsAfterItFailsOpen() throws IOException {
+        Path file = newJournalPath();
+        RentalAgreement agreement = CheckoutFunctions.checkout(ladder, LocalDate.of(2020, 7, 2), 3, 10);
+        try (AgreementJournal journal = AgreementJournal.open(file, replayed -> { })) {
+            for (int i = 0; i < 5; i++) {
+                journal.append(agreement);
+            }
+        }
+        long size = Files.size(file);
+
+        // Flip a byte in the first record's payload, just past the journal and record headers
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer one = ByteBuffer.allocate(1);
+            channel.read(one, 20);
+            one.put(0, (byte) (one.get(0) ^ 1)).rewind();
+            channel.write(one, 20);
+        }
+
+        IOException e = assertThrows(IOException.class, () -> AgreementJournal.open(file, recovered -> { }));
+        assertTrue(e.getMessage().contains("offset 8"), e.getMessage());
+        assertEquals(size, Files.size(file));
+
+        // Zeros after a damaged last record are what a torn write leaves, so that is still cut off
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer one = ByteBuffer.allocate(1);
+            channel.read(one, 20);
+            one.put(0, (byte) (one.get(0) ^ 1)).rewind();
+            channel.write(one, 20);
+            ByteBuffer last = ByteBuffer.allocate(1);
+            channel.read(last, size - 1);
+            last.put(0, (byte) (last.get(0) ^ 1)).rewind();
+            channel.write(last, size - 1);
+            channel.write(ByteBuffer.allocate(4096), size);
+        }
+        int[] replayed = new int[1];
+        AgreementJournal.open(file, recovered -> replayed[0]++).close();
+        assertEquals(4, replayed[0]);
+        assertTrue(Files.size(file) < size);
+        Files.delete(file);
+    }
+
+    @Test
+    void notAJournal() throws IOException {
+        Path file = Files.createTempFile("agreements", ".journal");
+        Files.writeString(file, "Ladder,Werner,LADW");
+
+        assertThrows(IOException.class, () -> AgreementJournal.open(file, agreement -> { }));
+        Files.delete(file);
+    }
+
+    @Test
+    void appendAfterClose() throws IOException {
+        Path file = newJournalPath();
+        AgreementJournal journal = AgreementJournal.open(file, agreement -> { });
+        journal.close();
+
+        RentalAgreement agreement = CheckoutFunctions.checkout(ladder, LocalDate.of(2020, 7, 2), 3, 10);
+        assertThrows(CompletionException.class, () -> journal.appendAsync(agreement).join());
+        Files.delete(file);
+    }
+
+    @Test
+    void appendsRacingCloseAllComplete() throws Exception {
+        Path file = newJournalPath();
+        AgreementJournal journal = AgreementJournal.open(file, agreement -> { });
+        RentalAgreement agreement = CheckoutFunctions.checkout(ladder, LocalDate.of(2020, 7, 2), 3, 10);
+
+        List<CompletableFuture<Void>> appended = new ArrayList<>();
+        Thread[] clerks = new Thread[4];
+        for (int i = 0; i < clerks.length; i++) {
+            clerks[i] = new Thread(() -> {
+                for (int n = 0; n < 500; n++) {
+                    CompletableFuture<Void> done = journal.appendAsync(agreement);
+                    synchronized (appended) {
+                        appended.add(done);
+                    }
+                }
+            });
+            clerks[i].start();
+        }
+        journal.close();
+        for (Thread clerk : clerks) {
+            clerk.join();
+        }
+
+        // Every append was either written before the close or failed, none is left waiting
+        int written = 0;
+        for (CompletableFuture<Void> done : appended) {
+            try {
+                done.get(10, TimeUnit.SECONDS);
+                written++;
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof IllegalStateException);
+            }
+        }
+        int[] replayed = new int[1];
+        AgreementJournal.open(file, recovered -> replayed[0]++).close();
+        assertEquals(written, replayed[0]);
+        journal.close();
+        Files.delete(file);
+    }
+}
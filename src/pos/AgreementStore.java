@@ -0,0 +1,347 @@
+package pos;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Class Definition for the history of rental agreements, indexed for the questions the counter asks.
+ *
+ * Every agreement gets an ID in the order it was added. The due date and checkout date indexes are sorted maps
+ * keyed on the date's epoch day in the high 32 bits and the ID in the low 32 bits, so all the agreements for a
+ * range of days are one contiguous sub map. Agreements for each tool code sit in their own map sorted the same
+ * way by checkout date. Queries return streams over live views of the indexes, so nothing is copied and results
+ * are produced as they are consumed.
+ *
+ * Returns are kept by agreement ID. An agreement with no return is open, and only open agreements are overdue.
+ *
+ * All the indexes are concurrent maps, so agreements can be added and returned while queries run. A query that
+ * runs while an agreement is being added or returned may or may not see the change.
+ *
+ * In a store backed by a journal, an agreement's ID is its position among the journal's agreement records, so
+ * IDs survive a restart and returns can be journaled by ID.
+ */
+public class AgreementStore implements AutoCloseable {
+
+    private static final long MAX_ID = 0xFFFFFFFFL; // IDs share a key with an epoch day, so they fit in 32 bits
+
+    private final AtomicLong nextId = new AtomicLong(); // ID for the next agreement added
+    private final Map<Long, RentalAgreement> byId = new ConcurrentHashMap<>(); // Every agreement, by ID
+    private final ConcurrentSkipListMap<Long, RentalAgreement> byDueDate = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<Long, RentalAgreement> byCheckoutDate = new ConcurrentSkipListMap<>();
+    // Each tool code's agreements, keyed the same way as byCheckoutDate
+    private final Map<String, ConcurrentSkipListMap<Long, RentalAgreement>> byToolCode = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, LocalDate> returnDates = new ConcurrentHashMap<>(); // Return dates, by ID
+
+    private final AgreementJournal journal; // Where recorded agreements are made durable, null if kept in memory
+
+    /**
+     * Constructor for a store kept only in memory.
+     */
+    public AgreementStore() {
+        this.journal = null;
+    }
+
+    private AgreementStore(Path journalFile) throws IOException {
+        // Replayed records are indexed while journal is still null
+        this.journal = AgreementJournal.open(journalFile, this::add, (returnDate, id) -> {
+            if (byId.containsKey(id)) {
+                returnDates.put(id, returnDate);
+            }
+        });
+    }
+
+    /**
+     * This function opens a store backed by a journal, loading every agreement and return already journaled.
+     *
+     * @param journalFile Path to the agreement journal, created if missing
+     * @return The store
+     * @throws IOException If the journal can't be opened
+     */
+    public static AgreementStore open(Path journalFile) throws IOException {
+        return new AgreementStore(journalFile);
+    }
+
+    /**
+     * This function makes an agreement durable in the journal, if the store has one, and adds it to the store.
+     *
+     * @param agreement Agreement to record
+     * @return The agreement's ID
+     * @throws IOException If the journal can't be written, in which case the agreement isn't added
+     */
+    public long record(RentalAgreement agreement) throws IOException {
+        if (journal == null) {
+            return add(agreement);
+        }
+
+        // IDs are handed out in the order records are queued, which is the order the journal writes them
+        long id;
+        CompletableFuture<Void> durable;
+        synchronized (nextId) {
+            id = nextId.get();
+            checkId(id);
+            durable = journal.appendAsync(agreement);
+            if (durable.isCompletedExceptionally()) {
+                // Refused without being queued, so the ID is still free
+                join(durable);
+            }
+            nextId.set(id + 1);
+        }
+        join(durable);
+        index(id, agreement);
+        return id;
+    }
+
+    /**
+     * This function adds an agreement to a store kept only in memory.
+     *
+     * @param agreement Agreement to add
+     * @return The agreement's ID
+     * @throws IllegalStateException If the store is backed by a journal, which needs record instead
+     */
+    public long add(RentalAgreement agreement) {
+        if (journal != null) {
+            throw new IllegalStateException("Agreements in a journaled store must be recorded");
+        }
+        long id = nextId.getAndIncrement();
+        checkId(id);
+        index(id, agreement);
+        return id;
+    }
+
+    /**
+     * This function records a tool coming back, journaling the return if the store has a journal.
+     *
+     * @param id ID of the agreement being returned
+     * @param returnDate Date the tool came back
+     * @throws IOException If the journal can't be written, in which case the agreement stays open
+     * @throws IllegalArgumentException If there is no agreement with the ID, or the date is before its checkout
+     * @throws IllegalStateException If the agreement was already returned
+     */
+    public void recordReturn(long id, LocalDate returnDate) throws IOException {
+        RentalAgreement agreement = byId.get(id);
+        if (agreement == null) {
+            throw new IllegalArgumentException("No rental agreement " + id);
+        }
+        if (returnDate.isBefore(agreement.getCheckoutDate())) {
+            throw new IllegalArgumentException("Agreement " + id + " can't be returned before it was checked out");
+        }
+        if (returnDates.putIfAbsent(id, returnDate) != null) {
+            throw new IllegalStateException("Agreement " + id + " was already returned");
+        }
+        if (journal != null) {
+            try {
+                journal.appendReturn(id, returnDate);
+            } catch (IOException | RuntimeException e) {
+                returnDates.remove(id);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * This function finds the date an agreement's tool came back.
+     *
+     * @param id ID of the agreement
+     * @return The return date, or null if the agreement is open or doesn't exist
+     */
+    public LocalDate getReturnDate(long id) {
+        return returnDates.get(id);
+    }
+
+    /**
+     * This function checks if an agreement's tool is still out.
+     *
+     * @param id ID of the agreement
+     * @return If the agreement exists and hasn't been returned
+     */
+    public boolean isOpen(long id) {
+        return byId.containsKey(id) && !returnDates.containsKey(id);
+    }
+
+    /**
+     * This function counts the agreements whose tools are still out.
+     *
+     * @return Number of open agreements
+     */
+    public int openCount() {
+        return byId.size() - returnDates.size();
+    }
+
+    /**
+     * This function finds every open agreement.
+     *
+     * @return Agreements not yet returned, in no particular order
+     */
+    public Stream<RentalAgreement> openAgreements() {
+        return byId.entrySet().stream()
+                .filter(entry -> !returnDates.containsKey(entry.getKey()))
+                .map(Map.Entry::getValue);
+    }
+
+    private void index(long id, RentalAgreement agreement) {
+        byId.put(id, agreement);
+        byDueDate.put(key(agreement.getDueDate().toEpochDay(), id), agreement);
+        long checkoutKey = key(agreement.getCheckoutDate().toEpochDay(), id);
+        byCheckoutDate.put(checkoutKey, agreement);
+        byToolCode.computeIfAbsent(agreement.getToolCode(), code -> new ConcurrentSkipListMap<>())
+                .put(checkoutKey, agreement);
+    }
+
+    /**
+     * This function retrieves an agreement by ID.
+     *
+     * @param id ID returned when the agreement was added
+     * @return The agreement, or null if there is none with that ID
+     */
+    public RentalAgreement get(long id) {
+        return byId.get(id);
+    }
+
+    /**
+     * This function counts the agreements in the store.
+     *
+     * @return Number of agreements
+     */
+    public int size() {
+        return byId.size();
+    }
+
+    /**
+     * This function finds the agreements due back on a day.
+     *
+     * @param day Due date
+     * @return Agreements due that day, in the order they were added
+     */
+    public Stream<RentalAgreement> dueOn(LocalDate day) {
+        return dueBetween(day, day);
+    }
+
+    /**
+     * This function finds the agreements due back within a range of days.
+     *
+     * @param first First due date, inclusive
+     * @param last Last due date, inclusive
+     * @return Agreements due in the range, by due date
+     */
+    public Stream<RentalAgreement> dueBetween(LocalDate first, LocalDate last) {
+        return range(byDueDate, first.toEpochDay(), last.toEpochDay());
+    }
+
+    /**
+     * This function finds the open agreements that were due back before a day.
+     *
+     * @param today Day to check against, agreements due on this day aren't overdue yet
+     * @return Open agreements due before the day, by due date
+     */
+    public Stream<RentalAgreement> overdueAsOf(LocalDate today) {
+        return byDueDate.headMap(key(today.toEpochDay(), 0)).entrySet().stream()
+                .filter(entry -> !returnDates.containsKey(entry.getKey() & MAX_ID))
+                .map(Map.Entry::getValue);
+    }
+
+    /**
+     * This function finds the IDs of the open agreements that were due back before a day.
+     *
+     * @param today Day to check against, agreements due on this day aren't overdue yet
+     * @return IDs of open agreements due before the day, by due date
+     */
+    public LongStream overdueIdsAsOf(LocalDate today) {
+        return byDueDate.headMap(key(today.toEpochDay(), 0)).keySet().stream()
+                .mapToLong(key -> key & MAX_ID)
+                .filter(id -> !returnDates.containsKey(id));
+    }
+
+    /**
+     * This function finds the agreements checked out within a range of days.
+     *
+     * @param first First checkout date, inclusive
+     * @param last Last checkout date, inclusive
+     * @return Agreements checked out in the range, by checkout date
+     */
+    public Stream<RentalAgreement> checkedOutBetween(LocalDate first, LocalDate last) {
+        return range(byCheckoutDate, first.toEpochDay(), last.toEpochDay());
+    }
+
+    /**
+     * This function finds every agreement for a tool code.
+     *
+     * @param toolCode Product code of the tool
+     * @return The tool's agreements, by checkout date
+     */
+    public Stream<RentalAgreement> forTool(String toolCode) {
+        ConcurrentSkipListMap<Long, RentalAgreement> agreements = byToolCode.get(toolCode);
+        return agreements == null ? Stream.empty() : agreements.values().stream();
+    }
+
+    /**
+     * This function finds the agreements for a tool code checked out within a range of days.
+     *
+     * @param toolCode Product code of the tool
+     * @param first First checkout date, inclusive
+     * @param last Last checkout date, inclusive
+     * @return The tool's agreements checked out in the range, by checkout date
+     */
+    public Stream<RentalAgreement> forTool(String toolCode, LocalDate first, LocalDate last) {
+        ConcurrentSkipListMap<Long, RentalAgreement> agreements = byToolCode.get(toolCode);
+        return agreements == null ? Stream.empty() : range(agreements, first.toEpochDay(), last.toEpochDay());
+    }
+
+    /**
+     * Closes the journal backing the store, if there is one.
+     *
+     * @throws IOException If the journal can't be closed
+     */
+    @Override
+    public void close() throws IOException {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    private static Stream<RentalAgreement> range(NavigableMap<Long, RentalAgreement> index,
+                                                 long firstEpochDay, long lastEpochDay) {
+        if (lastEpochDay < firstEpochDay) {
+            return Stream.empty();
+        }
+        return index.subMap(key(firstEpochDay, 0), true, key(lastEpochDay, MAX_ID), true).values().stream();
+    }
+
+    private static void checkId(long id) {
+        if (id > MAX_ID) {
+            throw new IllegalStateException("Agreement store is full");
+        }
+    }
+
+    private static void join(CompletableFuture<Void> durable) throws IOException {
+        try {
+            durable.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Sort key putting the epoch day in the high 32 bits and the ID in the low 32 bits.
+     */
+    private static long key(long epochDay, long id) {
+        return epochDay << 32 | id;
+    }
+}
@@ -0,0 +1,173 @@
+package pos;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for verifying the functionality of the AgreementStore class
+ */
+class AgreementStoreTest {
+
+    private static final Tool ladder = new Tool("Ladder", "Werner", "LADW", 1.99, true, true, false);
+    private static final Tool jackhammer = new Tool("Jackhammer", "Ridgid", "JAKR", 2.99, true, false, false);
+
+    private static RentalAgreement rent(Tool tool, LocalDate checkoutDate, int rentalDays) {
+        return CheckoutFunctions.checkout(tool, checkoutDate, rentalDays, 0);
+    }
+
+    private static List<LocalDate> checkoutDates(List<RentalAgreement> agreements) {
+        return agreements.stream().map(RentalAgreement::getCheckoutDate).collect(Collectors.toList());
+    }
+
+    @Test
+    void dueDateQueries() {
+        AgreementStore store = new AgreementStore();
+        RentalAgreement dueSixth = rent(ladder, LocalDate.of(2020, 7, 1), 5);
+        RentalAgreement dueFifth = rent(jackhammer, LocalDate.of(2020, 7, 2), 3);
+        RentalAgreement alsoDueSixth = rent(jackhammer, LocalDate.of(2020, 7, 3), 3);
+        RentalAgreement dueTenth = rent(ladder, LocalDate.of(2020, 7, 5), 5);
+        long id = store.add(dueSixth);
+        store.add(dueFifth);
+        store.add(alsoDueSixth);
+        store.add(dueTenth);
+
+        assertEquals(4, store.size());
+        assertSame(dueSixth, store.get(id));
+        assertNull(store.get(99));
+
+        // Agreements due the same day come back in the order they were added
+        assertEquals(List.of(dueSixth, alsoDueSixth), store.dueOn(LocalDate.of(2020, 7, 6)).collect(Collectors.toList()));
+        assertEquals(0, store.dueOn(LocalDate.of(2020, 7, 7)).count());
+        assertEquals(List.of(dueFifth, dueSixth, alsoDueSixth),
+                store.dueBetween(LocalDate.of(2020, 7, 5), LocalDate.of(2020, 7, 9)).collect(Collectors.toList()));
+        assertEquals(0, store.dueBetween(LocalDate.of(2020, 7, 9), LocalDate.of(2020, 7, 5)).count());
+
+        // Due today isn't overdue yet
+        assertEquals(List.of(dueFifth), store.overdueAsOf(LocalDate.of(2020, 7, 6)).collect(Collectors.toList()));
+        assertEquals(4, store.overdueAsOf(LocalDate.of(2020, 7, 11)).count());
+    }
+
+    @Test
+    void checkoutDateAndToolQueries() {
+        AgreementStore store = new AgreementStore();
+        store.add(rent(ladder, LocalDate.of(2020, 9, 1), 2));
+        store.add(rent(jackhammer, LocalDate.of(2020, 7, 2), 2));
+        store.add(rent(ladder, LocalDate.of(2020, 7, 15), 2));
+        store.add(rent(ladder, LocalDate.of(2019, 12, 31), 2));
+
+        assertEquals(List.of(LocalDate.of(2020, 7, 2), LocalDate.of(2020, 7, 15), LocalDate.of(2020, 9, 1)),
+                checkoutDates(store.checkedOutBetween(LocalDate.of(2020, 7, 1), LocalDate.of(2020, 9, 30))
+                        .collect(Collectors.toList())));
+
+        assertEquals(List.of(LocalDate.of(2019, 12, 31), LocalDate.of(2020, 7, 15), LocalDate.of(2020, 9, 1)),
+                checkoutDates(store.forTool("LADW").collect(Collectors.toList())));
+        assertEquals(List.of(LocalDate.of(2020, 7, 15), LocalDate.of(2020, 9, 1)),
+                checkoutDates(store.forTool("LADW", LocalDate.of(2020, 7, 1), LocalDate.of(2020, 9, 30))
+                        .collect(Collectors.toList())));
+        assertEquals(1, store.forTool("JAKR").count());
+        assertEquals(0, store.forTool("CHNS").count());
+        assertEquals(0, store.forTool("CHNS", LocalDate.of(2020, 1, 1), LocalDate.of(2020, 12, 31)).count());
+    }
+
+    @Test
+    void addWhileQuerying() throws InterruptedException {
+        AgreementStore store = new AgreementStore();
+        LocalDate start = LocalDate.of(2020, 1, 1);
+        int count = 20000;
+        AtomicBoolean outOfOrder = new AtomicBoolean();
+
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < count; i++) {
+                store.add(rent(i % 2 == 0 ? ladder : jackhammer, start.plusDays(i % 365), 1 + i % 28));
+            }
+        });
+        writer.start();
+
+        // Queries running alongside the adds always see their results in due date order
+        while (writer.isAlive()) {
+            LocalDate[] previous = new LocalDate[1];
+            store.dueBetween(start, start.plusDays(400)).forEach(agreement -> {
+                if (previous[0] != null && agreement.getDueDate().isBefore(previous[0])) {
+                    outOfOrder.set(true);
+                }
+                previous[0] = agreement.getDueDate();
+            });
+        }
+        writer.join();
+
+        assertFalse(outOfOrder.get());
+        assertEquals(count, store.size());
+        assertEquals(count, store.checkedOutBetween(start, start.plusDays(365)).count());
+        assertEquals(count / 2, store.forTool("LADW").count());
+    }
+
+    @Test
+    void returns() throws IOException {
+        AgreementStore store = new AgreementStore();
+        long ladderId = store.add(rent(ladder, LocalDate.of(2020, 7, 1), 3));
+        long jackhammerId = store.add(rent(jackhammer, LocalDate.of(2020, 7, 1), 4));
+
+        assertTrue(store.isOpen(ladderId));
+        assertEquals(2, store.overdueAsOf(LocalDate.of(2020, 7, 10)).count());
+
+        store.recordReturn(ladderId, LocalDate.of(2020, 7, 8));
+        assertFalse(store.isOpen(ladderId));
+        assertEquals(LocalDate.of(2020, 7, 8), store.getReturnDate(ladderId));
+        assertNull(store.getReturnDate(jackhammerId));
+        assertEquals(1, store.openCount());
+        assertEquals(List.of(store.get(jackhammerId)), store.openAgreements().collect(Collectors.toList()));
+
+        // Returned rentals are no longer overdue, but stay in the history
+        assertEquals(List.of(store.get(jackhammerId)),
+                store.overdueAsOf(LocalDate.of(2020, 7, 10)).collect(Collectors.toList()));
+        assertArrayEquals(new long[] {jackhammerId}, store.overdueIdsAsOf(LocalDate.of(2020, 7, 10)).toArray());
+        assertEquals(1, store.forTool("LADW").count());
+
+        assertThrows(IllegalStateException.class, () -> store.recordReturn(ladderId, LocalDate.of(2020, 7, 9)));
+        assertThrows(IllegalArgumentException.class, () -> store.recordReturn(99, LocalDate.of(2020, 7, 9)));
+        assertThrows(IllegalArgumentException.class,
+                () -> store.recordReturn(jackhammerId, LocalDate.of(2020, 6, 30)));
+        assertTrue(store.isOpen(jackhammerId));
+    }
+
+    @Test
+    void recordAndReopen() throws IOException {
+        Path file = Files.createTempFile("agreements", ".journal");
+        Files.delete(file);
+
+        try (AgreementStore store = AgreementStore.open(file)) {
+            assertEquals(0, store.size());
+            store.record(rent(ladder, LocalDate.of(2020, 7, 2), 3));
+            store.record(rent(jackhammer, LocalDate.of(2020, 7, 3), 4));
+        }
+
+        // The journal rebuilds every index
+        try (AgreementStore store = AgreementStore.open(file)) {
+            assertEquals(2, store.size());
+            assertEquals(1, store.dueOn(LocalDate.of(2020, 7, 5)).count());
+            assertEquals(1, store.forTool("JAKR").count());
+            long id = store.record(rent(ladder, LocalDate.of(2020, 7, 4), 1));
+            assertEquals(2, id);
+            store.recordReturn(1, LocalDate.of(2020, 7, 7));
+            assertThrows(IllegalStateException.class, () -> store.add(rent(ladder, LocalDate.of(2020, 7, 4), 1)));
+        }
+
+        // Returns are journaled by ID and come back with the agreements
+        try (AgreementStore store = AgreementStore.open(file)) {
+            assertEquals(3, store.size());
+            assertEquals(2, store.openCount());
+            assertEquals(LocalDate.of(2020, 7, 7), store.getReturnDate(1));
+            assertEquals("JAKR", store.get(1).getToolCode());
+        }
+        Files.delete(file);
+    }
+}
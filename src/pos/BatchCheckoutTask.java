@@ -0,0 +1,65 @@
+package pos;
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Fork join task that prices a range of checkout requests into the matching slots of a result array.
+ *
+ * Work is split adaptively: a task keeps halving its range only while the pool has few queued tasks to steal,
+ * so a busy pool runs large leaves sequentially and an idle pool spreads the batch across every worker.
+ */
+class BatchCheckoutTask extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    // Ranges at or below this size are always priced sequentially
+    private static final int MIN_LEAF_SIZE = 256;
+
+    // Stop splitting once this many of our own tasks are already waiting to be stolen
+    private static final int SURPLUS_TASK_LIMIT = 3;
+
+    private final CheckoutRequest[] requests; // Checkouts to price
+    private final RentalAgreement[] results; // Agreements, written to the same index as their request
+    private final HolidayCalendar holidays; // Holidays observed by the store, shared across the whole batch
+    private final int from; // First index to price
+    private final int to; // One past the last index to price
+    private BatchCheckoutTask nextForked; // Next half forked by the same parent, joined in reverse fork order
+
+    BatchCheckoutTask(CheckoutRequest[] requests, RentalAgreement[] results, HolidayCalendar holidays,
+                      int from, int to) {
+        this.requests = requests;
+        this.results = results;
+        this.holidays = holidays;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+        int lo = from;
+        int hi = to;
+
+        // Hand off the upper half while there is room for more stealable work, then keep the lower half
+        BatchCheckoutTask forked = null;
+        while (hi - lo > MIN_LEAF_SIZE && getSurplusQueuedTaskCount() <= SURPLUS_TASK_LIMIT) {
+            int mid = (lo + hi) >>> 1;
+            BatchCheckoutTask right = new BatchCheckoutTask(requests, results, holidays, mid, hi);
+            right.nextForked = forked;
+            forked = right;
+            right.fork();
+            hi = mid;
+        }
+
+        for (int i = lo; i < hi; i++) {
+            CheckoutRequest request = requests[i];
+            results[i] = CheckoutFunctions.checkout(request.getTool(), request.getCheckoutDate(),
+                    request.getRentalDays(), request.getDiscountPercentage(), holidays);
+        }
+
+        // Join the halves we handed off, running any that nobody stole
+        while (forked != null) {
+            forked.join();
+            forked = forked.nextForked;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package pos;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Writes bytes to a channel through one fixed size direct buffer.
+ * Memory use is bounded by the buffer size no matter how much is written.
+ */
+public class BufferedChannelWriter implements AutoCloseable {
+
+    private final WritableByteChannel channel; // Channel the bytes end up in
+    private final ByteBuffer buffer; // Bytes waiting to be written
+
+    /**
+     * Constructor for a buffered channel writer.
+     *
+     * @param channel Channel to write to
+     * @param bufferSize How many bytes to collect before writing to the channel
+     */
+    public BufferedChannelWriter(WritableByteChannel channel, int bufferSize) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    /**
+     * This function queues bytes to be written, flushing to the channel as the buffer fills.
+     *
+     * @param bytes Array holding the bytes
+     * @param offset Index of the first byte to write
+     * @param length Number of bytes to write
+     * @throws IOException If the channel can't be written to
+     */
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        while (length > 0) {
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.put(bytes, offset, count);
+            offset += count;
+            length -= count;
+        }
+    }
+
+    /**
+     * This function writes every queued byte to the channel.
+     *
+     * @throws IOException If the channel can't be written to
+     */
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Flushes the remaining bytes and closes the channel.
+     *
+     * @throws IOException If the channel can't be written to or closed
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+}
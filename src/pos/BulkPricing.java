@@ -0,0 +1,435 @@
+package pos;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Offline pricing of large checkout request files.
+ *
+ * Each input line is: tool code, checkout date (yyyy-MM-dd), rental days (1 to 28), discount percent.
+ * Each output line holds the fields of the resulting rental agreement in UTF-8, with text fields quoted when they
+ * contain a comma, quote or line break. The input is memory mapped a window at a time, each window is cut into
+ * chunks on line boundaries and the chunks are priced in parallel. Priced chunks are written in input order
+ * through a fixed size buffer, and only a bounded number of chunks are in flight, so memory use stays constant
+ * however large the file is.
+ */
+public final class BulkPricing {
+
+    // Bytes of input mapped at a time
+    private static final int WINDOW_SIZE = 64 << 20;
+
+    // Bytes of input priced by one task
+    private static final int CHUNK_SIZE = 1 << 20;
+
+    // Bytes of output collected before writing to disk
+    private static final int WRITE_BUFFER_SIZE = 1 << 20;
+
+    private static final byte[] HEADER = ("tool_code,tool_type,tool_brand,rental_days,checkout_date,due_date,"
+            + "daily_rental_charge,charge_days,pre_discount_charge,discount_percent,discount_amount,final_charge\n")
+            .getBytes(StandardCharsets.US_ASCII);
+
+    private BulkPricing() {
+    }
+
+    /**
+     * Runs bulk pricing from the command line.
+     *
+     * @param args Request file, output file, and optionally the tool info and tools available CSV paths
+     */
+    public static void main(String[] args) {
+        if (args.length != 2 && args.length != 4) {
+            System.err.println("Usage: bulk <request file> <output file> [tool info csv] [tools available csv]");
+            System.exit(2);
+        }
+
+        String toolInfoCSVPath = args.length == 4 ? args[2] : "src/ToolInfo.csv";
+        String toolsAvailableCSVPath = args.length == 4 ? args[3] : "src/ToolsAvailable.csv";
+        POSSystem.loadHolidays();
+        ToolsDB toolDirectory = new ToolsDB(toolInfoCSVPath, toolsAvailableCSVPath);
+
+        try {
+            long start = System.nanoTime();
+            long priced = run(toolDirectory, Paths.get(args[0]), Paths.get(args[1]),
+                    Runtime.getRuntime().availableProcessors());
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            System.out.println("Priced " + priced + " rentals in " + elapsedMillis + " ms");
+        } catch (IOException | InterruptedException e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    /**
+     * This function prices every request in a file and writes the resulting agreements to another file.
+     * Rows that can't be priced are reported on standard error with their byte offset and skipped.
+     *
+     * @param toolDirectory Tools that can be priced
+     * @param input File with one checkout request per line
+     * @param output File to write one rental agreement per line to
+     * @param threads Number of threads to price with
+     * @return Number of rentals priced
+     * @throws IOException If either file can't be read or written
+     * @throws InterruptedException If interrupted while waiting on pricing threads
+     */
+    public static long run(ToolsDB toolDirectory, Path input, Path output, int threads)
+            throws IOException, InterruptedException {
+        return run(toolDirectory, input, output, threads, WINDOW_SIZE, CHUNK_SIZE);
+    }
+
+    static long run(ToolsDB toolDirectory, Path input, Path output, int threads, int windowSize, int chunkSize)
+            throws IOException, InterruptedException {
+        int maxInFlight = threads * 2;
+        long priced = 0;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+             BufferedChannelWriter out = new BufferedChannelWriter(FileChannel.open(output,
+                     StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE),
+                     WRITE_BUFFER_SIZE)) {
+
+            out.write(HEADER, 0, HEADER.length);
+            ArrayDeque<Future<ChunkResult>> inFlight = new ArrayDeque<>();
+            long size = in.size();
+            long position = 0;
+
+            while (position < size) {
+                int windowLength = (int) Math.min(windowSize, size - position);
+                MappedByteBuffer window = in.map(FileChannel.MapMode.READ_ONLY, position, windowLength);
+
+                // Cut the window after its last full line, the rest is picked up by the next window
+                int windowEnd = windowLength;
+                if (position + windowLength < size) {
+                    windowEnd = lastLineEnd(window, windowLength);
+                    if (windowEnd == 0) {
+                        throw new IOException("Line starting at byte " + position + " is longer than " + windowSize);
+                    }
+                }
+
+                int chunkStart = 0;
+                while (chunkStart < windowEnd) {
+                    int chunkEnd = nextLineEnd(window, Math.min(chunkStart + chunkSize, windowEnd), windowEnd);
+                    if (inFlight.size() >= maxInFlight) {
+                        priced += write(inFlight.removeFirst(), out);
+                    }
+                    inFlight.addLast(pool.submit(new ChunkTask(toolDirectory, window, position, chunkStart, chunkEnd)));
+                    chunkStart = chunkEnd;
+                }
+                position += windowEnd;
+            }
+
+            while (!inFlight.isEmpty()) {
+                priced += write(inFlight.removeFirst(), out);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        return priced;
+    }
+
+    /**
+     * Waits for a chunk to be priced, then writes its rows and reports its rejected rows.
+     */
+    private static int write(Future<ChunkResult> pending, BufferedChannelWriter out)
+            throws IOException, InterruptedException {
+        ChunkResult result;
+        try {
+            result = pending.get();
+        } catch (ExecutionException e) {
+            throw new IOException("Pricing failed", e.getCause());
+        }
+        out.write(result.output.bytes, 0, result.output.length);
+        for (String error : result.errors) {
+            System.err.println(error);
+        }
+        return result.priced;
+    }
+
+    private static int lastLineEnd(MappedByteBuffer window, int end) {
+        for (int i = end - 1; i >= 0; i--) {
+            if (window.get(i) == '\n') {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    private static int nextLineEnd(MappedByteBuffer window, int from, int end) {
+        if (from >= end) {
+            return end;
+        }
+        for (int i = from - 1; i < end; i++) {
+            if (window.get(i) == '\n') {
+                return i + 1;
+            }
+        }
+        return end;
+    }
+
+    /**
+     * Prices every line in one chunk of a mapped window.
+     */
+    private static final class ChunkTask implements Callable<ChunkResult> {
+
+        private final ToolsDB toolDirectory; // Tools that can be priced
+        private final MappedByteBuffer window; // Mapped input, only read with absolute gets so it can be shared
+        private final long windowPosition; // File offset of the window
+        private final int start; // First byte of the chunk within the window
+        private final int end; // One past the last byte of the chunk within the window
+
+        private ChunkTask(ToolsDB toolDirectory, MappedByteBuffer window, long windowPosition, int start, int end) {
+            this.toolDirectory = toolDirectory;
+            this.window = window;
+            this.windowPosition = windowPosition;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public ChunkResult call() {
+            ChunkResult result = new ChunkResult(end - start + (end - start) / 2);
+            int lineStart = start;
+
+            while (lineStart < end) {
+                int lineEnd = lineStart;
+                while (lineEnd < end && window.get(lineEnd) != '\n') {
+                    lineEnd++;
+                }
+                int contentEnd = lineEnd > lineStart && window.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+
+                if (contentEnd > lineStart) {
+                    try {
+                        priceLine(lineStart, contentEnd, result.output);
+                        result.priced++;
+                    } catch (IllegalArgumentException e) {
+                        result.errors.add("Skipping row at byte " + (windowPosition + lineStart) + ": "
+                                + e.getMessage());
+                    }
+                }
+                lineStart = lineEnd + 1;
+            }
+
+            return result;
+        }
+
+        private void priceLine(int from, int to, RowWriter out) {
+            int codeEnd = indexOf(',', from, to);
+            int dateEnd = indexOf(',', codeEnd + 1, to);
+            int daysEnd = indexOf(',', dateEnd + 1, to);
+
+            String code = new String(bytes(from, codeEnd), StandardCharsets.UTF_8);
+            Tool tool = toolDirectory.getToolFromCode(code);
+            if (tool == null) {
+                throw new IllegalArgumentException("unknown tool code " + code);
+            }
+            LocalDate checkoutDate = parseDate(codeEnd + 1, dateEnd);
+            int rentalDays = parseInt(dateEnd + 1, daysEnd);
+            int discount = parseInt(daysEnd + 1, to);
+            try {
+                CheckoutFunctions.areRentalDaysValid(rentalDays);
+            } catch (InvalidRentalDaysException e) {
+                throw new IllegalArgumentException("rental days must be between 1 and 28, was " + rentalDays);
+            }
+            if (discount < 0 || discount > 100) {
+                throw new IllegalArgumentException("discount must be between 0 and 100, was " + discount);
+            }
+
+            RentalAgreement agreement = CheckoutFunctions.checkout(tool, checkoutDate, rentalDays, discount);
+
+            out.putText(agreement.getToolCode()).put(',')
+                    .putText(agreement.getToolType()).put(',')
+                    .putText(agreement.getToolBrand()).put(',')
+                    .putLong(agreement.getRentalDays()).put(',')
+                    .putDate(agreement.getCheckoutDate()).put(',')
+                    .putDate(agreement.getDueDate()).put(',')
+                    .putCents(agreement.getDailyRentalCharge().getCents()).put(',')
+                    .putLong(agreement.getChargeDays()).put(',')
+                    .putCents(agreement.getPreDiscountCharge().getCents()).put(',')
+                    .putLong(agreement.getDiscountPercent()).put(',')
+                    .putCents(agreement.getDiscountAmount().getCents()).put(',')
+                    .putCents(agreement.getFinalCharge().getCents()).put('\n');
+        }
+
+        private int indexOf(char c, int from, int to) {
+            for (int i = from; i < to; i++) {
+                if (window.get(i) == c) {
+                    return i;
+                }
+            }
+            throw new IllegalArgumentException("expected 4 comma separated fields");
+        }
+
+        private byte[] bytes(int from, int to) {
+            byte[] bytes = new byte[to - from];
+            for (int i = from; i < to; i++) {
+                bytes[i - from] = window.get(i);
+            }
+            return bytes;
+        }
+
+        private int parseInt(int from, int to) {
+            if (from >= to || to - from > 9) {
+                throw new IllegalArgumentException("expected a whole number");
+            }
+            int value = 0;
+            for (int i = from; i < to; i++) {
+                int digit = window.get(i) - '0';
+                if (digit < 0 || digit > 9) {
+                    throw new IllegalArgumentException("expected a whole number");
+                }
+                value = value * 10 + digit;
+            }
+            return value;
+        }
+
+        private LocalDate parseDate(int from, int to) {
+            if (to - from != 10 || window.get(from + 4) != '-' || window.get(from + 7) != '-') {
+                throw new IllegalArgumentException("expected a date formatted yyyy-MM-dd");
+            }
+            try {
+                return LocalDate.of(parseInt(from, from + 4), parseInt(from + 5, from + 7),
+                        parseInt(from + 8, from + 10));
+            } catch (DateTimeException e) {
+                throw new IllegalArgumentException(e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Rows priced from one chunk, along with any rows that were rejected.
+     */
+    private static final class ChunkResult {
+
+        private final RowWriter output; // Priced rows, ready to be written
+        private final List<String> errors = new ArrayList<>(); // Messages for rows that couldn't be priced
+        private int priced; // Number of rows priced
+
+        private ChunkResult(int expectedSize) {
+            this.output = new RowWriter(expectedSize);
+        }
+    }
+
+    /**
+     * Growable byte array that formats output fields directly as bytes, numbers and dates through the same
+     * formatters ReceiptRenderer uses. Only text fields can hold characters outside ASCII.
+     */
+    private static final class RowWriter implements Appendable {
+
+        private byte[] bytes; // Formatted output
+        private int length; // Bytes of output used
+
+        private RowWriter(int capacity) {
+            this.bytes = new byte[Math.max(capacity, 64)];
+        }
+
+        private RowWriter put(char c) {
+            if (length == bytes.length) {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            }
+            bytes[length++] = (byte) c;
+            return this;
+        }
+
+        private RowWriter putText(String value) {
+            boolean quoted = false;
+            boolean ascii = true;
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                    quoted = true;
+                } else if (c >= 0x80) {
+                    ascii = false;
+                }
+            }
+
+            if (quoted) {
+                put('"');
+            }
+            if (ascii) {
+                for (int i = 0; i < value.length(); i++) {
+                    char c = value.charAt(i);
+                    if (c == '"') {
+                        put('"');
+                    }
+                    put(c);
+                }
+            } else {
+                byte[] encoded = (quoted ? value.replace("\"", "\"\"") : value).getBytes(StandardCharsets.UTF_8);
+                if (length + encoded.length > bytes.length) {
+                    bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + encoded.length));
+                }
+                System.arraycopy(encoded, 0, bytes, length, encoded.length);
+                length += encoded.length;
+            }
+            if (quoted) {
+                put('"');
+            }
+            return this;
+        }
+
+        private RowWriter putLong(long value) {
+            try {
+                ReceiptRenderer.appendLong(this, value);
+            } catch (IOException e) {
+                // Writing to the array never throws
+                throw new UncheckedIOException(e);
+            }
+            return this;
+        }
+
+        private RowWriter putDate(LocalDate date) {
+            try {
+                ReceiptRenderer.appendIsoDate(this, date);
+            } catch (IOException e) {
+                // Writing to the array never throws
+                throw new UncheckedIOException(e);
+            }
+            return this;
+        }
+
+        private RowWriter putCents(long cents) {
+            try {
+                ReceiptRenderer.appendDecimal(this, cents);
+            } catch (IOException e) {
+                // Writing to the array never throws
+                throw new UncheckedIOException(e);
+            }
+            return this;
+        }
+
+        @Override
+        public Appendable append(CharSequence text) {
+            return append(text, 0, text.length());
+        }
+
+        @Override
+        public Appendable append(CharSequence text, int start, int end) {
+            for (int i = start; i < end; i++) {
+                put(text.charAt(i));
+            }
+            return this;
+        }
+
+        @Override
+        public Appendable append(char c) {
+            return put(c);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package pos;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for verifying offline pricing of checkout request files.
+ */
+class BulkPricingTest {
+
+    private static ToolsDB db; // Tools to price against
+
+    @BeforeAll
+    static void init() {
+        db = new ToolsDB("src/testToolInfo.csv", "src/testToolsAvailable.csv");
+    }
+
+    @Test
+    void pricesEveryRowInOrder() throws IOException, InterruptedException {
+        Path input = Files.createTempFile("requests", ".csv");
+        Path output = Files.createTempFile("agreements", ".csv");
+        String[] codes = {"LADW", "CHNS", "JAKR", "JAKD"};
+
+        List<String> requests = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            requests.add(codes[i % codes.length] + ",2015-07-" + String.format("%02d", 1 + i % 28) + ","
+                    + (1 + i % 28) + "," + (i % 101));
+        }
+        Files.write(input, requests, StandardCharsets.US_ASCII);
+
+        // Tiny windows and chunks so rows straddle every kind of boundary
+        long priced = BulkPricing.run(db, input, output, 4, 4096, 512);
+
+        List<String> lines = Files.readAllLines(output, StandardCharsets.US_ASCII);
+        assertEquals(2000, priced);
+        assertEquals(2001, lines.size());
+        assertEquals("LADW,Ladder,Werner,1,2015-07-01,2015-07-02,1.99,1,1.99,0,0.00,1.99", lines.get(1));
+        assertEquals("JAKR,Jackhammer,Ridgid,3,2015-07-03,2015-07-06,2.99,1,2.99,2,0.06,2.93", lines.get(3));
+        for (int i = 0; i < requests.size(); i++) {
+            String[] request = requests.get(i).split(",");
+            String[] agreement = lines.get(i + 1).split(",");
+            assertEquals(request[0], agreement[0]);
+            assertEquals(request[1], agreement[4]);
+            assertEquals(request[2], agreement[3]);
+            assertEquals(request[3], agreement[9]);
+        }
+
+        Files.delete(input);
+        Files.delete(output);
+    }
+
+    @Test
+    void skipsRowsThatCantBePriced() throws IOException, InterruptedException {
+        Path input = Files.createTempFile("requests", ".csv");
+        Path output = Files.createTempFile("agreements", ".csv");
+        Files.write(input, List.of(
+                "LADW,2020-07-02,3,10",
+                "NOPE,2020-07-02,3,10",
+                "LADW,2020-02-30,3,10",
+                "LADW,2020-07-02,3,101",
+                "LADW,2020-07-02,29,10",
+                "LADW,2020-07-02,999999999,10",
+                "LADW,2020-07-02",
+                "",
+                "CHNS,2015-07-02,5,25"), StandardCharsets.US_ASCII);
+
+        long priced = BulkPricing.run(db, input, output, 2);
+
+        List<String> lines = Files.readAllLines(output, StandardCharsets.US_ASCII);
+        assertEquals(2, priced);
+        assertEquals("LADW,Ladder,Werner,3,2020-07-02,2020-07-05,1.99,2,3.98,10,0.40,3.58", lines.get(1));
+        assertEquals("CHNS,Chainsaw,Stihl,5,2015-07-02,2015-07-07,1.49,3,4.47,25,1.12,3.35", lines.get(2));
+
+        Files.delete(input);
+        Files.delete(output);
+    }
+
+    @Test
+    void writesTextFieldsAsQuotedUtf8() throws IOException, InterruptedException {
+        ToolsDB catalog = TestCatalogs.load("S\u00e4ge,$2.50,Yes,Yes,Yes\nLadder,$1.99,Yes,Yes,No",
+                "S\u00e4ge,W\u00fcrth,S\u00c4GE\nLadder,Werner \"Pro\",LADP");
+        Path input = Files.createTempFile("requests", ".csv");
+        Path output = Files.createTempFile("agreements", ".csv");
+        Files.write(input, List.of("S\u00c4GE,2020-07-02,3,0", "LADP,2020-07-02,3,10"), StandardCharsets.UTF_8);
+
+        long priced = BulkPricing.run(catalog, input, output, 1);
+
+        List<String> lines = Files.readAllLines(output, StandardCharsets.UTF_8);
+        assertEquals(2, priced);
+        assertEquals("S\u00c4GE,S\u00e4ge,W\u00fcrth,3,2020-07-02,2020-07-05,2.50,3,7.50,0,0.00,7.50", lines.get(1));
+        assertEquals("LADP,Ladder,\"Werner \"\"Pro\"\"\",3,2020-07-02,2020-07-05,1.99,2,3.98,10,0.40,3.58",
+                lines.get(2));
+
+        Files.delete(input);
+        Files.delete(output);
+    }
+}
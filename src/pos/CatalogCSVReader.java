@@ -0,0 +1,608 @@
+package pos;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Reads the tool info and tools available CSVs into a PrimitiveCatalog.
+ *
+ * Both files are memory mapped and parsed a byte at a time, with no line or field strings. Prices like $1.99 are
+ * read straight into cents, types are matched against the tool info rows by their bytes, and each distinct brand
+ * is decoded once per chunk. The only string made for every row is its product code. The tools available CSV is
+ * cut into chunks on line boundaries and the chunks are parsed in parallel on the common fork join pool.
+ *
+ * Tool info rows are: type, daily charge, then Yes or No for the weekday, weekend and holiday charge.
+ * Tools available rows are: type, brand, product code and optionally the number of units, one if left out.
+ * Blank lines are skipped. Any other row that can't be read fails the load with a CatalogParseException naming
+ * the file and line.
+ */
+public final class CatalogCSVReader {
+
+    // Bytes of the tools available CSV parsed by one task
+    private static final int CHUNK_SIZE = 1 << 20;
+
+    // Bad rows attached to the exception thrown, any more are only counted
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private final Path toolInfoCSV; // CSV with sale attributes for each tool type
+    private final Path toolsAvailableCSV; // CSV with tools available for rental
+    private final int chunkSize; // Bytes of the tools available CSV parsed by one task
+    private final CatalogInterner interner; // Values shared with other stores' catalogs, null to share nothing
+
+    private int toolInfoRows; // Tool types read by the last call to read
+    private int toolRows; // Tools available rows read by the last call to read
+
+    /**
+     * Constructor for the CatalogCSVReader class.
+     *
+     * @param toolInfoCSV CSV with sale attributes for each tool type
+     * @param toolsAvailableCSV CSV with tools available for rental
+     */
+    public CatalogCSVReader(Path toolInfoCSV, Path toolsAvailableCSV) {
+        this(toolInfoCSV, toolsAvailableCSV, null);
+    }
+
+    /**
+     * Constructor for a CatalogCSVReader whose catalogs share their strings and pricing rows with other catalogs.
+     *
+     * @param toolInfoCSV CSV with sale attributes for each tool type
+     * @param toolsAvailableCSV CSV with tools available for rental
+     * @param interner Values shared with other catalogs, or null to share nothing
+     */
+    public CatalogCSVReader(Path toolInfoCSV, Path toolsAvailableCSV, CatalogInterner interner) {
+        this(toolInfoCSV, toolsAvailableCSV, CHUNK_SIZE, interner);
+    }
+
+    CatalogCSVReader(Path toolInfoCSV, Path toolsAvailableCSV, int chunkSize) {
+        this(toolInfoCSV, toolsAvailableCSV, chunkSize, null);
+    }
+
+    private CatalogCSVReader(Path toolInfoCSV, Path toolsAvailableCSV, int chunkSize, CatalogInterner interner) {
+        this.toolInfoCSV = toolInfoCSV;
+        this.toolsAvailableCSV = toolsAvailableCSV;
+        this.chunkSize = chunkSize;
+        this.interner = interner;
+    }
+
+    /**
+     * This function reads both CSVs into a catalog.
+     * When a product code appears more than once the last row with that code is kept and the units are added up.
+     *
+     * @return The loaded catalog
+     * @throws CatalogParseException If any row can't be read
+     * @throws IOException If either file can't be read
+     */
+    public PrimitiveCatalog read() throws IOException {
+        toolInfoRows = 0;
+        toolRows = 0;
+
+        ToolTypes types = readToolInfo(map(toolInfoCSV), fileName(toolInfoCSV));
+        toolInfoRows = types.size;
+
+        MappedByteBuffer toolsAvailable = map(toolsAvailableCSV);
+        int[] bounds = chunkBounds(toolsAvailable, chunkSize);
+        ToolsChunk[] chunks = IntStream.range(0, bounds.length - 1).parallel()
+                .mapToObj(i -> parseToolsAvailable(toolsAvailable, bounds[i], bounds[i + 1], types))
+                .toArray(ToolsChunk[]::new);
+        throwErrors(chunks, fileName(toolsAvailableCSV));
+
+        // Join the chunks' rows in file order
+        int rowCount = 0;
+        for (ToolsChunk chunk : chunks) {
+            rowCount += chunk.rows;
+        }
+        String[] codes = new String[rowCount];
+        String[] brands = new String[rowCount];
+        int[] typeIds = new int[rowCount];
+        int[] units = new int[rowCount];
+        int row = 0;
+        for (ToolsChunk chunk : chunks) {
+            System.arraycopy(chunk.codes, 0, codes, row, chunk.rows);
+            System.arraycopy(chunk.brands, 0, brands, row, chunk.rows);
+            System.arraycopy(chunk.typeIds, 0, typeIds, row, chunk.rows);
+            System.arraycopy(chunk.units, 0, units, row, chunk.rows);
+            row += chunk.rows;
+        }
+        toolRows = rowCount;
+
+        return new PrimitiveCatalog(rowCount, new PrimitiveCatalog.ToolRows() {
+            @Override
+            public String code(int row) {
+                return codes[row];
+            }
+
+            @Override
+            public String type(int row) {
+                return types.names.get(typeIds[row]);
+            }
+
+            @Override
+            public String brand(int row) {
+                return brands[row];
+            }
+
+            @Override
+            public long dailyChargeCents(int row) {
+                return types.cents[typeIds[row]];
+            }
+
+            @Override
+            public int policy(int row) {
+                return types.policies[typeIds[row]];
+            }
+
+            @Override
+            public int units(int row) {
+                return units[row];
+            }
+        }, interner);
+    }
+
+    /**
+     * Getter function for the tool types read by the last call to read, even if it failed.
+     *
+     * @return Number of distinct tool types.
+     */
+    public int getToolInfoRows() {
+        return toolInfoRows;
+    }
+
+    /**
+     * Getter function for the tools available rows read by the last call to read, 0 if it failed.
+     *
+     * @return Number of rows, counting repeated product codes.
+     */
+    public int getToolRows() {
+        return toolRows;
+    }
+
+    private static MappedByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException(file + " is too large to load, " + size + " bytes");
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+    }
+
+    private static String fileName(Path file) {
+        return String.valueOf(file.getFileName());
+    }
+
+    /**
+     * Cuts a file into chunks of about the given size that each end at the end of a line.
+     *
+     * @return Offset of each chunk's first byte, followed by the file's size
+     */
+    static int[] chunkBounds(MappedByteBuffer file, int chunkSize) {
+        int size = file.limit();
+        int[] bounds = new int[size / chunkSize + 2];
+        int count = 1;
+        int start = 0;
+        while (start < size) {
+            int end = (int) Math.min((long) start + chunkSize, size);
+            while (end < size && file.get(end - 1) != '\n') {
+                end++;
+            }
+            bounds[count++] = end;
+            start = end;
+        }
+        return Arrays.copyOf(bounds, Math.max(count, 2));
+    }
+
+    private static ToolTypes readToolInfo(MappedByteBuffer file, String fileName) throws CatalogParseException {
+        ToolTypes types = new ToolTypes();
+        int end = file.limit();
+        int lineStart = 0;
+        for (int line = 1; lineStart < end; line++) {
+            int lineEnd = lineEnd(file, lineStart, end);
+            int contentEnd = contentEnd(file, lineStart, lineEnd);
+            if (contentEnd > lineStart) {
+                String problem = parseToolInfoRow(file, lineStart, contentEnd, types);
+                if (problem != null) {
+                    throw new CatalogParseException(fileName, line, problem);
+                }
+            }
+            lineStart = lineEnd + 1;
+        }
+        return types;
+    }
+
+    /**
+     * Adds one tool info row to the types, replacing an earlier row for the same type.
+     *
+     * @return What is wrong with the row, or null if it was read
+     */
+    private static String parseToolInfoRow(MappedByteBuffer file, int from, int to, ToolTypes types) {
+        int[] fields = new int[6];
+        if (splitFields(file, from, to, fields) != 5) {
+            return "expected 5 comma separated fields";
+        }
+        if (fields[1] - 1 == fields[0]) {
+            return "missing tool type";
+        }
+        long cents = parseCents(file, fields[1], fields[2] - 1);
+        if (cents < 0) {
+            return "daily charge must be an amount of money like $1.99";
+        }
+        int policy = 0;
+        int[] flags = {ChargePolicy.WEEKDAY_CHARGE, ChargePolicy.WEEKEND_CHARGE, ChargePolicy.HOLIDAY_CHARGE};
+        for (int f = 0; f < flags.length; f++) {
+            int yesNo = parseYesNo(file, fields[2 + f], fields[3 + f] - 1);
+            if (yesNo < 0) {
+                return "charge days must be Yes or No";
+            }
+            policy |= yesNo == 1 ? flags[f] : 0;
+        }
+        int type = types.names.intern(file, fields[0], fields[1] - 1);
+        types.set(type, cents, (byte) policy);
+        return null;
+    }
+
+    /**
+     * Parses the tools available rows within one chunk, collecting bad rows rather than stopping at them.
+     */
+    private static ToolsChunk parseToolsAvailable(MappedByteBuffer file, int start, int end, ToolTypes types) {
+        ToolsChunk chunk = new ToolsChunk(Math.max(16, (end - start) / 24));
+        StringPool brands = new StringPool(64);
+        int[] fields = new int[6];
+        int lineStart = start;
+        for (int line = 0; lineStart < end; line++) {
+            int lineEnd = lineEnd(file, lineStart, end);
+            int contentEnd = contentEnd(file, lineStart, lineEnd);
+            chunk.lines++;
+            if (contentEnd > lineStart) {
+                String problem = parseToolsAvailableRow(file, lineStart, contentEnd, fields, types, brands, chunk);
+                if (problem != null) {
+                    chunk.addError(line, problem);
+                }
+            }
+            lineStart = lineEnd + 1;
+        }
+        return chunk;
+    }
+
+    /**
+     * Adds one tools available row to a chunk.
+     *
+     * @return What is wrong with the row, or null if it was read
+     */
+    private static String parseToolsAvailableRow(MappedByteBuffer file, int from, int to, int[] fields,
+                                                 ToolTypes types, StringPool brands, ToolsChunk chunk) {
+        int fieldCount = splitFields(file, from, to, fields);
+        if (fieldCount != 3 && fieldCount != 4) {
+            return "expected 3 or 4 comma separated fields";
+        }
+        int type = types.names.find(file, fields[0], fields[1] - 1);
+        if (type < 0) {
+            return "unknown tool type " + StringPool.decode(file, fields[0], fields[1] - 1);
+        }
+        if (fields[3] - 1 == fields[2]) {
+            return "missing product code";
+        }
+        int units = 1;
+        if (fieldCount == 4) {
+            units = parseUnits(file, fields[3], fields[4] - 1);
+            if (units < 0) {
+                return "units must be a whole number";
+            }
+        }
+        chunk.add(StringPool.decode(file, fields[2], fields[3] - 1),
+                brands.get(brands.intern(file, fields[1], fields[2] - 1)), type, units);
+        return null;
+    }
+
+    /**
+     * Finds where each field of a line starts, storing one past the line's end after the last field so field i
+     * runs from fields[i] to fields[i + 1] - 1.
+     *
+     * @return Number of fields, or more than fields.length - 1 if there are too many to store
+     */
+    private static int splitFields(MappedByteBuffer file, int from, int to, int[] fields) {
+        int count = 0;
+        fields[count++] = from;
+        for (int i = from; i < to; i++) {
+            if (file.get(i) == ',') {
+                if (count == fields.length - 1) {
+                    return fields.length;
+                }
+                fields[count++] = i + 1;
+            }
+        }
+        fields[count] = to + 1;
+        return count;
+    }
+
+    private static int lineEnd(MappedByteBuffer file, int from, int end) {
+        int i = from;
+        while (i < end && file.get(i) != '\n') {
+            i++;
+        }
+        return i;
+    }
+
+    private static int contentEnd(MappedByteBuffer file, int lineStart, int lineEnd) {
+        return lineEnd > lineStart && file.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+    }
+
+    /**
+     * Parses an amount like $1.99 or 1.99 into cents, more than two decimal places rounding half up.
+     *
+     * @return The amount in cents, or -1 if the field isn't an amount of money
+     */
+    static long parseCents(MappedByteBuffer file, int from, int to) {
+        int i = from;
+        if (i < to && file.get(i) == '$') {
+            i++;
+        }
+        long cents = 0;
+        boolean anyDigits = false;
+        for (; i < to && file.get(i) != '.'; i++) {
+            int digit = file.get(i) - '0';
+            if (digit < 0 || digit > 9 || cents > Long.MAX_VALUE / 1000) {
+                return -1;
+            }
+            cents = cents * 10 + digit;
+            anyDigits = true;
+        }
+        cents *= 100;
+        if (i < to) {
+            int place = 10;
+            for (i++; i < to; i++) {
+                int digit = file.get(i) - '0';
+                if (digit < 0 || digit > 9) {
+                    return -1;
+                }
+                if (place > 0) {
+                    cents += place * digit;
+                    place /= 10;
+                } else if (place == 0) {
+                    // Third decimal place decides the rounding, anything after it doesn't matter
+                    cents += digit >= 5 ? 1 : 0;
+                    place = -1;
+                }
+                anyDigits = true;
+            }
+        }
+        return anyDigits ? cents : -1;
+    }
+
+    /**
+     * @return 1 for Yes, 0 for No, -1 for anything else
+     */
+    private static int parseYesNo(MappedByteBuffer file, int from, int to) {
+        if (to - from == 3 && file.get(from) == 'Y' && file.get(from + 1) == 'e' && file.get(from + 2) == 's') {
+            return 1;
+        }
+        if (to - from == 2 && file.get(from) == 'N' && file.get(from + 1) == 'o') {
+            return 0;
+        }
+        return -1;
+    }
+
+    /**
+     * Parses a unit count, ignoring spaces around it.
+     *
+     * @return The count, or -1 if the field isn't a whole number
+     */
+    private static int parseUnits(MappedByteBuffer file, int from, int to) {
+        while (from < to && file.get(from) == ' ') {
+            from++;
+        }
+        while (to > from && file.get(to - 1) == ' ') {
+            to--;
+        }
+        if (from == to || to - from > 9) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            int digit = file.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * Throws the bad rows found across all chunks, numbered by their line in the whole file.
+     */
+    private static void throwErrors(ToolsChunk[] chunks, String fileName) throws CatalogParseException {
+        CatalogParseException first = null;
+        int errorCount = 0;
+        long firstLine = 1;
+        for (ToolsChunk chunk : chunks) {
+            for (int e = 0; e < chunk.errorLines.size(); e++) {
+                CatalogParseException error = new CatalogParseException(fileName,
+                        firstLine + chunk.errorLines.get(e), chunk.errorProblems.get(e));
+                if (first == null) {
+                    first = error;
+                } else if (errorCount < MAX_REPORTED_ERRORS) {
+                    first.addSuppressed(error);
+                }
+                errorCount++;
+            }
+            firstLine += chunk.lines;
+        }
+        if (first != null) {
+            first.setErrorCount(errorCount);
+            throw first;
+        }
+    }
+
+    /**
+     * Sale attributes of each tool type, by the type's index in the name pool.
+     */
+    private static final class ToolTypes {
+
+        private final StringPool names = new StringPool(16); // Type names
+        private long[] cents = new long[16]; // Daily charge in cents
+        private byte[] policies = new byte[16]; // Packed ChargePolicy flags
+        private int size; // Number of types
+
+        private void set(int type, long dailyChargeCents, byte policy) {
+            if (type >= cents.length) {
+                cents = Arrays.copyOf(cents, cents.length * 2);
+                policies = Arrays.copyOf(policies, policies.length * 2);
+            }
+            cents[type] = dailyChargeCents;
+            policies[type] = policy;
+            size = names.size;
+        }
+    }
+
+    /**
+     * Rows parsed from one chunk of the tools available CSV, along with any bad rows.
+     */
+    private static final class ToolsChunk {
+
+        private String[] codes; // Product code of each row
+        private String[] brands; // Brand of each row, shared by rows of the same brand
+        private int[] typeIds; // Index of each row's type in ToolTypes
+        private int[] units; // Units on each row
+        private int rows; // Rows read
+        private int lines; // Lines in the chunk, blank and bad ones included
+        private final List<Integer> errorLines = new ArrayList<>(); // Line of each bad row within the chunk
+        private final List<String> errorProblems = new ArrayList<>(); // What is wrong with each bad row
+
+        private ToolsChunk(int capacity) {
+            this.codes = new String[capacity];
+            this.brands = new String[capacity];
+            this.typeIds = new int[capacity];
+            this.units = new int[capacity];
+        }
+
+        private void add(String code, String brand, int typeId, int unitCount) {
+            if (rows == codes.length) {
+                codes = Arrays.copyOf(codes, rows * 2);
+                brands = Arrays.copyOf(brands, rows * 2);
+                typeIds = Arrays.copyOf(typeIds, rows * 2);
+                units = Arrays.copyOf(units, rows * 2);
+            }
+            codes[rows] = code;
+            brands[rows] = brand;
+            typeIds[rows] = typeId;
+            units[rows] = unitCount;
+            rows++;
+        }
+
+        private void addError(int line, String problem) {
+            errorLines.add(line);
+            errorProblems.add(problem);
+        }
+    }
+
+    /**
+     * Strings decoded from UTF-8 bytes of the file, each distinct one decoded once and found again by its bytes.
+     */
+    private static final class StringPool {
+
+        private byte[][] keys; // Bytes of each string, by index
+        private String[] strings; // Each string, by index
+        private int[] slots; // Index + 1 by hash slot, 0 for an empty slot
+        private int size; // Number of strings
+
+        private StringPool(int capacity) {
+            this.keys = new byte[capacity][];
+            this.strings = new String[capacity];
+            this.slots = new int[capacity * 2];
+        }
+
+        private String get(int index) {
+            return strings[index];
+        }
+
+        /**
+         * @return Index of the string with these bytes, or -1 if there isn't one
+         */
+        private int find(MappedByteBuffer file, int from, int to) {
+            int mask = slots.length - 1;
+            for (int slot = hash(file, from, to) & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+                int index = slots[slot] - 1;
+                if (matches(keys[index], file, from, to)) {
+                    return index;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * @return Index of the string with these bytes, decoding and adding it if there isn't one
+         */
+        private int intern(MappedByteBuffer file, int from, int to) {
+            int index = find(file, from, to);
+            if (index >= 0) {
+                return index;
+            }
+            if (size == strings.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                strings = Arrays.copyOf(strings, size * 2);
+                slots = new int[slots.length * 2];
+                for (int i = 0; i < size; i++) {
+                    insert(i);
+                }
+            }
+            byte[] key = new byte[to - from];
+            file.get(from, key);
+            keys[size] = key;
+            strings[size] = new String(key, StandardCharsets.UTF_8);
+            insert(size);
+            return size++;
+        }
+
+        private void insert(int index) {
+            byte[] key = keys[index];
+            int mask = slots.length - 1;
+            int slot = hash(key) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = index + 1;
+        }
+
+        private static String decode(MappedByteBuffer file, int from, int to) {
+            byte[] bytes = new byte[to - from];
+            file.get(from, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private static boolean matches(byte[] key, MappedByteBuffer file, int from, int to) {
+            if (key.length != to - from) {
+                return false;
+            }
+            for (int i = 0; i < key.length; i++) {
+                if (key[i] != file.get(from + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static int hash(MappedByteBuffer file, int from, int to) {
+            int hash = 0;
+            for (int i = from; i < to; i++) {
+                hash = 31 * hash + file.get(i);
+            }
+            return hash ^ (hash >>> 16);
+        }
+
+        private static int hash(byte[] key) {
+            int hash = 0;
+            for (byte b : key) {
+                hash = 31 * hash + b;
+            }
+            return hash ^ (hash >>> 16);
+        }
+    }
+}
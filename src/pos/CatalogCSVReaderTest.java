@@ -0,0 +1,159 @@
+package pos;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for verifying the functionality of the CatalogCSVReader class
+ */
+class CatalogCSVReaderTest {
+
+    private static final String TOOL_INFO = "Ladder,$1.99,Yes,Yes,No\nChainsaw,$1.49,Yes,No,Yes\n"
+            + "Jackhammer,2.99,Yes,No,No\n";
+
+    /**
+     * Reads a catalog from the given CSV contents, parsing the tools available CSV in chunks of the given size.
+     */
+    private static PrimitiveCatalog read(String toolInfo, String toolsAvailable, int chunkSize) throws IOException {
+        Path toolInfoCSV = Files.createTempFile("ToolInfo", ".csv");
+        Path toolsAvailableCSV = Files.createTempFile("ToolsAvailable", ".csv");
+        try {
+            Files.write(toolInfoCSV, toolInfo.getBytes(StandardCharsets.UTF_8));
+            Files.write(toolsAvailableCSV, toolsAvailable.getBytes(StandardCharsets.UTF_8));
+            return new CatalogCSVReader(toolInfoCSV, toolsAvailableCSV, chunkSize).read();
+        } finally {
+            Files.delete(toolInfoCSV);
+            Files.delete(toolsAvailableCSV);
+        }
+    }
+
+    @Test
+    void readsTheStoreCatalog() throws IOException {
+        CatalogCSVReader reader = new CatalogCSVReader(Paths.get("src/testToolInfo.csv"),
+                Paths.get("src/testToolsAvailable.csv"));
+        PrimitiveCatalog catalog = reader.read();
+        assertEquals(3, reader.getToolInfoRows());
+        assertEquals(4, reader.getToolRows());
+        assertEquals(List.of("LADW", "CHNS", "JAKR", "JAKD"), catalog.getToolCodes());
+
+        Tool chainsaw = catalog.getTool("CHNS");
+        assertEquals("Chainsaw", chainsaw.getType());
+        assertEquals("Stihl", chainsaw.getBrand());
+        assertEquals(149, chainsaw.getDailyChargeCents());
+        assertTrue(chainsaw.isWeekdayCharge());
+        assertFalse(chainsaw.isWeekendCharge());
+        assertTrue(chainsaw.isHolidayCharge());
+        assertEquals(1, catalog.getUnits("CHNS"));
+    }
+
+    @Test
+    void unitsRepeatedCodesAndLineEndings() throws IOException {
+        PrimitiveCatalog catalog = read(TOOL_INFO + "Ladder,$2.49,Yes,No,No\r\n",
+                "Ladder,Werner,LADW,2\r\n\r\nChainsaw,Stihl,CHNS\nLadder,Werner,LADW, 3 \n\nJackhammer,B\u00f6hler,JAKB",
+                1 << 20);
+        assertEquals(List.of("LADW", "CHNS", "JAKB"), catalog.getToolCodes());
+        assertEquals(5, catalog.getUnits("LADW"));
+        assertEquals(249, catalog.getDailyChargeCents(catalog.idOf("LADW")));
+        assertFalse(catalog.getTool("LADW").isWeekendCharge());
+        assertEquals("B\u00f6hler", catalog.getTool("JAKB").getBrand());
+        assertEquals(299, catalog.getTool("JAKB").getDailyChargeCents());
+    }
+
+    @Test
+    void chunksMatchASingleRead() throws IOException {
+        String[] types = {"Ladder", "Chainsaw", "Jackhammer"};
+        StringBuilder toolsAvailable = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            toolsAvailable.append(types[i % 3]).append(",Brand").append(i % 11).append(",T").append(i % 4000)
+                    .append(',').append(1 + i % 5).append('\n');
+        }
+        PrimitiveCatalog whole = read(TOOL_INFO, toolsAvailable.toString(), 1 << 20);
+
+        // Chunks small enough that many end mid line and get extended to the next line end
+        PrimitiveCatalog chunked = read(TOOL_INFO, toolsAvailable.toString(), 100);
+
+        assertEquals(4000, chunked.size());
+        assertEquals(whole.getToolCodes(), chunked.getToolCodes());
+        assertEquals(11, chunked.getPoolSize());
+        for (int id = 0; id < chunked.size(); id++) {
+            assertEquals(whole.getType(id), chunked.getType(id));
+            assertEquals(whole.getBrand(id), chunked.getBrand(id));
+            assertEquals(whole.getDailyChargeCents(id), chunked.getDailyChargeCents(id));
+            assertEquals(whole.getUnits(id), chunked.getUnits(id));
+        }
+        assertEquals(1 + 1, chunked.getUnits("T0"));
+    }
+
+    @Test
+    void pricesParsedToCents() throws IOException {
+        PrimitiveCatalog catalog = read("A,$0.5,No,No,No\nB,12,No,No,No\nC,$3.005,No,No,No\nD,$.99,No,No,No\n",
+                "A,x,A\nB,x,B\nC,x,C\nD,x,D\n", 1 << 20);
+        assertEquals(50, catalog.getTool("A").getDailyChargeCents());
+        assertEquals(1200, catalog.getTool("B").getDailyChargeCents());
+        assertEquals(301, catalog.getTool("C").getDailyChargeCents());
+        assertEquals(99, catalog.getTool("D").getDailyChargeCents());
+        assertEquals(0, catalog.getPolicy(catalog.idOf("A")));
+    }
+
+    @Test
+    void badToolInfoRowReportedByLine() {
+        CatalogParseException e = assertThrows(CatalogParseException.class,
+                () -> read("Ladder,$1.99,Yes,Yes,No\n\nChainsaw,$1.4x,Yes,No,Yes\n", "Ladder,Werner,LADW", 1 << 20));
+        assertEquals(3, e.getRow());
+        assertTrue(e.getFile().startsWith("ToolInfo"));
+        assertTrue(e.getMessage().endsWith("row 3: daily charge must be an amount of money like $1.99"));
+
+        e = assertThrows(CatalogParseException.class,
+                () -> read("Ladder,$1.99,Yes,Maybe,No", "Ladder,Werner,LADW", 1 << 20));
+        assertEquals(1, e.getRow());
+        assertTrue(e.getMessage().endsWith("charge days must be Yes or No"));
+    }
+
+    @Test
+    void everyBadToolsAvailableRowReported() {
+        List<String> lines = new ArrayList<>();
+        for (int i = 1; i <= 1000; i++) {
+            if (i == 10) {
+                lines.add("Drill,Makita,DRLM");
+            } else if (i == 500) {
+                lines.add("Ladder,Werner");
+            } else if (i == 999) {
+                lines.add("Ladder,Werner,LADW,lots");
+            } else {
+                lines.add("Ladder,Werner,L" + i);
+            }
+        }
+        CatalogParseException e = assertThrows(CatalogParseException.class,
+                () -> read(TOOL_INFO, String.join("\n", lines), 256));
+        assertEquals(3, e.getErrorCount());
+        assertEquals(10, e.getRow());
+        assertTrue(e.getMessage().endsWith("row 10: unknown tool type Drill"));
+        assertEquals(2, e.getSuppressed().length);
+        assertEquals(500, ((CatalogParseException) e.getSuppressed()[0]).getRow());
+        assertTrue(e.getSuppressed()[0].getMessage().endsWith("expected 3 or 4 comma separated fields"));
+        assertEquals(999, ((CatalogParseException) e.getSuppressed()[1]).getRow());
+        assertTrue(e.getSuppressed()[1].getMessage().endsWith("units must be a whole number"));
+    }
+
+    @Test
+    void missingFileFailsTheRead() {
+        assertThrows(NoSuchFileException.class, () -> new CatalogCSVReader(Paths.get("src/testToolInfo.csv"),
+                Paths.get("src/noSuchFile.csv")).read());
+    }
+
+    @Test
+    void emptyFilesGiveAnEmptyCatalog() throws IOException {
+        assertEquals(0, read("", "", 1 << 20).size());
+        assertEquals(0, read(TOOL_INFO, "\n\n", 1 << 20).size());
+    }
+}
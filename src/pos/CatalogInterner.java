@@ -0,0 +1,60 @@
+package pos;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Class Definition for sharing the values many catalogs hold in common, for a process serving many stores.
+ *
+ * Stores of one chain carry mostly the same product codes, brands and tool types at mostly the same prices. Each
+ * catalog loaded through an interner gives up its own copy of every product code, type and brand string and every
+ * pricing row for the instance the interner already holds, so a hundred stores with the same tools hold one copy of
+ * each rather than a hundred. Any number of catalogs can load through one interner at once.
+ *
+ * An interner keeps everything it has ever been given, including values a reload has since dropped from every
+ * catalog. Starting a fresh interner for a full reload lets the old values go.
+ */
+public final class CatalogInterner {
+
+    private final ConcurrentHashMap<String, String> strings = new ConcurrentHashMap<>(); // Each distinct string
+    private final ConcurrentHashMap<PricingRow, PricingRow> rows = new ConcurrentHashMap<>(); // Each distinct row
+
+    /**
+     * This function finds the shared instance of a string, making this one the shared instance if it is new.
+     *
+     * @param text String to share
+     * @return The shared string equal to it
+     */
+    public String intern(String text) {
+        String shared = strings.putIfAbsent(text, text);
+        return shared != null ? shared : text;
+    }
+
+    /**
+     * This function finds the shared instance of a pricing row, making this one the shared instance if it is new.
+     *
+     * @param row Row to share
+     * @return The shared row equal to it
+     */
+    PricingRow intern(PricingRow row) {
+        PricingRow shared = rows.putIfAbsent(row, row);
+        return shared != null ? shared : row;
+    }
+
+    /**
+     * This function counts the distinct strings shared.
+     *
+     * @return Number of product codes, types and brands held
+     */
+    public int getStringCount() {
+        return strings.size();
+    }
+
+    /**
+     * This function counts the distinct pricing rows shared.
+     *
+     * @return Number of pricing rows held
+     */
+    public int getPricingRowCount() {
+        return rows.size();
+    }
+}
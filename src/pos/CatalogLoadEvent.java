@@ -0,0 +1,43 @@
+package pos;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight Recorder event for loading the tool catalog, from the CSVs or from the binary snapshot.
+ *
+ * Loads are rare, so every one is recorded. The stack trace is left off since a load always comes from the
+ * ToolsDB constructor, a reload or the CSV watcher.
+ */
+@Name("pos.CatalogLoad")
+@Label("Catalog Load")
+@Category({"POS", "Catalog"})
+@Description("Tool catalog loaded from CSV files or mapped from the snapshot")
+@Threshold("0 ms")
+@StackTrace(false)
+public class CatalogLoadEvent extends Event {
+
+    @Label("Source")
+    @Description("csv or snapshot")
+    String source;
+
+    @Label("Reload")
+    @Description("If this replaced a catalog already being served")
+    boolean reload;
+
+    @Label("Tool Info Rows")
+    @Description("Tool types read from the tool info CSV, 0 for a snapshot")
+    int toolInfoRows;
+
+    @Label("Tool Rows")
+    @Description("Tools in the loaded catalog")
+    int toolRows;
+
+    @Label("Succeeded")
+    boolean succeeded;
+}
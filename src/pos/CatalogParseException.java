@@ -0,0 +1,60 @@
+package pos;
+
+import java.io.IOException;
+
+/**
+ * Custom Exception class to use when a row of a catalog CSV can't be read.
+ * When a file has several bad rows the first is thrown and the rest, up to a limit, are attached as suppressed.
+ */
+public class CatalogParseException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String file; // Name of the CSV with the bad row
+    private final long row; // Line number of the bad row, counting from 1
+    private int errorCount = 1; // Bad rows found in the load, including ones not attached
+
+    /**
+     * Constructor for the CatalogParseException class.
+     *
+     * @param file Name of the CSV with the bad row
+     * @param row Line number of the bad row, counting from 1
+     * @param problem What is wrong with the row
+     */
+    public CatalogParseException(String file, long row, String problem) {
+        super(file + " row " + row + ": " + problem);
+        this.file = file;
+        this.row = row;
+    }
+
+    /**
+     * Getter function for the name of the CSV with the bad row.
+     *
+     * @return Name of the CSV.
+     */
+    public String getFile() {
+        return file;
+    }
+
+    /**
+     * Getter function for the line number of the bad row.
+     *
+     * @return Line number, counting from 1.
+     */
+    public long getRow() {
+        return row;
+    }
+
+    /**
+     * Getter function for the number of bad rows found in the load this was thrown from.
+     *
+     * @return Number of bad rows, at least 1.
+     */
+    public int getErrorCount() {
+        return errorCount;
+    }
+
+    void setErrorCount(int errorCount) {
+        this.errorCount = errorCount;
+    }
+}
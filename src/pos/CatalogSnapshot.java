@@ -0,0 +1,73 @@
+package pos;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable catalog of tools loaded from the catalog CSVs at one point in time.
+ * A reload builds a new snapshot rather than changing this one, so readers never see a half loaded catalog.
+ */
+public final class CatalogSnapshot implements ToolCatalog {
+
+    public static final CatalogSnapshot EMPTY = new CatalogSnapshot(new ArrayList<>());
+
+    private final Map<String, Tool> toolsByCode; // Each tool available at the store, by product code
+    private final Map<String, Integer> unitsByCode; // Number of units the store owns, by product code
+    private final List<String> toolCodes; // Product codes in the order they were loaded
+
+    /**
+     * Constructor for a catalog snapshot where each tool is a single unit.
+     * When a product code appears more than once the last tool with that code is kept.
+     *
+     * @param tools Tools in the catalog, in load order
+     */
+    public CatalogSnapshot(List<Tool> tools) {
+        this(tools, null);
+    }
+
+    /**
+     * Constructor for a catalog snapshot.
+     * When a product code appears more than once the last tool with that code is kept and the units are added up.
+     *
+     * @param tools Tools in the catalog, in load order
+     * @param units Number of units of each tool, in the same order, or null for one of each
+     */
+    public CatalogSnapshot(List<Tool> tools, int[] units) {
+        Map<String, Tool> toolsByCode = new HashMap<>(Math.max(16, tools.size() * 4 / 3 + 1));
+        Map<String, Integer> unitsByCode = new HashMap<>(Math.max(16, tools.size() * 4 / 3 + 1));
+        List<String> toolCodes = new ArrayList<>(tools.size());
+        for (int i = 0; i < tools.size(); i++) {
+            Tool tool = tools.get(i);
+            if (toolsByCode.put(tool.getCode(), tool) == null) {
+                toolCodes.add(tool.getCode());
+            }
+            unitsByCode.merge(tool.getCode(), units == null ? 1 : units[i], Integer::sum);
+        }
+        this.toolsByCode = toolsByCode;
+        this.unitsByCode = unitsByCode;
+        this.toolCodes = Collections.unmodifiableList(toolCodes);
+    }
+
+    @Override
+    public Tool getTool(String toolCode) {
+        return toolsByCode.get(toolCode);
+    }
+
+    @Override
+    public int getUnits(String toolCode) {
+        return unitsByCode.getOrDefault(toolCode, 0);
+    }
+
+    @Override
+    public List<String> getToolCodes() {
+        return toolCodes;
+    }
+
+    @Override
+    public int size() {
+        return toolCodes.size();
+    }
+}
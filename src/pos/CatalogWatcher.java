@@ -0,0 +1,100 @@
+package pos;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the catalog CSVs and reloads a ToolsDB whenever one of them changes.
+ *
+ * Runs on its own daemon thread. Editors and copy tools often write a file in several steps, so after the first
+ * change the watcher waits for the files to go quiet before reloading once.
+ */
+class CatalogWatcher implements Runnable, AutoCloseable {
+
+    // How long the files must go unchanged before reloading
+    private static final long SETTLE_MILLIS = 200;
+
+    private final ToolsDB toolDirectory; // Catalog to reload
+    private final Set<Path> watchedFiles = new HashSet<>(); // Absolute paths of the CSVs
+    private final WatchService watchService; // Notifies of changes in the CSVs' directories
+    private final Thread thread; // Thread waiting for changes
+
+    CatalogWatcher(ToolsDB toolDirectory, Path... files) throws IOException {
+        this.toolDirectory = toolDirectory;
+        this.watchService = FileSystems.getDefault().newWatchService();
+
+        Set<Path> directories = new HashSet<>();
+        for (Path file : files) {
+            Path absolute = file.toAbsolutePath().normalize();
+            watchedFiles.add(absolute);
+            directories.add(absolute.getParent());
+        }
+        for (Path directory : directories) {
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+        }
+
+        this.thread = new Thread(this, "catalog-watcher");
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Starts watching on the watcher's thread.
+     */
+    void start() {
+        thread.start();
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (true) {
+                if (!catalogChanged(watchService.take())) {
+                    continue;
+                }
+
+                // Keep draining until the files stop changing
+                WatchKey key;
+                while ((key = watchService.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    catalogChanged(key);
+                }
+                toolDirectory.reload();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Watcher was closed
+        }
+    }
+
+    private boolean catalogChanged(WatchKey key) {
+        boolean changed = false;
+        Path directory = (Path) key.watchable();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW
+                    || watchedFiles.contains(directory.resolve((Path) event.context()))) {
+                changed = true;
+            }
+        }
+        key.reset();
+        return changed;
+    }
+
+    /**
+     * Stops watching the files.
+     *
+     * @throws IOException If the watch service can't be closed
+     */
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+        thread.interrupt();
+    }
+}
@@ -0,0 +1,153 @@
+package pos;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+
+/**
+ * Utility Class for counting how many days of a rental are charged, without walking the rental one day at a time.
+ *
+ * The rental window runs from the day after checkout through the due date. Whole weeks are counted arithmetically,
+ * the leftover days are looked up by the day of week the window starts on, and holidays inside the window are
+ * counted from the store's {@link HolidayCalendar} and subtracted afterwards. The result matches the day by day
+ * rules checkout has always used: a free holiday wins over everything, otherwise free weekends are checked before
+ * free weekdays.
+ */
+public final class ChargeDayCalculator {
+
+    // Day of week (Monday = 0) of epoch day 0, 1970-01-01 was a Thursday
+    private static final int EPOCH_DAY_OF_WEEK = 3;
+
+    // Weekend days found in the first N days (column) of a run that starts on a given day of week (row, Monday = 0)
+    private static final int[][] WEEKEND_DAYS_IN_PARTIAL_WEEK = buildPartialWeekTable();
+
+    private ChargeDayCalculator() {
+    }
+
+    /**
+     * This function counts the days a tool will be charged for over a rental, using the default holiday calendar.
+     *
+     * @param checkoutDate Date of the checkout, the first charged day is the day after
+     * @param rentalDays Number of days the rental will be for
+     * @param toolToRent The tool being rented
+     * @return The number of days to charge the customer for the rental
+     */
+    public static int calcChargeDays(LocalDate checkoutDate, int rentalDays, Tool toolToRent) {
+        return calcChargeDays(checkoutDate, rentalDays, toolToRent, HolidayCalendar.getDefault());
+    }
+
+    /**
+     * This function counts the days a tool will be charged for over a rental.
+     *
+     * @param checkoutDate Date of the checkout, the first charged day is the day after
+     * @param rentalDays Number of days the rental will be for
+     * @param toolToRent The tool being rented
+     * @param holidays Holidays observed by the store
+     * @return The number of days to charge the customer for the rental
+     */
+    public static int calcChargeDays(LocalDate checkoutDate, int rentalDays, Tool toolToRent,
+                                     HolidayCalendar holidays) {
+        return calcChargeDays(checkoutDate, rentalDays,
+                toolToRent.isWeekdayCharge(), toolToRent.isWeekendCharge(), toolToRent.isHolidayCharge(), holidays);
+    }
+
+    /**
+     * This function counts the days a rental will be charged for given the tool's charge attributes.
+     *
+     * @param checkoutDate Date of the checkout, the first charged day is the day after
+     * @param rentalDays Number of days the rental will be for
+     * @param weekdayCharge If the tool costs money on weekdays
+     * @param weekendCharge If the tool costs money on weekends
+     * @param holidayCharge If the tool costs money on holidays
+     * @param holidays Holidays observed by the store
+     * @return The number of days to charge the customer for the rental
+     */
+    public static int calcChargeDays(LocalDate checkoutDate, int rentalDays, boolean weekdayCharge,
+                                     boolean weekendCharge, boolean holidayCharge, HolidayCalendar holidays) {
+        if (rentalDays < 0) {
+            throw new IllegalArgumentException("Rental days must not be negative: " + rentalDays);
+        }
+        if (rentalDays == 0) {
+            return 0;
+        }
+
+        long firstDay = checkoutDate.toEpochDay() + 1;
+        long lastDay = firstDay + rentalDays - 1;
+
+        // Weekends are checked before weekdays, so weekdays are only free when weekends are charged
+        boolean weekendsFree = !weekendCharge;
+        boolean weekdaysFree = weekendCharge && !weekdayCharge;
+
+        int weekendDays = 2 * (rentalDays / 7)
+                + WEEKEND_DAYS_IN_PARTIAL_WEEK[dayOfWeekIndex(firstDay)][rentalDays % 7];
+        int weekdayDays = rentalDays - weekendDays;
+
+        int chargeDays = rentalDays;
+        if (weekendsFree) {
+            chargeDays -= weekendDays;
+        }
+        if (weekdaysFree) {
+            chargeDays -= weekdayDays;
+        }
+
+        // Holidays only need subtracting when they would otherwise have been charged
+        if (!holidayCharge) {
+            chargeDays -= holidays.countHolidays(firstDay, lastDay, !weekdaysFree, !weekendsFree);
+        }
+
+        return chargeDays;
+    }
+
+    /**
+     * Reference implementation that walks the rental one day at a time, applying the charge rules in order.
+     * Kept to verify the closed form against.
+     *
+     * @param checkoutDate Date of the checkout, the first charged day is the day after
+     * @param rentalDays Number of days the rental will be for
+     * @param weekdayCharge If the tool costs money on weekdays
+     * @param weekendCharge If the tool costs money on weekends
+     * @param holidayCharge If the tool costs money on holidays
+     * @param holidays Holidays observed by the store
+     * @return The number of days to charge the customer for the rental
+     */
+    static int calcChargeDaysByIteration(LocalDate checkoutDate, int rentalDays, boolean weekdayCharge,
+                                         boolean weekendCharge, boolean holidayCharge, HolidayCalendar holidays) {
+        int chargeDays = rentalDays;
+        LocalDate iterDate = checkoutDate.plusDays(1);
+        LocalDate endDate = checkoutDate.plusDays(rentalDays + 1L);
+
+        while (!iterDate.isEqual(endDate)) {
+            DayOfWeek currentDayOfWeek = iterDate.getDayOfWeek();
+
+            if (!holidayCharge && holidays.isHoliday(iterDate)) {
+                chargeDays--;
+            } else if (!weekendCharge) {
+                switch (currentDayOfWeek) {
+                    case SATURDAY, SUNDAY -> chargeDays--;
+                }
+            } else if (!weekdayCharge) {
+                switch (currentDayOfWeek) {
+                    case MONDAY, TUESDAY, WEDNESDAY, THURSDAY, FRIDAY -> chargeDays--;
+                }
+            }
+
+            iterDate = iterDate.plusDays(1);
+        }
+
+        return chargeDays;
+    }
+
+    private static int dayOfWeekIndex(long epochDay) {
+        return (int) Math.floorMod(epochDay + EPOCH_DAY_OF_WEEK, 7L);
+    }
+
+    private static int[][] buildPartialWeekTable() {
+        int[][] table = new int[7][7];
+        for (int startDay = 0; startDay < 7; startDay++) {
+            for (int length = 1; length < 7; length++) {
+                int dayIndex = (startDay + length - 1) % 7;
+                table[startDay][length] = table[startDay][length - 1] + (dayIndex >= 5 ? 1 : 0);
+            }
+        }
+        return table;
+    }
+}
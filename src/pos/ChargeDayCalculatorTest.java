@@ -0,0 +1,110 @@
+package pos;
+
+import org.junit.jupiter.api.Test;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for verifying the closed form charge day count against the day by day rules.
+ */
+class ChargeDayCalculatorTest {
+
+    /**
+     * Every combination of charge attributes, every checkout date over several years and every rental length
+     * a clerk can enter should match walking the rental day by day.
+     */
+    @Test
+    void matchesIterationForClerkRentalLengths() {
+        HolidayCalendar holidays = HolidayCalendar.getDefault();
+        LocalDate firstCheckout = LocalDate.of(2014, Month.JANUARY, 1);
+        LocalDate lastCheckout = LocalDate.of(2026, Month.DECEMBER, 31);
+
+        for (int policy = 0; policy < 8; policy++) {
+            boolean weekdayCharge = (policy & 1) != 0;
+            boolean weekendCharge = (policy & 2) != 0;
+            boolean holidayCharge = (policy & 4) != 0;
+
+            for (LocalDate checkoutDate = firstCheckout; !checkoutDate.isAfter(lastCheckout);
+                 checkoutDate = checkoutDate.plusDays(1)) {
+                for (int rentalDays = 0; rentalDays <= 28; rentalDays++) {
+                    assertEquals(
+                            ChargeDayCalculator.calcChargeDaysByIteration(checkoutDate, rentalDays,
+                                    weekdayCharge, weekendCharge, holidayCharge, holidays),
+                            ChargeDayCalculator.calcChargeDays(checkoutDate, rentalDays,
+                                    weekdayCharge, weekendCharge, holidayCharge, holidays),
+                            "policy " + policy + " from " + checkoutDate + " for " + rentalDays + " days");
+                }
+            }
+        }
+    }
+
+    /**
+     * Long term rentals that cross one or more year boundaries pick up each year's holidays.
+     */
+    @Test
+    void matchesIterationForLongRentalsAcrossYears() {
+        HolidayCalendar holidays = HolidayCalendar.getDefault();
+        LocalDate checkoutDate = LocalDate.of(2019, Month.JUNE, 15);
+
+        for (int policy = 0; policy < 8; policy++) {
+            boolean weekdayCharge = (policy & 1) != 0;
+            boolean weekendCharge = (policy & 2) != 0;
+            boolean holidayCharge = (policy & 4) != 0;
+
+            for (int rentalDays = 29; rentalDays <= 1200; rentalDays += 13) {
+                assertEquals(
+                        ChargeDayCalculator.calcChargeDaysByIteration(checkoutDate, rentalDays,
+                                weekdayCharge, weekendCharge, holidayCharge, holidays),
+                        ChargeDayCalculator.calcChargeDays(checkoutDate, rentalDays,
+                                weekdayCharge, weekendCharge, holidayCharge, holidays),
+                        "policy " + policy + " for " + rentalDays + " days");
+            }
+        }
+    }
+
+    /**
+     * Store calendars can have holidays that land on weekends, those are free for tools that charge on weekends.
+     */
+    @Test
+    void matchesIterationForWeekendHolidays() {
+        HolidayCalendar holidays = new HolidayCalendar(List.of(
+                HolidayRule.fixed("New Year's Day", Month.JANUARY, 1, false),
+                HolidayRule.fixed("Christmas Day", Month.DECEMBER, 25, false),
+                HolidayRule.nthWeekday("Memorial Day", Month.MAY, -1, DayOfWeek.MONDAY, false)));
+        LocalDate checkoutDate = LocalDate.of(2020, Month.DECEMBER, 1);
+
+        for (int policy = 0; policy < 8; policy++) {
+            boolean weekdayCharge = (policy & 1) != 0;
+            boolean weekendCharge = (policy & 2) != 0;
+            boolean holidayCharge = (policy & 4) != 0;
+
+            for (int rentalDays = 0; rentalDays <= 800; rentalDays++) {
+                assertEquals(
+                        ChargeDayCalculator.calcChargeDaysByIteration(checkoutDate, rentalDays,
+                                weekdayCharge, weekendCharge, holidayCharge, holidays),
+                        ChargeDayCalculator.calcChargeDays(checkoutDate, rentalDays,
+                                weekdayCharge, weekendCharge, holidayCharge, holidays),
+                        "policy " + policy + " for " + rentalDays + " days");
+            }
+        }
+    }
+
+    @Test
+    void jackhammerOverIndependenceDay() {
+        Tool jackhammer = new Tool("Jackhammer", "Ridgid", "JAKR", 2.99, true, false, false);
+
+        assertEquals(5, ChargeDayCalculator.calcChargeDays(LocalDate.of(2015, Month.JULY, 2), 9, jackhammer));
+    }
+
+    @Test
+    void negativeRentalDays() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            ChargeDayCalculator.calcChargeDays(LocalDate.of(2020, Month.JULY, 2), -1, true, true, true,
+                    HolidayCalendar.getDefault());
+        });
+    }
+}
@@ -0,0 +1,139 @@
+package pos;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Class Definition for precomputed charge day counts, one table per charge policy.
+ *
+ * Before holidays, the days a rental is charged for depend only on the tool's charge policy, the day of week
+ * the rental starts on and its length. Each table holds that count for every start day and every length up to
+ * a limit, so pricing a rental is one array read plus subtracting the charged holidays in the window. Rentals
+ * longer than the tables are counted by ChargeDayCalculator instead.
+ */
+public final class ChargeDayTables {
+
+    // Day of week (Monday = 0) of epoch day 0, 1970-01-01 was a Thursday
+    private static final int EPOCH_DAY_OF_WEEK = 3;
+
+    private final int maxDays; // Longest rental in the tables
+    private final short[] chargeDays; // Charge days before holidays by policy, start day of week and length
+
+    /**
+     * Constructor for the ChargeDayTables class.
+     *
+     * @param maxDays Longest rental to precompute, from 0 to 32767
+     */
+    public ChargeDayTables(int maxDays) {
+        if (maxDays < 0 || maxDays > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Table length out of range: " + maxDays);
+        }
+        this.maxDays = maxDays;
+        this.chargeDays = new short[ChargePolicy.COUNT * 7 * (maxDays + 1)];
+
+        for (int policy = 0; policy < ChargePolicy.COUNT; policy++) {
+            // Weekends are checked before weekdays, so weekdays are only free when weekends are charged
+            boolean weekendsFree = !ChargePolicy.isWeekendCharge(policy);
+            boolean weekdaysFree = !weekendsFree && !ChargePolicy.isWeekdayCharge(policy);
+
+            for (int startDay = 0; startDay < 7; startDay++) {
+                int row = rowOffset(policy, startDay);
+                for (int length = 1; length <= maxDays; length++) {
+                    boolean weekend = (startDay + length - 1) % 7 >= 5;
+                    boolean free = weekend ? weekendsFree : weekdaysFree;
+                    chargeDays[row + length] = (short) (chargeDays[row + length - 1] + (free ? 0 : 1));
+                }
+            }
+        }
+    }
+
+    /**
+     * Getter function for the longest rental in the tables.
+     *
+     * @return Longest precomputed rental, in days
+     */
+    public int getMaxDays() {
+        return maxDays;
+    }
+
+    /**
+     * This function reads the charge days for a rental before any holidays are taken off.
+     *
+     * @param policy Packed charge policy of the tool
+     * @param startDayOfWeek Day of week of the first charged day, Monday = 0
+     * @param rentalDays Length of the rental, up to getMaxDays
+     * @return Days charged if the window had no holidays
+     */
+    public int lookup(int policy, int startDayOfWeek, int rentalDays) {
+        return chargeDays[rowOffset(policy, startDayOfWeek) + rentalDays];
+    }
+
+    /**
+     * This function counts the days a rental will be charged for.
+     *
+     * @param checkoutDate Date of the checkout, the first charged day is the day after
+     * @param rentalDays Number of days the rental will be for
+     * @param policy Packed charge policy of the tool
+     * @param holidays Holidays observed by the store
+     * @return The number of days to charge the customer for the rental
+     * @throws IllegalArgumentException If the rental days are negative
+     */
+    public int calcChargeDays(LocalDate checkoutDate, int rentalDays, int policy, HolidayCalendar holidays) {
+        if (rentalDays < 0 || rentalDays > maxDays) {
+            return ChargeDayCalculator.calcChargeDays(checkoutDate, rentalDays,
+                    ChargePolicy.isWeekdayCharge(policy), ChargePolicy.isWeekendCharge(policy),
+                    ChargePolicy.isHolidayCharge(policy), holidays);
+        }
+        if (rentalDays == 0) {
+            return 0;
+        }
+
+        long firstDay = checkoutDate.toEpochDay() + 1;
+        int startDayOfWeek = (int) Math.floorMod(firstDay + EPOCH_DAY_OF_WEEK, 7L);
+        int days = chargeDays[rowOffset(policy, startDayOfWeek) + rentalDays];
+
+        // Holidays only need subtracting when they would otherwise have been charged
+        if (!ChargePolicy.isHolidayCharge(policy)) {
+            boolean weekendsCharged = ChargePolicy.isWeekendCharge(policy);
+            boolean weekdaysCharged = !weekendsCharged || ChargePolicy.isWeekdayCharge(policy);
+            days -= holidays.countHolidays(firstDay, firstDay + rentalDays - 1, weekdaysCharged, weekendsCharged);
+        }
+        return days;
+    }
+
+    /**
+     * This function checks the tables against the day by day charge rules, for every policy, every checkout
+     * date in a range and every length up to a limit.
+     *
+     * @param holidays Holidays to check with
+     * @param firstCheckoutDate First checkout date to check
+     * @param lastCheckoutDate Last checkout date to check
+     * @param maxRentalDays Longest rental to check, lengths past the tables check the fallback
+     * @return A description of each mismatch, empty if the tables agree everywhere
+     */
+    public List<String> verify(HolidayCalendar holidays, LocalDate firstCheckoutDate, LocalDate lastCheckoutDate,
+                               int maxRentalDays) {
+        List<String> mismatches = new ArrayList<>();
+        for (LocalDate checkoutDate = firstCheckoutDate; !checkoutDate.isAfter(lastCheckoutDate);
+             checkoutDate = checkoutDate.plusDays(1)) {
+            for (int policy = 0; policy < ChargePolicy.COUNT; policy++) {
+                for (int rentalDays = 0; rentalDays <= maxRentalDays; rentalDays++) {
+                    int expected = ChargeDayCalculator.calcChargeDaysByIteration(checkoutDate, rentalDays,
+                            ChargePolicy.isWeekdayCharge(policy), ChargePolicy.isWeekendCharge(policy),
+                            ChargePolicy.isHolidayCharge(policy), holidays);
+                    int actual = calcChargeDays(checkoutDate, rentalDays, policy, holidays);
+                    if (actual != expected) {
+                        mismatches.add("Policy " + policy + ", checkout " + checkoutDate + ", " + rentalDays
+                                + " days: table gives " + actual + ", day by day gives " + expected);
+                    }
+                }
+            }
+        }
+        return mismatches;
+    }
+
+    private int rowOffset(int policy, int startDayOfWeek) {
+        return (policy * 7 + startDayOfWeek) * (maxDays + 1);
+    }
+}
@@ -0,0 +1,58 @@
+package pos;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for verifying the functionality of the ChargeDayTables class
+ */
+class ChargeDayTablesTest {
+
+    @Test
+    void lookup() {
+        ChargeDayTables tables = new ChargeDayTables(28);
+        int everyDay = ChargePolicy.of(true, true, true);
+        int weekdaysOnly = ChargePolicy.of(true, false, true);
+        int weekendsOnly = ChargePolicy.of(false, true, true);
+
+        // Starting on a Friday (4): Fri, Sat, Sun, Mon
+        assertEquals(4, tables.lookup(everyDay, 4, 4));
+        assertEquals(2, tables.lookup(weekdaysOnly, 4, 4));
+        assertEquals(2, tables.lookup(weekendsOnly, 4, 4));
+        assertEquals(20, tables.lookup(weekdaysOnly, 0, 28));
+        assertEquals(0, tables.lookup(everyDay, 6, 0));
+    }
+
+    @Test
+    void matchesDayByDayRules() {
+        ChargeDayTables tables = new ChargeDayTables(40);
+        HolidayCalendar holidays = HolidayCalendar.getDefault();
+
+        // Covers July 4th on every day of the week and Labor Day in several years
+        assertEquals(Arrays.asList(), tables.verify(holidays, LocalDate.of(2014, 6, 1), LocalDate.of(2014, 9, 30), 45));
+        assertEquals(Arrays.asList(), tables.verify(holidays, LocalDate.of(2020, 6, 1), LocalDate.of(2021, 1, 10), 30));
+    }
+
+    @Test
+    void checkoutVerificationMode() {
+        assertTrue(CheckoutFunctions.verifyChargeDayTables(LocalDate.of(2015, 6, 1), LocalDate.of(2015, 9, 30)).isEmpty());
+        assertEquals(366, CheckoutFunctions.getChargeDayTables().getMaxDays());
+    }
+
+    @Test
+    void longerThanTables() {
+        ChargeDayTables tables = new ChargeDayTables(7);
+        int weekdaysOnly = ChargePolicy.of(true, false, false);
+        LocalDate checkoutDate = LocalDate.of(2015, 7, 2);
+
+        assertEquals(ChargeDayCalculator.calcChargeDays(checkoutDate, 60, true, false, false, HolidayCalendar.getDefault()),
+                tables.calcChargeDays(checkoutDate, 60, weekdaysOnly, HolidayCalendar.getDefault()));
+        assertThrows(IllegalArgumentException.class,
+                () -> tables.calcChargeDays(checkoutDate, -1, weekdaysOnly, HolidayCalendar.getDefault()));
+        assertThrows(IllegalArgumentException.class, () -> new ChargeDayTables(-1));
+    }
+}
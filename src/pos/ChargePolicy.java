@@ -0,0 +1,72 @@
+package pos;
+
+/**
+ * Utility Class for packing a tool's three charge attributes into the bits of one small number.
+ * The packed form is 0 to 7, so it can index tables and be stored in a single byte.
+ */
+public final class ChargePolicy {
+
+    public static final int WEEKDAY_CHARGE = 1; // Tool costs money on weekdays
+    public static final int WEEKEND_CHARGE = 2; // Tool costs money on weekends
+    public static final int HOLIDAY_CHARGE = 4; // Tool costs money on holidays
+
+    // Number of distinct policies
+    public static final int COUNT = 8;
+
+    private ChargePolicy() {
+    }
+
+    /**
+     * This function packs charge attributes into a policy.
+     *
+     * @param weekdayCharge If the tool costs money on weekdays
+     * @param weekendCharge If the tool costs money on weekends
+     * @param holidayCharge If the tool costs money on holidays
+     * @return The packed policy
+     */
+    public static int of(boolean weekdayCharge, boolean weekendCharge, boolean holidayCharge) {
+        return (weekdayCharge ? WEEKDAY_CHARGE : 0)
+                | (weekendCharge ? WEEKEND_CHARGE : 0)
+                | (holidayCharge ? HOLIDAY_CHARGE : 0);
+    }
+
+    /**
+     * This function packs a tool's charge attributes into a policy.
+     *
+     * @param tool Tool to read the attributes of
+     * @return The packed policy
+     */
+    public static int of(Tool tool) {
+        return of(tool.isWeekdayCharge(), tool.isWeekendCharge(), tool.isHolidayCharge());
+    }
+
+    /**
+     * This function checks if a policy charges for weekdays.
+     *
+     * @param policy Packed policy
+     * @return If weekdays cost money
+     */
+    public static boolean isWeekdayCharge(int policy) {
+        return (policy & WEEKDAY_CHARGE) != 0;
+    }
+
+    /**
+     * This function checks if a policy charges for weekends.
+     *
+     * @param policy Packed policy
+     * @return If weekends cost money
+     */
+    public static boolean isWeekendCharge(int policy) {
+        return (policy & WEEKEND_CHARGE) != 0;
+    }
+
+    /**
+     * This function checks if a policy charges for holidays.
+     *
+     * @param policy Packed policy
+     * @return If holidays cost money
+     */
+    public static boolean isHolidayCharge(int policy) {
+        return (policy & HOLIDAY_CHARGE) != 0;
+    }
+}
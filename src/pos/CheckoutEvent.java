@@ -0,0 +1,34 @@
+package pos;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight Recorder event for pricing one checkout.
+ *
+ * A checkout normally takes a few microseconds, so by default only ones taking a millisecond or more are
+ * recorded, which keeps continuous recordings small while still catching the slow ones. Lower the threshold in
+ * a recording's settings to see every checkout. No stack trace is taken.
+ */
+@Name("pos.Checkout")
+@Label("Checkout")
+@Category({"POS", "Checkout"})
+@Description("Rental priced by CheckoutFunctions.checkout")
+@Threshold("1 ms")
+@StackTrace(false)
+public class CheckoutEvent extends Event {
+
+    @Label("Tool Code")
+    String toolCode;
+
+    @Label("Rental Days")
+    int rentalDays;
+
+    @Label("Charge Days")
+    int chargeDays;
+}
@@ -0,0 +1,348 @@
+package pos;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Utility Class for prompt clerks and executing checkouts
+ *
+ * The prompts here talk to the clerk at the console. Servers give each connection its own ClerkSession instead.
+ */
+public final class CheckoutFunctions {
+
+    // Session for the clerk at the console
+    private static final ClerkSession console = new ClerkSession(System.in, System.out);
+
+    // Charge days before holidays for every policy, start day and rental length up to a year
+    private static final ChargeDayTables chargeDayTables = new ChargeDayTables(366);
+
+    // Most quotes kept for repeat checkouts under the default holiday calendar
+    private static final int QUOTE_CACHE_SIZE = 16384;
+
+    // Quotes under the default holiday calendar, replaced when the default calendar changes
+    private static volatile QuoteCache quoteCache = new QuoteCache(HolidayCalendar.getDefault(), QUOTE_CACHE_SIZE);
+
+    /**
+     * This function executes a checkout and create rental agreements.
+     *
+     * @param toolToCheckOut Which tool will be checkout
+     * @param checkoutDate Which date the checkout was executed on
+     * @param rentalDays How many days the tool will be rented for
+     * @param discountPercentage What percent of the rental costs will be deducted
+     * @return Generated rental agreement
+     */
+    public static RentalAgreement checkout(Tool toolToCheckOut, LocalDate checkoutDate, int rentalDays, int discountPercentage) {
+        return checkout(toolToCheckOut, checkoutDate, rentalDays, discountPercentage, HolidayCalendar.getDefault());
+    }
+
+    /**
+     * This function executes a checkout against a store's holiday calendar and create rental agreements.
+     *
+     * @param toolToCheckOut Which tool will be checkout
+     * @param checkoutDate Which date the checkout was executed on
+     * @param rentalDays How many days the tool will be rented for
+     * @param discountPercentage What percent of the rental costs will be deducted
+     * @param holidays Holidays observed by the store
+     * @return Generated rental agreement
+     */
+    public static RentalAgreement checkout(Tool toolToCheckOut, LocalDate checkoutDate, int rentalDays,
+                                           int discountPercentage, HolidayCalendar holidays) {
+
+        // Create and calculate needed values to create a rental agreement, reusing the charge days and
+        // pre-discount charge of an identical earlier quote when there is one
+        CheckoutEvent event = new CheckoutEvent();
+        event.begin();
+        long checkoutStarted = CheckoutMetrics.start();
+        LocalDate dueDate = calcDueDate(checkoutDate, rentalDays);
+        long stageStarted = CheckoutMetrics.lap(CheckoutMetrics.Stage.DUE_DATE, checkoutStarted);
+        long dailyChargeCents = toolToCheckOut.getDailyChargeCents();
+        int chargeDays;
+        long preDiscountCharge;
+        QuoteCache cache = getQuoteCache();
+        if (cache.getHolidays() == holidays) {
+            QuoteCache.Quote quote = cache.get(toolToCheckOut, checkoutDate, rentalDays);
+            chargeDays = quote.getChargeDays();
+            preDiscountCharge = quote.getPreDiscountCharge();
+        } else {
+            chargeDays = calcChargeDays(checkoutDate, toolToCheckOut, rentalDays, holidays);
+            preDiscountCharge = calcPreDiscountCharge(chargeDays, dailyChargeCents);
+        }
+        stageStarted = CheckoutMetrics.lap(CheckoutMetrics.Stage.CHARGE_DAYS, stageStarted);
+        long discountAmount = calDiscountAmount(preDiscountCharge, discountPercentage);
+        long finalCharge = preDiscountCharge - discountAmount;
+
+        RentalAgreement agreement = new RentalAgreement(
+                toolToCheckOut.getCode(),
+                toolToCheckOut.getType(),
+                toolToCheckOut.getBrand(),
+                rentalDays,
+                checkoutDate,
+                dueDate,
+                Money.ofCents(dailyChargeCents),
+                chargeDays,
+                Money.ofCents(preDiscountCharge),
+                discountPercentage,
+                Money.ofCents(discountAmount),
+                Money.ofCents(finalCharge));
+        CheckoutMetrics.lap(CheckoutMetrics.Stage.DISCOUNT, stageStarted);
+        CheckoutMetrics.lap(CheckoutMetrics.Stage.CHECKOUT, checkoutStarted);
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.toolCode = toolToCheckOut.getCode();
+            event.rentalDays = rentalDays;
+            event.chargeDays = chargeDays;
+            event.commit();
+        }
+        return agreement;
+    }
+
+    /**
+     * Getter function for the precomputed charge day tables checkout counts charge days with.
+     *
+     * @return The charge day tables
+     */
+    public static ChargeDayTables getChargeDayTables() {
+        return chargeDayTables;
+    }
+
+    /**
+     * This function checks the charge day tables against the day by day charge rules under the default holiday
+     * calendar, for every policy, every checkout date in a range and every rental length from 0 to 28 days.
+     *
+     * @param firstCheckoutDate First checkout date to check
+     * @param lastCheckoutDate Last checkout date to check
+     * @return A description of each mismatch, empty if the tables agree everywhere
+     */
+    public static List<String> verifyChargeDayTables(LocalDate firstCheckoutDate, LocalDate lastCheckoutDate) {
+        return chargeDayTables.verify(HolidayCalendar.getDefault(), firstCheckoutDate, lastCheckoutDate, 28);
+    }
+
+    /**
+     * This function retrieves the cache of quotes under the default holiday calendar.
+     * A new, empty cache takes over when the default calendar has been replaced.
+     *
+     * @return The quote cache checkouts under the default calendar use
+     */
+    public static QuoteCache getQuoteCache() {
+        QuoteCache cache = quoteCache;
+        HolidayCalendar holidays = HolidayCalendar.getDefault();
+        if (cache.getHolidays() != holidays) {
+            cache = new QuoteCache(holidays, QUOTE_CACHE_SIZE);
+            quoteCache = cache;
+        }
+        return cache;
+    }
+
+    /**
+     * This function prices a batch of checkouts in parallel.
+     *
+     * @param requests Checkouts to price
+     * @return Generated rental agreements, in the same order as the requests
+     */
+    public static List<RentalAgreement> checkoutAll(List<CheckoutRequest> requests) {
+        return Arrays.asList(checkoutAll(requests.toArray(new CheckoutRequest[0])));
+    }
+
+    /**
+     * This function prices a batch of checkouts in parallel.
+     *
+     * @param requests Checkouts to price
+     * @return Generated rental agreements, in the same order as the requests
+     */
+    public static RentalAgreement[] checkoutAll(CheckoutRequest[] requests) {
+        RentalAgreement[] results = new RentalAgreement[requests.length];
+        checkoutAll(requests, results, HolidayCalendar.getDefault());
+        return results;
+    }
+
+    /**
+     * This function prices a batch of checkouts in parallel on the common fork join pool, writing each agreement
+     * into a caller supplied array so repeated batches can reuse it.
+     *
+     * @param requests Checkouts to price
+     * @param results Array to fill, agreement i is written to results[i]
+     * @param holidays Holidays observed by the store, shared by every checkout in the batch
+     */
+    public static void checkoutAll(CheckoutRequest[] requests, RentalAgreement[] results, HolidayCalendar holidays) {
+        if (results.length < requests.length) {
+            throw new IllegalArgumentException(
+                    "Result array holds " + results.length + " agreements but there are " + requests.length + " requests");
+        }
+        ForkJoinPool.commonPool().invoke(new BatchCheckoutTask(requests, results, holidays, 0, requests.length));
+    }
+
+    /**
+     * This function calculates the amount to deduct from rental costs, rounded half up to the nearest cent.
+     *
+     * @param preDiscountCharge Rental costs before deduction, in cents
+     * @param discountPercentage Percentage to remove from cost
+     * @return Amount to deduct, in cents
+     */
+    private static long calDiscountAmount(long preDiscountCharge, int discountPercentage) {
+        return Money.percentOf(preDiscountCharge, discountPercentage);
+    }
+
+    /**
+     * This function returns the date a tool rental will be due back on.
+     *
+     * @param checkoutDate Date of checkout
+     * @param rentalDays How many days the tool will be rented for
+     * @return Date that the tool is due back on
+     */
+    private static LocalDate calcDueDate(LocalDate checkoutDate, int rentalDays) {
+        return checkoutDate.plusDays(rentalDays);
+    }
+
+    /**
+     * This function takes a tool and find how many days the customer will be charged for the rental.
+     *
+     * @param checkoutDate Date of the checkout
+     * @param toolToRent The tool being rented
+     * @param rentalDays Number of days the rental will be for
+     * @param holidays Holidays observed by the store
+     * @return The number of days to charge the customer for the rental.
+     */
+    private static int calcChargeDays(LocalDate checkoutDate, Tool toolToRent, int rentalDays,
+                                      HolidayCalendar holidays) {
+        return chargeDayTables.calcChargeDays(checkoutDate, rentalDays, ChargePolicy.of(toolToRent), holidays);
+    }
+
+    /**
+     * This function calculates the rental charge before discount deductions.
+     *
+     * @param chargeDays Number of days to charge for the rental
+     * @param dailyCharge The tools daily cost for rental, in cents
+     * @return the rental charge before discount deductions, in cents
+     */
+    private static long calcPreDiscountCharge(int chargeDays, long dailyCharge) {
+        return Math.multiplyExact(dailyCharge, chargeDays);
+    }
+
+    /**
+     * Getter function for the session of the clerk at the console.
+     *
+     * @return The console session the static prompts use
+     */
+    public static ClerkSession getConsoleSession() {
+        return console;
+    }
+
+    /**
+     * This function prompts the clerk, asking how many days the customer would like to rent a tool.
+     * The function takes input and makes sure it is a valid number of days for rental.
+     *
+     * @param rentalToolType What type the tool is
+     * @return The number of days that the customer wants to rent the tool for
+     */
+    public static int askForRentalDayCount(String rentalToolType) {
+        return console.askForRentalDayCount(rentalToolType);
+    }
+
+    /**
+     * This function asks the clerk for a percentage to discount from the tool rental.
+     * The function takes input and makes sure it is a valid percentage.
+     *
+     * @return The discount percentage that the clerk applied
+     */
+    public static int askForCheckoutDiscount() {
+        return console.askForCheckoutDiscount();
+    }
+
+    /**
+     * Helper function to throw an exception if an invalid rental day count is entered.
+     *
+     * @param rentalDays The number of days to validate
+     * @return If the number of rental days is valid
+     * @throws InvalidRentalDaysException The exception is thrown if rental day count is invalid
+     */
+    private static boolean _areRentalDaysValid(int rentalDays) throws InvalidRentalDaysException{
+        if (rentalDays >= 1 && rentalDays <= 28) {
+            return true;
+        } else {
+            throw new InvalidRentalDaysException();
+        }
+    }
+
+    /**
+     * Accessible function for the test class
+     *
+     * @param rentalDays The discount amount to validate
+     * @return If the discount percentage is valid
+     * @throws InvalidRentalDaysException The exception that is thrown if discount input is invalid
+     */
+    public static boolean areRentalDaysValid(int rentalDays) throws InvalidRentalDaysException {
+        return _areRentalDaysValid(rentalDays);
+    }
+
+    /**
+     * Helper function to throw an exception if an invalid discount percentage is entered.
+     *
+     * @param discount The discount amount to validate
+     * @return If the discount percentage is valid
+     * @throws InvalidDiscountPercentException The exception that is thrown if discount input is invalid
+     */
+    private static boolean _isDiscountValid(int discount) throws InvalidDiscountPercentException{
+        if (discount >= 0 && discount <= 100) {
+            return true;
+        } else {
+            throw new InvalidDiscountPercentException();
+        }
+    }
+
+    /**
+     * Accessible function for the test class
+     *
+     * @param discount The discount amount to validate
+     * @return If the discount percentage is valid
+     * @throws InvalidDiscountPercentException the exception that is thrown if discount input is invalid
+     */
+    public static boolean isDiscountValid(int discount) throws InvalidDiscountPercentException {
+        return _isDiscountValid(discount);
+    }
+
+    /**
+     * This function prompts the clerk, asking which tool the customer would like to rent.
+     * The function takes input and makes sure it is a valid tool in the directory.
+     *
+     * @param toolsAvailable Product codes to pick from
+     * @return The selected product code
+     */
+    public static String askForToolSelection(String[] toolsAvailable) {
+        return askForToolSelection(toolsAvailable, null);
+    }
+
+    /**
+     * This function prompts the clerk, asking which tool the customer would like to rent, showing how many
+     * units of each are on the shelf. Tools with none left can't be picked.
+     *
+     * @param toolsAvailable Product codes to pick from
+     * @param unitsAvailable Units on the shelf for each product code, or null to not show stock
+     * @return The selected product code
+     */
+    public static String askForToolSelection(String[] toolsAvailable, int[] unitsAvailable) {
+        return console.askForToolSelection(toolsAvailable, unitsAvailable);
+    }
+
+    /**
+     * This function asks if the customer would like a printout of their rental agreement.
+     * The function takes input and makes sure it is valid.
+     *
+     * @return If the customer wants a printout
+     */
+    public static boolean offerToPrintRentalAgreement() {
+        return console.offerToPrintRentalAgreement();
+    }
+
+    /**
+     * This function asks if the clerk will be renting out more tools
+     * The function takes input and makes sure it is valid.
+     *
+     * @return If the clerk will be checking out another rental
+     */
+    public static boolean offerToContinue() {
+        return console.offerToContinue();
+    }
+}
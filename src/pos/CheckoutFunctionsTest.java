@@ -1,7 +1,11 @@
+package pos;
+
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import java.time.LocalDate;
 import java.time.Month;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -171,4 +175,36 @@ class CheckoutFunctionsTest {
         });
         assertTrue(CheckoutFunctions.isDiscountValid(100));
     }
+
+    @Test
+    void checkoutAll() {
+        String[] codes = {"LADW", "CHNS", "JAKR", "JAKD"};
+        LocalDate firstCheckout = LocalDate.of(2015, Month.JUNE, 20);
+
+        List<CheckoutRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            requests.add(new CheckoutRequest(db.getToolFromCode(codes[i % codes.length]),
+                    firstCheckout.plusDays(i % 120), 1 + i % 28, i % 101));
+        }
+
+        List<RentalAgreement> actual = CheckoutFunctions.checkoutAll(requests);
+
+        assertEquals(requests.size(), actual.size());
+        for (int i = 0; i < requests.size(); i++) {
+            CheckoutRequest request = requests.get(i);
+            RentalAgreement expected = CheckoutFunctions.checkout(request.getTool(), request.getCheckoutDate(),
+                    request.getRentalDays(), request.getDiscountPercentage());
+            assertEquals(expected.printRentalAgreement(), actual.get(i).printRentalAgreement());
+        }
+    }
+
+    @Test
+    void checkoutAllIntoSmallResultArray() {
+        CheckoutRequest[] requests = {
+                new CheckoutRequest(db.getToolFromCode("LADW"), LocalDate.of(2020, Month.JULY, 2), 3, 10)};
+
+        assertThrows(IllegalArgumentException.class, () -> {
+            CheckoutFunctions.checkoutAll(requests, new RentalAgreement[0], HolidayCalendar.getDefault());
+        });
+    }
 }
\ No newline at end of file
@@ -0,0 +1,259 @@
+package pos;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.InvalidAttributeValueException;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Utility Class for timing each stage of a checkout, exposed over JMX
+ *
+ * Each stage has a LatencyHistogram, whose count doubles as the stage's throughput counter. Timing is off
+ * until enabled, either with -Dcheckout.metrics=true or by setting the Enabled attribute of the
+ * POSSystem:type=CheckoutMetrics MBean, for example from JConsole. While it is off, timing a stage costs one
+ * volatile read and no clock reads.
+ *
+ * A stage is timed like this, and each lap both records the stage that just ended and starts the next one:
+ * <pre>
+ * long started = CheckoutMetrics.start();
+ * ...
+ * started = CheckoutMetrics.lap(CheckoutMetrics.Stage.DUE_DATE, started);
+ * </pre>
+ */
+public final class CheckoutMetrics {
+
+    /**
+     * The parts of serving a rental that are timed.
+     */
+    public enum Stage {
+        CATALOG_LOOKUP("CatalogLookup"), // Finding a tool by product code
+        DUE_DATE("DueDate"), // Working out the due date
+        CHARGE_DAYS("ChargeDays"), // Counting charge days and the pre-discount charge
+        DISCOUNT("Discount"), // Applying the discount and building the agreement
+        CHECKOUT("Checkout"), // The whole of CheckoutFunctions.checkout
+        RECEIPT_RENDER("ReceiptRender"); // Rendering a receipt
+
+        private final String attributeName; // Prefix of the stage's JMX attributes
+
+        Stage(String attributeName) {
+            this.attributeName = attributeName;
+        }
+    }
+
+    // Name the metrics are registered under
+    private static final String OBJECT_NAME = "POSSystem:type=CheckoutMetrics";
+
+    // Percentiles reported for each stage, and the attribute suffix for each
+    private static final double[] PERCENTILES = {50, 99, 99.9};
+    private static final String[] PERCENTILE_SUFFIXES = {"P50Nanos", "P99Nanos", "P999Nanos"};
+
+    private static final Stage[] STAGES = Stage.values();
+    private static final LatencyHistogram[] histograms = newHistograms(); // Histogram per stage, by ordinal
+
+    private static volatile boolean enabled = Boolean.getBoolean("checkout.metrics"); // If stages are timed
+    private static volatile long resetAt = System.nanoTime(); // When the histograms were last cleared
+
+    private CheckoutMetrics() {
+    }
+
+    /**
+     * This function starts timing a stage.
+     *
+     * @return The current time in nanoseconds, or 0 if timing is off
+     */
+    public static long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * This function records a stage that started at a time from start or lap.
+     *
+     * @param stage Stage that just ended
+     * @param started When it started, 0 if timing was off
+     * @return The current time to start the next stage from, or 0 if timing is off
+     */
+    public static long lap(Stage stage, long started) {
+        if (started == 0) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        histograms[stage.ordinal()].record(now - started);
+        return now;
+    }
+
+    /**
+     * This function checks if stages are being timed.
+     *
+     * @return If timing is on
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * This function turns timing on or off. Stages already started when timing is turned off are still recorded.
+     *
+     * @param on If stages should be timed
+     */
+    public static void setEnabled(boolean on) {
+        enabled = on;
+    }
+
+    /**
+     * Getter function for the histogram of a stage.
+     *
+     * @param stage Stage to get
+     * @return The stage's latencies
+     */
+    public static LatencyHistogram getHistogram(Stage stage) {
+        return histograms[stage.ordinal()];
+    }
+
+    /**
+     * This function forgets every latency recorded.
+     */
+    public static void reset() {
+        for (LatencyHistogram histogram : histograms) {
+            histogram.reset();
+        }
+        resetAt = System.nanoTime();
+    }
+
+    /**
+     * This function registers the metrics with the platform MBean server, doing nothing if they already are.
+     *
+     * @return The name the metrics are registered under
+     * @throws JMException If the MBean can't be registered
+     */
+    public static synchronized ObjectName registerMBean() throws JMException {
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        if (!server.isRegistered(name)) {
+            server.registerMBean(new View(), name);
+        }
+        return name;
+    }
+
+    private static LatencyHistogram[] newHistograms() {
+        LatencyHistogram[] created = new LatencyHistogram[STAGES.length];
+        for (int i = 0; i < created.length; i++) {
+            created[i] = new LatencyHistogram();
+        }
+        return created;
+    }
+
+    /**
+     * The metrics as JMX attributes: Enabled, and for each stage its Count, PerSecond since the last reset and
+     * P50Nanos, P99Nanos and P999Nanos, such as ChargeDaysP99Nanos. The reset operation clears the histograms.
+     */
+    private static final class View implements DynamicMBean {
+
+        @Override
+        public Object getAttribute(String attribute) throws AttributeNotFoundException {
+            if (attribute.equals("Enabled")) {
+                return enabled;
+            }
+            for (Stage stage : STAGES) {
+                if (!attribute.startsWith(stage.attributeName)) {
+                    continue;
+                }
+                String suffix = attribute.substring(stage.attributeName.length());
+                LatencyHistogram histogram = histograms[stage.ordinal()];
+                if (suffix.equals("Count")) {
+                    return histogram.getCount();
+                }
+                if (suffix.equals("PerSecond")) {
+                    double seconds = Math.max(1e-9, (System.nanoTime() - resetAt) / 1e9);
+                    return histogram.getCount() / seconds;
+                }
+                for (int p = 0; p < PERCENTILES.length; p++) {
+                    if (suffix.equals(PERCENTILE_SUFFIXES[p])) {
+                        return histogram.getPercentile(PERCENTILES[p]);
+                    }
+                }
+            }
+            throw new AttributeNotFoundException(attribute);
+        }
+
+        @Override
+        public void setAttribute(Attribute attribute) throws AttributeNotFoundException,
+                InvalidAttributeValueException {
+            if (!attribute.getName().equals("Enabled")) {
+                throw new AttributeNotFoundException(attribute.getName() + " is read only");
+            }
+            if (!(attribute.getValue() instanceof Boolean)) {
+                throw new InvalidAttributeValueException("Enabled must be true or false");
+            }
+            setEnabled((Boolean) attribute.getValue());
+        }
+
+        @Override
+        public AttributeList getAttributes(String[] attributes) {
+            AttributeList list = new AttributeList();
+            for (String attribute : attributes) {
+                try {
+                    list.add(new Attribute(attribute, getAttribute(attribute)));
+                } catch (AttributeNotFoundException e) {
+                    // Unknown attributes are left out of the list
+                }
+            }
+            return list;
+        }
+
+        @Override
+        public AttributeList setAttributes(AttributeList attributes) {
+            AttributeList set = new AttributeList();
+            for (Attribute attribute : attributes.asList()) {
+                try {
+                    setAttribute(attribute);
+                    set.add(attribute);
+                } catch (AttributeNotFoundException | InvalidAttributeValueException e) {
+                    // Attributes that can't be set are left out of the list
+                }
+            }
+            return set;
+        }
+
+        @Override
+        public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+            if (actionName.equals("reset")) {
+                reset();
+                return null;
+            }
+            throw new ReflectionException(new NoSuchMethodException(actionName));
+        }
+
+        @Override
+        public MBeanInfo getMBeanInfo() {
+            List<MBeanAttributeInfo> attributes = new ArrayList<>();
+            attributes.add(new MBeanAttributeInfo("Enabled", "boolean", "If checkout stages are being timed",
+                    true, true, true));
+            for (Stage stage : STAGES) {
+                attributes.add(new MBeanAttributeInfo(stage.attributeName + "Count", "long",
+                        "Times the stage has run since the last reset", true, false, false));
+                attributes.add(new MBeanAttributeInfo(stage.attributeName + "PerSecond", "double",
+                        "Average runs per second since the last reset", true, false, false));
+                for (int p = 0; p < PERCENTILES.length; p++) {
+                    attributes.add(new MBeanAttributeInfo(stage.attributeName + PERCENTILE_SUFFIXES[p], "long",
+                            PERCENTILES[p] + "th percentile latency in nanoseconds", true, false, false));
+                }
+            }
+            MBeanOperationInfo[] operations = {
+                    new MBeanOperationInfo("reset", "Clears every histogram", null, "void", MBeanOperationInfo.ACTION)
+            };
+            return new MBeanInfo(CheckoutMetrics.class.getName(), "Latency of each checkout stage",
+                    attributes.toArray(new MBeanAttributeInfo[0]), null, operations, null);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package pos;
+
+import org.junit.jupiter.api.Test;
+
+import javax.management.Attribute;
+import javax.management.AttributeNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for verifying the functionality of the CheckoutMetrics class
+ */
+class CheckoutMetricsTest {
+
+    private static final Tool ladder = new Tool("Ladder", "Werner", "LADW", 1.99, true, true, false);
+
+    @Test
+    void disabledRecordsNothing() {
+        CheckoutMetrics.setEnabled(false);
+        CheckoutMetrics.reset();
+        CheckoutFunctions.checkout(ladder, LocalDate.of(2020, 7, 2), 3, 10).printRentalAgreement();
+
+        assertEquals(0, CheckoutMetrics.start());
+        assertEquals(0, CheckoutMetrics.lap(CheckoutMetrics.Stage.CHECKOUT, 0));
+        for (CheckoutMetrics.Stage stage : CheckoutMetrics.Stage.values()) {
+            assertEquals(0, CheckoutMetrics.getHistogram(stage).getCount());
+        }
+    }
+
+    @Test
+    void mbeanReportsStages() throws JMException {
+        ObjectName name = CheckoutMetrics.registerMBean();
+        assertEquals(name, CheckoutMetrics.registerMBean());
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+        try {
+            server.setAttribute(name, new Attribute("Enabled", true));
+            assertTrue(CheckoutMetrics.isEnabled());
+            server.invoke(name, "reset", null, null);
+
+            for (int i = 0; i < 10; i++) {
+                CheckoutFunctions.checkout(ladder, LocalDate.of(2020, 7, 2), 3, 10).printRentalAgreement();
+            }
+
+            assertEquals(10L, server.getAttribute(name, "CheckoutCount"));
+            assertEquals(10L, server.getAttribute(name, "DueDateCount"));
+            assertEquals(10L, server.getAttribute(name, "ChargeDaysCount"));
+            assertEquals(10L, server.getAttribute(name, "DiscountCount"));
+            assertEquals(10L, server.getAttribute(name, "ReceiptRenderCount"));
+            long p50 = (Long) server.getAttribute(name, "CheckoutP50Nanos");
+            long p999 = (Long) server.getAttribute(name, "CheckoutP999Nanos");
+            assertTrue(p50 > 0 && p50 <= p999);
+            assertTrue((Double) server.getAttribute(name, "CheckoutPerSecond") > 0);
+            assertThrows(AttributeNotFoundException.class, () -> server.getAttribute(name, "CheckoutP42Nanos"));
+            assertEquals(1 + CheckoutMetrics.Stage.values().length * 5,
+                    server.getMBeanInfo(name).getAttributes().length);
+        } finally {
+            server.setAttribute(name, new Attribute("Enabled", false));
+            CheckoutMetrics.reset();
+        }
+        assertFalse(CheckoutMetrics.isEnabled());
+    }
+}
@@ -0,0 +1,65 @@
+package pos;
+
+import java.time.LocalDate;
+
+/**
+ * Class Definition for a single checkout to be priced as part of a batch.
+ */
+public class CheckoutRequest {
+
+    private final Tool tool; // Tool being checked out
+    private final LocalDate checkoutDate; // Date the checkout was executed on
+    private final int rentalDays; // How many days the tool will be rented for
+    private final int discountPercentage; // What percent of the rental costs will be deducted
+
+    /**
+     * Constructor for Checkout Request Objects.
+     *
+     * @param tool Tool being checked out
+     * @param checkoutDate Date the checkout was executed on
+     * @param rentalDays How many days the tool will be rented for
+     * @param discountPercentage What percent of the rental costs will be deducted
+     */
+    public CheckoutRequest(Tool tool, LocalDate checkoutDate, int rentalDays, int discountPercentage) {
+        this.tool = tool;
+        this.checkoutDate = checkoutDate;
+        this.rentalDays = rentalDays;
+        this.discountPercentage = discountPercentage;
+    }
+
+    /**
+     * Getter function for the tool being checked out.
+     *
+     * @return Tool being checked out.
+     */
+    public Tool getTool() {
+        return tool;
+    }
+
+    /**
+     * Getter function for the checkout date.
+     *
+     * @return Date the checkout was executed on.
+     */
+    public LocalDate getCheckoutDate() {
+        return checkoutDate;
+    }
+
+    /**
+     * Getter function for the rental length.
+     *
+     * @return How many days the tool will be rented for.
+     */
+    public int getRentalDays() {
+        return rentalDays;
+    }
+
+    /**
+     * Getter function for the discount.
+     *
+     * @return What percent of the rental costs will be deducted.
+     */
+    public int getDiscountPercentage() {
+        return discountPercentage;
+    }
+}
@@ -0,0 +1,223 @@
+package pos;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.InputMismatchException;
+import java.util.NoSuchElementException;
+
+/**
+ * Class Definition for reading a clerk's answers, the whitespace separated words and whole numbers they type.
+ *
+ * It reads like the java.util.Scanner calls the prompts used to make, without regular expressions: a whole number
+ * is an optional sign followed by digits that fit in an int, and anything else is a word. Input is read through
+ * a buffer in large blocks, so replaying thousands of piped answers costs little more than copying them. As with
+ * Scanner, running out of input or failing to read it ends the answers and the next read throws
+ * NoSuchElementException.
+ */
+public class ClerkInput {
+
+    private static final long NOT_AN_INT = Long.MIN_VALUE; // Returned by parseInt for a word that isn't a number
+
+    private final Reader in; // Clerk input, decoded as UTF-8
+    private char[] buffer = new char[8192]; // Input read but not yet consumed, from position to limit
+    private int position; // Next character to consume
+    private int limit; // One past the last character read
+    private boolean ended; // If the input has run out or failed
+    private IOException failure; // Why reading the input failed, null if it hasn't
+
+    /**
+     * Constructor for the ClerkInput class.
+     *
+     * @param in Clerk input, UTF-8 encoded
+     */
+    public ClerkInput(InputStream in) {
+        this.in = new InputStreamReader(in, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * This function checks if the next word is a whole number, without consuming it.
+     *
+     * @return If a whole number that fits in an int is next
+     */
+    public boolean hasNextInt() {
+        int start = skipWhitespace(0);
+        if (start < 0) {
+            return false;
+        }
+        int end = wordEnd(start);
+        return parseInt(start, end) != NOT_AN_INT;
+    }
+
+    /**
+     * This function consumes the next word.
+     *
+     * @return The next word
+     * @throws NoSuchElementException If the input has run out
+     */
+    public String next() {
+        int start = skipWhitespace(0);
+        if (start < 0) {
+            throw new NoSuchElementException();
+        }
+        int end = wordEnd(start);
+        String word = new String(buffer, position + start, end - start);
+        position += end;
+        return word;
+    }
+
+    /**
+     * This function consumes the next word as a whole number.
+     *
+     * @return The number
+     * @throws InputMismatchException If the next word isn't a whole number, which is left unconsumed
+     * @throws NoSuchElementException If the input has run out
+     */
+    public int nextInt() {
+        int start = skipWhitespace(0);
+        if (start < 0) {
+            throw new NoSuchElementException();
+        }
+        int end = wordEnd(start);
+        long value = parseInt(start, end);
+        if (value == NOT_AN_INT) {
+            throw new InputMismatchException(new String(buffer, position + start, end - start));
+        }
+        position += end;
+        return (int) value;
+    }
+
+    /**
+     * This function consumes the rest of the current line, and the line break after it.
+     *
+     * @return The rest of the line, without the line break
+     * @throws NoSuchElementException If the input has run out
+     */
+    public String nextLine() {
+        if (charAt(0) < 0) {
+            throw new NoSuchElementException();
+        }
+        int end = 0;
+        int c;
+        while ((c = charAt(end)) >= 0 && c != '\n' && c != '\r') {
+            end++;
+        }
+        String line = new String(buffer, position, end);
+        int lineBreak = c < 0 ? 0 : (c == '\r' && charAt(end + 1) == '\n' ? 2 : 1);
+        position += end + lineBreak;
+        return line;
+    }
+
+    /**
+     * Getter function for why reading the input failed.
+     *
+     * @return The failure, or null if the input hasn't failed
+     */
+    public IOException ioException() {
+        return failure;
+    }
+
+    /**
+     * Finds the first character at or after an offset from the position that isn't whitespace.
+     *
+     * @return Its offset, or -1 if the input runs out first
+     */
+    private int skipWhitespace(int offset) {
+        int c;
+        while ((c = charAt(offset)) >= 0 && Character.isWhitespace(c)) {
+            offset++;
+        }
+        return c < 0 ? -1 : offset;
+    }
+
+    /**
+     * @return Offset of the first whitespace at or after the offset, or of the end of the input
+     */
+    private int wordEnd(int offset) {
+        int c;
+        while ((c = charAt(offset)) >= 0 && !Character.isWhitespace(c)) {
+            offset++;
+        }
+        return offset;
+    }
+
+    /**
+     * @return The word between two offsets as a number, or NOT_AN_INT if it isn't a whole number that fits in an int
+     */
+    private long parseInt(int start, int end) {
+        int i = position + start;
+        int last = position + end;
+        boolean negative = buffer[i] == '-';
+        if (negative || buffer[i] == '+') {
+            i++;
+        }
+        if (i == last) {
+            return NOT_AN_INT;
+        }
+        long value = 0;
+        for (; i < last; i++) {
+            int digit = buffer[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return NOT_AN_INT;
+            }
+            value = value * 10 + digit;
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                return NOT_AN_INT;
+            }
+        }
+        value = negative ? -value : value;
+        return value > Integer.MAX_VALUE ? NOT_AN_INT : value;
+    }
+
+    /**
+     * Reads ahead as far as needed to look at a character.
+     *
+     * @return The character at an offset from the position, or -1 if the input runs out first
+     */
+    private int charAt(int offset) {
+        while (position + offset >= limit) {
+            if (!fill()) {
+                return -1;
+            }
+        }
+        return buffer[position + offset];
+    }
+
+    /**
+     * Moves the unconsumed input to the start of the buffer, growing it if it is full, and reads more after it.
+     *
+     * @return If anything more was read
+     */
+    private boolean fill() {
+        if (ended) {
+            return false;
+        }
+        if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            limit -= position;
+            position = 0;
+        }
+        if (limit == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        try {
+            int read;
+            do {
+                read = in.read(buffer, limit, buffer.length - limit);
+            } while (read == 0);
+            if (read < 0) {
+                ended = true;
+                return false;
+            }
+            limit += read;
+            return true;
+        } catch (IOException e) {
+            failure = e;
+            ended = true;
+            return false;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package pos;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.InputMismatchException;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for verifying the functionality of the ClerkInput class
+ */
+class ClerkInputTest {
+
+    /**
+     * Creates clerk input reading the given text.
+     */
+    private static ClerkInput inputOf(String text) {
+        return new ClerkInput(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void numbersAndWords() {
+        ClerkInput input = inputOf("  5\n x 10\t-3 +7\n");
+        assertTrue(input.hasNextInt());
+        assertEquals(5, input.nextInt());
+        assertFalse(input.hasNextInt());
+        assertThrows(InputMismatchException.class, input::nextInt);
+        assertEquals("x", input.next());
+        assertEquals(10, input.nextInt());
+        assertEquals(-3, input.nextInt());
+        assertEquals(7, input.nextInt());
+        assertFalse(input.hasNextInt());
+        assertThrows(NoSuchElementException.class, input::next);
+        assertThrows(NoSuchElementException.class, input::nextInt);
+    }
+
+    @Test
+    void numbersThatDontFitAreWords() {
+        ClerkInput input = inputOf("2147483647 -2147483648 2147483648 - 12a");
+        assertEquals(Integer.MAX_VALUE, input.nextInt());
+        assertEquals(Integer.MIN_VALUE, input.nextInt());
+        assertFalse(input.hasNextInt());
+        assertEquals("2147483648", input.next());
+        assertEquals("-", input.next());
+        assertFalse(input.hasNextInt());
+        assertEquals("12a", input.next());
+    }
+
+    @Test
+    void linesAfterNumbers() {
+        ClerkInput input = inputOf("3\nbrand:Little Giant\r\n\nB\u00f6hler");
+        assertEquals(3, input.nextInt());
+        assertEquals("", input.nextLine());
+        assertEquals("brand:Little Giant", input.nextLine());
+        assertEquals("", input.nextLine());
+        assertEquals("B\u00f6hler", input.nextLine());
+        assertThrows(NoSuchElementException.class, input::nextLine);
+    }
+
+    @Test
+    void wordsLongerThanTheBuffer() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 20_000; i++) {
+            text.append(i % 10);
+        }
+        String longWord = text.toString();
+        ClerkInput input = inputOf("1 " + longWord + " 2\n");
+        assertEquals(1, input.nextInt());
+        assertFalse(input.hasNextInt());
+        assertEquals(longWord, input.next());
+        assertEquals(2, input.nextInt());
+    }
+
+    @Test
+    void failedInputEndsTheAnswers() {
+        IOException failure = new IOException("Connection reset");
+        ClerkInput input = new ClerkInput(new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw failure;
+            }
+        });
+        assertFalse(input.hasNextInt());
+        assertThrows(NoSuchElementException.class, input::nextLine);
+        assertSame(failure, input.ioException());
+    }
+}
@@ -0,0 +1,318 @@
+package pos;
+
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Class Definition for one clerk's conversation with the POS, at the console or over a connection.
+ *
+ * Every prompt reads from and writes to this session's own input and output, so any number of sessions can run
+ * at once without sharing state. When the clerk's input ends mid prompt, the prompt throws
+ * java.util.NoSuchElementException and the session is over.
+ */
+public class ClerkSession {
+
+    private static final int TOOL_PAGE_SIZE = 10; // Tools listed per page when picking a tool
+
+    private final ClerkInput input; // Reads the clerk's answers
+    private final PrintStream out; // Where prompts and receipts are written
+
+    /**
+     * Constructor for the ClerkSession class.
+     *
+     * @param in Clerk input
+     * @param out Where prompts and receipts are written
+     */
+    public ClerkSession(InputStream in, PrintStream out) {
+        this.input = new ClerkInput(in);
+        this.out = out;
+    }
+
+    /**
+     * This function shows the clerk a line of text.
+     *
+     * @param text Text to show
+     */
+    public void println(String text) {
+        out.println(text);
+    }
+
+    /**
+     * This function prompts the clerk, asking which tool the customer would like to rent, showing how many
+     * units of each are on the shelf. Tools with none left can't be picked.
+     *
+     * @param toolsAvailable Product codes to pick from
+     * @param unitsAvailable Units on the shelf for each product code, or null to not show stock
+     * @return The selected product code
+     */
+    public String askForToolSelection(String[] toolsAvailable, int[] unitsAvailable) {
+        out.println("Which tool will the customer be renting?");
+
+        for (int itemIndex = 0; itemIndex < toolsAvailable.length; itemIndex++) {
+            if (unitsAvailable == null) {
+                out.println(itemIndex + ": " + toolsAvailable[itemIndex]);
+            } else {
+                out.println(itemIndex + ": " + toolsAvailable[itemIndex]
+                        + " (" + unitsAvailable[itemIndex] + " in stock)");
+            }
+        }
+
+        out.println("Select an Item Index from the list of available tools.");
+
+        String invalidInputResponse = "Please type one of the number options listed.";
+        boolean validInputReceived = false;
+        int selectedTool = -1;
+
+        // Validates clerk input, asks again if input is invalid
+        while (!validInputReceived) {
+            while (!input.hasNextInt()) {
+                out.println(invalidInputResponse);
+                input.next();
+            }
+            selectedTool = input.nextInt();
+            if (selectedTool < 0 || selectedTool >= toolsAvailable.length) {
+                out.println(invalidInputResponse);
+            } else if (unitsAvailable != null && unitsAvailable[selectedTool] <= 0) {
+                out.println("That tool is out of stock, please pick another.");
+            } else {
+                validInputReceived = true;
+            }
+        }
+
+        return toolsAvailable[selectedTool];
+    }
+
+    /**
+     * This function prompts the clerk, asking which tool the customer would like to rent, a page of tools at a
+     * time. The clerk starts with every tool sorted by product code and can page through them or search by the
+     * start of a product code, type or brand. Tools with none left can't be picked.
+     *
+     * @param index Search index of the catalog to pick from
+     * @param inventory Units on the shelf, or null to not show stock
+     * @return The selected product code
+     */
+    public String askForToolSelection(ToolSearchIndex index, Inventory inventory) {
+        out.println("Which tool will the customer be renting?");
+
+        String invalidInputResponse = "Please type one of the number options listed.";
+        String query = "";
+        ToolSearchIndex.Matches matches = index.search(ToolSearchIndex.Field.CODE, query);
+        int page = 0;
+        boolean showPage = true;
+
+        // Shows the page, then pages, searches or picks based on the clerk's answer
+        while (true) {
+            List<String> toolsOnPage = matches.getPage(page, TOOL_PAGE_SIZE);
+            if (showPage) {
+                printToolPage(index, inventory, query, matches, page, toolsOnPage);
+                showPage = false;
+            }
+
+            String answer = input.nextLine().trim();
+            if (answer.isEmpty()) {
+                continue;
+            }
+            if (answer.equalsIgnoreCase("n") || answer.equalsIgnoreCase("p")) {
+                int nextPage = page + (answer.equalsIgnoreCase("n") ? 1 : -1);
+                if (nextPage < 0 || nextPage >= matches.getPageCount(TOOL_PAGE_SIZE)) {
+                    out.println("There is no " + (nextPage < 0 ? "previous" : "next") + " page.");
+                } else {
+                    page = nextPage;
+                    showPage = true;
+                }
+            } else if (isItemIndex(answer)) {
+                int selectedTool = Integer.parseInt(answer);
+                if (selectedTool >= toolsOnPage.size()) {
+                    out.println(invalidInputResponse);
+                } else if (inventory != null && inventory.getAvailable(toolsOnPage.get(selectedTool)) <= 0) {
+                    out.println("That tool is out of stock, please pick another.");
+                } else {
+                    return toolsOnPage.get(selectedTool);
+                }
+            } else {
+                ToolSearchIndex.Matches found = searchTools(index, answer);
+                if (found.size() == 0) {
+                    out.println("No tools match " + answer + ".");
+                } else {
+                    query = answer;
+                    matches = found;
+                    page = 0;
+                    showPage = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * This function lists one page of tools along with how to pick, page and search.
+     */
+    private void printToolPage(ToolSearchIndex index, Inventory inventory, String query,
+                               ToolSearchIndex.Matches matches, int page, List<String> toolsOnPage) {
+        out.println((query.isEmpty() ? "All tools" : "Tools matching " + query)
+                + ", page " + (page + 1) + " of " + Math.max(1, matches.getPageCount(TOOL_PAGE_SIZE)) + ":");
+        for (int itemIndex = 0; itemIndex < toolsOnPage.size(); itemIndex++) {
+            String toolCode = toolsOnPage.get(itemIndex);
+            Tool tool = index.getCatalog().getTool(toolCode);
+            String line = itemIndex + ": " + toolCode + " " + tool.getBrand() + " " + tool.getType();
+            if (inventory != null) {
+                line += " (" + inventory.getAvailable(toolCode) + " in stock)";
+            }
+            out.println(line);
+        }
+        out.println("Select an Item Index from the list of available tools, n or p for the next or previous page,");
+        out.println("or search by the start of a product code, type:<text> or brand:<text>.");
+    }
+
+    /**
+     * This function runs the search the clerk typed, a product code unless it starts with type: or brand:.
+     */
+    private static ToolSearchIndex.Matches searchTools(ToolSearchIndex index, String search) {
+        String lowerCase = search.toLowerCase(Locale.ROOT);
+        if (lowerCase.startsWith("type:")) {
+            return index.search(ToolSearchIndex.Field.TYPE, search.substring(5).trim());
+        }
+        if (lowerCase.startsWith("brand:")) {
+            return index.search(ToolSearchIndex.Field.BRAND, search.substring(6).trim());
+        }
+        return index.search(ToolSearchIndex.Field.CODE, search);
+    }
+
+    private static boolean isItemIndex(String answer) {
+        if (answer.length() > 9) {
+            return false;
+        }
+        for (int i = 0; i < answer.length(); i++) {
+            if (answer.charAt(i) < '0' || answer.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * This function prompts the clerk, asking how many days the customer would like to rent a tool.
+     * The function takes input and makes sure it is a valid number of days for rental.
+     *
+     * @param rentalToolType What type the tool is
+     * @return The number of days that the customer wants to rent the tool for
+     */
+    public int askForRentalDayCount(String rentalToolType) {
+        out.println("How many days would the customer like to rent the "+ rentalToolType +"? (No more than 28)");
+
+        boolean validInputReceived = false;
+        int rentalDays = -1;
+        String invalidInputResponse = "Please be sure you entered a whole number between 1 and 28";
+
+        // Validates clerk input, asks again if input is invalid
+        while(!validInputReceived) {
+            try {
+                while (!input.hasNextInt()) {
+                    out.println(invalidInputResponse);
+                    input.next();
+                }
+                rentalDays = input.nextInt();
+                if (rentalDays > 0 && rentalDays < 28) {
+                    validInputReceived = true;
+                } else {
+                    throw new InvalidRentalDaysException();
+                }
+            } catch (InvalidRentalDaysException e) {
+                out.println(invalidInputResponse);
+            }
+        }
+
+        return rentalDays;
+    }
+
+    /**
+     * This function asks the clerk for a percentage to discount from the tool rental.
+     * The function takes input and makes sure it is a valid percentage.
+     *
+     * @return The discount percentage that the clerk applied
+     */
+    public int askForCheckoutDiscount() {
+        out.println("Please enter percentage to discount from this rental. (format: XX)");
+
+        boolean validInputReceived = false;
+        int discount = -1;
+        String invalidInputResponse = "Please be sure you entered a whole number between 0 and 100.";
+
+        // Validates clerk input, asks again if input is invalid
+        while(!validInputReceived) {
+            while (!input.hasNextInt()) {
+                out.println(invalidInputResponse);
+                input.next();
+            }
+            discount = input.nextInt();
+
+            try {
+                if (CheckoutFunctions.isDiscountValid(discount)) {
+                    validInputReceived = true;
+                }
+            } catch (InvalidDiscountPercentException e) {
+                out.println(invalidInputResponse);
+            }
+        }
+
+        return discount;
+    }
+
+    /**
+     * This function asks if the customer would like a printout of their rental agreement.
+     * The function takes input and makes sure it is valid.
+     *
+     * @return If the customer wants a printout
+     */
+    public boolean offerToPrintRentalAgreement() {
+        out.println(
+                """
+                        Would the customer like a printout of their rental agreement?
+                        0: Yes
+                        1: No
+                        """);
+
+        return inputIsYesOrNo();
+    }
+
+    /**
+     * This function asks if the clerk will be renting out more tools
+     * The function takes input and makes sure it is valid.
+     *
+     * @return If the clerk will be checking out another rental
+     */
+    public boolean offerToContinue() {
+        out.println(
+                """
+                        Would you like to checkout another customer?
+                        0: Yes
+                        1: No
+                        """);
+
+        return inputIsYesOrNo();
+    }
+
+    /**
+     * This function validates that clerked entered responses to yes or no prompts is valid.
+     *
+     * @return If the input is valid.
+     */
+    private boolean inputIsYesOrNo() {
+        boolean validInputReceived = false;
+        int customerWantsReceipt = -1;
+
+        while(!validInputReceived) {
+            while (!input.hasNextInt()) {
+                out.println("Please be sure enter 0 for Yes or 1 for No.");
+                input.next();
+            }
+            customerWantsReceipt = input.nextInt();
+            if (customerWantsReceipt == 0 || customerWantsReceipt == 1) {
+                validInputReceived = true;
+            }
+        }
+
+        return customerWantsReceipt == 0;
+    }
+}
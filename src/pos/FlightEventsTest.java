@@ -0,0 +1,84 @@
+package pos;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for verifying the Flight Recorder events emitted by catalog loads, checkouts and receipts
+ */
+class FlightEventsTest {
+
+    private static List<RecordedEvent> record(Runnable work, String... eventNames) throws IOException {
+        Path dump = Files.createTempFile("pos", ".jfr");
+        try (Recording recording = new Recording()) {
+            for (String eventName : eventNames) {
+                recording.enable(eventName).withThreshold(Duration.ZERO);
+            }
+            recording.start();
+            work.run();
+            recording.stop();
+            recording.dump(dump);
+        }
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+        Files.delete(dump);
+        return events;
+    }
+
+    @Test
+    void catalogLoadEvents(@TempDir Path directory) throws IOException {
+        TestCatalogs.write(directory, "Ladder,$1.99,Yes,Yes,No\nChainsaw,$1.49,Yes,No,Yes",
+                "Ladder,Werner,LADW\nChainsaw,Stihl,CHNS\nLadder,Werner,LADX");
+
+        List<RecordedEvent> events = record(() -> {
+            ToolsDB toolsDB = TestCatalogs.open(directory);
+            toolsDB.reload();
+        }, "pos.CatalogLoad");
+
+        assertEquals(2, events.size());
+        for (RecordedEvent event : events) {
+            assertEquals("csv", event.getString("source"));
+            assertEquals(2, event.getInt("toolInfoRows"));
+            assertEquals(3, event.getInt("toolRows"));
+            assertTrue(event.getBoolean("succeeded"));
+            assertNull(event.getStackTrace());
+        }
+        assertFalse(events.get(0).getBoolean("reload"));
+        assertTrue(events.get(1).getBoolean("reload"));
+    }
+
+    @Test
+    void checkoutAndReceiptEvents() throws IOException {
+        Tool ladder = new Tool("Ladder", "Werner", "LADW", 1.99, true, true, false);
+        List<RecordedEvent> events = record(() -> {
+            CheckoutFunctions.checkout(ladder, LocalDate.of(2020, 7, 2), 3, 10).printRentalAgreement();
+        }, "pos.Checkout", "pos.ReceiptRender");
+
+        List<RecordedEvent> checkouts = events.stream()
+                .filter(event -> event.getEventType().getName().equals("pos.Checkout"))
+                .collect(Collectors.toList());
+        assertEquals(1, checkouts.size());
+        assertEquals("LADW", checkouts.get(0).getString("toolCode"));
+        assertEquals(3, checkouts.get(0).getInt("rentalDays"));
+        assertEquals(2, checkouts.get(0).getInt("chargeDays"));
+        assertNull(checkouts.get(0).getStackTrace());
+
+        List<RecordedEvent> receipts = events.stream()
+                .filter(event -> event.getEventType().getName().equals("pos.ReceiptRender"))
+                .collect(Collectors.toList());
+        assertEquals(1, receipts.size());
+        assertEquals("LADW", receipts.get(0).getString("toolCode"));
+    }
+}
@@ -0,0 +1,269 @@
+package pos;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * This class defines the holidays a store observes.
+ *
+ * Each year is compiled once from the holiday rules into a bitmap with one bit per day of the year,
+ * split into holidays landing on weekdays and holidays landing on weekends. Compiled years are cached
+ * and shared between threads, so checking a date is a single bit test and counting the holidays in a
+ * rental window is a handful of bit counts.
+ */
+public final class HolidayCalendar {
+
+    // Years that are compiled once and cached, dates outside this range are compiled on every use
+    private static final int FIRST_CACHED_YEAR = 1900;
+    private static final int LAST_CACHED_YEAR = 2299;
+
+    // Holidays the store has always observed
+    private static final List<HolidayRule> STANDARD_RULES = List.of(
+            HolidayRule.fixed("Independence Day", Month.JULY, 4, true),
+            HolidayRule.nthWeekday("Labor Day", Month.SEPTEMBER, 1, DayOfWeek.MONDAY, false));
+
+    private static volatile HolidayCalendar defaultCalendar = new HolidayCalendar(STANDARD_RULES);
+
+    private final List<HolidayRule> rules; // Rules used to place holidays each year
+    private final AtomicReferenceArray<HolidayYear> years; // Compiled years, filled in on first use
+
+    /**
+     * Constructor for a holiday calendar.
+     *
+     * @param rules Rules used to place holidays each year
+     */
+    public HolidayCalendar(List<HolidayRule> rules) {
+        this.rules = Collections.unmodifiableList(new ArrayList<>(rules));
+        this.years = new AtomicReferenceArray<>(LAST_CACHED_YEAR - FIRST_CACHED_YEAR + 1);
+    }
+
+    /**
+     * This function loads holiday rules from a CSV file.
+     * Each line is: name, Fixed or NthWeekday, month, day of month or weekday ordinal (-1 for last),
+     * weekday (blank for fixed holidays), and Yes or No for observing weekend holidays on the closest weekday.
+     *
+     * @param path Path to the CSV file with holiday rules
+     * @return The holiday calendar described by the file
+     * @throws IOException If the file can't be read
+     */
+    public static HolidayCalendar fromCSV(String path) throws IOException {
+        List<HolidayRule> rules = new ArrayList<>();
+        try (BufferedReader br = new BufferedReader(new FileReader(path))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = br.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    rules.add(parseRule(line.split(",", -1)));
+                } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+                    throw new IOException(path + " line " + lineNumber + ": invalid holiday rule '" + line + "'", e);
+                }
+            }
+        }
+        return new HolidayCalendar(rules);
+    }
+
+    private static HolidayRule parseRule(String[] data) {
+        String name = data[0].trim();
+        String kind = data[1].trim();
+        Month month = Month.valueOf(data[2].trim().toUpperCase(Locale.ROOT));
+        int day = Integer.parseInt(data[3].trim());
+        boolean observed = parseYesNo(data[5].trim());
+
+        if (kind.equals("Fixed")) {
+            return HolidayRule.fixed(name, month, day, observed);
+        } else if (kind.equals("NthWeekday")) {
+            DayOfWeek dayOfWeek = DayOfWeek.valueOf(data[4].trim().toUpperCase(Locale.ROOT));
+            return HolidayRule.nthWeekday(name, month, day, dayOfWeek, observed);
+        }
+        throw new IllegalArgumentException("Unknown holiday kind " + kind);
+    }
+
+    private static boolean parseYesNo(String text) {
+        if (text.equals("Yes")) {
+            return true;
+        }
+        if (text.equals("No")) {
+            return false;
+        }
+        throw new IllegalArgumentException("observed must be Yes or No, was '" + text + "'");
+    }
+
+    /**
+     * Getter function for the calendar checkouts use when none is given.
+     *
+     * @return The default holiday calendar
+     */
+    public static HolidayCalendar getDefault() {
+        return defaultCalendar;
+    }
+
+    /**
+     * Setter function for the calendar checkouts use when none is given.
+     *
+     * @param calendar The holiday calendar to use by default
+     */
+    public static void setDefault(HolidayCalendar calendar) {
+        defaultCalendar = calendar;
+    }
+
+    /**
+     * Getter function for the calendar's holiday rules.
+     *
+     * @return Rules used to place holidays each year
+     */
+    public List<HolidayRule> getRules() {
+        return rules;
+    }
+
+    /**
+     * This function checks if a date is a holiday.
+     *
+     * @param date Date to check
+     * @return If the date is a holiday
+     */
+    public boolean isHoliday(LocalDate date) {
+        HolidayYear year = compiledYear(date.getYear());
+        return year.isHoliday(date.toEpochDay() - year.firstEpochDay);
+    }
+
+    /**
+     * This function counts the holidays between two dates.
+     *
+     * @param firstEpochDay First day to count, as an epoch day
+     * @param lastEpochDay Last day to count (inclusive), as an epoch day
+     * @param weekdays If holidays landing on weekdays are counted
+     * @param weekends If holidays landing on weekends are counted
+     * @return Number of holidays in the range
+     */
+    public int countHolidays(long firstEpochDay, long lastEpochDay, boolean weekdays, boolean weekends) {
+        if (lastEpochDay < firstEpochDay || (!weekdays && !weekends)) {
+            return 0;
+        }
+
+        int count = 0;
+        HolidayYear year = compiledYear(yearOf(firstEpochDay));
+        while (true) {
+            long lastDayOfYear = year.firstEpochDay + year.length - 1;
+            int from = (int) (Math.max(firstEpochDay, year.firstEpochDay) - year.firstEpochDay);
+            int to = (int) (Math.min(lastEpochDay, lastDayOfYear) - year.firstEpochDay);
+            if (weekdays) {
+                count += countBits(year.weekdayHolidays, from, to);
+            }
+            if (weekends) {
+                count += countBits(year.weekendHolidays, from, to);
+            }
+            if (lastEpochDay <= lastDayOfYear) {
+                return count;
+            }
+            year = compiledYear(year.year + 1);
+        }
+    }
+
+    /**
+     * Finds the year an epoch day falls in, using the compiled years instead of building a date.
+     */
+    private int yearOf(long epochDay) {
+        int year = (int) Math.floorDiv(epochDay * 400, 146097) + 1970;
+        HolidayYear guess = compiledYear(year);
+        if (epochDay < guess.firstEpochDay) {
+            return year - 1;
+        } else if (epochDay >= guess.firstEpochDay + guess.length) {
+            return year + 1;
+        }
+        return year;
+    }
+
+    private HolidayYear compiledYear(int year) {
+        if (year < FIRST_CACHED_YEAR || year > LAST_CACHED_YEAR) {
+            return compile(year);
+        }
+        int slot = year - FIRST_CACHED_YEAR;
+        HolidayYear compiled = years.get(slot);
+        if (compiled == null) {
+            // Two threads may compile the same year, both produce the same bitmap so either one can win
+            compiled = compile(year);
+            if (!years.compareAndSet(slot, null, compiled)) {
+                compiled = years.get(slot);
+            }
+        }
+        return compiled;
+    }
+
+    private HolidayYear compile(int year) {
+        LocalDate firstDay = LocalDate.of(year, Month.JANUARY, 1);
+        HolidayYear compiled = new HolidayYear(year, firstDay.toEpochDay(), firstDay.lengthOfYear());
+
+        // Observed dates can cross into the neighbouring year, so place each rule for the years either side too
+        for (HolidayRule rule : rules) {
+            for (int ruleYear = year - 1; ruleYear <= year + 1; ruleYear++) {
+                LocalDate holiday = rule.dateIn(ruleYear);
+                if (holiday != null && holiday.getYear() == year) {
+                    int bit = holiday.getDayOfYear() - 1;
+                    switch (holiday.getDayOfWeek()) {
+                        case SATURDAY, SUNDAY -> compiled.weekendHolidays[bit >>> 6] |= 1L << bit;
+                        default -> compiled.weekdayHolidays[bit >>> 6] |= 1L << bit;
+                    }
+                }
+            }
+        }
+        return compiled;
+    }
+
+    /**
+     * Counts set bits from index from through index to (inclusive).
+     */
+    private static int countBits(long[] bits, int from, int to) {
+        int count = 0;
+        int firstWord = from >>> 6;
+        int lastWord = to >>> 6;
+        for (int word = firstWord; word <= lastWord; word++) {
+            long mask = -1L;
+            if (word == firstWord) {
+                mask &= -1L << from;
+            }
+            if (word == lastWord) {
+                mask &= -1L >>> (63 - (to & 63));
+            }
+            count += Long.bitCount(bits[word] & mask);
+        }
+        return count;
+    }
+
+    /**
+     * One compiled year of holidays, bit N is set when day N + 1 of the year is a holiday.
+     */
+    private static final class HolidayYear {
+
+        private static final int WORDS = (366 + 63) / 64;
+
+        private final int year; // Year the bitmap covers
+        private final long firstEpochDay; // Epoch day of January 1st
+        private final int length; // Days in the year
+        private final long[] weekdayHolidays = new long[WORDS]; // Holidays landing Monday to Friday
+        private final long[] weekendHolidays = new long[WORDS]; // Holidays landing on Saturday or Sunday
+
+        private HolidayYear(int year, long firstEpochDay, int length) {
+            this.year = year;
+            this.firstEpochDay = firstEpochDay;
+            this.length = length;
+        }
+
+        private boolean isHoliday(long dayOfYear) {
+            int bit = (int) dayOfYear;
+            return ((weekdayHolidays[bit >>> 6] | weekendHolidays[bit >>> 6]) & (1L << bit)) != 0;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package pos;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for verifying holiday rules and the compiled holiday calendar.
+ */
+class HolidayCalendarTest {
+
+    private static HolidayCalendar csvCalendar; // Calendar loaded from the store's holiday file
+
+    @BeforeAll
+    static void init() throws IOException {
+        csvCalendar = HolidayCalendar.fromCSV("src/Holidays.csv");
+    }
+
+    @Test
+    void independenceDayObservedOnClosestWeekday() {
+        // 2020 lands on a Saturday, 2021 on a Sunday, 2019 on a Thursday
+        assertTrue(csvCalendar.isHoliday(LocalDate.of(2020, Month.JULY, 3)));
+        assertFalse(csvCalendar.isHoliday(LocalDate.of(2020, Month.JULY, 4)));
+        assertTrue(csvCalendar.isHoliday(LocalDate.of(2021, Month.JULY, 5)));
+        assertFalse(csvCalendar.isHoliday(LocalDate.of(2021, Month.JULY, 4)));
+        assertTrue(csvCalendar.isHoliday(LocalDate.of(2019, Month.JULY, 4)));
+    }
+
+    @Test
+    void laborDayIsFirstMondayOfSeptember() {
+        assertTrue(csvCalendar.isHoliday(LocalDate.of(2015, Month.SEPTEMBER, 7)));
+        assertTrue(csvCalendar.isHoliday(LocalDate.of(2020, Month.SEPTEMBER, 7)));
+        assertTrue(csvCalendar.isHoliday(LocalDate.of(2025, Month.SEPTEMBER, 1)));
+        assertFalse(csvCalendar.isHoliday(LocalDate.of(2025, Month.SEPTEMBER, 8)));
+    }
+
+    @Test
+    void csvMatchesStandardHolidays() {
+        HolidayCalendar standard = HolidayCalendar.getDefault();
+        for (LocalDate date = LocalDate.of(2000, Month.JANUARY, 1); date.getYear() < 2040; date = date.plusDays(1)) {
+            assertEquals(standard.isHoliday(date), csvCalendar.isHoliday(date), date.toString());
+        }
+    }
+
+    @Test
+    void observedDateCrossesIntoPreviousYear() {
+        // January 1st 2022 is a Saturday, so it is observed on Friday December 31st 2021
+        HolidayCalendar calendar = new HolidayCalendar(List.of(
+                HolidayRule.fixed("New Year's Day", Month.JANUARY, 1, true)));
+
+        assertTrue(calendar.isHoliday(LocalDate.of(2021, Month.DECEMBER, 31)));
+        assertFalse(calendar.isHoliday(LocalDate.of(2022, Month.JANUARY, 1)));
+        assertTrue(calendar.isHoliday(LocalDate.of(2021, Month.JANUARY, 1)));
+    }
+
+    @Test
+    void countHolidays() {
+        HolidayCalendar calendar = new HolidayCalendar(List.of(
+                HolidayRule.fixed("Christmas Day", Month.DECEMBER, 25, false),
+                HolidayRule.nthWeekday("Memorial Day", Month.MAY, -1, DayOfWeek.MONDAY, false)));
+        long first = LocalDate.of(2019, Month.JANUARY, 1).toEpochDay();
+        long last = LocalDate.of(2022, Month.DECEMBER, 31).toEpochDay();
+
+        // Christmas 2021 and 2022 land on weekends, Memorial Day never does
+        assertEquals(8, calendar.countHolidays(first, last, true, true));
+        assertEquals(6, calendar.countHolidays(first, last, true, false));
+        assertEquals(2, calendar.countHolidays(first, last, false, true));
+        assertEquals(0, calendar.countHolidays(last, first, true, true));
+    }
+
+    @Test
+    void invalidRule() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            HolidayRule.fixed("Nonsense", Month.FEBRUARY, 30, false);
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            HolidayRule.nthWeekday("Nonsense", Month.MAY, 0, DayOfWeek.MONDAY, false);
+        });
+    }
+
+    @Test
+    void csvObservedColumnMustBeYesOrNo(@TempDir Path directory) throws IOException {
+        Path csv = directory.resolve("Holidays.csv");
+        for (String observed : new String[]{"yes", "Y", "true", ""}) {
+            Files.writeString(csv, "Independence Day,Fixed,JULY,4,," + observed + "\n");
+            IOException e = assertThrows(IOException.class, () -> HolidayCalendar.fromCSV(csv.toString()));
+            assertTrue(e.getMessage().contains("line 1"), e.getMessage());
+        }
+
+        Files.writeString(csv, "Independence Day,Fixed,July,4,, Yes\nLabor Day,NthWeekday,september,1,monday,No\n");
+        HolidayCalendar calendar = HolidayCalendar.fromCSV(csv.toString());
+        assertFalse(calendar.isHoliday(LocalDate.of(2020, Month.JULY, 4)));
+        assertTrue(calendar.isHoliday(LocalDate.of(2020, Month.JULY, 3)));
+        assertTrue(calendar.isHoliday(LocalDate.of(2020, Month.SEPTEMBER, 7)));
+    }
+
+    @Test
+    void csvNamesParseInAnyDefaultLocale(@TempDir Path directory) throws IOException {
+        // Turkish upper cases 'i' to a dotted capital I, which is no Month or DayOfWeek name
+        Path csv = directory.resolve("Holidays.csv");
+        Files.writeString(csv, "Labor Day,NthWeekday,september,1,friday,No\n");
+        Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(new Locale("tr", "TR"));
+        try {
+            HolidayCalendar calendar = HolidayCalendar.fromCSV(csv.toString());
+            assertTrue(calendar.isHoliday(LocalDate.of(2020, Month.SEPTEMBER, 4)));
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package pos;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.Year;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Class Definition for a rule that places a holiday on the calendar each year.
+ * A rule is either a fixed date (July 4th) or the nth weekday of a month (first Monday in September),
+ * and can optionally be observed on the closest weekday when it lands on a weekend.
+ */
+public final class HolidayRule {
+
+    private final String name; // Name of the holiday
+    private final Month month; // Month the holiday falls in
+    private final int day; // Day of month for fixed holidays, or which occurrence of the weekday (-1 for last)
+    private final DayOfWeek dayOfWeek; // Weekday the holiday falls on, null for fixed holidays
+    private final boolean observed; // If a weekend holiday moves to Friday (Saturday) or Monday (Sunday)
+
+    private HolidayRule(String name, Month month, int day, DayOfWeek dayOfWeek, boolean observed) {
+        this.name = name;
+        this.month = month;
+        this.day = day;
+        this.dayOfWeek = dayOfWeek;
+        this.observed = observed;
+    }
+
+    /**
+     * Creates a rule for a holiday that falls on the same date every year.
+     *
+     * @param name Name of the holiday
+     * @param month Month the holiday falls in
+     * @param dayOfMonth Day of the month the holiday falls on
+     * @param observed If a weekend holiday is observed on the closest weekday
+     * @return The holiday rule
+     */
+    public static HolidayRule fixed(String name, Month month, int dayOfMonth, boolean observed) {
+        if (dayOfMonth < 1 || dayOfMonth > month.maxLength()) {
+            throw new IllegalArgumentException(name + ": " + month + " has no day " + dayOfMonth);
+        }
+        return new HolidayRule(name, month, dayOfMonth, null, observed);
+    }
+
+    /**
+     * Creates a rule for a holiday that falls on the nth weekday of a month.
+     *
+     * @param name Name of the holiday
+     * @param month Month the holiday falls in
+     * @param ordinal Which occurrence of the weekday, 1 to 5 or -1 for the last one in the month
+     * @param dayOfWeek Weekday the holiday falls on
+     * @param observed If a weekend holiday is observed on the closest weekday
+     * @return The holiday rule
+     */
+    public static HolidayRule nthWeekday(String name, Month month, int ordinal, DayOfWeek dayOfWeek, boolean observed) {
+        if (ordinal == 0 || ordinal < -1 || ordinal > 5) {
+            throw new IllegalArgumentException(name + ": weekday ordinal must be 1 to 5 or -1, was " + ordinal);
+        }
+        return new HolidayRule(name, month, ordinal, dayOfWeek, observed);
+    }
+
+    /**
+     * This function finds the date the holiday is observed on in a given year.
+     *
+     * @param year Year to place the holiday in
+     * @return Date the holiday is observed, or null if the rule has no date that year
+     */
+    public LocalDate dateIn(int year) {
+        LocalDate date;
+        if (dayOfWeek == null) {
+            if (day > month.length(Year.isLeap(year))) {
+                return null;
+            }
+            date = LocalDate.of(year, month, day);
+        } else if (day == -1) {
+            date = LocalDate.of(year, month, 1).with(TemporalAdjusters.lastInMonth(dayOfWeek));
+        } else {
+            date = LocalDate.of(year, month, 1).with(TemporalAdjusters.dayOfWeekInMonth(day, dayOfWeek));
+            if (date.getMonth() != month) {
+                return null;
+            }
+        }
+
+        if (observed) {
+            if (date.getDayOfWeek() == DayOfWeek.SATURDAY) {
+                date = date.with(TemporalAdjusters.previous(DayOfWeek.FRIDAY));
+            } else if (date.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                date = date.with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+            }
+        }
+        return date;
+    }
+
+    /**
+     * Getter function for the holiday's name.
+     *
+     * @return Name of the holiday.
+     */
+    public String getName() {
+        return name;
+    }
+}
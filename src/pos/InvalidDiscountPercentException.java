@@ -1,3 +1,5 @@
+package pos;
+
 /**
  * Custom Exception class to use when the discount percentage entered by a clerk is invalid.
  */
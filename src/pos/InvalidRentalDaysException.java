@@ -1,3 +1,5 @@
+package pos;
+
 /**
  * Custom Exception class to use when the rental day count entered by a clerk is invalid.
  */
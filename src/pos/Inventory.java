@@ -0,0 +1,120 @@
+package pos;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Class Definition for the units of each tool on the shelf, shared by every terminal.
+ *
+ * Each product code has its own counter, so terminals renting different tools never touch the same memory.
+ * A counter packs the number of units the store owns into its high 32 bits and the number rented out into its
+ * low 32 bits, which lets reserving, releasing and changing the owned count each be a single compare and set
+ * with no locks. Reading how many are available is one volatile read.
+ */
+public class Inventory {
+
+    private static final long OWNED_UNIT = 1L << 32; // One owned unit in a packed counter
+    private static final long OUT_MASK = OWNED_UNIT - 1; // Bits of a packed counter holding the units rented out
+
+    // Owned and rented out units packed together, by product code
+    private final ConcurrentHashMap<String, AtomicLong> unitsByCode = new ConcurrentHashMap<>();
+
+    /**
+     * This function sets the number of units owned of each tool to match a catalog.
+     * Units already rented out stay rented out. Tools missing from the catalog are owned 0 times, so they can
+     * still be released but not reserved again.
+     *
+     * @param catalog Catalog with the number of units of each tool
+     */
+    public void sync(ToolCatalog catalog) {
+        for (String toolCode : catalog.getToolCodes()) {
+            setOwned(unitsByCode.computeIfAbsent(toolCode, code -> new AtomicLong()), catalog.getUnits(toolCode));
+        }
+        unitsByCode.forEach((toolCode, units) -> {
+            if (catalog.getTool(toolCode) == null) {
+                setOwned(units, 0);
+            }
+        });
+    }
+
+    /**
+     * This function takes a unit of a tool off the shelf.
+     *
+     * @param toolCode Product code of the tool
+     * @return If a unit was free and is now reserved
+     */
+    public boolean reserve(String toolCode) {
+        AtomicLong units = unitsByCode.get(toolCode);
+        if (units == null) {
+            return false;
+        }
+        long packed;
+        do {
+            packed = units.get();
+            if ((packed & OUT_MASK) >= packed >>> 32) {
+                return false;
+            }
+        } while (!units.compareAndSet(packed, packed + 1));
+        return true;
+    }
+
+    /**
+     * This function puts a reserved unit of a tool back on the shelf.
+     *
+     * @param toolCode Product code of the tool
+     * @throws IllegalStateException If no units of the tool are rented out
+     */
+    public void release(String toolCode) {
+        AtomicLong units = unitsByCode.get(toolCode);
+        long packed;
+        do {
+            packed = units == null ? 0 : units.get();
+            if ((packed & OUT_MASK) == 0) {
+                throw new IllegalStateException("No units of " + toolCode + " are rented out");
+            }
+        } while (!units.compareAndSet(packed, packed - 1));
+    }
+
+    /**
+     * This function counts a unit of a tool as rented out without checking the shelf, for rentals made before
+     * a restart. The unit is counted even if the tool has since left the catalog, so it can still be released.
+     *
+     * @param toolCode Product code of the tool
+     */
+    public void restoreRentedOut(String toolCode) {
+        unitsByCode.computeIfAbsent(toolCode, code -> new AtomicLong()).incrementAndGet();
+    }
+
+    /**
+     * This function counts the units of a tool on the shelf.
+     *
+     * @param toolCode Product code of the tool
+     * @return Number of units that can be reserved
+     */
+    public int getAvailable(String toolCode) {
+        AtomicLong units = unitsByCode.get(toolCode);
+        if (units == null) {
+            return 0;
+        }
+        long packed = units.get();
+        return (int) Math.max(0, (packed >>> 32) - (packed & OUT_MASK));
+    }
+
+    /**
+     * This function counts the units of a tool rented out.
+     *
+     * @param toolCode Product code of the tool
+     * @return Number of units reserved and not yet released
+     */
+    public int getRentedOut(String toolCode) {
+        AtomicLong units = unitsByCode.get(toolCode);
+        return units == null ? 0 : (int) (units.get() & OUT_MASK);
+    }
+
+    private static void setOwned(AtomicLong units, int owned) {
+        long packed;
+        do {
+            packed = units.get();
+        } while (!units.compareAndSet(packed, (long) owned << 32 | (packed & OUT_MASK)));
+    }
+}
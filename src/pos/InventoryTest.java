@@ -0,0 +1,93 @@
+package pos;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for verifying the functionality of the Inventory class
+ */
+class InventoryTest {
+
+    /**
+     * Creates an inventory with three ladders and one chainsaw on the shelf.
+     */
+    private static Inventory stockedInventory() {
+        Tool ladder = new Tool("Ladder", "Werner", "LADW", 1.99, true, true, false);
+        Tool chainsaw = new Tool("Chainsaw", "Stihl", "CHNS", 1.49, true, false, true);
+        Inventory inventory = new Inventory();
+        inventory.sync(new CatalogSnapshot(Arrays.asList(ladder, chainsaw), new int[]{3, 1}));
+        return inventory;
+    }
+
+    @Test
+    void reserveUntilOutOfStock() {
+        Inventory inventory = stockedInventory();
+        assertEquals(3, inventory.getAvailable("LADW"));
+        assertTrue(inventory.reserve("LADW"));
+        assertTrue(inventory.reserve("LADW"));
+        assertTrue(inventory.reserve("LADW"));
+        assertFalse(inventory.reserve("LADW"));
+        assertEquals(0, inventory.getAvailable("LADW"));
+        assertEquals(3, inventory.getRentedOut("LADW"));
+
+        inventory.release("LADW");
+        assertEquals(1, inventory.getAvailable("LADW"));
+        assertTrue(inventory.reserve("LADW"));
+    }
+
+    @Test
+    void unknownTools() {
+        Inventory inventory = stockedInventory();
+        assertEquals(0, inventory.getAvailable("NONE"));
+        assertFalse(inventory.reserve("NONE"));
+        assertThrows(IllegalStateException.class, () -> inventory.release("NONE"));
+        assertThrows(IllegalStateException.class, () -> inventory.release("CHNS"));
+    }
+
+    @Test
+    void toolsDroppedFromCatalog() {
+        Inventory inventory = stockedInventory();
+        assertTrue(inventory.reserve("CHNS"));
+        inventory.sync(new CatalogSnapshot(new ArrayList<>()));
+
+        assertFalse(inventory.reserve("LADW"));
+        assertEquals(0, inventory.getAvailable("CHNS"));
+        inventory.release("CHNS");
+        assertEquals(0, inventory.getRentedOut("CHNS"));
+    }
+
+    @Test
+    void concurrentTerminals() throws InterruptedException {
+        Inventory inventory = stockedInventory();
+        Tool ladder = new Tool("Ladder", "Werner", "LADW", 1.99, true, true, false);
+        inventory.sync(new CatalogSnapshot(Arrays.asList(ladder), new int[]{1000}));
+
+        AtomicInteger reserved = new AtomicInteger();
+        List<Thread> terminals = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread terminal = new Thread(() -> {
+                for (int i = 0; i < 500; i++) {
+                    if (inventory.reserve("LADW")) {
+                        reserved.incrementAndGet();
+                    }
+                }
+            });
+            terminals.add(terminal);
+            terminal.start();
+        }
+        for (Thread terminal : terminals) {
+            terminal.join();
+        }
+
+        // Exactly the units owned were handed out, never more
+        assertEquals(1000, reserved.get());
+        assertEquals(0, inventory.getAvailable("LADW"));
+        assertEquals(1000, inventory.getRentedOut("LADW"));
+    }
+}
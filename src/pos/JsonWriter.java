@@ -0,0 +1,305 @@
+package pos;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Class Definition for a small JSON writer that encodes straight into a reusable byte array.
+ *
+ * Values are written as UTF-8 bytes as they are added, with numbers, dates and amounts of money written digit by
+ * digit by the same formatters ReceiptRenderer uses, so a response costs one growable array rather than a tree of
+ * objects and strings. Commas between members are tracked with one bit per nesting level, which limits documents
+ * to 64 levels deep.
+ */
+public final class JsonWriter {
+
+    private byte[] bytes; // Encoded document so far
+    private int size; // Number of bytes used in the array
+    private long needsComma; // Bit per nesting level, set once that level has a member
+    private int depth; // Current nesting level
+    private boolean afterName; // If a member name was just written, so the next value needs no comma
+    private final Appendable ascii = new AsciiAppendable(); // Writes the shared formatters' output into the array
+
+    /**
+     * Constructor for the JsonWriter class.
+     *
+     * @param initialCapacity Bytes to allocate up front
+     */
+    public JsonWriter(int initialCapacity) {
+        this.bytes = new byte[Math.max(16, initialCapacity)];
+    }
+
+    /**
+     * This function clears the writer so it can encode another document into the same array.
+     *
+     * @return This writer
+     */
+    public JsonWriter reset() {
+        size = 0;
+        needsComma = 0;
+        depth = 0;
+        afterName = false;
+        return this;
+    }
+
+    /**
+     * This function starts an object.
+     *
+     * @return This writer
+     */
+    public JsonWriter beginObject() {
+        return open('{');
+    }
+
+    /**
+     * This function ends the current object.
+     *
+     * @return This writer
+     */
+    public JsonWriter endObject() {
+        return close('}');
+    }
+
+    /**
+     * This function starts an array.
+     *
+     * @return This writer
+     */
+    public JsonWriter beginArray() {
+        return open('[');
+    }
+
+    /**
+     * This function ends the current array.
+     *
+     * @return This writer
+     */
+    public JsonWriter endArray() {
+        return close(']');
+    }
+
+    /**
+     * This function writes the name of the next object member.
+     *
+     * @param name Member name
+     * @return This writer
+     */
+    public JsonWriter name(String name) {
+        separate();
+        writeString(name);
+        put((byte) ':');
+        afterName = true;
+        return this;
+    }
+
+    /**
+     * This function writes a string value, or null.
+     *
+     * @param value Value to write
+     * @return This writer
+     */
+    public JsonWriter value(String value) {
+        separate();
+        if (value == null) {
+            putAscii("null");
+        } else {
+            writeString(value);
+        }
+        return this;
+    }
+
+    /**
+     * This function writes a whole number.
+     *
+     * @param value Value to write
+     * @return This writer
+     */
+    public JsonWriter value(long value) {
+        separate();
+        try {
+            ReceiptRenderer.appendLong(ascii, value);
+        } catch (IOException e) {
+            // Writing to the array never throws
+            throw new UncheckedIOException(e);
+        }
+        return this;
+    }
+
+    /**
+     * This function writes true or false.
+     *
+     * @param value Value to write
+     * @return This writer
+     */
+    public JsonWriter value(boolean value) {
+        separate();
+        putAscii(value ? "true" : "false");
+        return this;
+    }
+
+    /**
+     * This function writes an amount of money as a number of dollars with two decimal places, such as 12.50.
+     *
+     * @param cents Amount in cents
+     * @return This writer
+     */
+    public JsonWriter money(long cents) {
+        separate();
+        try {
+            ReceiptRenderer.appendDecimal(ascii, cents);
+        } catch (IOException e) {
+            // Writing to the array never throws
+            throw new UncheckedIOException(e);
+        }
+        return this;
+    }
+
+    /**
+     * This function writes a date as an ISO string, such as "2015-09-03".
+     *
+     * @param date Date to write
+     * @return This writer
+     */
+    public JsonWriter date(LocalDate date) {
+        separate();
+        put((byte) '"');
+        try {
+            ReceiptRenderer.appendIsoDate(ascii, date);
+        } catch (IOException e) {
+            // Writing to the array never throws
+            throw new UncheckedIOException(e);
+        }
+        put((byte) '"');
+        return this;
+    }
+
+    /**
+     * Getter function for the encoded length.
+     *
+     * @return Number of bytes written so far
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * This function copies the encoded document out of the writer.
+     *
+     * @return The document as UTF-8 bytes
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(bytes, size);
+    }
+
+    /**
+     * This function sends the encoded document to a stream.
+     *
+     * @param out Stream to write to
+     * @throws IOException If the stream can't be written to
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(bytes, 0, size);
+    }
+
+    private JsonWriter open(char bracket) {
+        separate();
+        put((byte) bracket);
+        depth++;
+        needsComma &= ~(1L << depth);
+        return this;
+    }
+
+    private JsonWriter close(char bracket) {
+        put((byte) bracket);
+        depth--;
+        return this;
+    }
+
+    /**
+     * Writes the comma before a value unless it is the first in its object or array, or follows a member name.
+     */
+    private void separate() {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        long bit = 1L << depth;
+        if ((needsComma & bit) != 0) {
+            put((byte) ',');
+        }
+        needsComma |= bit;
+    }
+
+    private void writeString(String value) {
+        put((byte) '"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                put((byte) '\\');
+                put((byte) c);
+            } else if (c < 0x20) {
+                putAscii("\\u00");
+                put((byte) Character.forDigit(c >> 4, 16));
+                put((byte) Character.forDigit(c & 0xF, 16));
+            } else if (c < 0x80) {
+                put((byte) c);
+            } else if (c < 0x800) {
+                put((byte) (0xC0 | c >> 6));
+                put((byte) (0x80 | c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                put((byte) (0xF0 | codePoint >> 18));
+                put((byte) (0x80 | codePoint >> 12 & 0x3F));
+                put((byte) (0x80 | codePoint >> 6 & 0x3F));
+                put((byte) (0x80 | codePoint & 0x3F));
+            } else {
+                put((byte) (0xE0 | c >> 12));
+                put((byte) (0x80 | c >> 6 & 0x3F));
+                put((byte) (0x80 | c & 0x3F));
+            }
+        }
+        put((byte) '"');
+    }
+
+    private void putAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            put((byte) text.charAt(i));
+        }
+    }
+
+    private void put(byte b) {
+        if (size == bytes.length) {
+            bytes = Arrays.copyOf(bytes, bytes.length * 2);
+        }
+        bytes[size++] = b;
+    }
+
+    /**
+     * Appendable over the writer's array, for the ASCII digits and punctuation the shared formatters write.
+     */
+    private final class AsciiAppendable implements Appendable {
+
+        @Override
+        public Appendable append(CharSequence text) {
+            return append(text, 0, text.length());
+        }
+
+        @Override
+        public Appendable append(CharSequence text, int start, int end) {
+            for (int i = start; i < end; i++) {
+                put((byte) text.charAt(i));
+            }
+            return this;
+        }
+
+        @Override
+        public Appendable append(char c) {
+            put((byte) c);
+            return this;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package pos;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for verifying the functionality of the JsonWriter class
+ */
+class JsonWriterTest {
+
+    private static String text(JsonWriter json) {
+        return new String(json.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void nesting() {
+        JsonWriter json = new JsonWriter(16);
+        json.beginObject()
+                .name("a").value(1)
+                .name("b").beginArray().value(true).value(false).beginObject().endObject().value((String) null).endArray()
+                .name("c").beginObject().name("d").value(-42).endObject()
+                .endObject();
+
+        assertEquals("{\"a\":1,\"b\":[true,false,{},null],\"c\":{\"d\":-42}}", text(json));
+    }
+
+    @Test
+    void strings() {
+        JsonWriter json = new JsonWriter(16);
+        json.value("say \"hi\"\\\n\u00e9\u20ac\ud83d\udd27");
+
+        assertEquals("\"say \\\"hi\\\"\\\\\\u000a\u00e9\u20ac\ud83d\udd27\"", text(json));
+    }
+
+    @Test
+    void moneyAndDates() {
+        JsonWriter json = new JsonWriter(16);
+        json.beginArray()
+                .money(0).money(5).money(1999).money(-50).money(123456789)
+                .date(LocalDate.of(2015, 9, 3))
+                .endArray();
+
+        assertEquals("[0.00,0.05,19.99,-0.50,1234567.89,\"2015-09-03\"]", text(json));
+    }
+
+    @Test
+    void reset() {
+        JsonWriter json = new JsonWriter(16);
+        json.beginArray().value(1).endArray();
+        json.reset().beginArray().value(2).endArray();
+
+        assertEquals("[2]", text(json));
+        assertEquals(3, json.size());
+    }
+}
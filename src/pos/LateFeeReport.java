@@ -0,0 +1,85 @@
+package pos;
+
+import java.time.LocalDate;
+
+/**
+ * Represents the late fees of every overdue rental on one night.
+ *
+ * Fees are kept in two parallel arrays, agreement IDs and fees in cents, ordered by due date, so a report on
+ * millions of rentals is two allocations.
+ */
+public class LateFeeReport {
+
+    private final LocalDate asOf; // Day fees were charged up to
+    private final long[] agreementIds; // Overdue agreements, by due date
+    private final long[] feeCents; // Late fee of each agreement, in cents
+    private final long totalCents; // Sum of every fee, in cents
+
+    /**
+     * Constructor for a Late Fee Report object.
+     *
+     * @param asOf Day fees were charged up to
+     * @param agreementIds Overdue agreements
+     * @param feeCents Late fee of each agreement, in cents
+     */
+    public LateFeeReport(LocalDate asOf, long[] agreementIds, long[] feeCents) {
+        if (agreementIds.length != feeCents.length) {
+            throw new IllegalArgumentException("Every agreement needs exactly one fee");
+        }
+        this.asOf = asOf;
+        this.agreementIds = agreementIds;
+        this.feeCents = feeCents;
+        long total = 0;
+        for (long fee : feeCents) {
+            total = Math.addExact(total, fee);
+        }
+        this.totalCents = total;
+    }
+
+    /**
+     * Getter function for the day fees were charged up to.
+     *
+     * @return Day fees were charged up to.
+     */
+    public LocalDate getAsOf() {
+        return asOf;
+    }
+
+    /**
+     * This function counts the overdue agreements.
+     *
+     * @return Number of agreements in the report
+     */
+    public int size() {
+        return agreementIds.length;
+    }
+
+    /**
+     * This function retrieves the ID of an overdue agreement.
+     *
+     * @param index Position in the report, from 0
+     * @return The agreement's ID
+     */
+    public long getAgreementId(int index) {
+        return agreementIds[index];
+    }
+
+    /**
+     * This function retrieves the late fee of an overdue agreement.
+     *
+     * @param index Position in the report, from 0
+     * @return The agreement's late fee
+     */
+    public Money getFee(int index) {
+        return Money.ofCents(feeCents[index]);
+    }
+
+    /**
+     * Getter function for the sum of every late fee.
+     *
+     * @return Total late fees.
+     */
+    public Money getTotal() {
+        return Money.ofCents(totalCents);
+    }
+}
@@ -0,0 +1,147 @@
+package pos;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Class Definition for a histogram of latencies in nanoseconds that many threads can record into at once.
+ *
+ * Values below 32 get a bucket each. Above that every power of two is split into 16 buckets, so a value is
+ * placed within about 6% of itself however large it is, and the whole range of a long fits in 960 buckets.
+ * Recording is one atomic increment with no locks. Each thread picks one of several stripes by its ID, so
+ * terminals recording at the same moment usually increment different memory. Reads add the stripes together.
+ */
+public class LatencyHistogram {
+
+    private static final int EXACT_LIMIT = 32; // Values below this have a bucket of their own
+    private static final int SUB_BUCKET_BITS = 4; // Each power of two above the exact range is split 2^4 ways
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    static final int BUCKETS = (63 - SUB_BUCKET_BITS) * SUB_BUCKETS + SUB_BUCKETS; // Buckets per stripe
+
+    private final int stripeMask; // Stripe count less one, the count being a power of two
+    private final AtomicLongArray counts; // Count per bucket, stripe after stripe
+
+    /**
+     * Constructor for a histogram with a stripe per available processor.
+     */
+    public LatencyHistogram() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor for the LatencyHistogram class.
+     *
+     * @param stripes Number of independent stripes, rounded up to a power of two
+     */
+    public LatencyHistogram(int stripes) {
+        int rounded = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.stripeMask = stripes <= 1 ? 0 : rounded - 1;
+        this.counts = new AtomicLongArray((stripeMask + 1) * BUCKETS);
+    }
+
+    /**
+     * This function records one latency.
+     *
+     * @param nanos Latency in nanoseconds, negative values count as 0
+     */
+    public void record(long nanos) {
+        int stripe = (int) Thread.currentThread().getId() & stripeMask;
+        counts.incrementAndGet(stripe * BUCKETS + bucketOf(Math.max(0, nanos)));
+    }
+
+    /**
+     * This function counts the latencies recorded.
+     *
+     * @return Number of latencies recorded since the histogram was created or reset
+     */
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * This function estimates a percentile of the latencies recorded.
+     *
+     * @param percentile Percentile to find, from 0 to 100
+     * @return The highest latency in the bucket holding the percentile, 0 if nothing was recorded
+     */
+    public long getPercentile(double percentile) {
+        return getPercentiles(percentile)[0];
+    }
+
+    /**
+     * This function estimates several percentiles from one read of the histogram, so they agree with each other
+     * while other threads keep recording.
+     *
+     * @param percentiles Percentiles to find, each from 0 to 100
+     * @return The highest latency in the bucket holding each percentile, 0s if nothing was recorded
+     */
+    public long[] getPercentiles(double... percentiles) {
+        long[] merged = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            long count = counts.get(i);
+            merged[i % BUCKETS] += count;
+            total += count;
+        }
+
+        long[] values = new long[percentiles.length];
+        if (total == 0) {
+            return values;
+        }
+        for (int p = 0; p < percentiles.length; p++) {
+            // Rank of the value at the percentile, counting from 1
+            long rank = Math.max(1, (long) Math.ceil(Math.min(100, Math.max(0, percentiles[p])) / 100 * total));
+            long seen = 0;
+            for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                seen += merged[bucket];
+                if (seen >= rank) {
+                    values[p] = highestValueIn(bucket);
+                    break;
+                }
+            }
+        }
+        return values;
+    }
+
+    /**
+     * This function forgets every latency recorded. Latencies recorded while the reset runs may be kept.
+     */
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+        }
+    }
+
+    /**
+     * This function finds the bucket a latency goes in.
+     *
+     * @param nanos Latency, not negative
+     * @return Bucket index
+     */
+    static int bucketOf(long nanos) {
+        if (nanos < EXACT_LIMIT) {
+            return (int) nanos;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)); // From 16 to 31
+        return (exponent - SUB_BUCKET_BITS) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * This function finds the highest latency that goes in a bucket.
+     *
+     * @param bucket Bucket index
+     * @return Highest latency in the bucket
+     */
+    static long highestValueIn(int bucket) {
+        if (bucket < EXACT_LIMIT) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long subBucket = bucket % SUB_BUCKETS + SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
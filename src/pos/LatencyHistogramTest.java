@@ -0,0 +1,73 @@
+package pos;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for verifying the functionality of the LatencyHistogram class
+ */
+class LatencyHistogramTest {
+
+    @Test
+    void bucketsCoverEveryValue() {
+        // Buckets are contiguous: each one starts right after the one before it ends
+        long previousHighest = -1;
+        for (int bucket = 0; bucket < LatencyHistogram.BUCKETS; bucket++) {
+            long highest = LatencyHistogram.highestValueIn(bucket);
+            assertEquals(bucket, LatencyHistogram.bucketOf(previousHighest + 1));
+            assertEquals(bucket, LatencyHistogram.bucketOf(highest));
+            previousHighest = highest;
+        }
+        assertEquals(Long.MAX_VALUE, previousHighest);
+    }
+
+    @Test
+    void percentilesWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram(4);
+        assertEquals(0, histogram.getPercentile(50));
+
+        for (long nanos = 1; nanos <= 100_000; nanos++) {
+            histogram.record(nanos);
+        }
+        assertEquals(100_000, histogram.getCount());
+
+        long[] percentiles = histogram.getPercentiles(50, 99, 99.9, 100);
+        long[] expected = {50_000, 99_000, 99_900, 100_000};
+        for (int i = 0; i < expected.length; i++) {
+            assertTrue(percentiles[i] >= expected[i], "p" + i + " too low: " + percentiles[i]);
+            assertTrue(percentiles[i] <= expected[i] * 107 / 100, "p" + i + " too high: " + percentiles[i]);
+        }
+
+        // Small values are exact
+        histogram.reset();
+        histogram.record(-5);
+        histogram.record(7);
+        assertEquals(2, histogram.getCount());
+        assertEquals(0, histogram.getPercentile(50));
+        assertEquals(7, histogram.getPercentile(100));
+    }
+
+    @Test
+    void concurrentRecording() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        int threads = 8;
+        int perThread = 100_000;
+        Thread[] recorders = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            recorders[t] = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    histogram.record(1000);
+                }
+            });
+            recorders[t].start();
+        }
+        for (Thread recorder : recorders) {
+            recorder.join();
+        }
+
+        // No increments lost
+        assertEquals((long) threads * perThread, histogram.getCount());
+        assertEquals(LatencyHistogram.highestValueIn(LatencyHistogram.bucketOf(1000)), histogram.getPercentile(99.9));
+    }
+}
@@ -0,0 +1,747 @@
+package pos;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import com.sun.management.GcInfo;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.io.PrintStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.lang.management.ThreadMXBean;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Soak tests the pricing core with simulated clerks checking out tools as fast as they can or at a set rate.
+ *
+ * Each clerk runs on its own thread and has its own mix of rentals: a shuffled set of the catalog's tools with a
+ * few popular ones rented far more than the rest, its own leaning towards short or long rentals and small or large
+ * discounts, and a season of checkout dates in a year of its own. Every checkout looks its tool up with
+ * ToolsDB.getToolFromCode and prices it with CheckoutFunctions.checkout, and nothing is kept but the histograms.
+ *
+ * In a closed loop a clerk starts its next checkout as soon as the last is done. A stall then delays the checkouts
+ * that would have been waiting behind it, which plain timing never sees, so response times are corrected the way
+ * HdrHistogram does: a checkout that took longer than the clerk's average also records the waits of the checkouts
+ * it held up. In an open loop a clerk checks out at a fixed rate, and each checkout's response time runs from when
+ * it was due rather than when it started. Service time, from start to finish, is kept as well.
+ *
+ * Everything the harness holds is allocated before the clerks start, so a run of hours uses no more memory than a
+ * run of minutes. Garbage collections are followed through the collectors' notifications, which give each pause
+ * and the heap left after it. The heap left after collecting in the last quarter of the run is compared with the
+ * first quarter, and a clear rise is reported as the heap growing.
+ */
+public final class LoadHarness {
+
+    // Percentiles reported, and the label for each
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 100};
+    private static final String[] PERCENTILE_LABELS = {"p50", "p90", "p99", "p99.9", "max"};
+
+    // Rental lengths and how often each is chosen at the counter, out of 100, before a clerk's own leaning
+    private static final int[] RENTAL_DAYS = {1, 2, 3, 5, 7, 14, 28};
+    private static final int[] RENTAL_DAY_WEIGHTS = {30, 15, 15, 10, 15, 10, 5};
+
+    // Discounts and how often each is given, out of 100, before a clerk's own leaning
+    private static final int[] DISCOUNTS = {0, 5, 10, 15, 20, 25, 50, 100};
+    private static final int[] DISCOUNT_WEIGHTS = {60, 5, 12, 5, 6, 7, 4, 1};
+
+    private static final int MAX_CLERK_TOOLS = 256; // Most tools in one clerk's mix
+    private static final int SEASON_DAYS = 120; // Length of the stretch of checkout dates each clerk uses
+    private static final int FIRST_YEAR = 2015; // Clerks' checkout years run from this one ...
+    private static final int YEARS = 11; // ... for this many years
+
+    // How far the heap left after collecting may rise before it counts as growing, whichever is larger
+    private static final long HEAP_GROWTH_BYTES = 16L << 20;
+    private static final int HEAP_GROWTH_PERCENT = 10;
+    private static final long HEAP_SAMPLE_NANOS = TimeUnit.SECONDS.toNanos(1); // Most time between heap samples
+
+    private LoadHarness() {
+    }
+
+    /**
+     * Runs a load test from the command line and prints progress every ten seconds and a summary at the end.
+     * Exits with status 1 if the heap grew.
+     *
+     * @param args Number of clerks and how many seconds to run, optionally checkouts per second per clerk (0 for
+     *             a closed loop) and the tool info and tools available CSV paths
+     */
+    public static void main(String[] args) {
+        if (args.length < 2 || args.length > 5 || args.length == 4) {
+            System.err.println("Usage: load <clerks> <seconds> [checkouts per second per clerk, 0 for a closed loop]"
+                    + " [tool info csv] [tools available csv]");
+            System.exit(2);
+        }
+
+        String toolInfoCSVPath = args.length == 5 ? args[3] : "src/ToolInfo.csv";
+        String toolsAvailableCSVPath = args.length == 5 ? args[4] : "src/ToolsAvailable.csv";
+        try {
+            int clerks = Integer.parseInt(args[0]);
+            long durationNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(args[1]));
+            double ratePerClerk = args.length > 2 ? Double.parseDouble(args[2]) : 0;
+            long warmupNanos = Math.min(TimeUnit.SECONDS.toNanos(30), durationNanos / 10);
+            long reportNanos = Math.min(TimeUnit.SECONDS.toNanos(10), durationNanos);
+            POSSystem.loadHolidays();
+            ToolsDB toolDirectory = new ToolsDB(toolInfoCSVPath, toolsAvailableCSVPath);
+
+            System.out.println("Load: " + clerks + " clerks, "
+                    + (ratePerClerk > 0 ? ratePerClerk + " checkouts per second each" : "closed loop") + ", "
+                    + TimeUnit.NANOSECONDS.toSeconds(durationNanos) + " s after "
+                    + TimeUnit.NANOSECONDS.toSeconds(warmupNanos) + " s warming up");
+            Report report = run(toolDirectory, clerks, ratePerClerk, warmupNanos, durationNanos, reportNanos,
+                    System.out);
+            report.print(System.out);
+            if (report.isHeapGrowing()) {
+                System.exit(1);
+            }
+        } catch (InterruptedException | NumberFormatException e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    /**
+     * This function runs simulated clerks against a catalog, warming up first, and measures the checkouts.
+     *
+     * @param toolDirectory Tools the clerks rent out
+     * @param clerks Number of clerks checking out at once
+     * @param ratePerClerk Checkouts per second each clerk starts, or 0 for a closed loop
+     * @param warmupNanos How long to run before measuring
+     * @param durationNanos How long to measure for
+     * @param reportNanos How often to print progress
+     * @param progress Where to print progress, or null to print nothing
+     * @return The checkouts' throughput, latencies, garbage collections and allocation
+     * @throws InterruptedException If interrupted while waiting on the clerks
+     */
+    public static Report run(ToolsDB toolDirectory, int clerks, double ratePerClerk, long warmupNanos,
+                             long durationNanos, long reportNanos, PrintStream progress)
+            throws InterruptedException {
+        if (clerks < 1 || durationNanos <= 0 || reportNanos <= 0 || !(ratePerClerk >= 0)) {
+            throw new IllegalArgumentException("Need a clerk, a duration and a report interval");
+        }
+        String[] toolCodes = toolDirectory.getToolsAvailable();
+        if (toolCodes.length == 0) {
+            throw new IllegalArgumentException("The catalog has no tools");
+        }
+
+        Measurements measurements = new Measurements();
+        long intervalNanos = ratePerClerk > 0 ? Math.max(1, (long) (1e9 / ratePerClerk)) : 0;
+        Clerk[] simulated = new Clerk[clerks];
+        Thread[] threads = new Thread[clerks];
+        long[] threadIds = new long[clerks];
+        for (int i = 0; i < clerks; i++) {
+            simulated[i] = new Clerk(toolDirectory, new ClerkMix(toolCodes, i), intervalNanos, measurements, i);
+            threads[i] = new Thread(simulated[i], "load-clerk-" + i);
+            threads[i].setDaemon(true);
+            threadIds[i] = threads[i].getId();
+        }
+
+        GcMonitor gc = new GcMonitor();
+        AllocationMonitor allocation = new AllocationMonitor(threadIds);
+        try {
+            for (Thread thread : threads) {
+                thread.start();
+            }
+            Thread.sleep(TimeUnit.NANOSECONDS.toMillis(warmupNanos));
+
+            // Forget the warm up, then measure
+            measurements.reset();
+            gc.reset();
+            long allocatedAtStart = allocation.getAllocatedBytes();
+            long started = System.nanoTime();
+            measurements.measuring = true;
+
+            long nextReport = started + reportNanos;
+            long end = started + durationNanos;
+            long lastReport = started;
+            long allocatedAtLastReport = allocatedAtStart;
+            long gcPausesAtLastReport = 0;
+            long gcPauseNanosAtLastReport = 0;
+            long now;
+            while ((now = System.nanoTime()) < end) {
+                // Wake for every progress line, and often enough to follow the heap through each quarter
+                TimeUnit.NANOSECONDS.sleep(Math.min(Math.min(nextReport, end), now + HEAP_SAMPLE_NANOS) - now);
+                now = System.nanoTime();
+                gc.sampleHeap((double) (now - started) / durationNanos);
+                if (now >= nextReport && now < end) {
+                    long allocated = allocation.getAllocatedBytes();
+                    if (progress != null) {
+                        printProgress(progress, measurements, now - started, now - lastReport,
+                                gc.getPauses() - gcPausesAtLastReport, gc.getPauseNanos() - gcPauseNanosAtLastReport,
+                                allocated - allocatedAtLastReport, gc.getHeapAfterGc());
+                    }
+                    measurements.intervalResponseTimes.reset();
+                    measurements.intervalCheckouts.set(0);
+                    lastReport = now;
+                    allocatedAtLastReport = allocated;
+                    gcPausesAtLastReport = gc.getPauses();
+                    gcPauseNanosAtLastReport = gc.getPauseNanos();
+                    nextReport += reportNanos;
+                }
+            }
+            measurements.measuring = false;
+            long elapsedNanos = System.nanoTime() - started;
+            long allocatedBytes = allocatedAtStart < 0 ? -1 : allocation.getAllocatedBytes() - allocatedAtStart;
+
+            return new Report(measurements.checkouts.get(), elapsedNanos,
+                    measurements.responseTimes.getPercentiles(PERCENTILES),
+                    measurements.serviceTimes.getPercentiles(PERCENTILES),
+                    gc.getPauses(), gc.getPauseNanos(), gc.getLongestPauseNanos(), allocatedBytes,
+                    gc.getFirstQuarterHeap(), gc.getLastQuarterHeap());
+        } finally {
+            measurements.stopped = true;
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            gc.close();
+        }
+    }
+
+    /**
+     * This function prints one line of progress covering the checkouts since the last line.
+     */
+    private static void printProgress(PrintStream progress, Measurements measurements, long elapsedNanos,
+                                      long intervalNanos, long gcPauses, long gcPauseNanos, long allocatedBytes,
+                                      long heapAfterGc) {
+        double seconds = intervalNanos / 1e9;
+        StringBuilder line = new StringBuilder(String.format("[%6d s] %.0f checkouts/s, response",
+                TimeUnit.NANOSECONDS.toSeconds(elapsedNanos), measurements.intervalCheckouts.get() / seconds));
+        appendPercentiles(line, measurements.intervalResponseTimes.getPercentiles(PERCENTILES));
+        line.append(", GC ").append(gcPauses).append(" pauses ").append(formatNanos(gcPauseNanos));
+        if (allocatedBytes >= 0) {
+            line.append(String.format(", allocating %.1f MB/s", allocatedBytes / seconds / (1 << 20)));
+        }
+        if (heapAfterGc >= 0) {
+            line.append(String.format(", heap after GC %.1f MB", heapAfterGc / (double) (1 << 20)));
+        }
+        progress.println(line);
+    }
+
+    private static void appendPercentiles(StringBuilder line, long[] percentileNanos) {
+        for (int p = 0; p < PERCENTILES.length; p++) {
+            line.append(p == 0 ? " " : ", ").append(PERCENTILE_LABELS[p]).append(' ')
+                    .append(formatNanos(percentileNanos[p]));
+        }
+    }
+
+    private static String formatNanos(long nanos) {
+        if (nanos < 1_000_000) {
+            return String.format("%.1f us", nanos / 1e3);
+        }
+        if (nanos < 1_000_000_000) {
+            return String.format("%.1f ms", nanos / 1e6);
+        }
+        return String.format("%.2f s", nanos / 1e9);
+    }
+
+    /**
+     * Throughput, latencies, garbage collection and allocation of a load test.
+     */
+    public static final class Report {
+
+        private final long checkouts; // Checkouts completed while measuring
+        private final long elapsedNanos; // Time spent measuring
+        private final long[] responsePercentileNanos; // Response time at each of PERCENTILES
+        private final long[] servicePercentileNanos; // Service time at each of PERCENTILES
+        private final long gcPauses; // Garbage collection pauses while measuring
+        private final long gcPauseNanos; // Total time paused for garbage collection while measuring
+        private final long longestGcPauseNanos; // Longest garbage collection pause while measuring
+        private final long allocatedBytes; // Bytes the clerks allocated while measuring, -1 if unknown
+        private final long firstQuarterHeap; // Least heap left after collecting in the first quarter, -1 if unknown
+        private final long lastQuarterHeap; // Least heap left after collecting in the last quarter, -1 if unknown
+
+        private Report(long checkouts, long elapsedNanos, long[] responsePercentileNanos,
+                       long[] servicePercentileNanos, long gcPauses, long gcPauseNanos, long longestGcPauseNanos,
+                       long allocatedBytes, long firstQuarterHeap, long lastQuarterHeap) {
+            this.checkouts = checkouts;
+            this.elapsedNanos = elapsedNanos;
+            this.responsePercentileNanos = responsePercentileNanos;
+            this.servicePercentileNanos = servicePercentileNanos;
+            this.gcPauses = gcPauses;
+            this.gcPauseNanos = gcPauseNanos;
+            this.longestGcPauseNanos = longestGcPauseNanos;
+            this.allocatedBytes = allocatedBytes;
+            this.firstQuarterHeap = firstQuarterHeap;
+            this.lastQuarterHeap = lastQuarterHeap;
+        }
+
+        /**
+         * Getter function for the number of checkouts completed while measuring.
+         *
+         * @return Checkouts completed.
+         */
+        public long getCheckouts() {
+            return checkouts;
+        }
+
+        /**
+         * Getter function for how long the measuring ran.
+         *
+         * @return Elapsed time in nanoseconds.
+         */
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        /**
+         * This function works out the checkouts completed per second.
+         *
+         * @return Throughput
+         */
+        public double getCheckoutsPerSecond() {
+            return checkouts / Math.max(1e-9, elapsedNanos / 1e9);
+        }
+
+        /**
+         * Getter function for the response time, corrected for coordinated omission, at the median, 90th, 99th and
+         * 99.9th percentiles and the maximum.
+         *
+         * @return Latencies in nanoseconds, each the top of its histogram bucket.
+         */
+        public long[] getResponsePercentileNanos() {
+            return responsePercentileNanos.clone();
+        }
+
+        /**
+         * Getter function for the service time, from starting a checkout to finishing it, at the median, 90th, 99th
+         * and 99.9th percentiles and the maximum.
+         *
+         * @return Latencies in nanoseconds, each the top of its histogram bucket.
+         */
+        public long[] getServicePercentileNanos() {
+            return servicePercentileNanos.clone();
+        }
+
+        /**
+         * Getter function for the number of garbage collection pauses.
+         *
+         * @return Pauses while measuring.
+         */
+        public long getGcPauses() {
+            return gcPauses;
+        }
+
+        /**
+         * Getter function for the total time paused for garbage collection.
+         *
+         * @return Time in nanoseconds.
+         */
+        public long getGcPauseNanos() {
+            return gcPauseNanos;
+        }
+
+        /**
+         * Getter function for the longest garbage collection pause.
+         *
+         * @return Time in nanoseconds.
+         */
+        public long getLongestGcPauseNanos() {
+            return longestGcPauseNanos;
+        }
+
+        /**
+         * Getter function for the bytes the clerks allocated while measuring.
+         *
+         * @return Bytes allocated, -1 if the JVM can't count them.
+         */
+        public long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+
+        /**
+         * This function works out the bytes allocated per checkout.
+         *
+         * @return Bytes per checkout, -1 if the JVM can't count them
+         */
+        public double getAllocatedBytesPerCheckout() {
+            return allocatedBytes < 0 ? -1 : allocatedBytes / (double) Math.max(1, checkouts);
+        }
+
+        /**
+         * This function checks if the heap left after collecting rose by more than a tenth, and at least 16 MB,
+         * between the first and last quarter of the run. Runs too short to collect in both never count as growing.
+         *
+         * @return If the heap grew
+         */
+        public boolean isHeapGrowing() {
+            if (firstQuarterHeap < 0 || lastQuarterHeap < 0) {
+                return false;
+            }
+            long allowed = Math.max(HEAP_GROWTH_BYTES, firstQuarterHeap / 100 * HEAP_GROWTH_PERCENT);
+            return lastQuarterHeap - firstQuarterHeap > allowed;
+        }
+
+        /**
+         * This function prints the report.
+         *
+         * @param out Where to print it
+         */
+        public void print(PrintStream out) {
+            out.println("Ran " + checkouts + " checkouts in " + elapsedNanos / 1_000_000 + " ms, "
+                    + String.format("%.1f", getCheckoutsPerSecond()) + " checkouts per second");
+            StringBuilder line = new StringBuilder("Response time:");
+            appendPercentiles(line, responsePercentileNanos);
+            out.println(line);
+            line = new StringBuilder("Service time:");
+            appendPercentiles(line, servicePercentileNanos);
+            out.println(line);
+            out.println("GC: " + gcPauses + " pauses, " + formatNanos(gcPauseNanos) + " in total, longest "
+                    + formatNanos(longestGcPauseNanos));
+            if (allocatedBytes >= 0) {
+                out.println(String.format("Allocation: %.1f MB/s, %.0f bytes per checkout",
+                        allocatedBytes / Math.max(1e-9, elapsedNanos / 1e9) / (1 << 20),
+                        getAllocatedBytesPerCheckout()));
+            }
+            if (firstQuarterHeap >= 0 && lastQuarterHeap >= 0) {
+                out.println(String.format("Heap after GC: %.1f MB in the first quarter, %.1f MB in the last%s",
+                        firstQuarterHeap / (double) (1 << 20), lastQuarterHeap / (double) (1 << 20),
+                        isHeapGrowing() ? ", the heap is growing" : ""));
+            }
+        }
+    }
+
+    /**
+     * Histograms and counters every clerk records into, allocated once for the whole run.
+     */
+    private static final class Measurements {
+
+        private final LatencyHistogram responseTimes = new LatencyHistogram(); // Corrected response times
+        private final LatencyHistogram serviceTimes = new LatencyHistogram(); // Start to finish of each checkout
+        private final LatencyHistogram intervalResponseTimes = new LatencyHistogram(); // Since the last progress
+        private final AtomicLong checkouts = new AtomicLong(); // Checkouts completed while measuring
+        private final AtomicLong intervalCheckouts = new AtomicLong(); // Checkouts since the last progress line
+        private volatile boolean measuring; // If checkouts are being recorded, false while warming up
+        private volatile boolean stopped; // If the clerks should stop
+
+        private void reset() {
+            responseTimes.reset();
+            serviceTimes.reset();
+            intervalResponseTimes.reset();
+            checkouts.set(0);
+            intervalCheckouts.set(0);
+        }
+
+        /**
+         * Records a checkout's response time and, when it held up others, the response times they would have had.
+         *
+         * @param responseNanos Response time of the checkout
+         * @param expectedIntervalNanos Usual time between checkouts, 0 if none were held up
+         */
+        private void recordResponse(long responseNanos, long expectedIntervalNanos) {
+            responseTimes.record(responseNanos);
+            intervalResponseTimes.record(responseNanos);
+            if (expectedIntervalNanos <= 0) {
+                return;
+            }
+            for (long missed = responseNanos - expectedIntervalNanos; missed >= expectedIntervalNanos;
+                 missed -= expectedIntervalNanos) {
+                responseTimes.record(missed);
+                intervalResponseTimes.record(missed);
+            }
+        }
+    }
+
+    /**
+     * One clerk's mix of rentals. Picking from it allocates nothing.
+     */
+    private static final class ClerkMix {
+
+        private final String[] toolCodes; // Tools the clerk rents, most popular first
+        private final int[] toolWeights; // Running total of each tool's weight
+        private final int[] rentalDayWeights; // Running total of each of RENTAL_DAYS' weights
+        private final int[] discountWeights; // Running total of each of DISCOUNTS' weights
+        private final LocalDate[] checkoutDates; // The clerk's season of checkout dates
+
+        private ClerkMix(String[] catalogCodes, long seed) {
+            Random random = new Random(seed);
+
+            List<String> shuffled = new ArrayList<>(List.of(catalogCodes));
+            Collections.shuffle(shuffled, random);
+            this.toolCodes = shuffled.subList(0, Math.min(MAX_CLERK_TOOLS, shuffled.size())).toArray(new String[0]);
+            // A few tools are rented far more than the rest, each about twice as often as the next but one
+            this.toolWeights = new int[toolCodes.length];
+            int total = 0;
+            for (int rank = 0; rank < toolCodes.length; rank++) {
+                total += 100_000 / (rank + 1);
+                toolWeights[rank] = total;
+            }
+
+            this.rentalDayWeights = lean(RENTAL_DAY_WEIGHTS, random);
+            this.discountWeights = lean(DISCOUNT_WEIGHTS, random);
+
+            LocalDate seasonStart = LocalDate.ofYearDay(FIRST_YEAR + random.nextInt(YEARS), 1 + random.nextInt(365));
+            this.checkoutDates = new LocalDate[SEASON_DAYS];
+            for (int day = 0; day < SEASON_DAYS; day++) {
+                checkoutDates[day] = seasonStart.plusDays(day);
+            }
+        }
+
+        /**
+         * Scales each weight by a random factor from a half to one and a half, for a clerk's own leaning.
+         *
+         * @return Running totals of the scaled weights
+         */
+        private static int[] lean(int[] weights, Random random) {
+            int[] runningTotals = new int[weights.length];
+            int total = 0;
+            for (int i = 0; i < weights.length; i++) {
+                total += Math.max(1, (int) Math.round(weights[i] * (0.5 + random.nextDouble())));
+                runningTotals[i] = total;
+            }
+            return runningTotals;
+        }
+
+        /**
+         * Picks an index at random, each in proportion to its weight.
+         *
+         * @param runningTotals Running total of the weights
+         * @return The picked index
+         */
+        private static int pick(int[] runningTotals, SplittableRandom random) {
+            int roll = random.nextInt(runningTotals[runningTotals.length - 1]);
+            int low = 0;
+            int high = runningTotals.length - 1;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (runningTotals[middle] <= roll) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+
+    /**
+     * A simulated clerk, checking out tools from its own mix until the run stops.
+     */
+    private static final class Clerk implements Runnable {
+
+        private final ToolsDB toolDirectory; // Tools the clerk rents out
+        private final ClerkMix mix; // What the clerk rents out and for how long
+        private final long intervalNanos; // Time between checkouts in an open loop, 0 for a closed loop
+        private final Measurements measurements; // Where checkouts are recorded
+        private final long seed; // Seed for the clerk's random picks
+
+        private Clerk(ToolsDB toolDirectory, ClerkMix mix, long intervalNanos, Measurements measurements,
+                      long seed) {
+            this.toolDirectory = toolDirectory;
+            this.mix = mix;
+            this.intervalNanos = intervalNanos;
+            this.measurements = measurements;
+            this.seed = seed;
+        }
+
+        @Override
+        public void run() {
+            SplittableRandom random = new SplittableRandom(seed);
+            long serviceNanosSum = 0; // For the average time between closed loop checkouts
+            long serviceCount = 0;
+            // Open loop clerks start at random points in the first interval so they don't all check out together
+            long nextDue = System.nanoTime() + (intervalNanos > 0 ? random.nextLong(intervalNanos) : 0);
+
+            while (!measurements.stopped) {
+                String toolCode = mix.toolCodes[ClerkMix.pick(mix.toolWeights, random)];
+                LocalDate checkoutDate = mix.checkoutDates[random.nextInt(mix.checkoutDates.length)];
+                int rentalDays = RENTAL_DAYS[ClerkMix.pick(mix.rentalDayWeights, random)];
+                int discount = DISCOUNTS[ClerkMix.pick(mix.discountWeights, random)];
+
+                long due = nextDue;
+                if (intervalNanos > 0) {
+                    nextDue += intervalNanos;
+                    long wait = due - System.nanoTime();
+                    if (wait > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                }
+                long started = System.nanoTime();
+                Tool tool = toolDirectory.getToolFromCode(toolCode);
+                CheckoutFunctions.checkout(tool, checkoutDate, rentalDays, discount);
+                long finished = System.nanoTime();
+
+                long serviceNanos = finished - started;
+                serviceNanosSum += serviceNanos;
+                serviceCount++;
+                if (measurements.measuring) {
+                    measurements.serviceTimes.record(serviceNanos);
+                    if (intervalNanos > 0) {
+                        measurements.recordResponse(finished - due, 0);
+                    } else {
+                        measurements.recordResponse(serviceNanos, serviceNanosSum / serviceCount);
+                    }
+                    measurements.checkouts.incrementAndGet();
+                    measurements.intervalCheckouts.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    /**
+     * Follows garbage collection pauses and the heap left after them through the collectors' notifications.
+     * Collectors that work alongside the application, such as ZGC's cycles, aren't counted as pauses.
+     */
+    private static final class GcMonitor implements NotificationListener, AutoCloseable {
+
+        private final List<NotificationEmitter> emitters = new ArrayList<>(); // Collectors listened to
+        private final Set<String> heapPools = new HashSet<>(); // Names of the memory pools that make up the heap
+        private final AtomicLong pauses = new AtomicLong(); // Pauses since the last reset
+        private final AtomicLong pauseNanos = new AtomicLong(); // Time paused since the last reset
+        private final AtomicLong longestPauseNanos = new AtomicLong(); // Longest pause since the last reset
+        private final AtomicLong heapAfterGc = new AtomicLong(-1); // Heap left after the last collection
+        private long firstQuarterHeap = -1; // Least heap after collecting in the first quarter of the run
+        private long lastQuarterHeap = -1; // Least heap after collecting in the last quarter of the run
+
+        private GcMonitor() {
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (pool.getType() == MemoryType.HEAP) {
+                    heapPools.add(pool.getName());
+                }
+            }
+            for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+                if (collector instanceof NotificationEmitter) {
+                    NotificationEmitter emitter = (NotificationEmitter) collector;
+                    emitter.addNotificationListener(this, null, null);
+                    emitters.add(emitter);
+                }
+            }
+        }
+
+        @Override
+        public void handleNotification(Notification notification, Object handback) {
+            if (!notification.getType().equals(GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION)) {
+                return;
+            }
+            GarbageCollectionNotificationInfo info =
+                    GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+            GcInfo gcInfo = info.getGcInfo();
+
+            long heapUsed = 0;
+            for (Map.Entry<String, MemoryUsage> pool : gcInfo.getMemoryUsageAfterGc().entrySet()) {
+                if (heapPools.contains(pool.getKey())) {
+                    heapUsed += pool.getValue().getUsed();
+                }
+            }
+            heapAfterGc.set(heapUsed);
+
+            String name = info.getGcName();
+            if (name.contains("Cycles") || name.contains("Concurrent")) {
+                return;
+            }
+            long nanos = TimeUnit.MILLISECONDS.toNanos(gcInfo.getDuration());
+            pauses.incrementAndGet();
+            pauseNanos.addAndGet(nanos);
+            longestPauseNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        private void reset() {
+            pauses.set(0);
+            pauseNanos.set(0);
+            longestPauseNanos.set(0);
+        }
+
+        /**
+         * Notes the heap left after the last collection for the quarter of the run it falls in.
+         *
+         * @param runFraction How far through the run it is, from 0 to 1
+         */
+        private void sampleHeap(double runFraction) {
+            long heap = heapAfterGc.get();
+            if (heap < 0) {
+                return;
+            }
+            if (runFraction <= 0.25) {
+                firstQuarterHeap = firstQuarterHeap < 0 ? heap : Math.min(firstQuarterHeap, heap);
+            } else if (runFraction >= 0.75) {
+                lastQuarterHeap = lastQuarterHeap < 0 ? heap : Math.min(lastQuarterHeap, heap);
+            }
+        }
+
+        private long getPauses() {
+            return pauses.get();
+        }
+
+        private long getPauseNanos() {
+            return pauseNanos.get();
+        }
+
+        private long getLongestPauseNanos() {
+            return longestPauseNanos.get();
+        }
+
+        private long getHeapAfterGc() {
+            return heapAfterGc.get();
+        }
+
+        private long getFirstQuarterHeap() {
+            return firstQuarterHeap;
+        }
+
+        private long getLastQuarterHeap() {
+            return lastQuarterHeap;
+        }
+
+        @Override
+        public void close() {
+            for (NotificationEmitter emitter : emitters) {
+                try {
+                    emitter.removeNotificationListener(this);
+                } catch (ListenerNotFoundException e) {
+                    // Already removed
+                }
+            }
+        }
+    }
+
+    /**
+     * Counts the bytes the clerks' threads allocate, where the JVM supports it.
+     */
+    private static final class AllocationMonitor {
+
+        private final long[] threadIds; // Clerk threads
+        private final com.sun.management.ThreadMXBean threads; // Thread bean with allocation counts, or null
+
+        private AllocationMonitor(long[] threadIds) {
+            this.threadIds = threadIds;
+            ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (bean instanceof com.sun.management.ThreadMXBean
+                    && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+                this.threads = (com.sun.management.ThreadMXBean) bean;
+                threads.setThreadAllocatedMemoryEnabled(true);
+            } else {
+                this.threads = null;
+            }
+        }
+
+        /**
+         * This function totals the bytes the clerks have allocated so far. A clerk that has finished counts as 0.
+         *
+         * @return Bytes allocated, -1 if the JVM can't count them
+         */
+        private long getAllocatedBytes() {
+            if (threads == null) {
+                return -1;
+            }
+            long total = 0;
+            for (long bytes : threads.getThreadAllocatedBytes(threadIds)) {
+                total += Math.max(0, bytes);
+            }
+            return total;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package pos;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for verifying the functionality of the LoadHarness class
+ */
+class LoadHarnessTest {
+
+    /**
+     * Creates a store with the four standard tools.
+     */
+    private static ToolsDB store() {
+        return new ToolsDB("src/testToolInfo.csv", "src/testToolsAvailable.csv");
+    }
+
+    private static void assertAscending(long[] percentiles) {
+        for (int p = 1; p < percentiles.length; p++) {
+            assertTrue(percentiles[p] >= percentiles[p - 1]);
+        }
+    }
+
+    @Test
+    void closedLoop() throws InterruptedException {
+        ByteArrayOutputStream progress = new ByteArrayOutputStream();
+        LoadHarness.Report report = LoadHarness.run(store(), 2, 0, TimeUnit.MILLISECONDS.toNanos(100),
+                TimeUnit.MILLISECONDS.toNanos(400), TimeUnit.MILLISECONDS.toNanos(100),
+                new PrintStream(progress, true, StandardCharsets.UTF_8));
+
+        assertTrue(report.getCheckouts() > 0);
+        assertTrue(report.getCheckoutsPerSecond() > 0);
+        long[] response = report.getResponsePercentileNanos();
+        long[] service = report.getServicePercentileNanos();
+        assertAscending(response);
+        assertAscending(service);
+        // Correcting for coordinated omission only ever adds longer waits
+        assertTrue(response[response.length - 1] >= service[service.length - 1]);
+        assertFalse(report.isHeapGrowing());
+
+        String lines = progress.toString(StandardCharsets.UTF_8);
+        assertTrue(lines.contains(" checkouts/s, response p50 "));
+
+        ByteArrayOutputStream printed = new ByteArrayOutputStream();
+        report.print(new PrintStream(printed, true, StandardCharsets.UTF_8));
+        String text = printed.toString(StandardCharsets.UTF_8);
+        assertTrue(text.startsWith("Ran " + report.getCheckouts() + " checkouts in "));
+        assertTrue(text.contains("Response time: p50 "));
+        assertTrue(text.contains("Service time: p50 "));
+        assertTrue(text.contains("GC: "));
+    }
+
+    @Test
+    void openLoopKeepsToItsRate() throws InterruptedException {
+        LoadHarness.Report report = LoadHarness.run(store(), 4, 500, 0, TimeUnit.MILLISECONDS.toNanos(500),
+                TimeUnit.MILLISECONDS.toNanos(500), null);
+
+        // An open loop clerk never runs ahead of its schedule: one checkout every 2 ms while measuring, plus the few
+        // due between the clerks starting and measuring. It can fall behind on a busy machine, so only a quarter of
+        // the schedule is required.
+        long scheduled = 4 * (report.getElapsedNanos() / TimeUnit.MILLISECONDS.toNanos(2) + 5);
+        assertTrue(report.getCheckouts() <= scheduled, report.getCheckouts() + " of " + scheduled);
+        assertTrue(report.getCheckouts() >= scheduled / 4, report.getCheckouts() + " of " + scheduled);
+        assertAscending(report.getResponsePercentileNanos());
+        if (report.getAllocatedBytes() >= 0) {
+            assertTrue(report.getAllocatedBytesPerCheckout() > 0);
+        }
+    }
+
+    @Test
+    void rejectsBadSettings() {
+        ToolsDB store = store();
+        assertThrows(IllegalArgumentException.class, () -> LoadHarness.run(store, 0, 0, 0, 1, 1, null));
+        assertThrows(IllegalArgumentException.class, () -> LoadHarness.run(store, 1, -1, 0, 1, 1, null));
+    }
+}
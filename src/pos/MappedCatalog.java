@@ -0,0 +1,391 @@
+package pos;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.AbstractList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.zip.CRC32;
+
+/**
+ * A catalog read straight out of a memory mapped binary snapshot file.
+ *
+ * Opening a snapshot only maps the file and checks its header, so startup takes the same time whatever the
+ * catalog size. Tools are found through a hash table stored in the file, and a looked up tool is a view over
+ * its record: prices and charge days are read straight from the mapping, and only the type and brand are
+ * decoded, when asked for. The header records the size and modification time of both CSVs the snapshot was
+ * built from, and a snapshot whose CSVs have changed since is treated as stale.
+ *
+ * File layout, all numbers big endian:
+ * <pre>
+ * header   64 bytes: magic, version, tool info CSV modified time and size, tools available CSV modified time
+ *          and size, tool count, hash table capacity, string pool offset, body length, body CRC, header CRC
+ * slots    capacity x (int code hash, int record number + 1), 0 marks an empty slot
+ * records  tool count x (int code, int type, int brand, int units, long daily charge cents, byte charge policy,
+ *          7 pad)
+ * strings  (short byte length, UTF-8 bytes) each, shared by every record that uses the same text
+ * </pre>
+ */
+public final class MappedCatalog implements ToolCatalog {
+
+    private static final int MAGIC = 0x54434154; // "TCAT"
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 64;
+    private static final int SLOT_SIZE = 8;
+    private static final int RECORD_SIZE = 32;
+    private static final int MAX_STRING_BYTES = 0xFFFF; // Longest code, type or brand, its length being a short
+
+    private final MappedByteBuffer buffer; // Mapped snapshot, only read with absolute gets so it can be shared
+    private final int toolCount; // Number of tools in the snapshot
+    private final int slotMask; // Hash table capacity - 1
+    private final int recordsOffset; // Byte offset of the first record
+    private final List<String> toolCodes = new CodeList(); // Product codes decoded on demand
+
+    private MappedCatalog(MappedByteBuffer buffer) {
+        this.buffer = buffer;
+        this.toolCount = buffer.getInt(40);
+        this.slotMask = buffer.getInt(44) - 1;
+        this.recordsOffset = HEADER_SIZE + buffer.getInt(44) * SLOT_SIZE;
+    }
+
+    /**
+     * This function maps a snapshot if it is present and was built from the current CSVs.
+     *
+     * @param snapshot Path to the snapshot file
+     * @param toolInfoCSV Path to the CSV file with sale attributes for each tool type
+     * @param toolsAvailableCSV Path to the CSV file with tools available for rental
+     * @return The mapped catalog, or null if the snapshot is missing, stale or has a damaged header
+     * @throws IOException If the files exist but can't be read
+     */
+    public static MappedCatalog open(Path snapshot, Path toolInfoCSV, Path toolsAvailableCSV) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE || channel.size() > Integer.MAX_VALUE) {
+                return null;
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION
+                || buffer.getInt(60) != checksum(buffer, 0, 60)
+                || HEADER_SIZE + buffer.getInt(52) != buffer.capacity()) {
+            return null;
+        }
+
+        long[] toolInfoStamp = stamp(toolInfoCSV);
+        long[] toolsAvailableStamp = stamp(toolsAvailableCSV);
+        if (buffer.getLong(8) != toolInfoStamp[0] || buffer.getLong(16) != toolInfoStamp[1]
+                || buffer.getLong(24) != toolsAvailableStamp[0] || buffer.getLong(32) != toolsAvailableStamp[1]) {
+            return null;
+        }
+
+        return new MappedCatalog(buffer);
+    }
+
+    /**
+     * This function writes a snapshot of a catalog, replacing any existing snapshot in one step.
+     *
+     * @param snapshot Path to write the snapshot to
+     * @param catalog Catalog to save
+     * @param toolInfoCSV Path to the CSV file the tool types were loaded from
+     * @param toolsAvailableCSV Path to the CSV file the tools were loaded from
+     * @throws IOException If the snapshot can't be written, or a code, type or brand is over 65535 bytes of UTF-8
+     */
+    public static void write(Path snapshot, ToolCatalog catalog, Path toolInfoCSV, Path toolsAvailableCSV)
+            throws IOException {
+        // Stamp the CSVs before reading the catalog, a change made while writing will then show up as stale
+        long[] toolInfoStamp = stamp(toolInfoCSV);
+        long[] toolsAvailableStamp = stamp(toolsAvailableCSV);
+
+        List<String> codes = catalog.getToolCodes();
+        int toolCount = codes.size();
+        int capacity = Integer.highestOneBit(Math.max(4, toolCount * 2 - 1)) << 1;
+
+        // Lay out the string pool, sharing repeated types and brands
+        Map<String, Integer> stringOffsets = new HashMap<>();
+        ByteBuffer strings = ByteBuffer.allocate(1024);
+        int[] recordStrings = new int[toolCount * 3];
+        for (int i = 0; i < toolCount; i++) {
+            Tool tool = catalog.getTool(codes.get(i));
+            String[] fields = {tool.getCode(), tool.getType(), tool.getBrand()};
+            for (int field = 0; field < 3; field++) {
+                Integer offset = stringOffsets.get(fields[field]);
+                if (offset == null) {
+                    byte[] bytes = fields[field].getBytes(StandardCharsets.UTF_8);
+                    if (bytes.length > MAX_STRING_BYTES) {
+                        throw new IOException("Tool " + codes.get(i) + " has a field of " + bytes.length
+                                + " bytes, snapshots hold at most " + MAX_STRING_BYTES);
+                    }
+                    if (strings.remaining() < bytes.length + 2) {
+                        strings = grow(strings, bytes.length + 2);
+                    }
+                    offset = strings.position();
+                    strings.putShort((short) bytes.length).put(bytes);
+                    stringOffsets.put(fields[field], offset);
+                }
+                recordStrings[i * 3 + field] = offset;
+            }
+        }
+
+        int recordsOffset = HEADER_SIZE + capacity * SLOT_SIZE;
+        int stringPoolOffset = recordsOffset + toolCount * RECORD_SIZE;
+        ByteBuffer out = ByteBuffer.allocate(stringPoolOffset + strings.position());
+
+        for (int i = 0; i < toolCount; i++) {
+            Tool tool = catalog.getTool(codes.get(i));
+            int hash = spread(tool.getCode().hashCode());
+            int slot = hash & (capacity - 1);
+            while (out.getInt(HEADER_SIZE + slot * SLOT_SIZE + 4) != 0) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+            out.putInt(HEADER_SIZE + slot * SLOT_SIZE, hash);
+            out.putInt(HEADER_SIZE + slot * SLOT_SIZE + 4, i + 1);
+
+            int record = recordsOffset + i * RECORD_SIZE;
+            out.putInt(record, stringPoolOffset + recordStrings[i * 3]);
+            out.putInt(record + 4, stringPoolOffset + recordStrings[i * 3 + 1]);
+            out.putInt(record + 8, stringPoolOffset + recordStrings[i * 3 + 2]);
+            out.putInt(record + 12, catalog.getUnits(tool.getCode()));
+            out.putLong(record + 16, tool.getDailyChargeCents());
+            out.put(record + 24, (byte) ChargePolicy.of(tool));
+        }
+        out.put(stringPoolOffset, strings.array(), 0, strings.position());
+
+        out.putInt(0, MAGIC);
+        out.putInt(4, VERSION);
+        out.putLong(8, toolInfoStamp[0]);
+        out.putLong(16, toolInfoStamp[1]);
+        out.putLong(24, toolsAvailableStamp[0]);
+        out.putLong(32, toolsAvailableStamp[1]);
+        out.putInt(40, toolCount);
+        out.putInt(44, capacity);
+        out.putInt(48, stringPoolOffset);
+        out.putInt(52, out.capacity() - HEADER_SIZE);
+        out.putInt(56, checksum(out, HEADER_SIZE, out.capacity() - HEADER_SIZE));
+        out.putInt(60, checksum(out, 0, 60));
+
+        Path absolute = snapshot.toAbsolutePath();
+        Path temporary = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                out.rewind();
+                while (out.hasRemaining()) {
+                    channel.write(out);
+                }
+                channel.force(true);
+            }
+            Files.move(temporary, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * This function checks the snapshot body against its checksum.
+     * This reads the whole file, so callers that care about startup time run it in the background.
+     *
+     * @return If the body is intact
+     */
+    public boolean verify() {
+        return buffer.getInt(56) == checksum(buffer, HEADER_SIZE, buffer.capacity() - HEADER_SIZE);
+    }
+
+    @Override
+    public Tool getTool(String toolCode) {
+        int record = findRecord(toolCode);
+        return record < 0 ? null : new RecordView(record, toolCode);
+    }
+
+    @Override
+    public int getUnits(String toolCode) {
+        int record = findRecord(toolCode);
+        return record < 0 ? 0 : buffer.getInt(record + 12);
+    }
+
+    @Override
+    public List<String> getToolCodes() {
+        return toolCodes;
+    }
+
+    @Override
+    public int size() {
+        return toolCount;
+    }
+
+    /**
+     * Finds a tool's record by probing the hash table from the slot its code hashes to.
+     *
+     * @return Byte offset of the record, or -1 if no tool has the code
+     */
+    private int findRecord(String toolCode) {
+        int hash = spread(toolCode.hashCode());
+        int slot = hash & slotMask;
+
+        while (true) {
+            int slotOffset = HEADER_SIZE + slot * SLOT_SIZE;
+            int recordNumber = buffer.getInt(slotOffset + 4);
+            if (recordNumber == 0) {
+                return -1;
+            }
+            if (buffer.getInt(slotOffset) == hash) {
+                int record = recordsOffset + (recordNumber - 1) * RECORD_SIZE;
+                if (stringEquals(buffer.getInt(record), toolCode)) {
+                    return record;
+                }
+            }
+            slot = (slot + 1) & slotMask;
+        }
+    }
+
+    private String readString(int offset) {
+        byte[] bytes = new byte[buffer.getShort(offset) & 0xFFFF];
+        buffer.get(offset + 2, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Compares a pooled string with a product code. Product codes are ASCII, so they are compared a char at a
+     * time without encoding them, and anything else is encoded first.
+     */
+    private boolean stringEquals(int offset, String text) {
+        int length = buffer.getShort(offset) & 0xFFFF;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) >= 0x80) {
+                return stringEquals(offset, text.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        if (length != text.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (buffer.get(offset + 2 + i) != text.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean stringEquals(int offset, byte[] bytes) {
+        if ((buffer.getShort(offset) & 0xFFFF) != bytes.length) {
+            return false;
+        }
+        for (int i = 0; i < bytes.length; i++) {
+            if (buffer.get(offset + 2 + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Size and modification time of a file, used to tell whether a snapshot is older than its CSVs.
+     */
+    private static long[] stamp(Path file) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        return new long[]{attributes.lastModifiedTime().toMillis(), attributes.size()};
+    }
+
+    private static int checksum(ByteBuffer bytes, int offset, int length) {
+        CRC32 crc = new CRC32();
+        ByteBuffer range = bytes.duplicate();
+        range.limit(offset + length).position(offset);
+        crc.update(range);
+        return (int) crc.getValue();
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static ByteBuffer grow(ByteBuffer buffer, int needed) {
+        ByteBuffer bigger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + needed));
+        bigger.put(buffer.array(), 0, buffer.position());
+        return bigger;
+    }
+
+    /**
+     * Product codes in snapshot order, decoded from the mapping as they are read.
+     */
+    private final class CodeList extends AbstractList<String> implements RandomAccess {
+
+        @Override
+        public String get(int index) {
+            if (index < 0 || index >= toolCount) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + toolCount);
+            }
+            return readString(buffer.getInt(recordsOffset + index * RECORD_SIZE));
+        }
+
+        @Override
+        public int size() {
+            return toolCount;
+        }
+    }
+
+    /**
+     * A tool that is a record of the mapping, holding nothing but the record's offset and the code it was found by.
+     */
+    private final class RecordView extends Tool {
+
+        private final int record; // Byte offset of the record this tool reads
+        private final String code; // Product code the tool was looked up by, equal to the record's
+
+        RecordView(int record, String code) {
+            this.record = record;
+            this.code = code;
+        }
+
+        @Override
+        public String getType() {
+            return readString(buffer.getInt(record + 4));
+        }
+
+        @Override
+        public String getBrand() {
+            return readString(buffer.getInt(record + 8));
+        }
+
+        @Override
+        public String getCode() {
+            return code;
+        }
+
+        @Override
+        public double getDailyCharge() {
+            return buffer.getLong(record + 16) / 100.0;
+        }
+
+        @Override
+        public long getDailyChargeCents() {
+            return buffer.getLong(record + 16);
+        }
+
+        @Override
+        public boolean isWeekdayCharge() {
+            return ChargePolicy.isWeekdayCharge(buffer.get(record + 24));
+        }
+
+        @Override
+        public boolean isWeekendCharge() {
+            return ChargePolicy.isWeekendCharge(buffer.get(record + 24));
+        }
+
+        @Override
+        public boolean isHolidayCharge() {
+            return ChargePolicy.isHolidayCharge(buffer.get(record + 24));
+        }
+    }
+}
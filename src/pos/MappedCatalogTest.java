@@ -0,0 +1,160 @@
+package pos;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for verifying the functionality of the MappedCatalog class
+ */
+class MappedCatalogTest {
+
+    // paths to test CSV files to use
+    private static final Path toolInfoCSVPath = Paths.get("src/testToolInfo.csv");
+    private static final Path toolsAvailableCSVPath = Paths.get("src/testToolsAvailable.csv");
+
+    @Test
+    void roundTrip(@TempDir Path directory) throws IOException {
+        ToolCatalog loaded = new ToolsDB(toolInfoCSVPath.toString(), toolsAvailableCSVPath.toString()).getCatalog();
+        Path snapshot = directory.resolve("catalog.snapshot");
+        MappedCatalog.write(snapshot, loaded, toolInfoCSVPath, toolsAvailableCSVPath);
+
+        MappedCatalog mapped = MappedCatalog.open(snapshot, toolInfoCSVPath, toolsAvailableCSVPath);
+        assertNotNull(mapped);
+        assertTrue(mapped.verify());
+        assertEquals(loaded.size(), mapped.size());
+        assertEquals(loaded.getToolCodes(), mapped.getToolCodes());
+
+        for (String code : loaded.getToolCodes()) {
+            Tool expected = loaded.getTool(code);
+            Tool actual = mapped.getTool(code);
+            assertEquals(expected.getCode(), actual.getCode());
+            assertEquals(expected.getType(), actual.getType());
+            assertEquals(expected.getBrand(), actual.getBrand());
+            assertEquals(expected.getDailyChargeCents(), actual.getDailyChargeCents());
+            assertEquals(expected.isWeekdayCharge(), actual.isWeekdayCharge());
+            assertEquals(expected.isWeekendCharge(), actual.isWeekendCharge());
+            assertEquals(expected.isHolidayCharge(), actual.isHolidayCharge());
+            assertEquals(loaded.getUnits(code), mapped.getUnits(code));
+        }
+        assertNull(mapped.getTool("NONE"));
+        assertEquals(0, mapped.getUnits("NONE"));
+    }
+
+    @Test
+    void manyTools(@TempDir Path directory) throws IOException {
+        StringBuilder tools = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            tools.append(i % 2 == 0 ? "Ladder" : "Chainsaw").append(",Brand").append(i % 7).append(",T").append(i)
+                    .append('\n');
+        }
+        tools.append("Ladder,H\u00f6rmann,T\u00d6");
+        TestCatalogs.write(directory, "Ladder,$1.99,Yes,Yes,No\nChainsaw,$1.49,Yes,No,Yes", tools.toString());
+        ToolCatalog loaded = TestCatalogs.open(directory).getCatalog();
+        Path toolInfo = TestCatalogs.toolInfo(directory);
+        Path toolsAvailable = TestCatalogs.toolsAvailable(directory);
+
+        Path snapshot = directory.resolve("catalog.snapshot");
+        MappedCatalog.write(snapshot, loaded, toolInfo, toolsAvailable);
+        MappedCatalog mapped = MappedCatalog.open(snapshot, toolInfo, toolsAvailable);
+
+        assertEquals(5001, mapped.size());
+        assertEquals("T4999", mapped.getToolCodes().get(4999));
+        assertEquals("Brand4", mapped.getTool("T4").getBrand());
+        assertEquals(149, mapped.getTool("T4999").getDailyChargeCents());
+        assertNull(mapped.getTool("T5000"));
+
+        // Codes that aren't ASCII are matched on their UTF-8 bytes
+        Tool outside = mapped.getTool("T\u00d6");
+        assertEquals("H\u00f6rmann", outside.getBrand());
+        assertEquals("T\u00d6", mapped.getToolCodes().get(5000));
+        assertNull(mapped.getTool("T\u00d7"));
+    }
+
+    @Test
+    void longestStrings(@TempDir Path directory) throws IOException {
+        TestCatalogs.write(directory, "Ladder,$1.99,Yes,Yes,No", "Ladder,Werner,LADW");
+        Path toolInfo = TestCatalogs.toolInfo(directory);
+        Path toolsAvailable = TestCatalogs.toolsAvailable(directory);
+        Path snapshot = directory.resolve("catalog.snapshot");
+
+        String longest = "x".repeat(0xFFFF);
+        ToolCatalog fits = new PrimitiveCatalog(List.of(new Tool("Ladder", longest, "LADW", 1.99, true, true, false)),
+                null);
+        MappedCatalog.write(snapshot, fits, toolInfo, toolsAvailable);
+        assertEquals(longest, MappedCatalog.open(snapshot, toolInfo, toolsAvailable).getTool("LADW").getBrand());
+
+        // 32768 characters, but two bytes each in UTF-8
+        String tooLong = "\u00e4".repeat(0x8000);
+        ToolCatalog overflows = new PrimitiveCatalog(List.of(new Tool("Ladder", tooLong, "LADW", 1.99, true, true,
+                false)), null);
+        Files.delete(snapshot);
+        assertThrows(IOException.class, () -> MappedCatalog.write(snapshot, overflows, toolInfo, toolsAvailable));
+        assertFalse(Files.exists(snapshot));
+    }
+
+    @Test
+    void staleSnapshot(@TempDir Path directory) throws IOException {
+        TestCatalogs.write(directory, "Ladder,$1.99,Yes,Yes,No", "Ladder,Werner,LADW");
+        Path toolInfo = TestCatalogs.toolInfo(directory);
+        Path toolsAvailable = TestCatalogs.toolsAvailable(directory);
+        Path snapshot = directory.resolve("catalog.snapshot");
+        MappedCatalog.write(snapshot, TestCatalogs.open(directory).getCatalog(), toolInfo, toolsAvailable);
+        assertNotNull(MappedCatalog.open(snapshot, toolInfo, toolsAvailable));
+
+        // Same size, different time
+        Files.setLastModifiedTime(toolInfo, FileTime.fromMillis(Files.getLastModifiedTime(toolInfo).toMillis() + 5000));
+        assertNull(MappedCatalog.open(snapshot, toolInfo, toolsAvailable));
+
+        assertNull(MappedCatalog.open(Paths.get(snapshot + ".missing"), toolInfo, toolsAvailable));
+    }
+
+    @Test
+    void damagedSnapshot(@TempDir Path directory) throws IOException {
+        ToolCatalog loaded = new ToolsDB(toolInfoCSVPath.toString(), toolsAvailableCSVPath.toString()).getCatalog();
+        Path snapshot = directory.resolve("catalog.snapshot");
+        MappedCatalog.write(snapshot, loaded, toolInfoCSVPath, toolsAvailableCSVPath);
+
+        // Flip a byte in the body, the header still checks out so only verify notices
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer last = ByteBuffer.allocate(1);
+            channel.read(last, channel.size() - 1);
+            last.put(0, (byte) (last.get(0) ^ 0x20)).rewind();
+            channel.write(last, channel.size() - 1);
+        }
+        MappedCatalog mapped = MappedCatalog.open(snapshot, toolInfoCSVPath, toolsAvailableCSVPath);
+        assertNotNull(mapped);
+        assertFalse(mapped.verify());
+
+        // A damaged header is rejected when opening
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{0}), 0);
+        }
+        assertNull(MappedCatalog.open(snapshot, toolInfoCSVPath, toolsAvailableCSVPath));
+    }
+
+    @Test
+    void toolsDBStartsFromSnapshot(@TempDir Path directory) {
+        Path snapshot = directory.resolve("catalog.snapshot");
+
+        ToolsDB first = new ToolsDB(toolInfoCSVPath.toString(), toolsAvailableCSVPath.toString(), snapshot.toString());
+        assertTrue(first.getCatalog() instanceof PrimitiveCatalog);
+        assertTrue(Files.exists(snapshot));
+
+        ToolsDB second = new ToolsDB(toolInfoCSVPath.toString(), toolsAvailableCSVPath.toString(), snapshot.toString());
+        assertTrue(second.getCatalog() instanceof MappedCatalog);
+        assertEquals(List.of(first.getToolsAvailable()), List.of(second.getToolsAvailable()));
+        assertEquals(299, second.getToolFromCode("JAKD").getDailyChargeCents());
+    }
+}
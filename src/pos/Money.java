@@ -0,0 +1,230 @@
+package pos;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Class Definition for an amount of money, held as a whole number of cents.
+ *
+ * Cents add up exactly however many amounts are summed. The only rounding happens where it is asked for,
+ * always half up to the nearest cent. The static helpers work on raw cents so the pricing path can do its
+ * arithmetic without creating objects.
+ */
+public final class Money implements Comparable<Money> {
+
+    public static final Money ZERO = new Money(0);
+
+    private final long cents; // Amount in cents
+
+    private Money(long cents) {
+        this.cents = cents;
+    }
+
+    /**
+     * Creates an amount from a number of cents.
+     *
+     * @param cents Amount in cents
+     * @return The amount of money
+     */
+    public static Money ofCents(long cents) {
+        return cents == 0 ? ZERO : new Money(cents);
+    }
+
+    /**
+     * Creates an amount from dollars, rounding half up to the nearest cent.
+     *
+     * @param dollars Amount in dollars
+     * @return The amount of money
+     */
+    public static Money of(double dollars) {
+        return ofCents(toCents(dollars));
+    }
+
+    /**
+     * Creates an amount from text like $1,234.56, 1.99 or -$0.50.
+     *
+     * @param text Amount to parse
+     * @return The amount of money
+     * @throws NumberFormatException If the text is not an amount of money
+     */
+    public static Money parse(CharSequence text) {
+        return ofCents(parseCents(text));
+    }
+
+    /**
+     * This function converts dollars to cents, rounding half up.
+     * The dollars are read as their shortest decimal form, so 1.005 rounds to 101 cents.
+     *
+     * @param dollars Amount in dollars
+     * @return Amount in cents
+     */
+    public static long toCents(double dollars) {
+        return BigDecimal.valueOf(dollars).setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * This function parses text like $1,234.56, 1.99 or -$0.50 into cents.
+     * More than two decimal places are rounded half up.
+     *
+     * @param text Amount to parse
+     * @return Amount in cents
+     * @throws NumberFormatException If the text is not an amount of money
+     */
+    public static long parseCents(CharSequence text) {
+        int i = 0;
+        int end = text.length();
+        boolean negative = false;
+
+        if (i < end && text.charAt(i) == '-') {
+            negative = true;
+            i++;
+        }
+        if (i < end && text.charAt(i) == '$') {
+            i++;
+        }
+
+        long cents = 0;
+        boolean anyDigits = false;
+        for (; i < end && text.charAt(i) != '.'; i++) {
+            char c = text.charAt(i);
+            if (c == ',') {
+                continue;
+            }
+            if (c < '0' || c > '9') {
+                throw new NumberFormatException("Not an amount of money: " + text);
+            }
+            cents = Math.addExact(Math.multiplyExact(cents, 10), c - '0');
+            anyDigits = true;
+        }
+        cents = Math.multiplyExact(cents, 100);
+
+        if (i < end) {
+            i++;
+            int place = 10;
+            for (; i < end; i++) {
+                char c = text.charAt(i);
+                if (c < '0' || c > '9') {
+                    throw new NumberFormatException("Not an amount of money: " + text);
+                }
+                if (place > 0) {
+                    cents += place * (c - '0');
+                    place /= 10;
+                } else if (place == 0) {
+                    // Third decimal place decides the rounding, anything after it doesn't matter
+                    cents += c >= '5' ? 1 : 0;
+                    place = -1;
+                }
+                anyDigits = true;
+            }
+        }
+
+        if (!anyDigits) {
+            throw new NumberFormatException("Not an amount of money: " + text);
+        }
+        return negative ? -cents : cents;
+    }
+
+    /**
+     * This function finds a percentage of an amount, rounding half up to the nearest cent.
+     *
+     * @param cents Amount in cents
+     * @param percent Percentage to take
+     * @return The percentage of the amount in cents
+     */
+    public static long percentOf(long cents, int percent) {
+        long scaled = Math.multiplyExact(cents, percent);
+        return scaled >= 0 ? (scaled + 50) / 100 : -((-scaled + 50) / 100);
+    }
+
+    /**
+     * Getter function for the amount in cents.
+     *
+     * @return Amount in cents.
+     */
+    public long getCents() {
+        return cents;
+    }
+
+    /**
+     * This function converts the amount to dollars, for callers that still work in doubles.
+     *
+     * @return Amount in dollars
+     */
+    public double toDouble() {
+        return cents / 100.0;
+    }
+
+    /**
+     * This function adds two amounts.
+     *
+     * @param other Amount to add
+     * @return The sum
+     */
+    public Money plus(Money other) {
+        return ofCents(Math.addExact(cents, other.cents));
+    }
+
+    /**
+     * This function subtracts an amount.
+     *
+     * @param other Amount to subtract
+     * @return The difference
+     */
+    public Money minus(Money other) {
+        return ofCents(Math.subtractExact(cents, other.cents));
+    }
+
+    /**
+     * This function multiplies the amount by a whole number, such as a count of days.
+     *
+     * @param count Number to multiply by
+     * @return The product
+     */
+    public Money times(long count) {
+        return ofCents(Math.multiplyExact(cents, count));
+    }
+
+    /**
+     * This function finds a percentage of the amount, rounding half up to the nearest cent.
+     *
+     * @param percent Percentage to take
+     * @return The percentage of the amount
+     */
+    public Money percent(int percent) {
+        return ofCents(percentOf(cents, percent));
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Money && ((Money) other).cents == cents;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(cents);
+    }
+
+    /**
+     * Formats the amount the way US currency is printed, such as $1,234.56 or -$0.50.
+     *
+     * @return The formatted amount
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder(16);
+        try {
+            ReceiptRenderer.appendMoney(text, cents);
+        } catch (IOException e) {
+            // StringBuilder never throws
+            throw new UncheckedIOException(e);
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,68 @@
+package pos;
+
+import org.junit.jupiter.api.Test;
+import java.text.NumberFormat;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the Money class.
+ */
+class MoneyTest {
+
+    @Test
+    void percentOfRoundsHalfUp() {
+        assertEquals(150, Money.percentOf(299, 50));
+        assertEquals(112, Money.percentOf(447, 25));
+        assertEquals(40, Money.percentOf(398, 10));
+        assertEquals(0, Money.percentOf(1, 49));
+        assertEquals(1, Money.percentOf(1, 50));
+        assertEquals(-150, Money.percentOf(-299, 50));
+    }
+
+    @Test
+    void toCentsRoundsHalfUp() {
+        assertEquals(199, Money.toCents(1.99));
+        assertEquals(101, Money.toCents(1.005));
+        assertEquals(358, Money.toCents(3.58));
+        assertEquals(-101, Money.toCents(-1.005));
+    }
+
+    @Test
+    void parseCents() {
+        assertEquals(199, Money.parseCents("$1.99"));
+        assertEquals(123456, Money.parseCents("$1,234.56"));
+        assertEquals(-50, Money.parseCents("-$0.50"));
+        assertEquals(300, Money.parseCents("3"));
+        assertEquals(250, Money.parseCents("2.5"));
+        assertEquals(101, Money.parseCents("1.005"));
+        assertThrows(NumberFormatException.class, () -> Money.parseCents("$"));
+        assertThrows(NumberFormatException.class, () -> Money.parseCents("1.9x"));
+    }
+
+    @Test
+    void formatsLikeCurrencyInstance() {
+        NumberFormat priceFormatter = NumberFormat.getCurrencyInstance(Locale.US);
+        long[] amounts = {0, 1, 9, 10, 99, 100, 199, 99999, 100000, 123456789, -1, -50, -123456};
+
+        for (long cents : amounts) {
+            assertEquals(priceFormatter.format(cents / 100.0), Money.ofCents(cents).toString());
+        }
+    }
+
+    /**
+     * Summing a million amounts that have no exact binary representation stays exact.
+     */
+    @Test
+    void sumsExactly() {
+        Money total = Money.ZERO;
+        for (int i = 0; i < 1_000_000; i++) {
+            total = total.plus(Money.ofCents(10));
+        }
+        assertEquals(Money.ofCents(10_000_000), total);
+        assertEquals(Money.ofCents(597), Money.parse("$1.99").times(3));
+        assertEquals(Money.ofCents(48), Money.parse("$1.99").minus(Money.parse("$1.51")));
+        assertEquals(Money.ofCents(20), Money.parse("$1.99").percent(10));
+    }
+}
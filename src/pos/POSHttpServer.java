@@ -0,0 +1,468 @@
+package pos;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Class Definition for the HTTP/JSON interface to the POS, used by the web storefront and handheld scanners.
+ *
+ * Endpoints:
+ * <pre>
+ * GET  /tools[?prefix=LA&amp;page=0&amp;pageSize=100]               one page of the tools whose code starts with
+ *                                                           prefix, sorted by code, with charges and units in stock
+ * GET  /quote?code=LADW&amp;days=3&amp;discount=10[&amp;date=2020-07-02]   prices a rental without renting anything out
+ * POST /checkout  (same fields, form encoded in the body)   reserves a unit, journals the rental and returns it
+ *                                                          with its agreementId
+ * POST /return    id=42[&amp;date=2020-07-08]                  checks the tool back in, returning the late fee or refund
+ * </pre>
+ * The tools come back as {"matches": ..., "page": ..., "pageCount": ..., "tools": [...]}, at most 1000 to a page.
+ * Dates default to today and must fall between 1900-01-01 and 9999-12-03, so a rental is due within the year
+ * 9999. Errors come back as {"error": "..."} with a 400, 404, 405, 409 or 503 status.
+ *
+ * Requests run on their own threads, virtual where the JVM has them, and responses are encoded by JsonWriter
+ * straight into a byte array that is sent with a known content length.
+ */
+public class POSHttpServer implements AutoCloseable {
+
+    private static final int MAX_BODY_BYTES = 4096; // Longest checkout form accepted
+    private static final int DEFAULT_PAGE_SIZE = 100; // Tools listed per page when the request doesn't say
+    private static final int MAX_PAGE_SIZE = 1000; // Most tools listed on one page
+    private static final String MALFORMED_PARAMETERS = "Parameters must be URL encoded"; // Bad % escape error
+    private static final LocalDate EARLIEST_DATE = LocalDate.of(1900, 1, 1); // Earliest checkout or return date
+    private static final LocalDate LATEST_DATE = LocalDate.of(9999, 12, 31).minusDays(28); // Latest, likewise
+    private static final String DATE_OUT_OF_RANGE = "date must be between " + EARLIEST_DATE + " and " + LATEST_DATE;
+
+    private final ToolsDB toolDirectory; // Tools to price and rent out
+    private final AgreementStore agreements; // Store checkouts are recorded in before they are confirmed, or null
+    private final HttpServer server; // Built in JDK HTTP server
+    private final ExecutorService executor; // Runs each exchange on its own thread
+
+    /**
+     * Constructor for the POSHttpServer class.
+     *
+     * @param toolDirectory Tools to price and rent out
+     * @param address Address to listen on, port 0 for any free port
+     * @throws IOException If the address can't be bound
+     */
+    public POSHttpServer(ToolsDB toolDirectory, InetSocketAddress address) throws IOException {
+        this(toolDirectory, null, address);
+    }
+
+    /**
+     * Constructor for a POSHttpServer that records every checkout before confirming it.
+     *
+     * @param toolDirectory Tools to price and rent out
+     * @param agreements Store checkouts are recorded in, or null
+     * @param address Address to listen on, port 0 for any free port
+     * @throws IOException If the address can't be bound
+     */
+    public POSHttpServer(ToolsDB toolDirectory, AgreementStore agreements, InetSocketAddress address)
+            throws IOException {
+        this.toolDirectory = toolDirectory;
+        this.agreements = agreements;
+        this.server = HttpServer.create(address, 1024);
+        this.executor = ThreadPools.newThreadPerTaskExecutor("http-exchange");
+        server.setExecutor(executor);
+        server.createContext("/tools", this::handleTools);
+        server.createContext("/quote", this::handleQuote);
+        server.createContext("/checkout", this::handleCheckout);
+        server.createContext("/return", this::handleReturn);
+    }
+
+    /**
+     * Runs the HTTP server from the command line.
+     *
+     * @param args Port, and optionally the tool info and tools available CSV paths
+     */
+    public static void main(String[] args) {
+        if (args.length != 1 && args.length != 3) {
+            System.err.println("Usage: http <port> [tool info csv] [tools available csv]");
+            System.exit(2);
+        }
+
+        String toolInfoCSVPath = args.length == 3 ? args[1] : "src/ToolInfo.csv";
+        String toolsAvailableCSVPath = args.length == 3 ? args[2] : "src/ToolsAvailable.csv";
+        POSSystem.loadHolidays();
+        ToolsDB toolDirectory = new ToolsDB(toolInfoCSVPath, toolsAvailableCSVPath, "catalog.snapshot");
+        AgreementStore agreements = POSSystem.openAgreementStore("agreements.journal", toolDirectory);
+        POSSystem.registerMetrics();
+        POSSystem.startWatching(toolDirectory);
+
+        try {
+            POSHttpServer server = new POSHttpServer(toolDirectory, agreements,
+                    new InetSocketAddress(Integer.parseInt(args[0])));
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                server.close();
+                POSSystem.stopWatching(toolDirectory);
+            }, "pos-http-shutdown"));
+            server.start();
+            System.out.println("Serving HTTP on port " + server.getPort()
+                    + (ThreadPools.hasVirtualThreads() ? " using virtual threads" : ""));
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    /**
+     * This function starts serving requests.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Getter function for the port the server listens on.
+     *
+     * @return The bound port
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops serving requests, giving exchanges in progress a second to finish.
+     */
+    @Override
+    public void close() {
+        server.stop(1);
+        executor.shutdown();
+    }
+
+    private void handleTools(HttpExchange exchange) throws IOException {
+        if (!exchange.getRequestMethod().equals("GET")) {
+            sendMethodNotAllowed(exchange, "GET");
+            return;
+        }
+
+        Map<String, String> parameters;
+        int page;
+        int pageSize;
+        try {
+            parameters = parseParameters(exchange.getRequestURI().getRawQuery());
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, MALFORMED_PARAMETERS);
+            return;
+        }
+        try {
+            page = Integer.parseInt(parameters.getOrDefault("page", "0"));
+            pageSize = Integer.parseInt(parameters.getOrDefault("pageSize", Integer.toString(DEFAULT_PAGE_SIZE)));
+        } catch (NumberFormatException e) {
+            sendError(exchange, 400, "page and pageSize must be whole numbers");
+            return;
+        }
+        if (page < 0 || pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            sendError(exchange, 400, "page must be at least 0 and pageSize between 1 and " + MAX_PAGE_SIZE);
+            return;
+        }
+
+        // Page through the search index so a response never holds more than one page of a large catalog
+        ToolSearchIndex index = toolDirectory.getSearchIndex();
+        ToolCatalog catalog = index.getCatalog();
+        Inventory inventory = toolDirectory.getInventory();
+        String prefix = parameters.getOrDefault("prefix", "");
+        ToolSearchIndex.Matches matches = index.search(ToolSearchIndex.Field.CODE, prefix);
+        List<String> codes = matches.getPage(page, pageSize);
+        JsonWriter json = new JsonWriter(128 + codes.size() * 160);
+
+        json.beginObject()
+                .name("matches").value(matches.size())
+                .name("page").value(page)
+                .name("pageCount").value(matches.getPageCount(pageSize))
+                .name("tools").beginArray();
+        for (int i = 0; i < codes.size(); i++) {
+            Tool tool = catalog.getTool(codes.get(i));
+            json.beginObject()
+                    .name("code").value(tool.getCode())
+                    .name("type").value(tool.getType())
+                    .name("brand").value(tool.getBrand())
+                    .name("dailyCharge").money(tool.getDailyChargeCents())
+                    .name("weekdayCharge").value(tool.isWeekdayCharge())
+                    .name("weekendCharge").value(tool.isWeekendCharge())
+                    .name("holidayCharge").value(tool.isHolidayCharge())
+                    .name("available").value(inventory.getAvailable(tool.getCode()))
+                    .endObject();
+        }
+        json.endArray().endObject();
+        send(exchange, 200, json);
+    }
+
+    private void handleQuote(HttpExchange exchange) throws IOException {
+        if (!exchange.getRequestMethod().equals("GET")) {
+            sendMethodNotAllowed(exchange, "GET");
+            return;
+        }
+        Map<String, String> parameters;
+        try {
+            parameters = parseParameters(exchange.getRequestURI().getRawQuery());
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, MALFORMED_PARAMETERS);
+            return;
+        }
+        price(exchange, parameters, false);
+    }
+
+    private void handleCheckout(HttpExchange exchange) throws IOException {
+        Map<String, String> parameters = readForm(exchange);
+        if (parameters != null) {
+            price(exchange, parameters, true);
+        }
+    }
+
+    private void handleReturn(HttpExchange exchange) throws IOException {
+        Map<String, String> parameters = readForm(exchange);
+        if (parameters == null) {
+            return;
+        }
+
+        long agreementId;
+        LocalDate returnDate;
+        try {
+            agreementId = Long.parseLong(parameters.getOrDefault("id", ""));
+            String date = parameters.get("date");
+            returnDate = date == null ? LocalDate.now() : LocalDate.parse(date);
+        } catch (NumberFormatException | DateTimeParseException e) {
+            sendError(exchange, 400, "id must be a whole number and date must be yyyy-MM-dd");
+            return;
+        }
+        if (!isSupported(returnDate)) {
+            sendError(exchange, 400, DATE_OUT_OF_RANGE);
+            return;
+        }
+        if (agreements == null || agreements.get(agreementId) == null) {
+            sendError(exchange, 404, "No rental agreement " + agreementId);
+            return;
+        }
+
+        RentalReturn rentalReturn;
+        try {
+            rentalReturn = ReturnFunctions.returnRental(toolDirectory, agreements, agreementId, returnDate);
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, e.getMessage());
+            return;
+        } catch (IllegalStateException e) {
+            sendError(exchange, 409, e.getMessage());
+            return;
+        } catch (IOException e) {
+            sendError(exchange, 503, "The return could not be saved, please retry");
+            return;
+        }
+
+        JsonWriter json = new JsonWriter(128);
+        json.beginObject()
+                .name("agreementId").value(agreementId)
+                .name("returnDate").date(returnDate)
+                .name("adjustmentChargeDays").value(rentalReturn.getAdjustmentChargeDays())
+                .name("adjustment").money(rentalReturn.getAdjustment().getCents())
+                .endObject();
+        send(exchange, 200, json);
+    }
+
+    /**
+     * This function reads the form encoded body of a POST, answering the request itself if it can't.
+     *
+     * @param exchange Exchange to read
+     * @return The form's parameters, or null if an error has already been sent
+     * @throws IOException If the body can't be read or the error can't be sent
+     */
+    private static Map<String, String> readForm(HttpExchange exchange) throws IOException {
+        if (!exchange.getRequestMethod().equals("POST")) {
+            sendMethodNotAllowed(exchange, "POST");
+            return null;
+        }
+
+        byte[] body;
+        try (InputStream in = exchange.getRequestBody()) {
+            body = in.readNBytes(MAX_BODY_BYTES + 1);
+        }
+        if (body.length > MAX_BODY_BYTES) {
+            sendError(exchange, 413, "Request body is too large");
+            return null;
+        }
+        try {
+            return parseParameters(new String(body, StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, MALFORMED_PARAMETERS);
+            return null;
+        }
+    }
+
+    /**
+     * This function prices a rental from request parameters and, for a checkout, reserves the unit.
+     *
+     * @param exchange Exchange to respond to
+     * @param parameters Request parameters
+     * @param commit If a unit should be reserved
+     * @throws IOException If the response can't be sent
+     */
+    private void price(HttpExchange exchange, Map<String, String> parameters, boolean commit) throws IOException {
+        String code = parameters.get("code");
+        Tool tool = code == null ? null : toolDirectory.getToolFromCode(code);
+        if (tool == null) {
+            sendError(exchange, 404, "No tool with code " + code);
+            return;
+        }
+
+        int rentalDays;
+        int discountPercentage;
+        LocalDate checkoutDate;
+        try {
+            rentalDays = Integer.parseInt(parameters.getOrDefault("days", ""));
+            discountPercentage = Integer.parseInt(parameters.getOrDefault("discount", "0"));
+            String date = parameters.get("date");
+            checkoutDate = date == null ? LocalDate.now() : LocalDate.parse(date);
+            CheckoutFunctions.areRentalDaysValid(rentalDays);
+            CheckoutFunctions.isDiscountValid(discountPercentage);
+        } catch (NumberFormatException | DateTimeParseException e) {
+            sendError(exchange, 400, "days and discount must be whole numbers and date must be yyyy-MM-dd");
+            return;
+        } catch (InvalidRentalDaysException e) {
+            sendError(exchange, 400, "days must be between 1 and 28");
+            return;
+        } catch (InvalidDiscountPercentException e) {
+            sendError(exchange, 400, "discount must be between 0 and 100");
+            return;
+        }
+        if (!isSupported(checkoutDate)) {
+            sendError(exchange, 400, DATE_OUT_OF_RANGE);
+            return;
+        }
+
+        // Encode the response before anything is reserved or recorded, so a rental is never made without one
+        RentalAgreement agreement = CheckoutFunctions.checkout(tool, checkoutDate, rentalDays, discountPercentage);
+        JsonWriter json = new JsonWriter(512);
+        writeAgreement(json, agreement);
+        if (!commit) {
+            send(exchange, 200, json);
+            return;
+        }
+
+        if (!toolDirectory.getInventory().reserve(code)) {
+            sendError(exchange, 409, "No units of " + code + " are in stock");
+            return;
+        }
+        long agreementId = -1;
+        if (agreements != null) {
+            try {
+                agreementId = agreements.record(agreement);
+            } catch (IOException e) {
+                // Not durable, so not rented: the unit goes back and the client can retry
+                toolDirectory.getInventory().release(code);
+                sendError(exchange, 503, "The rental could not be saved, please retry");
+                return;
+            } catch (RuntimeException e) {
+                // Not rented either, so the unit mustn't stay reserved whatever went wrong
+                toolDirectory.getInventory().release(code);
+                throw e;
+            }
+        }
+
+        if (agreementId >= 0) {
+            // The same fields again, which have already encoded once, behind the new agreement's ID
+            json.reset().beginObject().name("agreementId").value(agreementId);
+            writeAgreementFields(json, agreement);
+            json.endObject();
+        }
+        send(exchange, 201, json);
+    }
+
+    /**
+     * Checks a checkout or return date is in the range the server prices, so due dates stay within the year 9999.
+     */
+    private static boolean isSupported(LocalDate date) {
+        return !date.isBefore(EARLIEST_DATE) && !date.isAfter(LATEST_DATE);
+    }
+
+    /**
+     * This function writes every field of a rental agreement as a JSON object.
+     *
+     * @param json Writer to write to
+     * @param agreement Agreement to write
+     */
+    static void writeAgreement(JsonWriter json, RentalAgreement agreement) {
+        json.beginObject();
+        writeAgreementFields(json, agreement);
+        json.endObject();
+    }
+
+    private static void writeAgreementFields(JsonWriter json, RentalAgreement agreement) {
+        json.name("toolCode").value(agreement.getToolCode())
+                .name("toolType").value(agreement.getToolType())
+                .name("toolBrand").value(agreement.getToolBrand())
+                .name("rentalDays").value(agreement.getRentalDays())
+                .name("checkoutDate").date(agreement.getCheckoutDate())
+                .name("dueDate").date(agreement.getDueDate())
+                .name("dailyRentalCharge").money(agreement.getDailyRentalCharge().getCents())
+                .name("chargeDays").value(agreement.getChargeDays())
+                .name("preDiscountCharge").money(agreement.getPreDiscountCharge().getCents())
+                .name("discountPercent").value(agreement.getDiscountPercent())
+                .name("discountAmount").money(agreement.getDiscountAmount().getCents())
+                .name("finalCharge").money(agreement.getFinalCharge().getCents());
+    }
+
+    /**
+     * This function splits a query string or form body into its decoded parameters.
+     *
+     * @param encoded Text like code=LADW&amp;days=3, or null
+     * @return Parameters by name, the last value winning for repeated names
+     * @throws IllegalArgumentException If a name or value has a malformed % escape
+     */
+    static Map<String, String> parseParameters(String encoded) {
+        Map<String, String> parameters = new HashMap<>();
+        if (encoded == null) {
+            return parameters;
+        }
+        int start = 0;
+        while (start < encoded.length()) {
+            int end = encoded.indexOf('&', start);
+            if (end < 0) {
+                end = encoded.length();
+            }
+            int equals = encoded.indexOf('=', start);
+            if (equals > start && equals < end) {
+                parameters.put(decode(encoded.substring(start, equals)), decode(encoded.substring(equals + 1, end)));
+            }
+            start = end + 1;
+        }
+        return parameters;
+    }
+
+    private static String decode(String text) {
+        if (text.indexOf('%') < 0 && text.indexOf('+') < 0) {
+            return text;
+        }
+        return URLDecoder.decode(text, StandardCharsets.UTF_8);
+    }
+
+    private static void sendMethodNotAllowed(HttpExchange exchange, String allowed) throws IOException {
+        exchange.getResponseHeaders().set("Allow", allowed);
+        sendError(exchange, 405, "Use " + allowed);
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        JsonWriter json = new JsonWriter(64 + message.length());
+        json.beginObject().name("error").value(message).endObject();
+        send(exchange, status, json);
+    }
+
+    private static void send(HttpExchange exchange, int status, JsonWriter json) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, json.size());
+        try (OutputStream out = exchange.getResponseBody()) {
+            json.writeTo(out);
+        }
+    }
+}
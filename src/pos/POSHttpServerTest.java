@@ -0,0 +1,211 @@
+package pos;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for verifying the functionality of the POSHttpServer class
+ */
+class POSHttpServerTest {
+
+    private static ToolsDB store; // Store with two ladders and a chainsaw
+    private static POSHttpServer server; // Server under test
+
+    @BeforeAll
+    static void init() throws IOException {
+        store = TestCatalogs.load("Ladder,$1.99,Yes,Yes,No\nChainsaw,$1.49,Yes,No,Yes",
+                "Ladder,Werner,LADW,2\nChainsaw,Stihl,CHNS,1");
+
+        server = new POSHttpServer(store, new AgreementStore(),
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        server.start();
+    }
+
+    @AfterAll
+    static void shutdown() {
+        server.close();
+    }
+
+    @Test
+    void tools() throws IOException {
+        String[] response = request("GET", "/tools", null);
+
+        assertEquals("200", response[0]);
+        assertTrue(response[1].startsWith("{\"matches\":2,\"page\":0,\"pageCount\":1,\"tools\":[{\"code\":\"CHNS\","));
+        assertTrue(response[1].contains("{\"code\":\"LADW\",\"type\":\"Ladder\",\"brand\":\"Werner\","
+                + "\"dailyCharge\":1.99,\"weekdayCharge\":true,\"weekendCharge\":true,\"holidayCharge\":false,"));
+
+        response = request("GET", "/tools?prefix=la", null);
+        assertTrue(response[1].startsWith("{\"matches\":1,\"page\":0,\"pageCount\":1,\"tools\":[{\"code\":\"LADW\","));
+        assertFalse(response[1].contains("CHNS"));
+
+        response = request("GET", "/tools?page=1&pageSize=1", null);
+        assertTrue(response[1].startsWith("{\"matches\":2,\"page\":1,\"pageCount\":2,\"tools\":[{\"code\":\"LADW\","));
+        assertFalse(response[1].contains("CHNS"));
+        assertEquals("{\"matches\":2,\"page\":5,\"pageCount\":2,\"tools\":[]}",
+                request("GET", "/tools?page=5&pageSize=1", null)[1]);
+
+        assertEquals("400", request("GET", "/tools?pageSize=0", null)[0]);
+        assertEquals("400", request("GET", "/tools?pageSize=1001", null)[0]);
+        assertEquals("400", request("GET", "/tools?page=-1", null)[0]);
+        assertEquals("400", request("GET", "/tools?page=one", null)[0]);
+        assertEquals("400", request("GET", "/tools?prefix=%zz", null)[0]);
+    }
+
+    @Test
+    void quote() throws IOException {
+        String[] response = request("GET", "/quote?code=LADW&days=3&discount=10&date=2020-07-02", null);
+
+        RentalAgreement expected = CheckoutFunctions.checkout(
+                store.getToolFromCode("LADW"), LocalDate.of(2020, 7, 2), 3, 10);
+        JsonWriter json = new JsonWriter(512);
+        POSHttpServer.writeAgreement(json, expected);
+
+        assertEquals("200", response[0]);
+        assertEquals(new String(json.toByteArray(), StandardCharsets.UTF_8), response[1]);
+        assertTrue(response[1].contains("\"dueDate\":\"2020-07-05\""));
+        assertTrue(response[1].contains("\"finalCharge\":3.58"));
+    }
+
+    @Test
+    void checkout() throws IOException {
+        int before = store.getInventory().getAvailable("CHNS");
+        assertEquals(1, before);
+
+        String[] response = request("POST", "/checkout", "code=CHNS&days=5&discount=25&date=2015-07-02");
+        assertEquals("201", response[0]);
+        assertTrue(response[1].contains("\"toolCode\":\"CHNS\""));
+        assertEquals(0, store.getInventory().getAvailable("CHNS"));
+
+        // Nothing left on the shelf
+        response = request("POST", "/checkout", "code=CHNS&days=5&discount=25");
+        assertEquals("409", response[0]);
+    }
+
+    @Test
+    void checkoutAndReturn() throws IOException {
+        int before = store.getInventory().getAvailable("LADW");
+        String[] response = request("POST", "/checkout", "code=LADW&days=3&discount=0&date=2020-07-02");
+        assertEquals("201", response[0]);
+        assertTrue(response[1].startsWith("{\"agreementId\":"));
+        String agreementId = response[1].substring("{\"agreementId\":".length(), response[1].indexOf(','));
+        assertEquals(before - 1, store.getInventory().getAvailable("LADW"));
+
+        // Due 07/05, back 07/08: the 6th, 7th and 8th are weekdays charged at $1.99
+        response = request("POST", "/return", "id=" + agreementId + "&date=2020-07-08");
+        assertEquals("200", response[0]);
+        assertEquals("{\"agreementId\":" + agreementId + ",\"returnDate\":\"2020-07-08\","
+                + "\"adjustmentChargeDays\":3,\"adjustment\":5.97}", response[1]);
+        assertEquals(before, store.getInventory().getAvailable("LADW"));
+
+        assertEquals("409", request("POST", "/return", "id=" + agreementId + "&date=2020-07-09")[0]);
+        assertEquals("404", request("POST", "/return", "id=999999&date=2020-07-09")[0]);
+        assertEquals("400", request("POST", "/return", "id=one")[0]);
+        assertEquals("405", request("GET", "/return?id=" + agreementId, null)[0]);
+    }
+
+    @Test
+    void errors() throws IOException {
+        assertEquals("404", request("GET", "/quote?code=NONE&days=3", null)[0]);
+        assertEquals("400", request("GET", "/quote?code=LADW&days=29", null)[0]);
+        assertEquals("400", request("GET", "/quote?code=LADW&days=3&discount=101", null)[0]);
+        assertEquals("400", request("GET", "/quote?code=LADW&days=three", null)[0]);
+        assertEquals("405", request("POST", "/quote", "code=LADW&days=3")[0]);
+        assertEquals("405", request("GET", "/checkout?code=LADW&days=3", null)[0]);
+
+        String[] response = request("GET", "/quote?code=LADW&days=0", null);
+        assertEquals("{\"error\":\"days must be between 1 and 28\"}", response[1]);
+
+        // Malformed escapes are the client's fault, and a bad checkout form reserves nothing
+        int before = store.getInventory().getAvailable("LADW");
+        assertEquals("400", request("GET", "/quote?code=%zz&days=3", null)[0]);
+        assertEquals("400", request("POST", "/checkout", "code=LADW&days=3&discount=1%")[0]);
+        assertEquals("400", request("POST", "/return", "id=%1")[0]);
+        assertEquals(before, store.getInventory().getAvailable("LADW"));
+
+        // Dates whose rentals couldn't be priced or printed are turned away before anything is reserved
+        response = request("POST", "/checkout", "code=LADW&days=3&date=-0001-07-02");
+        assertEquals("400", response[0]);
+        assertEquals("{\"error\":\"date must be between 1900-01-01 and 9999-12-03\"}", response[1]);
+        assertEquals("400", request("POST", "/checkout", "code=LADW&days=20&date=9999-12-20")[0]);
+        assertEquals("400", request("GET", "/quote?code=LADW&days=3&date=1899-12-31", null)[0]);
+        assertEquals("200", request("GET", "/quote?code=LADW&days=28&date=9999-12-03", null)[0]);
+        assertEquals("400", request("POST", "/return", "id=0&date=%2B10000-01-01")[0]);
+        assertEquals(before, store.getInventory().getAvailable("LADW"));
+    }
+
+    @Test
+    void failedRecordReleasesUnit() throws IOException {
+        AgreementStore failing = new AgreementStore() {
+            @Override
+            public long record(RentalAgreement agreement) {
+                throw new IllegalStateException("journal closed");
+            }
+        };
+        try (POSHttpServer failingServer = new POSHttpServer(store, failing,
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0))) {
+            failingServer.start();
+            int before = store.getInventory().getAvailable("LADW");
+
+            HttpURLConnection connection = (HttpURLConnection)
+                    new URL("http://127.0.0.1:" + failingServer.getPort() + "/checkout").openConnection();
+            connection.setRequestMethod("POST");
+            connection.setDoOutput(true);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write("code=LADW&days=3".getBytes(StandardCharsets.UTF_8));
+            }
+            assertThrows(IOException.class, connection::getResponseCode);
+            connection.disconnect();
+
+            assertEquals(before, store.getInventory().getAvailable("LADW"));
+        }
+    }
+
+    @Test
+    void parseParameters() {
+        Map<String, String> parameters = POSHttpServer.parseParameters("code=LADW&days=3&brand=Little+Giant%21&empty=");
+
+        assertEquals("LADW", parameters.get("code"));
+        assertEquals("3", parameters.get("days"));
+        assertEquals("Little Giant!", parameters.get("brand"));
+        assertEquals("", parameters.get("empty"));
+        assertTrue(POSHttpServer.parseParameters(null).isEmpty());
+    }
+
+    /**
+     * Sends a request to the server and returns the status code and response body.
+     */
+    private static String[] request(String method, String path, String form) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection)
+                new URL("http://127.0.0.1:" + server.getPort() + path).openConnection();
+        connection.setRequestMethod(method);
+        if (form != null) {
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", "application/x-www-form-urlencoded");
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(form.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        int status = connection.getResponseCode();
+        try (InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+            return new String[]{String.valueOf(status), new String(in.readAllBytes(), StandardCharsets.UTF_8)};
+        } finally {
+            connection.disconnect();
+        }
+    }
+}
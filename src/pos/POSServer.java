@@ -0,0 +1,162 @@
+package pos;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class Definition for a POS server that runs many clerk sessions at once over local connections.
+ *
+ * The protocol is the console conversation sent over a socket: the server writes the same prompts a clerk sees
+ * at the console, one line at a time, and reads the clerk's answers as whitespace separated numbers. Each
+ * connection gets its own ClerkSession and its own thread, virtual where the JVM has them, so a clerk thinking
+ * about an answer holds no platform thread. All sessions share one ToolsDB and so one inventory.
+ */
+public class POSServer implements AutoCloseable {
+
+    private final ToolsDB toolDirectory; // Tools every session rents out
+    private final AgreementStore agreements; // Store every session records its rentals in, or null
+    private final ServerSocket serverSocket; // Socket accepting clerk connections
+    private final ExecutorService sessions; // Runs one task per connected clerk
+    private final Thread acceptor; // Thread accepting connections
+
+    /**
+     * Constructor for the POSServer class. The server listens on the loopback address.
+     *
+     * @param toolDirectory Tools every session rents out
+     * @param port Port to listen on, 0 for any free port
+     * @throws IOException If the port can't be bound
+     */
+    public POSServer(ToolsDB toolDirectory, int port) throws IOException {
+        this(toolDirectory, null, port);
+    }
+
+    /**
+     * Constructor for a POSServer whose sessions record their rentals. The server listens on the loopback address.
+     *
+     * @param toolDirectory Tools every session rents out
+     * @param agreements Store every session records its rentals in, or null
+     * @param port Port to listen on, 0 for any free port
+     * @throws IOException If the port can't be bound
+     */
+    public POSServer(ToolsDB toolDirectory, AgreementStore agreements, int port) throws IOException {
+        this.toolDirectory = toolDirectory;
+        this.agreements = agreements;
+        this.serverSocket = new ServerSocket(port, 1024, InetAddress.getLoopbackAddress());
+        this.sessions = ThreadPools.newThreadPerTaskExecutor("clerk-session");
+        this.acceptor = new Thread(this::acceptConnections, "pos-server-acceptor");
+    }
+
+    /**
+     * Runs the POS server from the command line.
+     *
+     * @param args Port, and optionally the tool info and tools available CSV paths
+     */
+    public static void main(String[] args) {
+        if (args.length != 1 && args.length != 3) {
+            System.err.println("Usage: serve <port> [tool info csv] [tools available csv]");
+            System.exit(2);
+        }
+
+        String toolInfoCSVPath = args.length == 3 ? args[1] : "src/ToolInfo.csv";
+        String toolsAvailableCSVPath = args.length == 3 ? args[2] : "src/ToolsAvailable.csv";
+        POSSystem.loadHolidays();
+        ToolsDB toolDirectory = new ToolsDB(toolInfoCSVPath, toolsAvailableCSVPath, "catalog.snapshot");
+        AgreementStore agreements = POSSystem.openAgreementStore("agreements.journal", toolDirectory);
+        POSSystem.registerMetrics();
+        POSSystem.startWatching(toolDirectory);
+
+        try {
+            POSServer server = new POSServer(toolDirectory, agreements, Integer.parseInt(args[0]));
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    server.close();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+                POSSystem.stopWatching(toolDirectory);
+            }, "pos-server-shutdown"));
+            server.start();
+            System.out.println("Serving clerk sessions on port " + server.getPort()
+                    + (ThreadPools.hasVirtualThreads() ? " using virtual threads" : ""));
+            server.acceptor.join();
+        } catch (IOException | InterruptedException e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    /**
+     * This function starts accepting clerk connections.
+     */
+    public void start() {
+        acceptor.start();
+    }
+
+    /**
+     * Getter function for the port the server listens on.
+     *
+     * @return The bound port
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Stops accepting connections and waits briefly for open sessions to finish.
+     *
+     * @throws IOException If the server socket can't be closed
+     */
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        sessions.shutdown();
+        try {
+            sessions.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void acceptConnections() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket connection = serverSocket.accept();
+                sessions.execute(() -> runSession(connection));
+            } catch (SocketException e) {
+                // Server socket closed
+                return;
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * This function runs one clerk's session until they are done or disconnect.
+     *
+     * @param connection The clerk's connection
+     */
+    private void runSession(Socket connection) {
+        try (connection) {
+            PrintStream out = new PrintStream(new BufferedOutputStream(connection.getOutputStream()),
+                    true, StandardCharsets.UTF_8);
+            ClerkSession session = new ClerkSession(new BufferedInputStream(connection.getInputStream()), out);
+            POSSystem.runSession(toolDirectory, session, agreements);
+            out.flush();
+        } catch (NoSuchElementException e) {
+            // The clerk disconnected mid prompt
+        } catch (IOException | RuntimeException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package pos;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for verifying the functionality of the POSServer and ClerkSession classes
+ */
+class POSServerTest {
+
+    // Pick the first tool, rent it for 5 days at 10% off, print the receipt and stop
+    private static final String ONE_RENTAL = "0\n5\n10\n0\n1\n";
+
+    /**
+     * Creates a store with a hundred ladders and nothing else.
+     */
+    private static ToolsDB ladderStore() throws IOException {
+        return TestCatalogs.load("Ladder,$1.99,Yes,Yes,No", "Ladder,Werner,LADW,100");
+    }
+
+    @Test
+    void sessionOverStreams() throws IOException {
+        ToolsDB store = ladderStore();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ClerkSession session = new ClerkSession(
+                new ByteArrayInputStream(("x\n7\n" + ONE_RENTAL).getBytes(StandardCharsets.UTF_8)),
+                new PrintStream(output, true, StandardCharsets.UTF_8));
+
+        POSSystem.runSession(store, session);
+
+        String transcript = output.toString(StandardCharsets.UTF_8);
+        assertTrue(transcript.contains("0: LADW Werner Ladder (100 in stock)"));
+        assertTrue(transcript.contains("No tools match x."));
+        assertTrue(transcript.contains("Please type one of the number options listed."));
+        assertTrue(transcript.contains("Rental days: 5"));
+        assertTrue(transcript.contains("Discount percent: 10%"));
+        assertEquals(99, store.getInventory().getAvailable("LADW"));
+    }
+
+    @Test
+    void unsavedRentalIsNotMade() throws IOException {
+        ToolsDB store = ladderStore();
+        AgreementStore failing = new AgreementStore() {
+            @Override
+            public long record(RentalAgreement agreement) throws IOException {
+                throw new IOException("disk full");
+            }
+        };
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ClerkSession session = new ClerkSession(
+                new ByteArrayInputStream("0\n5\n10\n1\n".getBytes(StandardCharsets.UTF_8)),
+                new PrintStream(output, true, StandardCharsets.UTF_8));
+
+        POSSystem.runSession(store, session, failing);
+
+        String transcript = output.toString(StandardCharsets.UTF_8);
+        assertTrue(transcript.contains("This rental could not be saved (disk full), so it was not made."));
+        assertFalse(transcript.contains("Rental days: 5"));
+        assertEquals(100, store.getInventory().getAvailable("LADW"));
+    }
+
+    @Test
+    void toolDroppedByReloadIsNotRented() throws IOException {
+        ToolsDB store = ladderStore();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ClerkSession session = new ClerkSession(new ByteArrayInputStream(ONE_RENTAL.getBytes(StandardCharsets.UTF_8)),
+                new PrintStream(output, true, StandardCharsets.UTF_8)) {
+            private boolean picked; // If the clerk has picked the tool a reload then dropped
+
+            @Override
+            public String askForToolSelection(ToolSearchIndex index, Inventory inventory) {
+                if (!picked) {
+                    picked = true;
+                    return "GONE";
+                }
+                return super.askForToolSelection(index, inventory);
+            }
+        };
+
+        POSSystem.runSession(store, session);
+
+        String transcript = output.toString(StandardCharsets.UTF_8);
+        assertTrue(transcript.contains("GONE is no longer in the catalog, please pick another."));
+        assertTrue(transcript.contains("Tool code: LADW"));
+        assertEquals(0, store.getInventory().getAvailable("GONE"));
+        assertEquals(99, store.getInventory().getAvailable("LADW"));
+    }
+
+    @Test
+    void toolPickedBySearchAndPage() throws IOException {
+        StringBuilder tools = new StringBuilder("Jackhammer,Ridgid,JAKR,0\nJackhammer,DeWalt,JAKD\n");
+        for (int i = 10; i < 35; i++) {
+            tools.append("Ladder,Werner,LAD").append(i).append('\n');
+        }
+        ToolsDB store = TestCatalogs.load("Ladder,$1.99,Yes,Yes,No\nJackhammer,$2.99,Yes,No,No", tools.toString());
+
+        // Page forward twice and back once, search by type, try the sold out tool, then take the DeWalt
+        String answers = "n\nn\nn\np\ntype:jack\n1\n0\n5\n10\n0\n1\n";
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ClerkSession session = new ClerkSession(new ByteArrayInputStream(answers.getBytes(StandardCharsets.UTF_8)),
+                new PrintStream(output, true, StandardCharsets.UTF_8));
+        POSSystem.runSession(store, session);
+
+        String transcript = output.toString(StandardCharsets.UTF_8);
+        assertTrue(transcript.contains("All tools, page 1 of 3:\n0: JAKD DeWalt Jackhammer (1 in stock)"));
+        assertTrue(transcript.contains("All tools, page 3 of 3:\n0: LAD28 Werner Ladder (1 in stock)"));
+        assertTrue(transcript.contains("There is no next page."));
+        assertTrue(transcript.contains("Tools matching type:jack, page 1 of 1:\n0: JAKD DeWalt Jackhammer"
+                + " (1 in stock)\n1: JAKR Ridgid Jackhammer (0 in stock)"));
+        assertTrue(transcript.contains("That tool is out of stock, please pick another."));
+        assertTrue(transcript.contains("Tool code: JAKD"));
+        assertEquals(0, store.getInventory().getAvailable("JAKD"));
+    }
+
+    @Test
+    void manyConcurrentClerks() throws Exception {
+        ToolsDB store = ladderStore();
+        int clerks = 50;
+
+        try (POSServer server = new POSServer(store, 0)) {
+            server.start();
+
+            ExecutorService terminals = Executors.newFixedThreadPool(clerks);
+            List<Future<String>> transcripts = new ArrayList<>();
+            for (int i = 0; i < clerks; i++) {
+                transcripts.add(terminals.submit(() -> converse(server.getPort(), ONE_RENTAL)));
+            }
+            for (Future<String> transcript : transcripts) {
+                assertTrue(transcript.get().contains("Final charge: "));
+            }
+            terminals.shutdown();
+        }
+
+        assertEquals(50, store.getInventory().getAvailable("LADW"));
+        assertEquals(50, store.getInventory().getRentedOut("LADW"));
+    }
+
+    @Test
+    void clerkDisconnectsMidRental() throws Exception {
+        ToolsDB store = ladderStore();
+
+        try (POSServer server = new POSServer(store, 0)) {
+            server.start();
+
+            // Picks a tool, answers the rental days prompt, then hangs up
+            String transcript = converse(server.getPort(), "0\n5\n");
+            assertTrue(transcript.contains("Please enter percentage to discount"));
+        }
+
+        // The reserved unit goes back on the shelf once the session notices
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (store.getInventory().getRentedOut("LADW") != 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(100, store.getInventory().getAvailable("LADW"));
+    }
+
+    /**
+     * Connects to the server, sends a clerk's answers, and reads everything until the server hangs up.
+     */
+    private static String converse(int port, String answers) throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            OutputStream out = socket.getOutputStream();
+            out.write(answers.getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            socket.shutdownOutput();
+
+            InputStream in = socket.getInputStream();
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,351 @@
+package pos;
+
+import javax.management.JMException;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * POSSystem class that has a main function to serve as the application.
+ */
+public class POSSystem {
+
+    private static final String HOLIDAYS_CSV = "src/Holidays.csv"; // Holidays the store observes
+
+    /**
+     * Runs functions for the POSSystem application
+     */
+    public static void main (String[] args)
+    {
+        // Price a file of checkout requests offline instead of running the clerk prompts
+        if (args.length > 0 && args[0].equals("bulk")) {
+            BulkPricing.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
+        // Serve clerk sessions over local connections instead of the console
+        if (args.length > 0 && args[0].equals("serve")) {
+            POSServer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
+        // Price and check out tools over HTTP for the storefront and handheld scanners
+        if (args.length > 0 && args[0].equals("http")) {
+            POSHttpServer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
+        // Replay recorded clerk transcripts through the checkout prompts and report throughput and latency
+        if (args.length > 0 && args[0].equals("replay")) {
+            ReplayDriver.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
+        // Soak test the pricing core with simulated clerks and report throughput, latency, GC and allocation
+        if (args.length > 0 && args[0].equals("load")) {
+            LoadHarness.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
+        // Check a rented tool back in and settle any late fee or refund
+        if (args.length > 0 && args[0].equals("return")) {
+            returnRental(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
+        // Nightly batch: work out the late fees of every overdue rental
+        if (args.length > 0 && args[0].equals("late-fees")) {
+            calcLateFees(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
+        // Check the precomputed charge day tables against the day by day rules over a range of checkout dates
+        if (args.length > 0 && args[0].equals("verify-charge-days")) {
+            verifyChargeDays(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
+        // List file locations for CSVs hold tool information
+        String toolInfoCSVPath = "src/ToolInfo.csv";
+        String toolsAvailableCSVPath = "src/ToolsAvailable.csv";
+        String catalogSnapshotPath = "catalog.snapshot";
+        String agreementJournalPath = "agreements.journal";
+
+        // Load the holidays this store observes, falling back to the standard holidays if the file can't be read
+        loadHolidays();
+
+        // Use information specified in CSVs to create a directory/database of tools available for rent,
+        // starting from the binary snapshot of the last load when the CSVs haven't changed since
+        ToolsDB toolDirectory = new ToolsDB(toolInfoCSVPath, toolsAvailableCSVPath, catalogSnapshotPath);
+
+        // Replay the rentals journaled before the last shutdown or crash, then keep journaling new ones
+        AgreementStore agreements = openAgreementStore(agreementJournalPath, toolDirectory);
+
+        // Publish checkout stage timings over JMX, off until switched on there or with -Dcheckout.metrics=true
+        registerMetrics();
+
+        // Pick up edits to the CSVs while the clerk is working
+        startWatching(toolDirectory);
+
+        runSession(toolDirectory, CheckoutFunctions.getConsoleSession(), agreements);
+        stopWatching(toolDirectory);
+        closeAgreementStore(agreements);
+    }
+
+    /**
+     * Makes the holidays in src/Holidays.csv the ones every checkout is priced with, keeping the standard holidays
+     * if the file can't be read. Every command loads its holidays through here.
+     */
+    static void loadHolidays() {
+        try {
+            HolidayCalendar.setDefault(HolidayCalendar.fromCSV(HOLIDAYS_CSV));
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Opens the rental agreement store from its journal, reporting how many agreements it held, and counts the
+     * tools of its open rentals as rented out.
+     *
+     * @param path Path to the journal file
+     * @param toolDirectory Tools whose inventory the open rentals are taken out of
+     * @return The store, kept only in memory if the journal can't be opened
+     */
+    static AgreementStore openAgreementStore(String path, ToolsDB toolDirectory) {
+        try {
+            AgreementStore agreements = AgreementStore.open(Paths.get(path));
+            Inventory inventory = toolDirectory.getInventory();
+            agreements.openAgreements().forEach(agreement -> inventory.restoreRentedOut(agreement.getToolCode()));
+            System.out.println("Recovered " + agreements.size() + " rental agreements from " + path + ", "
+                    + agreements.openCount() + " still out");
+            return agreements;
+        } catch (IOException e) {
+            System.err.println("Rentals will not be journaled, " + path + " can't be opened");
+            e.printStackTrace();
+            return new AgreementStore();
+        }
+    }
+
+    /**
+     * Starts reloading the catalog whenever its CSVs change, carrying on without reloads if they can't be watched.
+     *
+     * @param toolDirectory Catalog to keep up to date
+     */
+    static void startWatching(ToolsDB toolDirectory) {
+        try {
+            toolDirectory.startWatching();
+        } catch (IOException e) {
+            System.err.println("The catalog will not reload when its CSVs change");
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Stops watching the catalog's CSVs.
+     *
+     * @param toolDirectory Catalog being kept up to date
+     */
+    static void stopWatching(ToolsDB toolDirectory) {
+        try {
+            toolDirectory.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Registers the checkout metrics MBean, carrying on without it if it can't be registered.
+     */
+    static void registerMetrics() {
+        try {
+            CheckoutMetrics.registerMBean();
+        } catch (JMException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Closes the rental agreement store and its journal.
+     *
+     * @param agreements Store to close, or null
+     */
+    static void closeAgreementStore(AgreementStore agreements) {
+        if (agreements != null) {
+            try {
+                agreements.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Checks a rented tool back in from the command line and prints the late fee or refund.
+     *
+     * @param args Agreement ID, and optionally the return date as yyyy-MM-dd
+     */
+    private static void returnRental(String[] args) {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("Usage: return <agreement id> [return date]");
+            System.exit(2);
+        }
+        ToolsDB toolDirectory = openToolsDB();
+        AgreementStore agreements = openAgreementStore("agreements.journal", toolDirectory);
+        try {
+            LocalDate returnDate = args.length > 1 ? LocalDate.parse(args[1]) : LocalDate.now();
+            RentalReturn rentalReturn = ReturnFunctions.returnRental(toolDirectory, agreements,
+                    Long.parseLong(args[0]), returnDate);
+            System.out.println(rentalReturn.printRentalReturn());
+        } catch (IOException | RuntimeException e) {
+            System.err.println("The return could not be recorded: " + e.getMessage());
+            System.exit(1);
+        } finally {
+            closeAgreementStore(agreements);
+        }
+    }
+
+    /**
+     * Works out the late fee of every overdue rental and prints them with their total.
+     *
+     * @param args Optionally the day to charge up to as yyyy-MM-dd, today if left out
+     */
+    private static void calcLateFees(String[] args) {
+        ToolsDB toolDirectory = openToolsDB();
+        AgreementStore agreements = openAgreementStore("agreements.journal", toolDirectory);
+        LocalDate asOf = args.length > 0 ? LocalDate.parse(args[0]) : LocalDate.now();
+
+        long start = System.nanoTime();
+        LateFeeReport report = ReturnFunctions.calcLateFees(agreements, toolDirectory.getCatalog(), asOf,
+                HolidayCalendar.getDefault());
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        StringBuilder out = new StringBuilder(64 + report.size() * 24);
+        for (int i = 0; i < report.size(); i++) {
+            out.append(report.getAgreementId(i)).append(' ').append(report.getFee(i)).append('\n');
+        }
+        out.append(report.size()).append(" overdue rentals as of ").append(asOf).append(", ")
+                .append(report.getTotal()).append(" in late fees (").append(elapsedMillis).append(" ms)");
+        System.out.println(out);
+        closeAgreementStore(agreements);
+    }
+
+    /**
+     * Loads the store's holidays and tools from their default files.
+     *
+     * @return The tool directory
+     */
+    private static ToolsDB openToolsDB() {
+        loadHolidays();
+        return new ToolsDB("src/ToolInfo.csv", "src/ToolsAvailable.csv", "catalog.snapshot");
+    }
+
+    /**
+     * Checks the charge day tables against the day by day charge rules and reports any mismatches.
+     *
+     * @param args Optionally the first and last checkout dates to check, as yyyy-MM-dd
+     */
+    private static void verifyChargeDays(String[] args) {
+        loadHolidays();
+
+        LocalDate first = args.length > 0 ? LocalDate.parse(args[0]) : LocalDate.of(2000, 1, 1);
+        LocalDate last = args.length > 1 ? LocalDate.parse(args[1]) : LocalDate.of(2050, 12, 31);
+        List<String> mismatches = CheckoutFunctions.verifyChargeDayTables(first, last);
+
+        for (String mismatch : mismatches) {
+            System.out.println(mismatch);
+        }
+        System.out.println(mismatches.isEmpty()
+                ? "Charge day tables match the day by day rules from " + first + " to " + last
+                : mismatches.size() + " mismatches between " + first + " and " + last);
+        if (!mismatches.isEmpty()) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Runs the checkout prompts for one clerk until they are done checking out rentals.
+     *
+     * @param toolDirectory Tools the clerk can rent out
+     * @param session The clerk's session
+     */
+    public static void runSession(ToolsDB toolDirectory, ClerkSession session) {
+        runSession(toolDirectory, session, null);
+    }
+
+    /**
+     * Runs the checkout prompts for one clerk until they are done checking out rentals, recording each rental.
+     *
+     * @param toolDirectory Tools the clerk can rent out
+     * @param session The clerk's session
+     * @param agreements Store to record each agreement in before its receipt is offered, or null
+     */
+    public static void runSession(ToolsDB toolDirectory, ClerkSession session, AgreementStore agreements) {
+        // Flag used to continue making rentals or end the program
+        boolean stillMakingRentals = true;
+
+        // Loop that runs until the clerk is done checking out tool rentals
+        while(stillMakingRentals) {
+
+            // Let the clerk page through or search the catalog for the customer's tool to rent
+            String selectedToolCode = session.askForToolSelection(toolDirectory.getSearchIndex(),
+                    toolDirectory.getInventory());
+
+            // A reload since the prompt may have dropped the tool, so look it up before taking a unit
+            Tool toolToRent = toolDirectory.getToolFromCode(selectedToolCode);
+            if (toolToRent == null) {
+                session.println(selectedToolCode + " is no longer in the catalog, please pick another.");
+                continue;
+            }
+
+            // Take the unit off the shelf, another terminal may have rented the last one since the prompt
+            if (!toolDirectory.getInventory().reserve(selectedToolCode)) {
+                session.println("The last " + selectedToolCode + " was just rented out, please pick another.");
+                continue;
+            }
+
+            RentalAgreement ra;
+            try {
+                // Ask clerk how long the tool will be rented for
+                int rentalDays = session.askForRentalDayCount(toolToRent.getType());
+
+                // Ask clerk for discount amount to apply to the the rental cost
+                int discountPercentage = session.askForCheckoutDiscount();
+
+                // Generate a rental agreement from input gathered
+                ra = CheckoutFunctions.checkout(toolToRent, LocalDate.now(), rentalDays, discountPercentage);
+            } catch (RuntimeException e) {
+                // The clerk left before the rental was agreed, so the unit goes back on the shelf
+                toolDirectory.getInventory().release(selectedToolCode);
+                throw e;
+            }
+
+            // Make the rental durable before the customer walks off with the tool
+            if (agreements != null) {
+                try {
+                    long agreementId = agreements.record(ra);
+                    session.println("Rental agreement " + agreementId + " recorded.");
+                } catch (IOException e) {
+                    // Not durable, so not rented: the unit goes back on the shelf and the tool stays in the store
+                    toolDirectory.getInventory().release(selectedToolCode);
+                    session.println("This rental could not be saved (" + e.getMessage() + "), so it was not made."
+                            + " Do not hand over the tool.");
+                    stillMakingRentals = session.offerToContinue();
+                    continue;
+                } catch (RuntimeException e) {
+                    toolDirectory.getInventory().release(selectedToolCode);
+                    throw e;
+                }
+            }
+
+            // Ask the clerk if they will continue to checkout rentals
+            boolean userWantsReceipt = session.offerToPrintRentalAgreement();
+            if (userWantsReceipt) {
+                session.println(ra.printRentalAgreement());
+            };
+            stillMakingRentals = session.offerToContinue();
+        }
+    }
+}
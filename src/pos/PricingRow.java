@@ -0,0 +1,71 @@
+package pos;
+
+/**
+ * Class Definition for the sale attributes of a tool type, one row of the tool info CSV.
+ *
+ * Rows are immutable and compare by value, so catalogs can share one instance of each distinct row, and stores
+ * loaded through the same CatalogInterner share them with each other too.
+ */
+final class PricingRow {
+
+    private final String type; // Type of tool
+    private final long dailyChargeCents; // Daily charge in cents
+    private final byte policy; // Packed ChargePolicy flags
+
+    /**
+     * Constructor for the PricingRow class.
+     *
+     * @param type Type of tool
+     * @param dailyChargeCents Daily charge in cents
+     * @param policy Packed ChargePolicy flags
+     */
+    PricingRow(String type, long dailyChargeCents, int policy) {
+        this.type = type;
+        this.dailyChargeCents = dailyChargeCents;
+        this.policy = (byte) policy;
+    }
+
+    /**
+     * Getter function for the type of tool.
+     *
+     * @return Type of tool.
+     */
+    String getType() {
+        return type;
+    }
+
+    /**
+     * Getter function for the daily charge.
+     *
+     * @return Daily charge in cents.
+     */
+    long getDailyChargeCents() {
+        return dailyChargeCents;
+    }
+
+    /**
+     * Getter function for the charge policy.
+     *
+     * @return Packed ChargePolicy flags.
+     */
+    int getPolicy() {
+        return policy;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof PricingRow)) {
+            return false;
+        }
+        PricingRow row = (PricingRow) other;
+        return dailyChargeCents == row.dailyChargeCents && policy == row.policy && type.equals(row.type);
+    }
+
+    @Override
+    public int hashCode() {
+        return (type.hashCode() * 31 + Long.hashCode(dailyChargeCents)) * 31 + policy;
+    }
+}
@@ -0,0 +1,391 @@
+package pos;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable catalog of tools kept as parallel primitive arrays, for catalogs too large to hold as objects.
+ *
+ * Each product code gets a dense int ID from 0 in load order, and every attribute of tool i is at index i of its
+ * own array, such as the units owned in an int[]. Brands repeat across thousands of tools, so each distinct brand
+ * is stored once in a pool and tools hold an int index into it. Likewise each distinct pricing row, a type with its
+ * daily charge and charge policy, is stored once and tools hold an int index into the rows.
+ * Looking up a code is a probe of an open addressing int[] table keyed by the code's hash, with nothing boxed.
+ *
+ * A catalog built through a CatalogInterner shares its strings and pricing rows with every other catalog built
+ * through the same interner, so many stores' catalogs cost little more than their arrays.
+ *
+ * getTool returns a Tool that reads straight from the arrays, so callers that work with Tools need no changes.
+ * Code that wants no objects at all can look up the ID once and read each attribute by ID.
+ */
+public final class PrimitiveCatalog implements ToolCatalog {
+
+    private final String[] codes; // Product code by ID
+    private final int[] brandRefs; // Pool index of the brand, by ID
+    private final int[] pricingRefs; // Index of the type, daily charge and charge policy in pricingRows, by ID
+    private final int[] units; // Units owned, by ID
+    private final String[] pool; // Each distinct brand, once
+    private final PricingRow[] pricingRows; // Each distinct pricing row, once
+
+    private final int[] slots; // ID + 1 by hash slot, 0 for an empty slot
+    private final int slotMask; // Slot count less one, the count being a power of two
+    private final List<String> toolCodes; // Read only view of codes
+
+    /**
+     * Constructor for a primitive catalog holding the same tools as another catalog.
+     *
+     * @param catalog Catalog to copy
+     */
+    public PrimitiveCatalog(ToolCatalog catalog) {
+        this(toTools(catalog), toUnits(catalog));
+    }
+
+    /**
+     * Constructor for a primitive catalog.
+     * When a product code appears more than once the last tool with that code is kept and the units are added up.
+     *
+     * @param tools Tools in the catalog, in load order
+     * @param units Number of units of each tool, in the same order, or null for one of each
+     */
+    public PrimitiveCatalog(List<Tool> tools, int[] units) {
+        this(tools.size(), new ToolRows() {
+            @Override
+            public String code(int row) {
+                return tools.get(row).getCode();
+            }
+
+            @Override
+            public String type(int row) {
+                return tools.get(row).getType();
+            }
+
+            @Override
+            public String brand(int row) {
+                return tools.get(row).getBrand();
+            }
+
+            @Override
+            public long dailyChargeCents(int row) {
+                return tools.get(row).getDailyChargeCents();
+            }
+
+            @Override
+            public int policy(int row) {
+                return ChargePolicy.of(tools.get(row));
+            }
+
+            @Override
+            public int units(int row) {
+                return units == null ? 1 : units[row];
+            }
+        });
+    }
+
+    /**
+     * Constructor for a primitive catalog read row by row from any source, such as a CSV parser.
+     * When a product code appears more than once the last row with that code is kept and the units are added up.
+     *
+     * @param rowCount Number of rows
+     * @param rows Source of each row's fields
+     */
+    PrimitiveCatalog(int rowCount, ToolRows rows) {
+        this(rowCount, rows, null);
+    }
+
+    /**
+     * Constructor for a primitive catalog read row by row that shares its strings and pricing rows through an
+     * interner. When a product code appears more than once the last row with that code is kept and the units are
+     * added up.
+     *
+     * @param rowCount Number of rows
+     * @param rows Source of each row's fields
+     * @param interner Values shared with other catalogs, or null to share nothing
+     */
+    PrimitiveCatalog(int rowCount, ToolRows rows, CatalogInterner interner) {
+        // First pass gives each distinct code its ID, in order of first appearance
+        Map<String, Integer> idsByCode = new HashMap<>(Math.max(16, rowCount * 4 / 3 + 1));
+        int[] rowIds = new int[rowCount];
+        for (int row = 0; row < rowCount; row++) {
+            Integer id = idsByCode.putIfAbsent(rows.code(row), idsByCode.size());
+            rowIds[row] = id == null ? idsByCode.size() - 1 : id;
+        }
+
+        int count = idsByCode.size();
+        this.codes = new String[count];
+        this.brandRefs = new int[count];
+        this.pricingRefs = new int[count];
+        this.units = new int[count];
+
+        // Second pass fills the arrays, later rows overwriting earlier ones with the same code
+        Map<String, Integer> poolIndexes = new LinkedHashMap<>();
+        Map<PricingRow, Integer> pricingIndexes = new LinkedHashMap<>();
+        for (int row = 0; row < rowCount; row++) {
+            int id = rowIds[row];
+            codes[id] = interner == null ? rows.code(row) : interner.intern(rows.code(row));
+            brandRefs[id] = poolIndexes.computeIfAbsent(rows.brand(row), text -> poolIndexes.size());
+            PricingRow pricing = new PricingRow(rows.type(row), rows.dailyChargeCents(row), rows.policy(row));
+            pricingRefs[id] = pricingIndexes.computeIfAbsent(pricing, key -> pricingIndexes.size());
+            units[id] = Math.addExact(units[id], rows.units(row));
+        }
+        this.pool = poolIndexes.keySet().toArray(new String[0]);
+        this.pricingRows = pricingIndexes.keySet().toArray(new PricingRow[0]);
+        if (interner != null) {
+            for (int i = 0; i < pool.length; i++) {
+                pool[i] = interner.intern(pool[i]);
+            }
+            for (int i = 0; i < pricingRows.length; i++) {
+                PricingRow pricing = pricingRows[i];
+                pricingRows[i] = interner.intern(new PricingRow(interner.intern(pricing.getType()),
+                        pricing.getDailyChargeCents(), pricing.getPolicy()));
+            }
+        }
+
+        int capacity = Integer.highestOneBit(Math.max(4, count * 2 - 1)) << 1;
+        this.slots = new int[capacity];
+        this.slotMask = capacity - 1;
+        for (int id = 0; id < count; id++) {
+            int slot = spread(codes[id].hashCode()) & slotMask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & slotMask;
+            }
+            slots[slot] = id + 1;
+        }
+        this.toolCodes = Collections.unmodifiableList(Arrays.asList(codes));
+    }
+
+    /**
+     * This function finds the ID of a product code.
+     *
+     * @param toolCode Product code of the tool
+     * @return The tool's ID, or -1 if the catalog has no tool with that code
+     */
+    public int idOf(String toolCode) {
+        int slot = spread(toolCode.hashCode()) & slotMask;
+        while (true) {
+            int id = slots[slot] - 1;
+            if (id < 0) {
+                return -1;
+            }
+            if (codes[id].equals(toolCode)) {
+                return id;
+            }
+            slot = (slot + 1) & slotMask;
+        }
+    }
+
+    @Override
+    public Tool getTool(String toolCode) {
+        int id = idOf(toolCode);
+        return id < 0 ? null : new ToolView(id);
+    }
+
+    /**
+     * This function retrieves a tool by ID.
+     *
+     * @param id ID of the tool, from 0 to size() - 1
+     * @return A tool reading from this catalog
+     */
+    public Tool getTool(int id) {
+        return new ToolView(checkId(id));
+    }
+
+    @Override
+    public int getUnits(String toolCode) {
+        int id = idOf(toolCode);
+        return id < 0 ? 0 : units[id];
+    }
+
+    /**
+     * This function retrieves how many units of a tool the store owns.
+     *
+     * @param id ID of the tool
+     * @return Number of units
+     */
+    public int getUnits(int id) {
+        return units[id];
+    }
+
+    /**
+     * This function retrieves a tool's product code.
+     *
+     * @param id ID of the tool
+     * @return Product code
+     */
+    public String getCode(int id) {
+        return codes[id];
+    }
+
+    /**
+     * This function retrieves a tool's type.
+     *
+     * @param id ID of the tool
+     * @return Type of tool, shared with every other tool of the type
+     */
+    public String getType(int id) {
+        return pricingRows[pricingRefs[id]].getType();
+    }
+
+    /**
+     * This function retrieves a tool's brand.
+     *
+     * @param id ID of the tool
+     * @return Brand, shared with every other tool of the brand
+     */
+    public String getBrand(int id) {
+        return pool[brandRefs[id]];
+    }
+
+    /**
+     * This function retrieves a tool's daily charge.
+     *
+     * @param id ID of the tool
+     * @return Daily charge in cents
+     */
+    public long getDailyChargeCents(int id) {
+        return pricingRows[pricingRefs[id]].getDailyChargeCents();
+    }
+
+    /**
+     * This function retrieves a tool's charge policy.
+     *
+     * @param id ID of the tool
+     * @return Packed ChargePolicy flags
+     */
+    public int getPolicy(int id) {
+        return pricingRows[pricingRefs[id]].getPolicy();
+    }
+
+    /**
+     * This function counts the distinct brands in the catalog. Types are counted with the pricing rows.
+     *
+     * @return Number of strings in the pool
+     */
+    public int getPoolSize() {
+        return pool.length;
+    }
+
+    /**
+     * This function counts the distinct pricing rows in the catalog.
+     *
+     * @return Number of distinct combinations of type, daily charge and charge policy
+     */
+    public int getPricingRowCount() {
+        return pricingRows.length;
+    }
+
+    @Override
+    public List<String> getToolCodes() {
+        return toolCodes;
+    }
+
+    @Override
+    public int size() {
+        return codes.length;
+    }
+
+    private int checkId(int id) {
+        if (id < 0 || id >= codes.length) {
+            throw new IndexOutOfBoundsException("Tool ID " + id + " out of bounds for " + codes.length + " tools");
+        }
+        return id;
+    }
+
+    /**
+     * Mixes the high bits of a hash into the low bits the slot is picked from.
+     */
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static List<Tool> toTools(ToolCatalog catalog) {
+        Tool[] tools = new Tool[catalog.size()];
+        List<String> codes = catalog.getToolCodes();
+        for (int i = 0; i < tools.length; i++) {
+            tools[i] = catalog.getTool(codes.get(i));
+        }
+        return Arrays.asList(tools);
+    }
+
+    private static int[] toUnits(ToolCatalog catalog) {
+        List<String> codes = catalog.getToolCodes();
+        int[] units = new int[codes.size()];
+        for (int i = 0; i < units.length; i++) {
+            units[i] = catalog.getUnits(codes.get(i));
+        }
+        return units;
+    }
+
+    /**
+     * Source of the rows a catalog is built from.
+     */
+    interface ToolRows {
+
+        String code(int row);
+
+        String type(int row);
+
+        String brand(int row);
+
+        long dailyChargeCents(int row);
+
+        int policy(int row);
+
+        int units(int row);
+    }
+
+    /**
+     * A tool that is a row of the catalog's arrays, holding nothing but its ID.
+     */
+    private final class ToolView extends Tool {
+
+        private final int id; // Row of the arrays this tool reads
+
+        ToolView(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public String getType() {
+            return pricingRows[pricingRefs[id]].getType();
+        }
+
+        @Override
+        public String getBrand() {
+            return pool[brandRefs[id]];
+        }
+
+        @Override
+        public String getCode() {
+            return codes[id];
+        }
+
+        @Override
+        public double getDailyCharge() {
+            return pricingRows[pricingRefs[id]].getDailyChargeCents() / 100.0;
+        }
+
+        @Override
+        public long getDailyChargeCents() {
+            return pricingRows[pricingRefs[id]].getDailyChargeCents();
+        }
+
+        @Override
+        public boolean isWeekdayCharge() {
+            return ChargePolicy.isWeekdayCharge(pricingRows[pricingRefs[id]].getPolicy());
+        }
+
+        @Override
+        public boolean isWeekendCharge() {
+            return ChargePolicy.isWeekendCharge(pricingRows[pricingRefs[id]].getPolicy());
+        }
+
+        @Override
+        public boolean isHolidayCharge() {
+            return ChargePolicy.isHolidayCharge(pricingRows[pricingRefs[id]].getPolicy());
+        }
+    }
+}
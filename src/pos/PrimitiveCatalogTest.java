@@ -0,0 +1,118 @@
+package pos;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for verifying the functionality of the PrimitiveCatalog class
+ */
+class PrimitiveCatalogTest {
+
+    /**
+     * Creates a catalog of the store's four tools, with two ladders on the shelf.
+     */
+    private static PrimitiveCatalog storeCatalog() {
+        List<Tool> tools = Arrays.asList(
+                new Tool("Ladder", "Werner", "LADW", 1.99, true, true, false),
+                new Tool("Chainsaw", "Stihl", "CHNS", 1.49, true, false, true),
+                new Tool("Jackhammer", "DeWalt", "JAKD", 2.99, true, false, false),
+                new Tool("Jackhammer", "Ridgid", "JAKR", 2.99, true, false, false));
+        return new PrimitiveCatalog(tools, new int[]{2, 1, 1, 1});
+    }
+
+    @Test
+    void toolViewsMatchTheToolsLoaded() {
+        PrimitiveCatalog catalog = storeCatalog();
+        assertEquals(4, catalog.size());
+        assertEquals(List.of("LADW", "CHNS", "JAKD", "JAKR"), catalog.getToolCodes());
+
+        Tool chainsaw = catalog.getTool("CHNS");
+        assertEquals("Chainsaw", chainsaw.getType());
+        assertEquals("Stihl", chainsaw.getBrand());
+        assertEquals("CHNS", chainsaw.getCode());
+        assertEquals(149, chainsaw.getDailyChargeCents());
+        assertEquals(1.49, chainsaw.getDailyCharge());
+        assertTrue(chainsaw.isWeekdayCharge());
+        assertFalse(chainsaw.isWeekendCharge());
+        assertTrue(chainsaw.isHolidayCharge());
+
+        assertEquals(2, catalog.getUnits("LADW"));
+        assertEquals(0, catalog.getUnits("NONE"));
+        assertNull(catalog.getTool("NONE"));
+    }
+
+    @Test
+    void attributesReadByID() {
+        PrimitiveCatalog catalog = storeCatalog();
+        int id = catalog.idOf("JAKR");
+        assertEquals(3, id);
+        assertEquals(-1, catalog.idOf("JAK"));
+        assertEquals("JAKR", catalog.getCode(id));
+        assertEquals("Jackhammer", catalog.getType(id));
+        assertEquals("Ridgid", catalog.getBrand(id));
+        assertEquals(299, catalog.getDailyChargeCents(id));
+        assertEquals(ChargePolicy.WEEKDAY_CHARGE, catalog.getPolicy(id));
+        assertEquals(1, catalog.getUnits(id));
+        assertEquals("JAKR", catalog.getTool(id).getCode());
+        assertThrows(IndexOutOfBoundsException.class, () -> catalog.getTool(4));
+    }
+
+    @Test
+    void typesAndBrandsStoredOnce() {
+        PrimitiveCatalog catalog = storeCatalog();
+
+        // Four brands, and three pricing rows with Jackhammer shared by two tools
+        assertEquals(4, catalog.getPoolSize());
+        assertEquals(3, catalog.getPricingRowCount());
+        assertSame(catalog.getType(catalog.idOf("JAKD")), catalog.getType(catalog.idOf("JAKR")));
+    }
+
+    @Test
+    void repeatedCodeKeepsLastToolAndAddsUnits() {
+        List<Tool> tools = Arrays.asList(
+                new Tool("Ladder", "Werner", "LADW", 1.99, true, true, false),
+                new Tool("Chainsaw", "Stihl", "CHNS", 1.49, true, false, true),
+                new Tool("Ladder", "Werner", "LADW", 2.49, true, false, false));
+        PrimitiveCatalog catalog = new PrimitiveCatalog(tools, new int[]{2, 1, 3});
+        assertEquals(List.of("LADW", "CHNS"), catalog.getToolCodes());
+        assertEquals(249, catalog.getTool("LADW").getDailyChargeCents());
+        assertFalse(catalog.getTool("LADW").isWeekendCharge());
+        assertEquals(5, catalog.getUnits("LADW"));
+    }
+
+    @Test
+    void everyCodeFoundInALargeCatalog() {
+        List<Tool> tools = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            tools.add(new Tool("Type" + (i % 20), "Brand" + (i % 7), "T" + i, Money.ofCents(100 + i),
+                    true, i % 2 == 0, false));
+        }
+        PrimitiveCatalog catalog = new PrimitiveCatalog(tools, null);
+        assertEquals(50_000, catalog.size());
+        assertEquals(7, catalog.getPoolSize());
+        for (int i = 0; i < 50_000; i++) {
+            assertEquals(i, catalog.idOf("T" + i));
+        }
+        assertEquals(-1, catalog.idOf("T50000"));
+        assertEquals(1, catalog.getUnits("T49999"));
+        assertEquals(49_999 + 100, catalog.getTool("T49999").getDailyChargeCents());
+    }
+
+    @Test
+    void copiedFromAnotherCatalog() {
+        Tool ladder = new Tool("Ladder", "Werner", "LADW", 1.99, true, true, false);
+        CatalogSnapshot snapshot = new CatalogSnapshot(List.of(ladder), new int[]{4});
+        PrimitiveCatalog copy = new PrimitiveCatalog(snapshot);
+        assertEquals(List.of("LADW"), copy.getToolCodes());
+        assertEquals(4, copy.getUnits("LADW"));
+        assertEquals(ChargePolicy.of(ladder), copy.getPolicy(copy.idOf("LADW")));
+
+        assertEquals(0, new PrimitiveCatalog(CatalogSnapshot.EMPTY).size());
+        assertEquals(-1, new PrimitiveCatalog(CatalogSnapshot.EMPTY).idOf("LADW"));
+    }
+}
@@ -0,0 +1,217 @@
+package pos;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Class Definition for a bounded cache of charge days and pre-discount charges for repeated quotes.
+ *
+ * Quotes are keyed on a tool's charge policy, its daily charge, the checkout date and the rental length, so
+ * every tool of a type shares entries. The cache is split into small sets of eight entries, and a key can only
+ * live in the set its hash picks. Looking a key up reads at most eight slots with no locks. When a set is full
+ * the entry with the fewest recent hits is replaced. Every eviction from a set takes one hit off each entry
+ * in it, and hit counts stop at fifteen, so an entry stays only while it keeps being used: both how often and
+ * how recently it was used count.
+ *
+ * A cache belongs to one holiday calendar, since the same dates are charged differently under another.
+ */
+public final class QuoteCache {
+
+    private static final int WAYS = 8; // Entries per set
+    private static final int MAX_CACHED_DAYS = 0xFFFF; // Longest rental that is cached, longer ones are computed
+    private static final int MAX_HITS = 15; // Most hits an entry remembers, so past popularity can wear off
+
+    private final HolidayCalendar holidays; // Calendar every cached quote was computed with
+    private final int setMask; // Number of sets - 1
+    private volatile AtomicReferenceArray<Quote> slots; // Sets of WAYS entries, replaced as a whole to invalidate
+
+    private final LongAdder hits = new LongAdder(); // Lookups answered from the cache
+    private final LongAdder misses = new LongAdder(); // Lookups that had to compute the quote
+    private final LongAdder evictions = new LongAdder(); // Entries replaced to make room
+
+    /**
+     * Constructor for the QuoteCache class.
+     *
+     * @param holidays Holidays observed by the store
+     * @param maximumSize Most quotes to keep, rounded up to eight times a power of two
+     */
+    public QuoteCache(HolidayCalendar holidays, int maximumSize) {
+        int neededSets = Math.max(1, (maximumSize + WAYS - 1) / WAYS);
+        int sets = neededSets == 1 ? 1 : Integer.highestOneBit(neededSets - 1) << 1;
+        this.holidays = holidays;
+        this.setMask = sets - 1;
+        this.slots = new AtomicReferenceArray<>(sets * WAYS);
+    }
+
+    /**
+     * Getter function for the calendar the cache computes quotes with.
+     *
+     * @return Holidays observed by the store
+     */
+    public HolidayCalendar getHolidays() {
+        return holidays;
+    }
+
+    /**
+     * This function looks up a quote, computing and caching it if it isn't there.
+     *
+     * @param tool Tool being rented
+     * @param checkoutDate Date of the checkout
+     * @param rentalDays Number of days the rental will be for
+     * @return Charge days and pre-discount charge of the rental
+     * @throws IllegalArgumentException If the rental days are negative
+     */
+    public Quote get(Tool tool, LocalDate checkoutDate, int rentalDays) {
+        int policy = ChargePolicy.of(tool);
+        long dailyChargeCents = tool.getDailyChargeCents();
+        if (rentalDays < 0 || rentalDays > MAX_CACHED_DAYS) {
+            return compute(0, policy, checkoutDate, rentalDays, dailyChargeCents);
+        }
+
+        long epochDay = checkoutDate.toEpochDay();
+        long key = epochDay << 19 | (long) rentalDays << 3 | policy;
+        int hash = Long.hashCode(key * 0x9E3779B97F4A7C15L ^ dailyChargeCents);
+        hash ^= hash >>> 16;
+
+        AtomicReferenceArray<Quote> table = slots;
+        int base = (hash & setMask) * WAYS;
+        for (int way = 0; way < WAYS; way++) {
+            Quote quote = table.get(base + way);
+            if (quote != null && quote.key == key && quote.dailyChargeCents == dailyChargeCents) {
+                if (quote.hits < MAX_HITS) {
+                    quote.hits++;
+                }
+                hits.increment();
+                return quote;
+            }
+        }
+
+        misses.increment();
+        Quote quote = compute(key, policy, checkoutDate, rentalDays, dailyChargeCents);
+        insert(table, base, quote);
+        return quote;
+    }
+
+    /**
+     * This function drops every cached quote, for when prices change.
+     */
+    public void invalidateAll() {
+        slots = new AtomicReferenceArray<>(slots.length());
+    }
+
+    /**
+     * Getter function for the number of lookups answered from the cache.
+     *
+     * @return Hit count since the cache was created
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Getter function for the number of lookups that had to compute their quote.
+     *
+     * @return Miss count since the cache was created
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Getter function for the number of entries replaced to make room for new ones.
+     *
+     * @return Eviction count since the cache was created
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * This function counts the cached quotes. The count is only exact when no other thread is using the cache.
+     *
+     * @return Number of cached quotes
+     */
+    public int size() {
+        AtomicReferenceArray<Quote> table = slots;
+        int size = 0;
+        for (int i = 0; i < table.length(); i++) {
+            if (table.get(i) != null) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    private Quote compute(long key, int policy, LocalDate checkoutDate, int rentalDays, long dailyChargeCents) {
+        int chargeDays = CheckoutFunctions.getChargeDayTables()
+                .calcChargeDays(checkoutDate, rentalDays, policy, holidays);
+        return new Quote(key, dailyChargeCents, chargeDays, Math.multiplyExact(dailyChargeCents, chargeDays));
+    }
+
+    /**
+     * Puts a quote into its set, in an empty slot if there is one and otherwise over the least used entry.
+     * Two threads inserting into the same set at once may overwrite each other, which only costs a later miss.
+     */
+    private void insert(AtomicReferenceArray<Quote> table, int base, Quote quote) {
+        for (int way = 0; way < WAYS; way++) {
+            if (table.get(base + way) == null && table.compareAndSet(base + way, null, quote)) {
+                return;
+            }
+        }
+
+        int victim = 0;
+        int fewestHits = Integer.MAX_VALUE;
+        for (int way = 0; way < WAYS; way++) {
+            Quote existing = table.get(base + way);
+            if (existing.hits > 0) {
+                existing.hits--;
+            }
+            if (existing.hits < fewestHits) {
+                fewestHits = existing.hits;
+                victim = way;
+            }
+        }
+        table.set(base + victim, quote);
+        evictions.increment();
+    }
+
+    /**
+     * A cached quote: how many days a rental is charged for and what it costs before discount.
+     */
+    public static final class Quote {
+
+        private final long key; // Packed checkout day, rental days and charge policy
+        private final long dailyChargeCents; // Daily charge the quote was priced at
+        private final int chargeDays; // Days charged for
+        private final long preDiscountCharge; // Charge before discount, in cents
+
+        // Recent hits up to MAX_HITS, racy on purpose: a lost update only nudges which entry gets evicted
+        private int hits;
+
+        private Quote(long key, long dailyChargeCents, int chargeDays, long preDiscountCharge) {
+            this.key = key;
+            this.dailyChargeCents = dailyChargeCents;
+            this.chargeDays = chargeDays;
+            this.preDiscountCharge = preDiscountCharge;
+        }
+
+        /**
+         * Getter function for the days charged for.
+         *
+         * @return Charge days
+         */
+        public int getChargeDays() {
+            return chargeDays;
+        }
+
+        /**
+         * Getter function for the charge before discount.
+         *
+         * @return Pre-discount charge in cents
+         */
+        public long getPreDiscountCharge() {
+            return preDiscountCharge;
+        }
+    }
+}
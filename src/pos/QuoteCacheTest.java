@@ -0,0 +1,118 @@
+package pos;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for verifying the functionality of the QuoteCache class
+ */
+class QuoteCacheTest {
+
+    private static final Tool ladder = new Tool("Ladder", "Werner", "LADW", 1.99, true, true, false);
+    private static final Tool chainsaw = new Tool("Chainsaw", "Stihl", "CHNS", 1.49, true, false, true);
+    private static final Tool jackhammer = new Tool("Jackhammer", "Ridgid", "JAKR", 2.99, true, false, false);
+
+    @Test
+    void matchesDirectComputation() {
+        QuoteCache cache = new QuoteCache(HolidayCalendar.getDefault(), 64);
+        Tool[] tools = {ladder, chainsaw, jackhammer};
+        Random random = new Random(13);
+
+        for (int i = 0; i < 20000; i++) {
+            Tool tool = tools[random.nextInt(tools.length)];
+            LocalDate checkoutDate = LocalDate.of(2015, 1, 1).plusDays(random.nextInt(60));
+            int rentalDays = 1 + random.nextInt(10);
+
+            int expectedDays = ChargeDayCalculator.calcChargeDays(checkoutDate, rentalDays, tool);
+            QuoteCache.Quote quote = cache.get(tool, checkoutDate, rentalDays);
+            assertEquals(expectedDays, quote.getChargeDays());
+            assertEquals(expectedDays * tool.getDailyChargeCents(), quote.getPreDiscountCharge());
+        }
+
+        assertEquals(20000, cache.getHitCount() + cache.getMissCount());
+        assertTrue(cache.getHitCount() > 0);
+        assertTrue(cache.getEvictionCount() > 0);
+        assertTrue(cache.size() <= 64);
+    }
+
+    @Test
+    void hitsAndMisses() {
+        QuoteCache cache = new QuoteCache(HolidayCalendar.getDefault(), 8);
+        LocalDate checkoutDate = LocalDate.of(2015, 7, 2);
+
+        QuoteCache.Quote first = cache.get(ladder, checkoutDate, 3);
+        assertSame(first, cache.get(ladder, checkoutDate, 3));
+
+        // Same policy and price under another code shares the entry
+        Tool otherLadder = new Tool("Ladder", "Little Giant", "LADL", 1.99, true, true, false);
+        assertSame(first, cache.get(otherLadder, checkoutDate, 3));
+
+        // A different price is a different quote
+        Tool pricierLadder = new Tool("Ladder", "Werner", "LADW", 2.49, true, true, false);
+        assertEquals(249 * first.getChargeDays(), cache.get(pricierLadder, checkoutDate, 3).getPreDiscountCharge());
+
+        assertEquals(2, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    void frequentQuotesSurvive() {
+        QuoteCache cache = new QuoteCache(HolidayCalendar.getDefault(), 8);
+        LocalDate popularDate = LocalDate.of(2020, 7, 2);
+        QuoteCache.Quote popular = cache.get(ladder, popularDate, 7);
+        for (int i = 0; i < 50; i++) {
+            cache.get(ladder, popularDate, 7);
+        }
+
+        // A stream of one-off quotes that fills the set and keeps evicting
+        for (int i = 0; i < 12; i++) {
+            cache.get(jackhammer, LocalDate.of(2016, 1, 1).plusDays(i), 1);
+        }
+        assertSame(popular, cache.get(ladder, popularDate, 7));
+        assertEquals(8, cache.size());
+        assertEquals(5, cache.getEvictionCount());
+    }
+
+    @Test
+    void invalidateAll() {
+        QuoteCache cache = new QuoteCache(HolidayCalendar.getDefault(), 8);
+        QuoteCache.Quote first = cache.get(chainsaw, LocalDate.of(2015, 7, 2), 5);
+        cache.invalidateAll();
+
+        assertEquals(0, cache.size());
+        QuoteCache.Quote second = cache.get(chainsaw, LocalDate.of(2015, 7, 2), 5);
+        assertNotSame(first, second);
+        assertEquals(first.getChargeDays(), second.getChargeDays());
+    }
+
+    @Test
+    void reloadedPricesAreNotServedStale(@TempDir Path directory) throws IOException {
+        TestCatalogs.write(directory, "Ladder,$1.99,Yes,Yes,No", "Ladder,Werner,LADW");
+        ToolsDB store = TestCatalogs.open(directory);
+
+        CheckoutFunctions.checkout(store.getToolFromCode("LADW"), LocalDate.of(2015, 7, 2), 3, 0);
+        int cached = CheckoutFunctions.getQuoteCache().size();
+        assertTrue(cached > 0);
+
+        // Quotes are keyed on the daily charge, so a reload leaves the cache, and other stores' quotes, alone
+        Files.writeString(TestCatalogs.toolInfo(directory), "Ladder,$2.19,Yes,Yes,No");
+        assertTrue(store.reload());
+        assertEquals(cached, CheckoutFunctions.getQuoteCache().size());
+        RentalAgreement agreement = CheckoutFunctions.checkout(store.getToolFromCode("LADW"), LocalDate.of(2015, 7, 2), 3, 0);
+        assertEquals(219 * agreement.getChargeDays(), agreement.getPreDiscountCharge().getCents());
+    }
+
+    @Test
+    void negativeDaysStillRejected() {
+        QuoteCache cache = new QuoteCache(HolidayCalendar.getDefault(), 8);
+        assertThrows(IllegalArgumentException.class, () -> cache.get(ladder, LocalDate.of(2015, 7, 2), -1));
+    }
+}
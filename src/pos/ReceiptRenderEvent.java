@@ -0,0 +1,26 @@
+package pos;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight Recorder event for rendering one rental agreement receipt.
+ *
+ * Like CheckoutEvent, only renders taking a millisecond or more are recorded by default, with no stack trace.
+ */
+@Name("pos.ReceiptRender")
+@Label("Receipt Render")
+@Category({"POS", "Checkout"})
+@Description("Rental agreement receipt rendered for printing or sending")
+@Threshold("1 ms")
+@StackTrace(false)
+public class ReceiptRenderEvent extends Event {
+
+    @Label("Tool Code")
+    String toolCode;
+}
@@ -0,0 +1,260 @@
+package pos;
+
+import jdk.jfr.EventType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Utility Class for rendering rental agreement receipts into caller supplied buffers.
+ *
+ * Receipts are written straight into an Appendable, a StringBuilder or a ByteBuffer. Dates and currency amounts
+ * are written digit by digit from lookup tables rather than through NumberFormat and DateTimeFormatter, so
+ * rendering a receipt allocates nothing. The output matches the receipt format printed at checkout exactly.
+ */
+public final class ReceiptRenderer {
+
+    // Two digit, zero padded text for 0 through 99, used for months, days and cents
+    private static final String[] TWO_DIGITS = buildTwoDigits();
+
+    // Flight Recorder's settings for the render event, checked before creating one
+    private static final EventType RENDER_EVENT = EventType.getEventType(ReceiptRenderEvent.class);
+
+    // The receipt's date format, only used for years the digit tables don't cover
+    private static final DateTimeFormatter RECEIPT_DATE = DateTimeFormatter.ofPattern("MM/dd/yyyy");
+
+    // Reusable adapter for rendering into byte buffers, one per thread
+    private static final ThreadLocal<ByteBufferAppendable> BYTE_BUFFER_ADAPTERS =
+            ThreadLocal.withInitial(ByteBufferAppendable::new);
+
+    private ReceiptRenderer() {
+    }
+
+    /**
+     * This function renders a receipt onto the end of a StringBuilder.
+     *
+     * @param agreement Rental agreement to render
+     * @param out Builder to append the receipt to
+     */
+    public static void render(RentalAgreement agreement, StringBuilder out) {
+        try {
+            render(agreement, (Appendable) out);
+        } catch (IOException e) {
+            // StringBuilder never throws
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * This function renders a receipt into a byte buffer as UTF-8.
+     *
+     * @param agreement Rental agreement to render
+     * @param out Buffer to write the receipt to, starting at its position
+     * @throws java.nio.BufferOverflowException If the receipt doesn't fit in the buffer
+     */
+    public static void render(RentalAgreement agreement, ByteBuffer out) {
+        ByteBufferAppendable adapter = BYTE_BUFFER_ADAPTERS.get();
+        adapter.buffer = out;
+        try {
+            render(agreement, adapter);
+        } catch (IOException e) {
+            // Writing to a ByteBuffer never throws IOException
+            throw new UncheckedIOException(e);
+        } finally {
+            adapter.buffer = null;
+        }
+    }
+
+    /**
+     * This function renders a receipt into any Appendable, such as a Writer.
+     *
+     * @param agreement Rental agreement to render
+     * @param out Destination for the receipt
+     * @throws IOException If the destination can't be written to
+     */
+    public static void render(RentalAgreement agreement, Appendable out) throws IOException {
+        // The event is only created while a recording has it switched on, so rendering otherwise allocates nothing
+        ReceiptRenderEvent event = null;
+        if (RENDER_EVENT.isEnabled()) {
+            event = new ReceiptRenderEvent();
+            event.begin();
+        }
+        long started = CheckoutMetrics.start();
+        out.append("Tool code: ").append(agreement.getToolCode()).append('\n');
+        out.append("Tool type: ").append(agreement.getToolType()).append('\n');
+        out.append("Tool brand: ").append(agreement.getToolBrand()).append('\n');
+        out.append("Rental days: ");
+        appendLong(out, agreement.getRentalDays());
+        out.append('\n').append("Check out date: ");
+        appendDate(out, agreement.getCheckoutDate());
+        out.append('\n').append("Due date: ");
+        appendDate(out, agreement.getDueDate());
+        out.append('\n').append("Daily rental charge: ");
+        appendMoney(out, agreement.getDailyRentalCharge().getCents());
+        out.append('\n').append("Charge days: ");
+        appendLong(out, agreement.getChargeDays());
+        out.append('\n').append("Pre-discount charge: ");
+        appendMoney(out, agreement.getPreDiscountCharge().getCents());
+        out.append('\n').append("Discount percent: ");
+        appendLong(out, agreement.getDiscountPercent());
+        out.append('%').append('\n').append("Discount amount: ");
+        appendMoney(out, agreement.getDiscountAmount().getCents());
+        out.append('\n').append("Final charge: ");
+        appendMoney(out, agreement.getFinalCharge().getCents());
+        CheckoutMetrics.lap(CheckoutMetrics.Stage.RECEIPT_RENDER, started);
+
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.toolCode = agreement.getToolCode();
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Writes a date as MM/dd/yyyy. Years outside 1 to 9999, which the pattern writes as a year of era or with a
+     * sign, go through the formatter itself so the text stays the same.
+     */
+    static void appendDate(Appendable out, LocalDate date) throws IOException {
+        int year = date.getYear();
+        if (year < 1 || year > 9999) {
+            out.append(RECEIPT_DATE.format(date));
+            return;
+        }
+        out.append(TWO_DIGITS[date.getMonthValue()]).append('/')
+                .append(TWO_DIGITS[date.getDayOfMonth()]).append('/')
+                .append(TWO_DIGITS[year / 100]).append(TWO_DIGITS[year % 100]);
+    }
+
+    /**
+     * Writes a date as ISO yyyy-MM-dd. Years outside 0 to 9999, which ISO writes with a sign, go through
+     * DateTimeFormatter.ISO_LOCAL_DATE.
+     */
+    static void appendIsoDate(Appendable out, LocalDate date) throws IOException {
+        int year = date.getYear();
+        if (year < 0 || year > 9999) {
+            out.append(DateTimeFormatter.ISO_LOCAL_DATE.format(date));
+            return;
+        }
+        out.append(TWO_DIGITS[year / 100]).append(TWO_DIGITS[year % 100]).append('-')
+                .append(TWO_DIGITS[date.getMonthValue()]).append('-')
+                .append(TWO_DIGITS[date.getDayOfMonth()]);
+    }
+
+    /**
+     * Writes cents as US currency, such as $1,234.56 or -$0.50.
+     */
+    static void appendMoney(Appendable out, long cents) throws IOException {
+        if (cents < 0) {
+            out.append('-');
+            cents = -cents;
+        }
+        out.append('$');
+
+        long dollars = cents / 100;
+        long divisor = 1;
+        int digits = 1;
+        while (divisor <= dollars / 10) {
+            divisor *= 10;
+            digits++;
+        }
+        for (; divisor > 0; divisor /= 10, digits--) {
+            out.append((char) ('0' + (dollars / divisor) % 10));
+            if (digits > 1 && (digits - 1) % 3 == 0) {
+                out.append(',');
+            }
+        }
+
+        out.append('.').append(TWO_DIGITS[(int) (cents % 100)]);
+    }
+
+    /**
+     * Writes cents as a plain number of dollars with two decimal places, such as 1234.56 or -0.50.
+     */
+    static void appendDecimal(Appendable out, long cents) throws IOException {
+        if (cents < 0) {
+            out.append('-');
+            cents = -cents;
+        }
+        appendLong(out, cents / 100);
+        out.append('.').append(TWO_DIGITS[(int) (cents % 100)]);
+    }
+
+    /**
+     * Writes a whole number in decimal.
+     */
+    static void appendLong(Appendable out, long value) throws IOException {
+        if (value < 0) {
+            out.append('-');
+            if (value == Long.MIN_VALUE) {
+                out.append("9223372036854775808");
+                return;
+            }
+            value = -value;
+        }
+        long divisor = 1;
+        while (divisor <= value / 10) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            out.append((char) ('0' + (value / divisor) % 10));
+        }
+    }
+
+    private static String[] buildTwoDigits() {
+        String[] digits = new String[100];
+        for (int i = 0; i < 100; i++) {
+            digits[i] = String.valueOf(new char[]{(char) ('0' + i / 10), (char) ('0' + i % 10)});
+        }
+        return digits;
+    }
+
+    /**
+     * Appendable that encodes characters as UTF-8 into whichever byte buffer it currently points at.
+     */
+    private static final class ByteBufferAppendable implements Appendable {
+
+        private ByteBuffer buffer; // Buffer being written to, only set while rendering
+        private char highSurrogate; // First half of a surrogate pair waiting for its second half
+
+        @Override
+        public Appendable append(CharSequence text) {
+            return append(text, 0, text.length());
+        }
+
+        @Override
+        public Appendable append(CharSequence text, int start, int end) {
+            for (int i = start; i < end; i++) {
+                append(text.charAt(i));
+            }
+            return this;
+        }
+
+        @Override
+        public Appendable append(char c) {
+            if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | c >> 6)).put((byte) (0x80 | c & 0x3F));
+            } else if (Character.isHighSurrogate(c)) {
+                highSurrogate = c;
+            } else if (Character.isLowSurrogate(c) && highSurrogate != 0) {
+                int codePoint = Character.toCodePoint(highSurrogate, c);
+                highSurrogate = 0;
+                buffer.put((byte) (0xF0 | codePoint >> 18))
+                        .put((byte) (0x80 | codePoint >> 12 & 0x3F))
+                        .put((byte) (0x80 | codePoint >> 6 & 0x3F))
+                        .put((byte) (0x80 | codePoint & 0x3F));
+            } else {
+                buffer.put((byte) (0xE0 | c >> 12))
+                        .put((byte) (0x80 | c >> 6 & 0x3F))
+                        .put((byte) (0x80 | c & 0x3F));
+            }
+            return this;
+        }
+    }
+}
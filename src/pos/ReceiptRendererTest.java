@@ -0,0 +1,172 @@
+package pos;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.text.NumberFormat;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for verifying receipts render exactly as the original formatter-based printout.
+ */
+class ReceiptRendererTest {
+
+    private static RentalAgreement[] agreements; // Agreements covering every tool, a year of dates and all discounts
+
+    @BeforeAll
+    static void init() {
+        ToolsDB db = new ToolsDB("src/testToolInfo.csv", "src/testToolsAvailable.csv");
+        String[] codes = {"LADW", "CHNS", "JAKR", "JAKD"};
+        CheckoutRequest[] requests = new CheckoutRequest[3000];
+        for (int i = 0; i < requests.length; i++) {
+            requests[i] = new CheckoutRequest(db.getToolFromCode(codes[i % codes.length]),
+                    LocalDate.of(2020, Month.JANUARY, 1).plusDays(i % 366), 1 + i % 400, i % 101);
+        }
+        agreements = CheckoutFunctions.checkoutAll(requests);
+    }
+
+    /**
+     * The receipt as it was built with NumberFormat and DateTimeFormatter before rendering was rewritten.
+     */
+    private static String formatterReceipt(RentalAgreement agreement) {
+        NumberFormat priceFormatter = NumberFormat.getCurrencyInstance(Locale.US);
+        DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("MM/dd/yyyy");
+
+        return "Tool code: " + agreement.getToolCode() + "\n"
+                + "Tool type: " + agreement.getToolType() + "\n"
+                + "Tool brand: " + agreement.getToolBrand() + "\n"
+                + "Rental days: " + agreement.getRentalDays() + "\n"
+                + "Check out date: " + agreement.getCheckoutDate().format(dateFormatter) + "\n"
+                + "Due date: " + agreement.getDueDate().format(dateFormatter) + "\n"
+                + "Daily rental charge: " + priceFormatter.format(agreement.getDailyRentalCharge().toDouble()) + "\n"
+                + "Charge days: " + agreement.getChargeDays() + "\n"
+                + "Pre-discount charge: " + priceFormatter.format(agreement.getPreDiscountCharge().toDouble()) + "\n"
+                + "Discount percent: " + agreement.getDiscountPercent() + "%" + "\n"
+                + "Discount amount: " + priceFormatter.format(agreement.getDiscountAmount().toDouble()) + "\n"
+                + "Final charge: " + priceFormatter.format(agreement.getFinalCharge().toDouble());
+    }
+
+    @Test
+    void matchesFormatterOutput() {
+        StringBuilder reused = new StringBuilder();
+        for (RentalAgreement agreement : agreements) {
+            reused.setLength(0);
+            ReceiptRenderer.render(agreement, reused);
+            assertEquals(formatterReceipt(agreement), reused.toString());
+        }
+    }
+
+    @Test
+    void largeAmountsAreGrouped() {
+        LocalDate date = LocalDate.of(2021, Month.FEBRUARY, 8);
+        RentalAgreement agreement = new RentalAgreement("LADW", "Ladder", "Werner", 365, date, date,
+                Money.ofCents(99999), 365, Money.ofCents(123456789), 5, Money.ofCents(6172839),
+                Money.ofCents(117283950));
+
+        assertEquals(formatterReceipt(agreement), agreement.printRentalAgreement());
+    }
+
+    @Test
+    void rendersToAppendable() throws IOException {
+        StringWriter writer = new StringWriter();
+        ReceiptRenderer.render(agreements[7], writer);
+
+        assertEquals(formatterReceipt(agreements[7]), writer.toString());
+    }
+
+    @Test
+    void sharedFormatters() throws IOException {
+        StringBuilder out = new StringBuilder();
+        ReceiptRenderer.appendLong(out.append('|'), 0);
+        ReceiptRenderer.appendLong(out.append('|'), -42);
+        ReceiptRenderer.appendLong(out.append('|'), Long.MIN_VALUE);
+        ReceiptRenderer.appendDecimal(out.append('|'), 123456);
+        ReceiptRenderer.appendDecimal(out.append('|'), -5);
+        ReceiptRenderer.appendMoney(out.append('|'), 123456);
+        ReceiptRenderer.appendIsoDate(out.append('|'), LocalDate.of(2015, Month.SEPTEMBER, 3));
+        ReceiptRenderer.appendDate(out.append('|'), LocalDate.of(2015, Month.SEPTEMBER, 3));
+
+        assertEquals("|0|-42|-9223372036854775808|1234.56|-0.05|$1,234.56|2015-09-03|09/03/2015", out.toString());
+    }
+
+    @Test
+    void yearsAtTheEdgesMatchTheFormatters() throws IOException {
+        DateTimeFormatter receiptDate = DateTimeFormatter.ofPattern("MM/dd/yyyy");
+        for (int year : new int[]{-10000, -1, 0, 1, 999, 1000, 9999, 10000, 123456}) {
+            LocalDate date = LocalDate.of(year, Month.JANUARY, 30);
+            StringBuilder out = new StringBuilder();
+            ReceiptRenderer.appendDate(out, date);
+            assertEquals(date.format(receiptDate), out.toString());
+
+            out.setLength(0);
+            ReceiptRenderer.appendIsoDate(out, date);
+            assertEquals(date.format(DateTimeFormatter.ISO_LOCAL_DATE), out.toString());
+        }
+
+        // Due past the year 9999, as the receipt printed it before
+        LocalDate checkout = LocalDate.of(9999, Month.DECEMBER, 1);
+        RentalAgreement agreement = new RentalAgreement("LADW", "Ladder", "Werner", 60, checkout,
+                checkout.plusDays(60), Money.ofCents(199), 60, Money.ofCents(11940), 0, Money.ZERO,
+                Money.ofCents(11940));
+        StringBuilder receipt = new StringBuilder();
+        ReceiptRenderer.render(agreement, receipt);
+        assertTrue(receipt.toString().contains("Due date: 01/30/+10000\n"), receipt.toString());
+    }
+
+    @Test
+    void renderingAllocatesNothing() {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+            return;
+        }
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+        if (!allocations.isThreadAllocatedMemorySupported() || !allocations.isThreadAllocatedMemoryEnabled()) {
+            return;
+        }
+
+        StringBuilder text = new StringBuilder(1024);
+        ByteBuffer bytes = ByteBuffer.allocate(1024);
+        long threadId = Thread.currentThread().getId();
+        long allocated = 0;
+        // Warm up until the JIT has compiled the render path, then measure
+        for (int round = 0; round < 3; round++) {
+            long before = allocations.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < 20_000; i++) {
+                RentalAgreement agreement = agreements[i % agreements.length];
+                text.setLength(0);
+                ReceiptRenderer.render(agreement, text);
+                bytes.clear();
+                ReceiptRenderer.render(agreement, bytes);
+            }
+            allocated = allocations.getThreadAllocatedBytes(threadId) - before;
+        }
+
+        // A single 16 byte object per render would come to 640,000 bytes, allow for the measuring itself
+        assertTrue(allocated < 4096, allocated + " bytes allocated rendering 40,000 receipts");
+    }
+
+    @Test
+    void rendersToByteBuffer() {
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        LocalDate date = LocalDate.of(2021, Month.FEBRUARY, 28);
+        RentalAgreement agreement = new RentalAgreement("LADW", "Leiter \u00fcber \u20ac", "Werner \ud83d\udd27", 1,
+                date, date, Money.ofCents(199), 1, Money.ofCents(199), 0, Money.ZERO, Money.ofCents(199));
+
+        ReceiptRenderer.render(agreements[0], buffer);
+        ReceiptRenderer.render(agreement, buffer);
+
+        byte[] expected = (formatterReceipt(agreements[0]) + formatterReceipt(agreement))
+                .getBytes(StandardCharsets.UTF_8);
+        assertArrayEquals(expected, Arrays.copyOf(buffer.array(), buffer.position()));
+    }
+}
@@ -0,0 +1,201 @@
+package pos;
+
+import java.time.LocalDate;
+
+/**
+ * Represents a Rental Agreement.
+ * @author Matt Otto
+ */
+public class RentalAgreement {
+
+    private final String toolCode; // Code of tool being rented
+    private final String toolType; // Type of tool being rented
+    private final String toolBrand; // Brand of tool being rented
+    private final Money dailyRentalCharge; // Daily cost of tool being rented
+    private final int rentalDays; // Number of days the tool will be rented for
+    private final LocalDate checkoutDate; // Date the rental item was checked out on
+    private final LocalDate dueDate; // Date the rental item will be due on
+    private final int chargeDays; // Count of days customer will be billed for
+    private final Money preDiscountCharge; // Cost of rental without clerk discount applied
+    private final int discountPercent; // Percentage to deduct from rental price
+    private final Money discountAmount; // Cost amount to be deducted from rental cost
+    private final Money finalCharge; // Cost of rental after discount has been applied
+
+    /**
+     * Constructor for a Rental Agreement object from amounts in dollars, each rounded half up to the nearest cent.
+     *
+     * @param toolCode Code of tool being rented
+     * @param toolType Type of tool being rented
+     * @param toolBrand Brand of tool being rented
+     * @param rentalDays Number of days the tool will be rented for
+     * @param checkoutDate Date the rental item was checked out on
+     * @param dueDate Date the rental item will be due on
+     * @param dailyRentalCharge Daily cost of tool being rented
+     * @param chargeDays Count of days customer will be billed for
+     * @param preDiscountCharge Cost of rental without clerk discount applied
+     * @param discountPercent Percentage to deduct from rental price
+     * @param discountAmount Cost amount to be deducted from rental cost
+     * @param finalCharge Cost of rental after discount has been applied
+     */
+    public RentalAgreement(String toolCode, String toolType, String toolBrand, int rentalDays, LocalDate checkoutDate,
+                           LocalDate dueDate, double dailyRentalCharge, int chargeDays, double preDiscountCharge,
+                           int discountPercent, double discountAmount, double finalCharge)
+    {
+        this(toolCode, toolType, toolBrand, rentalDays, checkoutDate, dueDate, Money.of(dailyRentalCharge),
+                chargeDays, Money.of(preDiscountCharge), discountPercent, Money.of(discountAmount),
+                Money.of(finalCharge));
+    }
+
+    /**
+     * Constructor for a Rental Agreement object.
+     *
+     * @param toolCode Code of tool being rented
+     * @param toolType Type of tool being rented
+     * @param toolBrand Brand of tool being rented
+     * @param rentalDays Number of days the tool will be rented for
+     * @param checkoutDate Date the rental item was checked out on
+     * @param dueDate Date the rental item will be due on
+     * @param dailyRentalCharge Daily cost of tool being rented
+     * @param chargeDays Count of days customer will be billed for
+     * @param preDiscountCharge Cost of rental without clerk discount applied
+     * @param discountPercent Percentage to deduct from rental price
+     * @param discountAmount Cost amount to be deducted from rental cost
+     * @param finalCharge Cost of rental after discount has been applied
+     */
+    public RentalAgreement(String toolCode, String toolType, String toolBrand, int rentalDays, LocalDate checkoutDate,
+                           LocalDate dueDate, Money dailyRentalCharge, int chargeDays, Money preDiscountCharge,
+                           int discountPercent, Money discountAmount, Money finalCharge)
+    {
+        this.toolCode = toolCode;
+        this.toolType = toolType;
+        this.toolBrand = toolBrand;
+        this.rentalDays = rentalDays;
+        this.checkoutDate = checkoutDate;
+        this.dueDate = dueDate;
+        this.dailyRentalCharge = dailyRentalCharge;
+        this.chargeDays = chargeDays;
+        this.preDiscountCharge = preDiscountCharge;
+        this.discountPercent = discountPercent;
+        this.discountAmount = discountAmount;
+        this.finalCharge = finalCharge;
+    }
+
+    /**
+     * Getter function for the code of tool being rented.
+     *
+     * @return Code of tool being rented.
+     */
+    public String getToolCode() {
+        return toolCode;
+    }
+
+    /**
+     * Getter function for the type of tool being rented.
+     *
+     * @return Type of tool being rented.
+     */
+    public String getToolType() {
+        return toolType;
+    }
+
+    /**
+     * Getter function for the brand of tool being rented.
+     *
+     * @return Brand of tool being rented.
+     */
+    public String getToolBrand() {
+        return toolBrand;
+    }
+
+    /**
+     * Getter function for the number of days the tool will be rented for.
+     *
+     * @return Number of days the tool will be rented for.
+     */
+    public int getRentalDays() {
+        return rentalDays;
+    }
+
+    /**
+     * Getter function for the date the rental item was checked out on.
+     *
+     * @return Date the rental item was checked out on.
+     */
+    public LocalDate getCheckoutDate() {
+        return checkoutDate;
+    }
+
+    /**
+     * Getter function for the date the rental item will be due on.
+     *
+     * @return Date the rental item will be due on.
+     */
+    public LocalDate getDueDate() {
+        return dueDate;
+    }
+
+    /**
+     * Getter function for the daily cost of tool being rented.
+     *
+     * @return Daily cost of tool being rented.
+     */
+    public Money getDailyRentalCharge() {
+        return dailyRentalCharge;
+    }
+
+    /**
+     * Getter function for the count of days customer will be billed for.
+     *
+     * @return Count of days customer will be billed for.
+     */
+    public int getChargeDays() {
+        return chargeDays;
+    }
+
+    /**
+     * Getter function for the cost of rental without clerk discount applied.
+     *
+     * @return Cost of rental without clerk discount applied.
+     */
+    public Money getPreDiscountCharge() {
+        return preDiscountCharge;
+    }
+
+    /**
+     * Getter function for the percentage to deduct from rental price.
+     *
+     * @return Percentage to deduct from rental price.
+     */
+    public int getDiscountPercent() {
+        return discountPercent;
+    }
+
+    /**
+     * Getter function for the cost amount to be deducted from rental cost.
+     *
+     * @return Cost amount to be deducted from rental cost.
+     */
+    public Money getDiscountAmount() {
+        return discountAmount;
+    }
+
+    /**
+     * Getter function for the cost of rental after discount has been applied.
+     *
+     * @return Cost of rental after discount has been applied.
+     */
+    public Money getFinalCharge() {
+        return finalCharge;
+    }
+
+    /**
+     * Method to print the Rental Agreement to the console.
+     *
+     * @return String representing a printout of all of the rental information at checkout.
+     */
+    public String printRentalAgreement() {
+        StringBuilder retString = new StringBuilder(320);
+        ReceiptRenderer.render(this, retString);
+        return retString.toString();
+    }
+}
@@ -1,3 +1,5 @@
+package pos;
+
 import org.junit.jupiter.api.Test;
 import java.time.LocalDate;
 import java.time.Month;
@@ -0,0 +1,109 @@
+package pos;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+
+/**
+ * Represents a tool coming back against a Rental Agreement, and what is owed or refunded for it.
+ */
+public class RentalReturn {
+
+    private final long agreementId; // ID of the agreement in the agreement store
+    private final RentalAgreement agreement; // Agreement the tool was rented under
+    private final LocalDate returnDate; // Date the tool came back
+    private final int adjustmentChargeDays; // Charge days added for a late return, negative for unused days
+    private final Money adjustment; // Amount owed for a late return, negative for a refund
+
+    /**
+     * Constructor for a Rental Return object.
+     *
+     * @param agreementId ID of the agreement in the agreement store
+     * @param agreement Agreement the tool was rented under
+     * @param returnDate Date the tool came back
+     * @param adjustmentChargeDays Charge days added for a late return, negative for unused days
+     * @param adjustment Amount owed for a late return, negative for a refund
+     */
+    public RentalReturn(long agreementId, RentalAgreement agreement, LocalDate returnDate,
+                        int adjustmentChargeDays, Money adjustment) {
+        this.agreementId = agreementId;
+        this.agreement = agreement;
+        this.returnDate = returnDate;
+        this.adjustmentChargeDays = adjustmentChargeDays;
+        this.adjustment = adjustment;
+    }
+
+    /**
+     * Getter function for the ID of the agreement in the agreement store.
+     *
+     * @return ID of the agreement.
+     */
+    public long getAgreementId() {
+        return agreementId;
+    }
+
+    /**
+     * Getter function for the agreement the tool was rented under.
+     *
+     * @return Agreement the tool was rented under.
+     */
+    public RentalAgreement getAgreement() {
+        return agreement;
+    }
+
+    /**
+     * Getter function for the date the tool came back.
+     *
+     * @return Date the tool came back.
+     */
+    public LocalDate getReturnDate() {
+        return returnDate;
+    }
+
+    /**
+     * Getter function for the charge days added for a late return, negative for days paid for but not used.
+     *
+     * @return Charge days added or taken off.
+     */
+    public int getAdjustmentChargeDays() {
+        return adjustmentChargeDays;
+    }
+
+    /**
+     * Getter function for the amount owed for a late return, negative for a refund.
+     *
+     * @return Amount owed or refunded.
+     */
+    public Money getAdjustment() {
+        return adjustment;
+    }
+
+    /**
+     * Method to print the return to the console.
+     *
+     * @return String representing a printout of the return and its adjustment.
+     */
+    public String printRentalReturn() {
+        StringBuilder retString = new StringBuilder(160);
+        retString.append("Rental agreement: ").append(agreementId).append('\n');
+        retString.append("Tool code: ").append(agreement.getToolCode()).append('\n');
+        try {
+            ReceiptRenderer.appendDate(retString.append("Due date: "), agreement.getDueDate());
+            ReceiptRenderer.appendDate(retString.append("\nReturn date: "), returnDate);
+        } catch (IOException e) {
+            // StringBuilder never throws
+            throw new UncheckedIOException(e);
+        }
+        retString.append('\n');
+        if (adjustmentChargeDays > 0) {
+            retString.append("Late charge days: ").append(adjustmentChargeDays).append('\n');
+            retString.append("Late fee: ").append(adjustment).append('\n');
+        } else if (adjustment.getCents() < 0) {
+            retString.append("Unused charge days: ").append(-adjustmentChargeDays).append('\n');
+            retString.append("Refund: ").append(Money.ofCents(-adjustment.getCents())).append('\n');
+        } else {
+            retString.append("Nothing further is owed").append('\n');
+        }
+        return retString.toString();
+    }
+}
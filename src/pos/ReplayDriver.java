@@ -0,0 +1,235 @@
+package pos;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Replays recorded clerk transcripts through the same checkout prompts a clerk at the console goes through,
+ * for regression and capacity testing.
+ *
+ * A transcript is what a clerk types, one answer per line: the tool pick, rental days, discount, if the customer
+ * wants a printout and if there is another customer. Each replaying clerk runs POSSystem.runSession on its own
+ * thread with the transcript as input, and the prompts' output is thrown away unless echo is on. Each rental is
+ * timed from the tool prompt to the answer to the next customer prompt, and its unit goes back on the shelf as
+ * soon as it is done, so a transcript can be replayed any number of times against a small catalog. With more
+ * than one clerk, the catalog needs a unit of each tool for every clerk, or a clerk finding its tool rented out
+ * falls out of step with its transcript.
+ */
+public final class ReplayDriver {
+
+    // Percentiles reported, and the label for each
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 100};
+    private static final String[] PERCENTILE_LABELS = {"p50", "p90", "p99", "p99.9", "max"};
+
+    private ReplayDriver() {
+    }
+
+    /**
+     * Replays a transcript from the command line and prints the throughput and latencies.
+     *
+     * @param args Transcript file, optionally the number of clerks, how many times each replays it and the tool
+     *             info and tools available CSV paths, then echo to show the prompts' output
+     */
+    public static void main(String[] args) {
+        boolean echo = args.length > 0 && args[args.length - 1].equals("echo");
+        int argCount = echo ? args.length - 1 : args.length;
+        if (argCount < 1 || argCount > 5 || argCount == 4) {
+            System.err.println("Usage: replay <transcript file> [clerks] [repeats] [tool info csv] "
+                    + "[tools available csv] [echo]");
+            System.exit(2);
+        }
+
+        String toolInfoCSVPath = argCount == 5 ? args[3] : "src/ToolInfo.csv";
+        String toolsAvailableCSVPath = argCount == 5 ? args[4] : "src/ToolsAvailable.csv";
+        try {
+            byte[] transcript = Files.readAllBytes(Paths.get(args[0]));
+            int clerks = argCount > 1 ? Integer.parseInt(args[1]) : 1;
+            int repeats = argCount > 2 ? Integer.parseInt(args[2]) : 1;
+            POSSystem.loadHolidays();
+            ToolsDB toolDirectory = new ToolsDB(toolInfoCSVPath, toolsAvailableCSVPath);
+
+            Report report = replay(toolDirectory, transcript, clerks, repeats, echo ? System.out : null);
+            report.print(System.out);
+        } catch (IOException | InterruptedException | NumberFormatException e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    /**
+     * This function replays a transcript through the checkout prompts and times every rental in it.
+     * Agreements are recorded in a store kept only in memory.
+     *
+     * @param toolDirectory Tools the clerks rent out
+     * @param transcript What a clerk types, UTF-8 encoded
+     * @param clerks Number of clerks replaying it at once
+     * @param repeats Times each clerk replays it
+     * @param echo Where to show the prompts' output, or null to throw it away
+     * @return The rentals' throughput and latencies
+     * @throws InterruptedException If interrupted while waiting on the clerks
+     */
+    public static Report replay(ToolsDB toolDirectory, byte[] transcript, int clerks, int repeats, PrintStream echo)
+            throws InterruptedException {
+        AgreementStore agreements = new AgreementStore();
+        LatencyHistogram latencies = new LatencyHistogram();
+        AtomicLong incompleteSessions = new AtomicLong();
+        PrintStream out = echo != null ? echo : new PrintStream(OutputStream.nullOutputStream());
+
+        ExecutorService terminals = ThreadPools.newThreadPerTaskExecutor("replay-clerk");
+        List<Future<?>> running = new ArrayList<>();
+        long started = System.nanoTime();
+        try {
+            for (int clerk = 0; clerk < clerks; clerk++) {
+                running.add(terminals.submit(() -> {
+                    for (int repeat = 0; repeat < repeats; repeat++) {
+                        TimedSession session = new TimedSession(new ByteArrayInputStream(transcript), out,
+                                toolDirectory.getInventory(), latencies);
+                        try {
+                            POSSystem.runSession(toolDirectory, session, agreements);
+                        } catch (NoSuchElementException e) {
+                            // The transcript ended mid rental, which runSession has already put back
+                            incompleteSessions.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> clerk : running) {
+                clerk.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Replay failed", e.getCause());
+        } finally {
+            terminals.shutdownNow();
+        }
+        long elapsedNanos = System.nanoTime() - started;
+
+        return new Report(latencies.getCount(), elapsedNanos, latencies.getPercentiles(PERCENTILES),
+                incompleteSessions.get());
+    }
+
+    /**
+     * Throughput and latency of a replay.
+     */
+    public static final class Report {
+
+        private final long rentals; // Rentals completed
+        private final long elapsedNanos; // Time from the first clerk starting to the last finishing
+        private final long[] percentileNanos; // Rental latency at each of PERCENTILES
+        private final long incompleteSessions; // Replays that ended mid rental
+
+        private Report(long rentals, long elapsedNanos, long[] percentileNanos, long incompleteSessions) {
+            this.rentals = rentals;
+            this.elapsedNanos = elapsedNanos;
+            this.percentileNanos = percentileNanos;
+            this.incompleteSessions = incompleteSessions;
+        }
+
+        /**
+         * Getter function for the number of rentals completed.
+         *
+         * @return Rentals completed.
+         */
+        public long getRentals() {
+            return rentals;
+        }
+
+        /**
+         * Getter function for how long the replay took.
+         *
+         * @return Elapsed time in nanoseconds.
+         */
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        /**
+         * This function works out the rentals completed per second.
+         *
+         * @return Throughput
+         */
+        public double getRentalsPerSecond() {
+            return rentals / Math.max(1e-9, elapsedNanos / 1e9);
+        }
+
+        /**
+         * Getter function for the rental latency at the median, 90th, 99th and 99.9th percentiles and the maximum.
+         *
+         * @return Latencies in nanoseconds, each the top of its histogram bucket.
+         */
+        public long[] getPercentileNanos() {
+            return percentileNanos.clone();
+        }
+
+        /**
+         * Getter function for the number of replays that ended mid rental.
+         *
+         * @return Replays whose transcript ran out before its last rental was done.
+         */
+        public long getIncompleteSessions() {
+            return incompleteSessions;
+        }
+
+        /**
+         * This function prints the report.
+         *
+         * @param out Where to print it
+         */
+        public void print(PrintStream out) {
+            out.println("Replayed " + rentals + " rentals in " + elapsedNanos / 1_000_000 + " ms, "
+                    + String.format("%.1f", getRentalsPerSecond()) + " rentals per second");
+            StringBuilder line = new StringBuilder("Rental latency:");
+            for (int p = 0; p < PERCENTILES.length; p++) {
+                line.append(p == 0 ? " " : ", ").append(PERCENTILE_LABELS[p]).append(' ').append(String.format("%.1f", percentileNanos[p] / 1000.0)).append(" us");
+            }
+            out.println(line);
+            if (incompleteSessions > 0) {
+                out.println(incompleteSessions + " replays ended mid rental");
+            }
+        }
+    }
+
+    /**
+     * A clerk session that times each rental and puts its unit back on the shelf once the rental is done.
+     */
+    private static final class TimedSession extends ClerkSession {
+
+        private final Inventory inventory; // Shelf the rented unit goes back on
+        private final LatencyHistogram latencies; // Where each rental's latency is recorded
+        private long rentalStarted; // When the current rental's tool prompt started
+        private String rentedToolCode; // Tool picked for the current rental
+
+        private TimedSession(InputStream in, PrintStream out, Inventory inventory,
+                             LatencyHistogram latencies) {
+            super(in, out);
+            this.inventory = inventory;
+            this.latencies = latencies;
+        }
+
+        @Override
+        public String askForToolSelection(ToolSearchIndex index, Inventory shelf) {
+            rentalStarted = System.nanoTime();
+            rentedToolCode = super.askForToolSelection(index, shelf);
+            return rentedToolCode;
+        }
+
+        @Override
+        public boolean offerToContinue() {
+            boolean another = super.offerToContinue();
+            latencies.record(System.nanoTime() - rentalStarted);
+            inventory.release(rentedToolCode);
+            return another;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package pos;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for verifying the functionality of the ReplayDriver class
+ */
+class ReplayDriverTest {
+
+    // Two rentals: the first tool for 5 days at 10% off with a printout, then a jackhammer found by type
+    private static final byte[] TRANSCRIPT = ("0\n5\n10\n0\n0\n"
+            + "type:jack\n0\n3\n0\n1\n1\n").getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * Creates a store with one unit of each tool.
+     */
+    private static ToolsDB singleUnitStore() throws IOException {
+        return TestCatalogs.load("Ladder,$1.99,Yes,Yes,No\nJackhammer,$2.99,Yes,No,No",
+                "Ladder,Werner,LADW\nJackhammer,DeWalt,JAKD");
+    }
+
+    @Test
+    void replayedManyTimesAgainstOneUnitEach() throws IOException, InterruptedException {
+        ToolsDB store = singleUnitStore();
+        ReplayDriver.Report report = ReplayDriver.replay(store, TRANSCRIPT, 1, 50, null);
+
+        assertEquals(100, report.getRentals());
+        assertEquals(0, report.getIncompleteSessions());
+        assertTrue(report.getRentalsPerSecond() > 0);
+        long[] percentiles = report.getPercentileNanos();
+        for (int p = 1; p < percentiles.length; p++) {
+            assertTrue(percentiles[p] >= percentiles[p - 1]);
+        }
+        assertEquals(1, store.getInventory().getAvailable("LADW"));
+        assertEquals(1, store.getInventory().getAvailable("JAKD"));
+
+        ByteArrayOutputStream printed = new ByteArrayOutputStream();
+        report.print(new PrintStream(printed, true, StandardCharsets.UTF_8));
+        String text = printed.toString(StandardCharsets.UTF_8);
+        assertTrue(text.startsWith("Replayed 100 rentals in "));
+        assertTrue(text.contains("Rental latency: p50 "));
+        assertTrue(text.contains(", max "));
+    }
+
+    @Test
+    void echoShowsThePrompts() throws IOException, InterruptedException {
+        ByteArrayOutputStream echo = new ByteArrayOutputStream();
+        ReplayDriver.replay(singleUnitStore(), TRANSCRIPT, 1, 1, new PrintStream(echo, true, StandardCharsets.UTF_8));
+
+        String transcript = echo.toString(StandardCharsets.UTF_8);
+        assertTrue(transcript.contains("Tool code: JAKD"));
+        assertTrue(transcript.contains("Rental days: 5"));
+    }
+
+    @Test
+    void transcriptEndingMidRental() throws IOException, InterruptedException {
+        ToolsDB store = singleUnitStore();
+        byte[] cutShort = "0\n5\n10\n0\n0\n0\n4\n".getBytes(StandardCharsets.UTF_8);
+        ReplayDriver.Report report = ReplayDriver.replay(store, cutShort, 1, 3, null);
+
+        assertEquals(3, report.getRentals());
+        assertEquals(3, report.getIncompleteSessions());
+        assertEquals(1, store.getInventory().getAvailable("JAKD"));
+    }
+}
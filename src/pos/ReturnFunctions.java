@@ -0,0 +1,158 @@
+package pos;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Utility Class for settling returned rentals and charging late fees
+ *
+ * Adjustments use the same weekday, weekend and holiday rules as checkout. A late return is charged the full
+ * daily rate for every charged day after the due date, up to and including the day it came back; the checkout
+ * discount covered the agreed rental, not the extra days. An early return is refunded the charged days after
+ * the return date that were paid for, at the discounted rate the customer paid.
+ *
+ * Rental agreements keep the daily charge but not which days are charged, so the days are counted under the
+ * tool's weekday, weekend and holiday policy in the catalog on the day it comes back. A catalog change made while
+ * a tool is out applies to its late or unused days, and a tool that has left the catalog is charged every day.
+ */
+public final class ReturnFunctions {
+
+    // Policy for tools that have left the catalog since they were rented, every day is charged
+    private static final int UNKNOWN_TOOL_POLICY =
+            ChargePolicy.WEEKDAY_CHARGE | ChargePolicy.WEEKEND_CHARGE | ChargePolicy.HOLIDAY_CHARGE;
+
+    private ReturnFunctions() {
+    }
+
+    /**
+     * This function checks a tool back in: it works out the adjustment, records the return and puts the unit
+     * back on the shelf. Days are counted under the tool's charge policy in the current catalog, not the one it
+     * was rented under.
+     *
+     * @param toolDirectory Tools the rental came from
+     * @param agreements Store holding the rental agreement
+     * @param agreementId ID of the agreement being returned
+     * @param returnDate Date the tool came back
+     * @return The return with its late fee or refund
+     * @throws IOException If the return can't be journaled, in which case nothing changes
+     * @throws IllegalArgumentException If there is no such agreement, or the date is before its checkout
+     * @throws IllegalStateException If the agreement was already returned
+     */
+    public static RentalReturn returnRental(ToolsDB toolDirectory, AgreementStore agreements, long agreementId,
+                                            LocalDate returnDate) throws IOException {
+        RentalAgreement agreement = agreements.get(agreementId);
+        if (agreement == null) {
+            throw new IllegalArgumentException("No rental agreement " + agreementId);
+        }
+        RentalReturn rentalReturn = settle(agreementId, agreement, returnDate,
+                policyOf(toolDirectory.getCatalog(), agreement.getToolCode()), HolidayCalendar.getDefault());
+
+        agreements.recordReturn(agreementId, returnDate);
+        toolDirectory.getInventory().release(agreement.getToolCode());
+        return rentalReturn;
+    }
+
+    /**
+     * This function works out what is owed or refunded when a rental comes back.
+     *
+     * @param agreementId ID of the agreement being returned
+     * @param agreement Agreement the tool was rented under
+     * @param returnDate Date the tool came back
+     * @param policy Packed charge policy of the tool
+     * @param holidays Holidays observed by the store
+     * @return The return with its late fee or refund
+     * @throws IllegalArgumentException If the return date is before the checkout date
+     */
+    public static RentalReturn settle(long agreementId, RentalAgreement agreement, LocalDate returnDate, int policy,
+                                      HolidayCalendar holidays) {
+        if (returnDate.isBefore(agreement.getCheckoutDate())) {
+            throw new IllegalArgumentException("A rental can't be returned before it was checked out");
+        }
+
+        long daysLate = ChronoUnit.DAYS.between(agreement.getDueDate(), returnDate);
+        if (daysLate >= 0) {
+            int lateChargeDays = calcLateChargeDays(agreement, daysLate, policy, holidays);
+            return new RentalReturn(agreementId, agreement, returnDate, lateChargeDays,
+                    agreement.getDailyRentalCharge().times(lateChargeDays));
+        }
+
+        int unusedChargeDays = CheckoutFunctions.getChargeDayTables()
+                .calcChargeDays(returnDate, (int) -daysLate, policy, holidays);
+        long unusedCharge = Math.multiplyExact(agreement.getDailyRentalCharge().getCents(), unusedChargeDays);
+        long refund = unusedCharge - Money.percentOf(unusedCharge, agreement.getDiscountPercent());
+        refund = Math.min(refund, agreement.getFinalCharge().getCents());
+        return new RentalReturn(agreementId, agreement, returnDate, -unusedChargeDays, Money.ofCents(-refund));
+    }
+
+    /**
+     * This function works out the late fee an open rental has run up so far.
+     *
+     * @param agreement Agreement the tool was rented under
+     * @param asOf Day to charge up to, inclusive
+     * @param policy Packed charge policy of the tool
+     * @param holidays Holidays observed by the store
+     * @return Late fee in cents, 0 if the rental isn't late
+     */
+    public static long calcLateFeeCents(RentalAgreement agreement, LocalDate asOf, int policy,
+                                        HolidayCalendar holidays) {
+        long daysLate = asOf.toEpochDay() - agreement.getDueDate().toEpochDay();
+        if (daysLate <= 0) {
+            return 0;
+        }
+        return Math.multiplyExact(agreement.getDailyRentalCharge().getCents(),
+                calcLateChargeDays(agreement, daysLate, policy, holidays));
+    }
+
+    /**
+     * This function works out the late fees of every open overdue rental, spreading the work across the common
+     * fork join pool.
+     *
+     * @param agreements Store holding the rental agreements
+     * @param catalog Catalog to look up each tool's charge policy in
+     * @param asOf Day to charge up to, rentals due on this day aren't late yet
+     * @param holidays Holidays observed by the store
+     * @return The late fee of each overdue rental
+     */
+    public static LateFeeReport calcLateFees(AgreementStore agreements, ToolCatalog catalog, LocalDate asOf,
+                                             HolidayCalendar holidays) {
+        Map<String, Integer> policies = new HashMap<>();
+        for (String toolCode : catalog.getToolCodes()) {
+            policies.put(toolCode, ChargePolicy.of(catalog.getTool(toolCode)));
+        }
+
+        long[] ids = agreements.overdueIdsAsOf(asOf).parallel().toArray();
+        long[] feeCents = new long[ids.length];
+        IntStream.range(0, ids.length).parallel().forEach(i -> {
+            RentalAgreement agreement = agreements.get(ids[i]);
+            int policy = policies.getOrDefault(agreement.getToolCode(), UNKNOWN_TOOL_POLICY);
+            feeCents[i] = calcLateFeeCents(agreement, asOf, policy, holidays);
+        });
+        return new LateFeeReport(asOf, ids, feeCents);
+    }
+
+    /**
+     * This function finds a tool's charge policy, charging every day for tools no longer in the catalog.
+     *
+     * @param catalog Catalog to look the tool up in
+     * @param toolCode Product code of the tool
+     * @return Packed charge policy
+     */
+    public static int policyOf(ToolCatalog catalog, String toolCode) {
+        Tool tool = catalog.getTool(toolCode);
+        return tool == null ? UNKNOWN_TOOL_POLICY : ChargePolicy.of(tool);
+    }
+
+    /**
+     * This function counts the charged days after the due date, the due date standing in for the checkout date
+     * so the first day counted is the day after it.
+     */
+    private static int calcLateChargeDays(RentalAgreement agreement, long daysLate, int policy,
+                                          HolidayCalendar holidays) {
+        return CheckoutFunctions.getChargeDayTables()
+                .calcChargeDays(agreement.getDueDate(), Math.toIntExact(daysLate), policy, holidays);
+    }
+}
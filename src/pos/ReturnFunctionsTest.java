@@ -0,0 +1,146 @@
+package pos;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for verifying the functionality of the ReturnFunctions class
+ */
+class ReturnFunctionsTest {
+
+    private static final Tool ladder = new Tool("Ladder", "Werner", "LADW", 1.99, true, true, false);
+    private static final Tool chainsaw = new Tool("Chainsaw", "Stihl", "CHNS", 1.49, true, false, true);
+    private static final Tool jackhammer = new Tool("Jackhammer", "Ridgid", "JAKR", 2.99, true, false, false);
+
+    private static ToolsDB newToolsDB() throws IOException {
+        return TestCatalogs.load("Ladder,$1.99,Yes,Yes,No\nJackhammer,$2.99,Yes,No,No",
+                "Ladder,Werner,LADW,1\nJackhammer,Ridgid,JAKR,3");
+    }
+
+    @Test
+    void onTimeReturn() {
+        RentalAgreement agreement = CheckoutFunctions.checkout(ladder, LocalDate.of(2020, 7, 2), 3, 10);
+        RentalReturn rentalReturn = ReturnFunctions.settle(7, agreement, LocalDate.of(2020, 7, 5),
+                ChargePolicy.of(ladder), HolidayCalendar.getDefault());
+
+        assertEquals(7, rentalReturn.getAgreementId());
+        assertEquals(0, rentalReturn.getAdjustmentChargeDays());
+        assertEquals(Money.ZERO, rentalReturn.getAdjustment());
+        assertEquals("Rental agreement: 7\nTool code: LADW\nDue date: 07/05/2020\nReturn date: 07/05/2020\n"
+                + "Nothing further is owed\n", rentalReturn.printRentalReturn());
+    }
+
+    @Test
+    void lateReturnUsesChargeRules() {
+        // Jackhammer due Thursday 07/02/2020, back Tuesday 07/07: the weekend is free and 07/03 is the
+        // observed Independence Day, leaving Monday and Tuesday
+        RentalAgreement agreement = CheckoutFunctions.checkout(jackhammer, LocalDate.of(2020, 6, 29), 3, 50);
+        RentalReturn rentalReturn = ReturnFunctions.settle(0, agreement, LocalDate.of(2020, 7, 7),
+                ChargePolicy.of(jackhammer), HolidayCalendar.getDefault());
+
+        assertEquals(2, rentalReturn.getAdjustmentChargeDays());
+        // The checkout discount doesn't cover late days
+        assertEquals(Money.parse("$5.98"), rentalReturn.getAdjustment());
+        assertTrue(rentalReturn.printRentalReturn().contains("Late fee: $5.98"));
+    }
+
+    @Test
+    void earlyReturnRefundsUnusedDays() {
+        // Chainsaw out 09/03/2015 for 7 days, due Thursday 09/10, back Monday 09/07 (Labor Day, charged)
+        RentalAgreement agreement = CheckoutFunctions.checkout(chainsaw, LocalDate.of(2015, 9, 3), 7, 20);
+        RentalReturn rentalReturn = ReturnFunctions.settle(0, agreement, LocalDate.of(2015, 9, 7),
+                ChargePolicy.of(chainsaw), HolidayCalendar.getDefault());
+
+        // 09/08, 09/09 and 09/10 were paid for and not used, refunded at the 20% discounted rate
+        assertEquals(-3, rentalReturn.getAdjustmentChargeDays());
+        long unused = 3 * 149;
+        assertEquals(-(unused - Money.percentOf(unused, 20)), rentalReturn.getAdjustment().getCents());
+
+        // Back the day it went out: everything paid comes back
+        rentalReturn = ReturnFunctions.settle(0, agreement, LocalDate.of(2015, 9, 3),
+                ChargePolicy.of(chainsaw), HolidayCalendar.getDefault());
+        assertEquals(-agreement.getChargeDays(), rentalReturn.getAdjustmentChargeDays());
+        assertEquals(-agreement.getFinalCharge().getCents(), rentalReturn.getAdjustment().getCents());
+
+        assertThrows(IllegalArgumentException.class, () -> ReturnFunctions.settle(0, agreement,
+                LocalDate.of(2015, 9, 2), ChargePolicy.of(chainsaw), HolidayCalendar.getDefault()));
+    }
+
+    @Test
+    void lateFeeMatchesSettledReturn() {
+        HolidayCalendar holidays = HolidayCalendar.getDefault();
+        for (int policy = 0; policy < ChargePolicy.COUNT; policy++) {
+            Tool tool = new Tool("Tool", "Brand", "TOOL", 2.50, ChargePolicy.isWeekdayCharge(policy),
+                    ChargePolicy.isWeekendCharge(policy), ChargePolicy.isHolidayCharge(policy));
+            RentalAgreement agreement = CheckoutFunctions.checkout(tool, LocalDate.of(2020, 6, 20), 10, 0);
+            for (int late = 0; late < 400; late += 7) {
+                LocalDate returnDate = agreement.getDueDate().plusDays(late);
+                assertEquals(ReturnFunctions.settle(0, agreement, returnDate, policy, holidays).getAdjustment()
+                                .getCents(),
+                        ReturnFunctions.calcLateFeeCents(agreement, returnDate, policy, holidays));
+            }
+        }
+    }
+
+    @Test
+    void nightlyLateFees() throws IOException {
+        AgreementStore agreements = new AgreementStore();
+        ToolCatalog catalog = new CatalogSnapshot(List.of(ladder, jackhammer));
+        LocalDate asOf = LocalDate.of(2021, 3, 1);
+        long expectedTotal = 0;
+        int expectedCount = 0;
+
+        for (int i = 0; i < 5000; i++) {
+            Tool tool = i % 3 == 0 ? jackhammer : i % 3 == 1 ? ladder : chainsaw;
+            RentalAgreement agreement = CheckoutFunctions.checkout(tool, LocalDate.of(2020, 6, 1).plusDays(i % 300),
+                    1 + i % 28, 0);
+            long id = agreements.add(agreement);
+            if (i % 10 == 0) {
+                agreements.recordReturn(id, agreement.getDueDate());
+            } else if (agreement.getDueDate().isBefore(asOf)) {
+                // The chainsaw isn't in the catalog, so every late day is charged
+                int policy = tool == chainsaw ? ChargePolicy.WEEKDAY_CHARGE | ChargePolicy.WEEKEND_CHARGE
+                        | ChargePolicy.HOLIDAY_CHARGE : ChargePolicy.of(tool);
+                expectedTotal += ReturnFunctions.calcLateFeeCents(agreement, asOf, policy,
+                        HolidayCalendar.getDefault());
+                expectedCount++;
+            }
+        }
+
+        LateFeeReport report = ReturnFunctions.calcLateFees(agreements, catalog, asOf, HolidayCalendar.getDefault());
+        assertEquals(asOf, report.getAsOf());
+        assertEquals(expectedCount, report.size());
+        assertEquals(expectedTotal, report.getTotal().getCents());
+        for (int i = 1; i < report.size(); i++) {
+            assertFalse(agreements.get(report.getAgreementId(i)).getDueDate()
+                    .isBefore(agreements.get(report.getAgreementId(i - 1)).getDueDate()));
+        }
+    }
+
+    @Test
+    void returnPutsUnitBack() throws IOException {
+        ToolsDB toolDirectory = newToolsDB();
+        AgreementStore agreements = new AgreementStore();
+        assertTrue(toolDirectory.getInventory().reserve("LADW"));
+        long id = agreements.add(CheckoutFunctions.checkout(ladder, LocalDate.of(2020, 7, 2), 3, 0));
+        assertEquals(0, toolDirectory.getInventory().getAvailable("LADW"));
+
+        RentalReturn rentalReturn = ReturnFunctions.returnRental(toolDirectory, agreements, id,
+                LocalDate.of(2020, 7, 6));
+        assertEquals(1, rentalReturn.getAdjustmentChargeDays());
+        assertEquals(1, toolDirectory.getInventory().getAvailable("LADW"));
+        assertFalse(agreements.isOpen(id));
+
+        // A second return changes nothing
+        assertThrows(IllegalStateException.class, () -> ReturnFunctions.returnRental(toolDirectory, agreements, id,
+                LocalDate.of(2020, 7, 7)));
+        assertEquals(1, toolDirectory.getInventory().getAvailable("LADW"));
+        assertThrows(IllegalArgumentException.class, () -> ReturnFunctions.returnRental(toolDirectory, agreements,
+                42, LocalDate.of(2020, 7, 7)));
+    }
+}
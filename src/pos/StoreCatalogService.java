@@ -0,0 +1,186 @@
+package pos;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Serves the catalogs of many stores from one process, such as a regional server.
+ *
+ * Each store is a shard of its own: a ToolsDB loaded from the store's own ToolInfo.csv and ToolsAvailable.csv,
+ * with its own catalog and inventory. The set of stores is fixed when the service is created and is kept in a map
+ * that is never written again, so routing a lookup to its store reads the map and then the store's current
+ * catalog, with no locks and nothing shared between stores. A store reloading swaps in its own new catalog without
+ * holding up lookups at that store or any other.
+ *
+ * Stores are loaded, and reloaded all at once, in parallel on the common fork join pool. Every store's catalogs
+ * are loaded through one CatalogInterner, so the product codes, types, brands and pricing rows stores have in
+ * common are held once for the whole service rather than once per store. Reloading all stores starts a fresh
+ * interner, so values no store carries any more are let go instead of being held for the life of the process.
+ */
+public final class StoreCatalogService implements AutoCloseable {
+
+    public static final String TOOL_INFO_CSV = "ToolInfo.csv"; // Tool info CSV in each store's directory
+    public static final String TOOLS_AVAILABLE_CSV = "ToolsAvailable.csv"; // Tools available CSV, likewise
+
+    private volatile CatalogInterner interner = new CatalogInterner(); // Values the stores' catalogs share
+    private final Map<String, ToolsDB> stores; // Each store's catalog by store ID, never changed once built
+
+    /**
+     * Constructor for the StoreCatalogService class, loading every store's CSVs in parallel.
+     * A store whose CSVs can't be loaded starts with an empty catalog, as a ToolsDB does.
+     *
+     * @param storeDirectories Directory holding each store's ToolInfo.csv and ToolsAvailable.csv, by store ID
+     */
+    public StoreCatalogService(Map<String, Path> storeDirectories) {
+        Map<String, ToolsDB> loaded = storeDirectories.entrySet().parallelStream()
+                .collect(Collectors.toConcurrentMap(Map.Entry::getKey, store -> new ToolsDB(
+                        store.getValue().resolve(TOOL_INFO_CSV).toString(),
+                        store.getValue().resolve(TOOLS_AVAILABLE_CSV).toString(), interner)));
+        this.stores = Collections.unmodifiableMap(new HashMap<>(loaded));
+    }
+
+    /**
+     * This function creates a service for every store under a directory, each subdirectory being one store named
+     * by its store ID.
+     *
+     * @param storesDirectory Directory holding a directory per store
+     * @return The service, with every store loaded
+     * @throws IOException If the directory can't be listed
+     */
+    public static StoreCatalogService fromDirectory(Path storesDirectory) throws IOException {
+        Map<String, Path> storeDirectories = new TreeMap<>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(storesDirectory, Files::isDirectory)) {
+            for (Path store : entries) {
+                storeDirectories.put(String.valueOf(store.getFileName()), store);
+            }
+        }
+        return new StoreCatalogService(storeDirectories);
+    }
+
+    /**
+     * This function retrieves a tool from one store's catalog.
+     *
+     * @param storeId ID of the store
+     * @param toolCode Product code of the tool
+     * @return The tool, or null if there is no such store or the store has no tool with that code
+     */
+    public Tool getToolFromCode(String storeId, String toolCode) {
+        ToolsDB store = stores.get(storeId);
+        return store == null ? null : store.getToolFromCode(toolCode);
+    }
+
+    /**
+     * This function retrieves one store's shard, for its inventory, search index and everything else a ToolsDB
+     * offers.
+     *
+     * @param storeId ID of the store
+     * @return The store's catalog, or null if there is no such store
+     */
+    public ToolsDB getStore(String storeId) {
+        return stores.get(storeId);
+    }
+
+    /**
+     * This function lists the stores served.
+     *
+     * @return Each store ID, sorted
+     */
+    public List<String> getStoreIds() {
+        List<String> storeIds = new ArrayList<>(stores.keySet());
+        Collections.sort(storeIds);
+        return storeIds;
+    }
+
+    /**
+     * This function rebuilds one store's catalog from its CSVs. Other stores are left alone.
+     *
+     * @param storeId ID of the store
+     * @return If the store's catalog was replaced, false if there is no such store or its CSVs couldn't be loaded
+     */
+    public boolean reload(String storeId) {
+        ToolsDB store = stores.get(storeId);
+        return store != null && store.reload(interner);
+    }
+
+    /**
+     * This function rebuilds every store's catalog from its CSVs in parallel, through a fresh interner that
+     * replaces the current one. A store whose CSVs can't be loaded keeps serving its current catalog.
+     *
+     * @return The IDs of the stores that couldn't be reloaded, sorted
+     */
+    public List<String> reloadAll() {
+        CatalogInterner fresh = new CatalogInterner();
+        interner = fresh;
+        List<String> failed = stores.entrySet().parallelStream()
+                .filter(store -> !store.getValue().reload(fresh))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toCollection(ArrayList::new));
+        Collections.sort(failed);
+        return failed;
+    }
+
+    /**
+     * This function starts reloading each store's catalog whenever its CSVs change.
+     *
+     * @throws IOException If any store's CSVs can't be watched, after starting the rest
+     */
+    public void startWatching() throws IOException {
+        IOException failure = null;
+        for (ToolsDB store : stores.values()) {
+            try {
+                store.startWatching();
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Getter function for the values the stores' catalogs share.
+     *
+     * @return The interner stores load through, replaced by every reloadAll
+     */
+    public CatalogInterner getInterner() {
+        return interner;
+    }
+
+    /**
+     * Stops watching every store's CSVs for changes, if startWatching was called.
+     *
+     * @throws IOException If any store's watcher can't be closed, after trying to close the rest
+     */
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (ToolsDB store : stores.values()) {
+            try {
+                store.close();
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
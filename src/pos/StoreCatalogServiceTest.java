@@ -0,0 +1,129 @@
+package pos;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for verifying the functionality of the StoreCatalogService class
+ */
+class StoreCatalogServiceTest {
+
+    private static final String TOOL_INFO = "Ladder,$1.99,Yes,Yes,No\nJackhammer,$2.99,Yes,No,No";
+    private static final String TOOLS_AVAILABLE = "Ladder,Werner,LADW\nJackhammer,DeWalt,JAKD\nJackhammer,Ridgid,JAKR";
+
+    /**
+     * Creates three stores: two with the same tools and prices, and one charging more for ladders.
+     */
+    private static Path threeStores(Path stores) throws IOException {
+        TestCatalogs.write(stores.resolve("001"), TOOL_INFO, TOOLS_AVAILABLE);
+        TestCatalogs.write(stores.resolve("002"), TOOL_INFO, TOOLS_AVAILABLE);
+        TestCatalogs.write(stores.resolve("003"), "Ladder,$2.49,Yes,Yes,No\nChainsaw,$1.49,Yes,No,Yes",
+                "Ladder,Werner,LADW\nChainsaw,Stihl,CHNS");
+        return stores;
+    }
+
+    @Test
+    void routesLookupsToEachStore(@TempDir Path stores) throws IOException {
+        try (StoreCatalogService service = StoreCatalogService.fromDirectory(threeStores(stores))) {
+            assertEquals(List.of("001", "002", "003"), service.getStoreIds());
+
+            assertEquals(199, service.getToolFromCode("001", "LADW").getDailyChargeCents());
+            assertEquals(249, service.getToolFromCode("003", "LADW").getDailyChargeCents());
+            assertEquals("Ridgid", service.getToolFromCode("002", "JAKR").getBrand());
+            assertNull(service.getToolFromCode("003", "JAKR"));
+            assertNull(service.getToolFromCode("004", "LADW"));
+            assertNull(service.getStore("004"));
+
+            // Each store has its own shelf
+            assertTrue(service.getStore("001").getInventory().reserve("LADW"));
+            assertEquals(0, service.getStore("001").getInventory().getAvailable("LADW"));
+            assertEquals(1, service.getStore("002").getInventory().getAvailable("LADW"));
+        }
+    }
+
+    @Test
+    void storesShareWhatTheyHaveInCommon(@TempDir Path stores) throws IOException {
+        try (StoreCatalogService service = StoreCatalogService.fromDirectory(threeStores(stores))) {
+            PrimitiveCatalog first = (PrimitiveCatalog) service.getStore("001").getCatalog();
+            PrimitiveCatalog second = (PrimitiveCatalog) service.getStore("002").getCatalog();
+            PrimitiveCatalog third = (PrimitiveCatalog) service.getStore("003").getCatalog();
+
+            assertSame(first.getCode(first.idOf("JAKR")), second.getCode(second.idOf("JAKR")));
+            assertSame(first.getType(first.idOf("LADW")), third.getType(third.idOf("LADW")));
+            assertSame(first.getBrand(first.idOf("LADW")), third.getBrand(third.idOf("LADW")));
+            assertEquals(2, first.getPricingRowCount());
+
+            // Ladder at two prices, jackhammer and chainsaw
+            assertEquals(4, service.getInterner().getPricingRowCount());
+            // Four product codes, three types and four brands
+            assertEquals(4 + 3 + 4, service.getInterner().getStringCount());
+        }
+    }
+
+    @Test
+    void reloadAllLetsGoOfDroppedValues(@TempDir Path stores) throws IOException {
+        try (StoreCatalogService service = StoreCatalogService.fromDirectory(threeStores(stores))) {
+            CatalogInterner before = service.getInterner();
+            TestCatalogs.write(stores.resolve("003"), TOOL_INFO, "Ladder,Werner,LADW");
+
+            assertEquals(List.of(), service.reloadAll());
+            assertNotSame(before, service.getInterner());
+            // The chainsaw, Stihl and the $2.49 ladder are gone: a ladder and a jackhammer row, and three codes,
+            // two types and three brands are left
+            assertEquals(2, service.getInterner().getPricingRowCount());
+            assertEquals(3 + 2 + 3, service.getInterner().getStringCount());
+
+            // Stores still share after the swap, and a single store reload goes through the new interner
+            PrimitiveCatalog first = (PrimitiveCatalog) service.getStore("001").getCatalog();
+            PrimitiveCatalog third = (PrimitiveCatalog) service.getStore("003").getCatalog();
+            assertSame(first.getBrand(first.idOf("LADW")), third.getBrand(third.idOf("LADW")));
+            assertTrue(service.reload("003"));
+            PrimitiveCatalog reloaded = (PrimitiveCatalog) service.getStore("003").getCatalog();
+            assertSame(first.getCode(first.idOf("LADW")), reloaded.getCode(reloaded.idOf("LADW")));
+            assertEquals(3 + 2 + 3, service.getInterner().getStringCount());
+        }
+    }
+
+    @Test
+    void reloadsStoresSeparately(@TempDir Path stores) throws IOException {
+        try (StoreCatalogService service = StoreCatalogService.fromDirectory(threeStores(stores))) {
+            TestCatalogs.write(stores.resolve("001"), "Ladder,$0.99,Yes,Yes,No\nJackhammer,$2.99,Yes,No,No",
+                    TOOLS_AVAILABLE);
+            ToolCatalog untouched = service.getStore("002").getCatalog();
+
+            assertTrue(service.reload("001"));
+            assertFalse(service.reload("004"));
+            assertEquals(99, service.getToolFromCode("001", "LADW").getDailyChargeCents());
+            assertEquals(199, service.getToolFromCode("002", "LADW").getDailyChargeCents());
+            assertSame(untouched, service.getStore("002").getCatalog());
+
+            // A store whose CSVs are gone keeps its catalog, and the rest still reload
+            Files.delete(TestCatalogs.toolInfo(stores.resolve("003")));
+            assertEquals(List.of("003"), service.reloadAll());
+            assertEquals(249, service.getToolFromCode("003", "LADW").getDailyChargeCents());
+            assertNotSame(untouched, service.getStore("002").getCatalog());
+        }
+    }
+
+    @Test
+    void reloadsStoresWhenTheirFilesChange(@TempDir Path stores) throws IOException, InterruptedException {
+        try (StoreCatalogService service = StoreCatalogService.fromDirectory(threeStores(stores))) {
+            service.startWatching();
+            TestCatalogs.write(stores.resolve("002"), TOOL_INFO, TOOLS_AVAILABLE + "\nLadder,Little Giant,LADL");
+
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (service.getToolFromCode("002", "LADL") == null && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertNotNull(service.getToolFromCode("002", "LADL"));
+            assertNull(service.getToolFromCode("001", "LADL"));
+        }
+    }
+}
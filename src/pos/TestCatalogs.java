@@ -0,0 +1,71 @@
+package pos;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Catalog fixtures for tests that need tools other than the ones in src/testToolInfo.csv and
+ * src/testToolsAvailable.csv.
+ */
+final class TestCatalogs {
+
+    private TestCatalogs() {
+    }
+
+    /**
+     * This function writes a catalog's two CSVs into a directory, replacing any already there.
+     *
+     * @param directory Directory to write to, created if it doesn't exist
+     * @param toolInfo Contents of the tool info CSV
+     * @param toolsAvailable Contents of the tools available CSV
+     */
+    static void write(Path directory, String toolInfo, String toolsAvailable) throws IOException {
+        Files.createDirectories(directory);
+        Files.writeString(toolInfo(directory), toolInfo);
+        Files.writeString(toolsAvailable(directory), toolsAvailable);
+    }
+
+    /**
+     * Getter function for the path of the tool info CSV in a catalog directory.
+     */
+    static Path toolInfo(Path directory) {
+        return directory.resolve(StoreCatalogService.TOOL_INFO_CSV);
+    }
+
+    /**
+     * Getter function for the path of the tools available CSV in a catalog directory.
+     */
+    static Path toolsAvailable(Path directory) {
+        return directory.resolve(StoreCatalogService.TOOLS_AVAILABLE_CSV);
+    }
+
+    /**
+     * This function loads the catalog written into a directory. The CSVs have to stay for reloads.
+     *
+     * @param directory Directory the CSVs were written to
+     * @return A ToolsDB reading the directory's CSVs
+     */
+    static ToolsDB open(Path directory) {
+        return new ToolsDB(toolInfo(directory).toString(), toolsAvailable(directory).toString());
+    }
+
+    /**
+     * This function loads a catalog for a test that never reloads it, deleting the CSVs once they are read.
+     *
+     * @param toolInfo Contents of the tool info CSV
+     * @param toolsAvailable Contents of the tools available CSV
+     * @return A ToolsDB holding the catalog
+     */
+    static ToolsDB load(String toolInfo, String toolsAvailable) throws IOException {
+        Path directory = Files.createTempDirectory("catalog");
+        try {
+            write(directory, toolInfo, toolsAvailable);
+            return open(directory);
+        } finally {
+            Files.deleteIfExists(toolInfo(directory));
+            Files.deleteIfExists(toolsAvailable(directory));
+            Files.delete(directory);
+        }
+    }
+}
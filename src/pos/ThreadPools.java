@@ -0,0 +1,64 @@
+package pos;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Utility Class for creating the executors servers hand their connections to.
+ *
+ * On a JVM with virtual threads every task gets its own virtual thread, so a blocked clerk session only holds
+ * on to a small heap object. The code is built for Java 15, so the virtual thread executor is looked up
+ * reflectively, and older JVMs fall back to a cached pool of daemon platform threads.
+ */
+public final class ThreadPools {
+
+    private ThreadPools() {
+    }
+
+    /**
+     * This function creates an executor that runs every task on a new thread.
+     *
+     * @param name Name prefix for the threads, used when falling back to platform threads
+     * @return The executor, using virtual threads when the JVM has them
+     */
+    public static ExecutorService newThreadPerTaskExecutor(String name) {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(daemonThreads(name));
+        }
+    }
+
+    /**
+     * This function creates a factory for numbered daemon threads.
+     *
+     * @param name Name prefix for the threads
+     * @return The thread factory
+     */
+    public static ThreadFactory daemonThreads(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(task, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * This function checks whether executors from newThreadPerTaskExecutor use virtual threads.
+     *
+     * @return If the JVM has virtual threads
+     */
+    public static boolean hasVirtualThreads() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+}
@@ -1,3 +1,5 @@
+package pos;
+
 /**
  * Class Definition for a Tool Object
  */
@@ -6,7 +8,7 @@ public class Tool {
     private String type; // The type of tool this is
     private String brand; // The brand that makes this tool
     private String code; // The code for this tool
-    private double dailyCharge; // How much this tool costs
+    private long dailyChargeCents; // How much this tool costs, in cents
     private boolean weekdayCharge; // If this tool costs money on weekdays
     private boolean weekendCharge; // If this tool costs money on weekends
     private boolean holidayCharge; // If this tool costs money on holidays
@@ -24,15 +26,37 @@ public class Tool {
      */
     public Tool(String type, String brand, String code, double dailyCharge, boolean weekdayCharge,
                 boolean weekendCharge, boolean holidayCharge) {
+        this(type, brand, code, Money.of(dailyCharge), weekdayCharge, weekendCharge, holidayCharge);
+    }
+
+    /**
+     * Constructor for Tool Objects.
+     *
+     * @param type The type of tool this is
+     * @param brand The brand that makes this tool
+     * @param code The code for this tool
+     * @param dailyCharge How much this tool costs
+     * @param weekdayCharge If this tool costs money on weekdays
+     * @param weekendCharge If this tool costs money on weekends
+     * @param holidayCharge If this tool costs money on holidays
+     */
+    public Tool(String type, String brand, String code, Money dailyCharge, boolean weekdayCharge,
+                boolean weekendCharge, boolean holidayCharge) {
         this.type = type;
         this.brand = brand;
         this.code = code;
-        this.dailyCharge = dailyCharge;
+        this.dailyChargeCents = dailyCharge.getCents();
         this.weekdayCharge = weekdayCharge;
         this.weekendCharge = weekendCharge;
         this.holidayCharge = holidayCharge;
     }
 
+    /**
+     * Constructor for subclasses that read the tool's attributes from somewhere else, overriding every getter.
+     */
+    protected Tool() {
+    }
+
     /**
      * Getter function for the tool's type.
      *
@@ -66,7 +90,16 @@ public class Tool {
      * @return How much this tool costs.
      */
     public double getDailyCharge() {
-        return dailyCharge;
+        return dailyChargeCents / 100.0;
+    }
+
+    /**
+     * Getter function for the tool's daily rental cost in cents, used for pricing.
+     *
+     * @return How much this tool costs, in cents.
+     */
+    public long getDailyChargeCents() {
+        return dailyChargeCents;
     }
 
     /**
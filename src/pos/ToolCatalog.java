@@ -0,0 +1,40 @@
+package pos;
+
+import java.util.List;
+
+/**
+ * A read only set of tools that can be rented, looked up by tool code.
+ * Implementations are immutable, so one can be shared between any number of threads without locking.
+ */
+public interface ToolCatalog {
+
+    /**
+     * This function retrieves the tool with a given product code.
+     *
+     * @param toolCode Product code of the tool
+     * @return The tool, or null if the catalog has no tool with that code
+     */
+    Tool getTool(String toolCode);
+
+    /**
+     * This function retrieves how many units of a tool the store owns.
+     *
+     * @param toolCode Product code of the tool
+     * @return Number of units, 0 if the catalog has no tool with that code
+     */
+    int getUnits(String toolCode);
+
+    /**
+     * This function retrieves every product code in the catalog, in the order they were loaded.
+     *
+     * @return Unmodifiable list of product codes
+     */
+    List<String> getToolCodes();
+
+    /**
+     * This function counts the tools in the catalog.
+     *
+     * @return Number of tools
+     */
+    int size();
+}
@@ -0,0 +1,232 @@
+package pos;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * An index of a catalog for finding tools by the start of their product code, type or brand.
+ *
+ * For each field the index keeps the catalog's tools sorted by that field, ignoring case, and then by product
+ * code. The tools whose field starts with some text are next to each other in that order, so a search is two
+ * binary searches and returns a range of the sorted tools rather than copying them. Results always come back in
+ * the same order and can be read a page at a time.
+ *
+ * An index describes the catalog it was built from. A reloaded catalog needs a new index.
+ */
+public final class ToolSearchIndex {
+
+    /**
+     * The tool attributes that can be searched.
+     */
+    public enum Field {
+        CODE, // Product code
+        TYPE, // Type of tool
+        BRAND // Brand
+    }
+
+    private final ToolCatalog catalog; // Catalog the index was built from
+    private final String[] codes; // Product code of each tool, in catalog order
+    private final String[][] keys; // Upper case text searched in each field, by field ordinal then tool
+    private final int[][] sorted; // Tools in order of each field then code, by field ordinal
+
+    /**
+     * Constructor for the ToolSearchIndex class.
+     *
+     * @param catalog Catalog to index
+     */
+    public ToolSearchIndex(ToolCatalog catalog) {
+        this.catalog = catalog;
+        List<String> toolCodes = catalog.getToolCodes();
+        int count = toolCodes.size();
+        this.codes = toolCodes.toArray(new String[0]);
+
+        // Types and brands repeat, so each distinct one is folded once and shared
+        Map<String, String> folded = new HashMap<>();
+        String[] codeKeys = new String[count];
+        String[] typeKeys = new String[count];
+        String[] brandKeys = new String[count];
+        for (int i = 0; i < count; i++) {
+            Tool tool = catalog.getTool(codes[i]);
+            codeKeys[i] = fold(codes[i]);
+            typeKeys[i] = folded.computeIfAbsent(tool.getType(), ToolSearchIndex::fold);
+            brandKeys[i] = folded.computeIfAbsent(tool.getBrand(), ToolSearchIndex::fold);
+        }
+        this.keys = new String[][]{codeKeys, typeKeys, brandKeys};
+
+        this.sorted = new int[keys.length][];
+        for (int field = 0; field < keys.length; field++) {
+            String[] fieldKeys = keys[field];
+            int[] order = new int[count];
+            for (int i = 0; i < count; i++) {
+                order[i] = i;
+            }
+            mergeSort(order, new int[count], 0, count, fieldKeys);
+            sorted[field] = order;
+        }
+    }
+
+    /**
+     * Getter function for the catalog the index was built from.
+     *
+     * @return The indexed catalog.
+     */
+    public ToolCatalog getCatalog() {
+        return catalog;
+    }
+
+    /**
+     * This function finds the tools whose field starts with some text, ignoring case.
+     *
+     * @param field Field to search
+     * @param prefix Start of the field, empty to match every tool
+     * @return The matching tools, sorted by the field and then by product code
+     */
+    public Matches search(Field field, String prefix) {
+        String key = fold(prefix);
+        String[] fieldKeys = keys[field.ordinal()];
+        int[] order = sorted[field.ordinal()];
+
+        // First tool not sorting before the prefix, then the first after it that doesn't start with it
+        int low = 0;
+        int high = order.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (fieldKeys[order[middle]].compareTo(key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        int from = low;
+        high = order.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (fieldKeys[order[middle]].startsWith(key)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return new Matches(order, from, low);
+    }
+
+    /**
+     * This function counts the tools in the index.
+     *
+     * @return Number of tools
+     */
+    public int size() {
+        return codes.length;
+    }
+
+    private static String fold(String text) {
+        return text.toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Sorts part of an array of tools by key and then by code, keeping it stable.
+     */
+    private void mergeSort(int[] order, int[] scratch, int from, int to, String[] fieldKeys) {
+        if (to - from < 16) {
+            for (int i = from + 1; i < to; i++) {
+                int tool = order[i];
+                int j = i;
+                while (j > from && compare(order[j - 1], tool, fieldKeys) > 0) {
+                    order[j] = order[j - 1];
+                    j--;
+                }
+                order[j] = tool;
+            }
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        mergeSort(order, scratch, from, middle, fieldKeys);
+        mergeSort(order, scratch, middle, to, fieldKeys);
+        if (compare(order[middle - 1], order[middle], fieldKeys) <= 0) {
+            return;
+        }
+        System.arraycopy(order, from, scratch, from, to - from);
+        int left = from;
+        int right = middle;
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < middle && compare(scratch[left], scratch[right], fieldKeys) <= 0)) {
+                order[i] = scratch[left++];
+            } else {
+                order[i] = scratch[right++];
+            }
+        }
+    }
+
+    private int compare(int first, int second, String[] fieldKeys) {
+        int byKey = fieldKeys[first].compareTo(fieldKeys[second]);
+        return byKey != 0 ? byKey : codes[first].compareTo(codes[second]);
+    }
+
+    /**
+     * The tools found by one search, as a range of one of the index's sorted orders.
+     */
+    public final class Matches {
+
+        private final int[] order; // Sorted order the matches are a range of
+        private final int from; // First match in the order
+        private final int to; // One past the last match in the order
+
+        private Matches(int[] order, int from, int to) {
+            this.order = order;
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * This function counts the matches.
+         *
+         * @return Number of matching tools
+         */
+        public int size() {
+            return to - from;
+        }
+
+        /**
+         * This function retrieves the product code of one match.
+         *
+         * @param index Position of the match, from 0 to size() - 1
+         * @return Product code
+         */
+        public String getCode(int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException("Match " + index + " out of bounds for " + size() + " matches");
+            }
+            return codes[order[from + index]];
+        }
+
+        /**
+         * This function counts the pages the matches fill.
+         *
+         * @param pageSize Matches per page
+         * @return Number of pages, 0 if nothing matched
+         */
+        public int getPageCount(int pageSize) {
+            return (size() + pageSize - 1) / pageSize;
+        }
+
+        /**
+         * This function retrieves one page of matches.
+         *
+         * @param page Page number, counting from 0
+         * @param pageSize Matches per page
+         * @return Product codes on the page, empty past the last page
+         */
+        public List<String> getPage(int page, int pageSize) {
+            int first = (int) Math.min((long) page * pageSize, size());
+            int last = Math.min(first + pageSize, size());
+            List<String> codesOnPage = new ArrayList<>(last - first);
+            for (int i = first; i < last; i++) {
+                codesOnPage.add(codes[order[from + i]]);
+            }
+            return codesOnPage;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package pos;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for verifying the functionality of the ToolSearchIndex class
+ */
+class ToolSearchIndexTest {
+
+    /**
+     * Creates an index of the store's four tools.
+     */
+    private static ToolSearchIndex storeIndex() {
+        List<Tool> tools = Arrays.asList(
+                new Tool("Ladder", "Werner", "LADW", 1.99, true, true, false),
+                new Tool("Chainsaw", "Stihl", "CHNS", 1.49, true, false, true),
+                new Tool("Jackhammer", "Ridgid", "JAKR", 2.99, true, false, false),
+                new Tool("Jackhammer", "DeWalt", "JAKD", 2.99, true, false, false));
+        return new ToolSearchIndex(new PrimitiveCatalog(tools, null));
+    }
+
+    @Test
+    void searchEachField() {
+        ToolSearchIndex index = storeIndex();
+        assertEquals(4, index.size());
+
+        ToolSearchIndex.Matches byCode = index.search(ToolSearchIndex.Field.CODE, "ja");
+        assertEquals(List.of("JAKD", "JAKR"), byCode.getPage(0, 10));
+
+        // Tools of one type come back by product code
+        ToolSearchIndex.Matches byType = index.search(ToolSearchIndex.Field.TYPE, "JACK");
+        assertEquals(List.of("JAKD", "JAKR"), byType.getPage(0, 10));
+
+        ToolSearchIndex.Matches byBrand = index.search(ToolSearchIndex.Field.BRAND, "w");
+        assertEquals(List.of("LADW"), byBrand.getPage(0, 10));
+        assertEquals("LADW", byBrand.getCode(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> byBrand.getCode(1));
+    }
+
+    @Test
+    void emptyPrefixMatchesEverythingInOrder() {
+        ToolSearchIndex index = storeIndex();
+        assertEquals(List.of("CHNS", "JAKD", "JAKR", "LADW"),
+                index.search(ToolSearchIndex.Field.CODE, "").getPage(0, 10));
+        assertEquals(List.of("JAKD", "JAKR", "CHNS", "LADW"),
+                index.search(ToolSearchIndex.Field.BRAND, "").getPage(0, 10));
+    }
+
+    @Test
+    void noMatches() {
+        ToolSearchIndex index = storeIndex();
+        ToolSearchIndex.Matches matches = index.search(ToolSearchIndex.Field.CODE, "ZZ");
+        assertEquals(0, matches.size());
+        assertEquals(0, matches.getPageCount(10));
+        assertEquals(List.of(), matches.getPage(0, 10));
+        assertEquals(0, index.search(ToolSearchIndex.Field.TYPE, "Ladders").size());
+        assertEquals(0, new ToolSearchIndex(CatalogSnapshot.EMPTY).search(ToolSearchIndex.Field.CODE, "").size());
+    }
+
+    @Test
+    void pagesOfALargeCatalog() {
+        List<Tool> tools = new ArrayList<>();
+        for (int i = 0; i < 200_000; i++) {
+            tools.add(new Tool("Type" + (i % 50), "Brand" + (i % 13), String.format("T%06d", 199_999 - i),
+                    Money.ofCents(100), true, false, false));
+        }
+        ToolSearchIndex index = new ToolSearchIndex(new PrimitiveCatalog(tools, null));
+
+        ToolSearchIndex.Matches matches = index.search(ToolSearchIndex.Field.CODE, "T0123");
+        assertEquals(100, matches.size());
+        assertEquals(10, matches.getPageCount(10));
+        assertEquals(List.of("T012300", "T012301", "T012302"), matches.getPage(0, 3));
+        assertEquals(List.of("T012390", "T012391"), matches.getPage(45, 2));
+        assertEquals(List.of("T012399"), matches.getPage(33, 3));
+        assertEquals(List.of(), matches.getPage(34, 3));
+
+        // Brand1 is also the start of Brand10, Brand11 and Brand12, each brand's tools sorted by code
+        PrimitiveCatalog catalog = (PrimitiveCatalog) index.getCatalog();
+        ToolSearchIndex.Matches byBrand = index.search(ToolSearchIndex.Field.BRAND, "brand1");
+        assertEquals(15_385 + 3 * 15_384, byBrand.size());
+        for (int i = 1; i < byBrand.size(); i++) {
+            String brand = catalog.getBrand(catalog.idOf(byBrand.getCode(i)));
+            String previousBrand = catalog.getBrand(catalog.idOf(byBrand.getCode(i - 1)));
+            assertTrue(brand.startsWith("Brand1"));
+            int order = previousBrand.compareTo(brand);
+            assertTrue(order < 0 || (order == 0 && byBrand.getCode(i - 1).compareTo(byBrand.getCode(i)) < 0));
+        }
+    }
+}
@@ -1,3 +1,5 @@
+package pos;
+
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
@@ -41,6 +43,9 @@ class ToolTest {
     @Test
     void getDailyCharge() { assertEquals(1.99, testTool.getDailyCharge()); }
 
+    @Test
+    void getDailyChargeCents() { assertEquals(199, testTool.getDailyChargeCents()); }
+
     @Test
     void isWeekdayCharge() { assertTrue(testTool.isWeekdayCharge()); }
 
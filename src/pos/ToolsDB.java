@@ -0,0 +1,329 @@
+package pos;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * This class defines a tool database/directory for the system to create tool objects from.
+ *
+ * Each instance holds its own immutable catalog, published through an atomic reference. Readers never
+ * lock and never wait on a reload: they keep using the snapshot they read until the next lookup picks up the new one.
+ *
+ * Given a snapshot path, the catalog is saved in binary form whenever it is loaded from the CSVs, and later
+ * instances map that file instead of parsing the CSVs as long as neither CSV has changed since. A catalog loaded
+ * from the CSVs is kept as a PrimitiveCatalog, so a large catalog costs a few arrays rather than an object per tool.
+ * The CSVs are read by CatalogCSVReader, and a CSV with a bad row is reported by line and not loaded at all.
+ *
+ * The number of units of each tool is an optional fourth column of the tools available CSV, one if left out.
+ * Units are reserved and released through the instance's Inventory, which is kept in step with every reload.
+ *
+ * Instances share nothing, so a process can serve many stores with one instance each. Given a CatalogInterner,
+ * an instance's catalogs share their strings and pricing rows with every other instance given the same one.
+ */
+public class ToolsDB implements AutoCloseable {
+
+    private final String toolInfoCSVPath; // Path to the CSV file with sale attributes for each tool type
+    private final String toolsAvailableCSVPath; // Path to the CSV file with tools available for rental
+    private final String snapshotPath; // Path to the binary catalog snapshot, null to always load from the CSVs
+    private CatalogInterner interner; // Values shared with other catalogs, null to share nothing, set under reloadLock
+
+    // Catalog currently being served, replaced as a whole on reload
+    private final AtomicReference<ToolCatalog> catalog;
+
+    private final Inventory inventory = new Inventory(); // Units of each tool on the shelf
+
+    private CatalogWatcher watcher; // Reloads the catalog when the CSVs change, null until watching starts
+
+    private final Object reloadLock = new Object(); // Held for a whole reload, so reloads run one at a time
+
+    private volatile ToolSearchIndex searchIndex; // Index of the catalog last searched, null until the first search
+
+    /**
+     * Constructor for the ToolsDB class.
+     *
+     * @param toolInfoCSVPath Path to the CSV file with sale attributes for each tool type
+     * @param toolsAvailableCSVPath Path to the CSV file with tools available for rental
+     */
+    public ToolsDB(String toolInfoCSVPath, String toolsAvailableCSVPath) {
+        this(toolInfoCSVPath, toolsAvailableCSVPath, null, null);
+    }
+
+    /**
+     * Constructor for the ToolsDB class that shares its catalogs' strings and pricing rows with other instances.
+     * The catalog is always loaded from the CSVs.
+     *
+     * @param toolInfoCSVPath Path to the CSV file with sale attributes for each tool type
+     * @param toolsAvailableCSVPath Path to the CSV file with tools available for rental
+     * @param interner Values shared with other instances' catalogs
+     */
+    public ToolsDB(String toolInfoCSVPath, String toolsAvailableCSVPath, CatalogInterner interner) {
+        this(toolInfoCSVPath, toolsAvailableCSVPath, null, interner);
+    }
+
+    /**
+     * Constructor for the ToolsDB class that starts from a binary snapshot when it is up to date.
+     *
+     * @param toolInfoCSVPath Path to the CSV file with sale attributes for each tool type
+     * @param toolsAvailableCSVPath Path to the CSV file with tools available for rental
+     * @param snapshotPath Path to the binary catalog snapshot, written if missing or stale
+     */
+    public ToolsDB(String toolInfoCSVPath, String toolsAvailableCSVPath, String snapshotPath) {
+        this(toolInfoCSVPath, toolsAvailableCSVPath, snapshotPath, null);
+    }
+
+    private ToolsDB(String toolInfoCSVPath, String toolsAvailableCSVPath, String snapshotPath,
+                    CatalogInterner interner) {
+        this.toolInfoCSVPath = toolInfoCSVPath;
+        this.toolsAvailableCSVPath = toolsAvailableCSVPath;
+        this.snapshotPath = snapshotPath;
+        this.interner = interner;
+
+        ToolCatalog initial = openSnapshot();
+        if (initial == null) {
+            try {
+                initial = loadCatalog(false);
+            } catch (IOException | RuntimeException e) {
+                reportLoadFailure(e);
+                initial = CatalogSnapshot.EMPTY;
+            }
+        }
+        this.catalog = new AtomicReference<>(initial);
+        inventory.sync(initial);
+
+        if (initial instanceof MappedCatalog) {
+            verifyInBackground((MappedCatalog) initial);
+        }
+    }
+
+    /**
+     * This function rebuilds the catalog from the CSVs and swaps it in.
+     * If either file can't be read the current catalog keeps being served.
+     *
+     * The watcher, the snapshot check and callers can all ask for a reload, so reloads take turns. Otherwise a
+     * slow load of older files could finish last and replace a newer catalog. The inventory is brought in step
+     * with the new catalog before it is served, so its tools can be reserved as soon as they can be looked up.
+     *
+     * @return If the catalog was replaced
+     */
+    public boolean reload() {
+        synchronized (reloadLock) {
+            try {
+                ToolCatalog loaded = loadCatalog(true);
+                inventory.sync(loaded);
+                catalog.set(loaded);
+                return true;
+            } catch (IOException | RuntimeException e) {
+                reportLoadFailure(e);
+                return false;
+            }
+        }
+    }
+
+    /**
+     * This function rebuilds the catalog from the CSVs through a different interner, which later reloads use too.
+     * The interner is switched to even if the CSVs can't be loaded, so this instance stops adding to the old one.
+     *
+     * @param interner Values shared with other instances' catalogs from now on
+     * @return If the catalog was replaced
+     */
+    public boolean reload(CatalogInterner interner) {
+        synchronized (reloadLock) {
+            this.interner = interner;
+            return reload();
+        }
+    }
+
+    /**
+     * This function starts reloading the catalog whenever either CSV changes.
+     *
+     * @throws IOException If the CSVs' directories can't be watched
+     */
+    public synchronized void startWatching() throws IOException {
+        if (watcher == null) {
+            watcher = new CatalogWatcher(this, Paths.get(toolInfoCSVPath), Paths.get(toolsAvailableCSVPath));
+            watcher.start();
+        }
+    }
+
+    /**
+     * Stops watching the CSVs for changes.
+     *
+     * @throws IOException If the watcher can't be closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (watcher != null) {
+            watcher.close();
+            watcher = null;
+        }
+    }
+
+    /**
+     * This function parses the CSVs into a catalog and rewrites the snapshot from it.
+     *
+     * @param reload If the catalog will replace one already being served, for the flight recorder
+     * @return The loaded catalog
+     * @throws IOException If either CSV can't be read or has a bad row
+     */
+    private PrimitiveCatalog loadCatalog(boolean reload) throws IOException {
+        CatalogLoadEvent event = new CatalogLoadEvent();
+        event.begin();
+        event.source = "csv";
+        event.reload = reload;
+
+        CatalogCSVReader reader = new CatalogCSVReader(Paths.get(toolInfoCSVPath), Paths.get(toolsAvailableCSVPath),
+                interner);
+        PrimitiveCatalog loaded;
+        try {
+            loaded = reader.read();
+            event.succeeded = true;
+        } finally {
+            event.toolInfoRows = reader.getToolInfoRows();
+            event.toolRows = reader.getToolRows();
+            event.commit();
+        }
+
+        if (snapshotPath != null) {
+            try {
+                MappedCatalog.write(Paths.get(snapshotPath), loaded,
+                        Paths.get(toolInfoCSVPath), Paths.get(toolsAvailableCSVPath));
+            } catch (IOException e) {
+                // The CSVs loaded fine, so keep going and parse them again on the next start
+                e.printStackTrace();
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * This function reports why the CSVs couldn't be loaded, listing each bad row when that was the reason.
+     *
+     * @param e What stopped the load
+     */
+    private static void reportLoadFailure(Exception e) {
+        if (!(e instanceof CatalogParseException)) {
+            e.printStackTrace();
+            return;
+        }
+        CatalogParseException parseError = (CatalogParseException) e;
+        System.err.println("Catalog not loaded, " + parseError.getErrorCount() + " bad rows");
+        System.err.println(parseError.getMessage());
+        for (Throwable other : parseError.getSuppressed()) {
+            System.err.println(other.getMessage());
+        }
+        int unlisted = parseError.getErrorCount() - 1 - parseError.getSuppressed().length;
+        if (unlisted > 0) {
+            System.err.println("... and " + unlisted + " more");
+        }
+    }
+
+    /**
+     * This function maps the snapshot if there is one and it was built from the current CSVs.
+     *
+     * @return The mapped catalog, or null if it has to be loaded from the CSVs
+     */
+    private MappedCatalog openSnapshot() {
+        if (snapshotPath == null) {
+            return null;
+        }
+        CatalogLoadEvent event = new CatalogLoadEvent();
+        event.begin();
+        event.source = "snapshot";
+        try {
+            MappedCatalog mapped = MappedCatalog.open(Paths.get(snapshotPath),
+                    Paths.get(toolInfoCSVPath), Paths.get(toolsAvailableCSVPath));
+            if (mapped != null) {
+                event.toolRows = mapped.getToolCodes().size();
+                event.succeeded = true;
+            }
+            return mapped;
+        } catch (IOException | RuntimeException e) {
+            e.printStackTrace();
+            return null;
+        } finally {
+            event.commit();
+        }
+    }
+
+    /**
+     * This function checks a mapped snapshot's body off the startup path.
+     * A damaged snapshot is replaced by reloading from the CSVs, which also rewrites it.
+     *
+     * @param mapped Snapshot currently being served
+     */
+    private void verifyInBackground(MappedCatalog mapped) {
+        Thread verifier = new Thread(() -> {
+            if (!mapped.verify() && catalog.get() == mapped) {
+                System.err.println("Catalog snapshot " + snapshotPath + " is damaged, reloading from CSV");
+                reload();
+            }
+        }, "catalog-snapshot-verifier");
+        verifier.setDaemon(true);
+        verifier.start();
+    }
+
+    /**
+     * This function retrieves the catalog currently being served.
+     *
+     * @return The current catalog
+     */
+    public ToolCatalog getCatalog() {
+        return catalog.get();
+    }
+
+    /**
+     * This function retrieves a search index of the catalog currently being served.
+     * The index is built on first use and again on first use after each reload, so servers that never search
+     * never pay for it.
+     *
+     * @return Index of the current catalog
+     */
+    public ToolSearchIndex getSearchIndex() {
+        ToolCatalog current = catalog.get();
+        ToolSearchIndex index = searchIndex;
+        if (index != null && index.getCatalog() == current) {
+            return index;
+        }
+        synchronized (this) {
+            index = searchIndex;
+            if (index == null || index.getCatalog() != current) {
+                index = new ToolSearchIndex(current);
+                searchIndex = index;
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Getter function for the units of each tool on the shelf.
+     *
+     * @return The inventory kept in step with this catalog
+     */
+    public Inventory getInventory() {
+        return inventory;
+    }
+
+    /**
+     * This function retrieves the desired tool information based on the product code entered.
+     *
+     * @param toolCode Selected tool code
+     * @return A tool object to provide information for checkout
+     */
+    public Tool getToolFromCode(String toolCode) {
+        long started = CheckoutMetrics.start();
+        Tool tool = catalog.get().getTool(toolCode);
+        CheckoutMetrics.lap(CheckoutMetrics.Stage.CATALOG_LOOKUP, started);
+        return tool;
+    }
+
+    /**
+     * This function retrieves all the product codes of available tools, copied into a new array on every call.
+     * To find tools in a large catalog use getSearchIndex instead.
+     *
+     * @return Each product code of the available tools, in the order they were loaded
+     */
+    public String[] getToolsAvailable() {
+        return catalog.get().getToolCodes().toArray(new String[0]);
+    }
+}
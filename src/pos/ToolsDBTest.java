@@ -0,0 +1,133 @@
+package pos;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for verifying the functionality of the ToolDB class
+ */
+class ToolsDBTest {
+
+    private static ToolsDB testDB; // ToolDB to use for testing
+
+    // paths to test CSV files to use
+    private static final String toolInfoCSVPath = "src/testToolInfo.csv";
+    private static final String toolsAvailableCSVPath = "src/testToolsAvailable.csv";
+
+    @BeforeAll
+    static void init() {
+        testDB = new ToolsDB(toolInfoCSVPath, toolsAvailableCSVPath);
+    }
+
+    @Test
+    void getToolFromCode() {
+        Tool actualLadder = testDB.getToolFromCode("LADW");
+
+        Tool expectedLadder = new Tool(
+                "Ladder",
+                "Werner",
+                "LADW",
+                1.99,
+                true,
+                true,
+                false
+        );
+
+        assertEquals(expectedLadder.getType(), actualLadder.getType());
+        assertEquals(expectedLadder.getBrand(), actualLadder.getBrand());
+        assertEquals(expectedLadder.getCode(), actualLadder.getCode());
+        assertEquals(expectedLadder.getDailyCharge(), actualLadder.getDailyCharge());
+        assertEquals(expectedLadder.isWeekdayCharge(), actualLadder.isWeekdayCharge());
+        assertEquals(expectedLadder.isWeekendCharge(), actualLadder.isWeekendCharge());
+        assertEquals(expectedLadder.isHolidayCharge(), actualLadder.isHolidayCharge());
+    }
+
+    @Test
+    void getToolsAvailable() {
+        String[] actualTools = testDB.getToolsAvailable();
+
+        ArrayList<String> expectedTools = new ArrayList<String>();
+        expectedTools.add("LADW");
+        expectedTools.add("CHNS");
+        expectedTools.add("JAKR");
+        expectedTools.add("JAKD");
+
+        for (String actualTool : actualTools) {
+            assertTrue(expectedTools.contains(actualTool));
+        }
+    }
+
+    @Test
+    void instancesAreIndependent() throws IOException {
+        ToolsDB otherStore = TestCatalogs.load("Ladder,$2.49,Yes,Yes,No", "Ladder,Werner,LADW");
+
+        assertEquals(249, otherStore.getToolFromCode("LADW").getDailyChargeCents());
+        assertEquals(199, testDB.getToolFromCode("LADW").getDailyChargeCents());
+        assertNull(otherStore.getToolFromCode("JAKR"));
+    }
+
+    @Test
+    void reload(@TempDir Path directory) throws IOException {
+        TestCatalogs.write(directory, "Ladder,$1.99,Yes,Yes,No", "Ladder,Werner,LADW");
+        ToolsDB store = TestCatalogs.open(directory);
+        ToolCatalog before = store.getCatalog();
+
+        Files.writeString(TestCatalogs.toolInfo(directory), "Ladder,$2.19,Yes,Yes,No");
+        assertTrue(store.reload());
+        assertEquals(219, store.getToolFromCode("LADW").getDailyChargeCents());
+        assertEquals(199, before.getTool("LADW").getDailyChargeCents());
+
+        // A catalog that can't be loaded leaves the current one in place
+        Files.delete(TestCatalogs.toolsAvailable(directory));
+        assertFalse(store.reload());
+        assertEquals(219, store.getToolFromCode("LADW").getDailyChargeCents());
+    }
+
+    @Test
+    void reloadsWhenFilesChange(@TempDir Path directory) throws IOException, InterruptedException {
+        TestCatalogs.write(directory, "Ladder,$1.99,Yes,Yes,No", "Ladder,Werner,LADW");
+
+        try (ToolsDB store = TestCatalogs.open(directory)) {
+            store.startWatching();
+            Files.writeString(TestCatalogs.toolsAvailable(directory), "Ladder,Werner,LADW\nLadder,Little Giant,LADL");
+
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (store.getToolFromCode("LADL") == null && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertNotNull(store.getToolFromCode("LADL"));
+        }
+    }
+
+    @Test
+    void unitCounts(@TempDir Path directory) throws IOException {
+        TestCatalogs.write(directory, "Ladder,$1.99,Yes,Yes,No",
+                "Ladder,Werner,LADW,2\nLadder,Little Giant,LADL\nLadder,Werner,LADW,1");
+        ToolsDB store = TestCatalogs.open(directory);
+
+        assertEquals(3, store.getCatalog().getUnits("LADW"));
+        assertEquals(1, store.getCatalog().getUnits("LADL"));
+        assertEquals(1, testDB.getCatalog().getUnits("JAKD"));
+
+        // Reserved units stay out when the catalog is reloaded with fewer units
+        Inventory inventory = store.getInventory();
+        assertTrue(inventory.reserve("LADW"));
+        assertTrue(inventory.reserve("LADW"));
+        assertEquals(1, inventory.getAvailable("LADW"));
+        Files.writeString(TestCatalogs.toolsAvailable(directory), "Ladder,Werner,LADW,2");
+        assertTrue(store.reload());
+        assertEquals(0, inventory.getAvailable("LADW"));
+        assertFalse(inventory.reserve("LADW"));
+        assertFalse(inventory.reserve("LADL"));
+        inventory.release("LADW");
+        assertEquals(1, inventory.getAvailable("LADW"));
+    }
+}